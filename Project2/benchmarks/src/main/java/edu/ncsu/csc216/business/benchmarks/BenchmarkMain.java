@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The BenchmarkMain class runs the benchmarks with JMH's GC profiler, so
+ * that every result comes with the bytes allocated per operation and the
+ * garbage collections it caused. The arguments are JMH's usual command
+ * line options, such as a pattern naming the benchmarks to run or -p to
+ * pick the sizes.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class BenchmarkMain {
+
+	/**
+	 * Not used, the class only has static members
+	 */
+	private BenchmarkMain() {
+		// no instances
+	}
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args JMH's command line options
+	 * @throws CommandLineOptionException if the options are not valid
+	 * @throws RunnerException if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions line = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder().parent(line).addProfiler(GCProfiler.class).build()).run();
+	}
+}
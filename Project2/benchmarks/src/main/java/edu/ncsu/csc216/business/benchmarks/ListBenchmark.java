@@ -0,0 +1,203 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.ncsu.csc216.business.list_utils.SimpleArrayList;
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.list_utils.SortedLinkedListWithIterator;
+
+/**
+ * The ListBenchmark class measures the operations of the list_utils lists
+ * on lists of 10 to 100000 elements. Each list holds the even numbers from
+ * 0, so there is always an odd number between two elements that can be
+ * added. A benchmark that adds an element takes it out again, so the list
+ * is the same size for every call.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+
+	/**
+	 * The Lists class holds the lists of one size. Each list is only built
+	 * for the benchmarks that use it, as building the largest ones takes a
+	 * while: both lists check every element for a duplicate on each add.
+	 */
+	@State(Scope.Benchmark)
+	public static class Lists {
+
+		/** the number of elements in each list */
+		@Param({"10", "100", "1000", "10000", "100000"})
+		public int size;
+		/** an element in the middle of the lists */
+		Integer middle;
+		/** a number between two elements in the middle of the lists */
+		Integer gap;
+
+		/**
+		 * Picks the elements the benchmarks look for
+		 */
+		@Setup
+		public void pick() {
+			middle = size / 2 * 2;
+			gap = middle + 1;
+		}
+	}
+
+	/**
+	 * The Sorted class holds a SortedLinkedListWithIterator of one size
+	 */
+	@State(Scope.Benchmark)
+	public static class Sorted extends Lists {
+
+		/** the list */
+		SortedLinkedListWithIterator<Integer> list;
+
+		/**
+		 * Builds the list, adding the largest element first so that each
+		 * add puts its element at the head
+		 */
+		@Setup
+		public void build() {
+			list = new SortedLinkedListWithIterator<Integer>();
+			for (int i = size - 1; i >= 0; i--) {
+				list.add(i * 2);
+			}
+		}
+	}
+
+	/**
+	 * The Array class holds a SimpleArrayList of one size
+	 */
+	@State(Scope.Benchmark)
+	public static class Array extends Lists {
+
+		/** the list */
+		SimpleArrayList<Integer> list;
+
+		/**
+		 * Builds the list
+		 */
+		@Setup
+		public void build() {
+			list = new SimpleArrayList<Integer>(size + 1);
+			for (int i = 0; i < size; i++) {
+				list.add(i * 2);
+			}
+		}
+	}
+
+	/**
+	 * Adds an element to the middle of a sorted list and removes it again
+	 *
+	 * @param state the list
+	 * @return the removed element
+	 */
+	@Benchmark
+	public Integer sortedAddRemove(Sorted state) {
+		state.list.add(state.gap);
+		return state.list.remove(state.list.indexOf(state.gap));
+	}
+
+	/**
+	 * Gets the element in the middle of a sorted list
+	 *
+	 * @param state the list
+	 * @return the element
+	 */
+	@Benchmark
+	public Integer sortedGet(Sorted state) {
+		return state.list.get(state.size / 2);
+	}
+
+	/**
+	 * Finds the element in the middle of a sorted list
+	 *
+	 * @param state the list
+	 * @return the position of the element
+	 */
+	@Benchmark
+	public int sortedIndexOf(Sorted state) {
+		return state.list.indexOf(state.middle);
+	}
+
+	/**
+	 * Walks a sorted list from end to end with its iterator
+	 *
+	 * @param state the list
+	 * @param sink takes every element, so that the walk is not optimized away
+	 */
+	@Benchmark
+	public void sortedIterate(Sorted state, Blackhole sink) {
+		SimpleListIterator<Integer> it = state.list.iterator();
+		while (it.hasNext()) {
+			sink.consume(it.next());
+		}
+	}
+
+	/**
+	 * Adds an element to the end of an array list and removes it again
+	 *
+	 * @param state the list
+	 * @return the removed element
+	 */
+	@Benchmark
+	public Integer arrayAddRemove(Array state) {
+		state.list.add(state.gap);
+		return state.list.remove(state.size);
+	}
+
+	/**
+	 * Inserts an element at the front of an array list and removes it again
+	 *
+	 * @param state the list
+	 * @return the removed element
+	 */
+	@Benchmark
+	public Integer arrayInsertFront(Array state) {
+		state.list.add(0, state.gap);
+		return state.list.remove(0);
+	}
+
+	/**
+	 * Gets the element in the middle of an array list
+	 *
+	 * @param state the list
+	 * @return the element
+	 */
+	@Benchmark
+	public Integer arrayGet(Array state) {
+		return state.list.get(state.size / 2);
+	}
+
+	/**
+	 * Finds the element in the middle of an array list
+	 *
+	 * @param state the list
+	 * @return the position of the element
+	 */
+	@Benchmark
+	public int arrayIndexOf(Array state) {
+		return state.list.indexOf(state.middle);
+	}
+}
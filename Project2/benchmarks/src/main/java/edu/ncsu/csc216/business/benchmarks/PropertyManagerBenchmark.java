@@ -0,0 +1,125 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The PropertyManagerBenchmark class measures listing the rental units,
+ * finding a unit by location and creating a lease on a PropertyManager
+ * holding 10 to 100000 leases. As in WireBenchmark, the leases are spread
+ * over enough conference rooms that each holds a few dozen, up to every
+ * room of every floor, each with a client of its own, so the number of
+ * units grows with the number of leases.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyManagerBenchmark {
+
+	/** the number of rooms on a floor */
+	private static final int ROOMS = RentalUnit.MAX_ROOM - RentalUnit.MIN_ROOM + 1;
+	/** the number of leases to put in each room, if there are rooms enough */
+	private static final int LEASES_PER_ROOM = 32;
+	/** the start of the id of each client */
+	private static final String CLIENT = "bench";
+	/** the number of leases the manager holds */
+	@Param({"10", "100", "1000", "10000", "100000"})
+	public int size;
+	/** the manager */
+	private PropertyManager manager;
+	/** the location of the room in the middle */
+	private String location;
+	/** the client of the room in the middle */
+	private String clientId;
+	/** a day no lease of the room in the middle is on */
+	private LocalDate free;
+
+	/**
+	 * Fills a new manager with the benchmark's number of leases, one day
+	 * each, going round the rooms a day at a time
+	 *
+	 * @throws Exception if the manager cannot be filled
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		int units = Math.min(ROOMS * RentalUnit.MAX_FLOOR, (size + LEASES_PER_ROOM - 1) / LEASES_PER_ROOM);
+		manager = new PropertyManager();
+		for (int i = 0; i < units; i++) {
+			manager.addNewClient("Benchmark " + i, CLIENT + i);
+			manager.addNewUnit("C", location(i), ConferenceRoom.MAX_CAPACITY);
+		}
+		for (int i = 0; i < size; i++) {
+			manager.createLease(CLIENT + i % units, location(i % units), PropertyManager.EARLIEST_DATE.plusDays(i / units), 1, 1);
+		}
+		location = location(units / 2);
+		clientId = CLIENT + units / 2;
+		free = PropertyManager.EARLIEST_DATE.plusDays((size + units - 1) / units);
+	}
+
+	/**
+	 * Gets the location of the room with the given number
+	 *
+	 * @param unit the number of the room, from 0
+	 * @return the location, of the form FF-RR
+	 */
+	private static String location(int unit) {
+		return (RentalUnit.MIN_FLOOR + unit / ROOMS) + "-" + (RentalUnit.MIN_ROOM + unit % ROOMS);
+	}
+
+	/**
+	 * Lists every rental unit
+	 *
+	 * @return the descriptions of the units
+	 */
+	@Benchmark
+	public String[] listRentalUnits() {
+		return manager.listRentalUnits();
+	}
+
+	/**
+	 * Finds the room in the middle by its location
+	 *
+	 * @return the room
+	 */
+	@Benchmark
+	public RentalUnit getUnitAtLocation() {
+		return manager.getUnitAtLocation(location);
+	}
+
+	/**
+	 * Creates a lease on a free day of the room in the middle, then cancels it
+	 *
+	 * @return the lease
+	 */
+	@Benchmark
+	public Lease createLease() {
+		Lease lease = manager.createLease(clientId, location, free, 1, 1);
+		manager.cancelLease(lease.getConfirmationNumber());
+		return lease;
+	}
+}
@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.list_utils.SortedList;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.properties.Office;
+import edu.ncsu.csc216.business.model.properties.RentalCapacityException;
+import edu.ncsu.csc216.business.model.properties.RentalDateException;
+import edu.ncsu.csc216.business.model.properties.RentalOutOfServiceException;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The RentalUnitBenchmark class measures reserving, canceling and removing
+ * from service on each kind of rental unit, holding 10 to 500 one person
+ * leases. A hotel suite has room for little more than 500 weekly leases
+ * between the earliest and latest dates, so no kind is measured with more.
+ * Conference rooms and hotel suites hold a lease a day or a week, with the
+ * one in the middle left free for reserve, and offices hold leases a month
+ * apart, round the months, as they share their capacity. Every benchmark
+ * leaves the unit as it found it, except for removing from service, which
+ * is measured on a new unit each time.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalUnitBenchmark {
+
+	/** the number of months leases can be made in */
+	private static final int MONTHS = 120;
+	/** the first Sunday leases can be made on */
+	private static final LocalDate FIRST_SUNDAY = PropertyManager.EARLIEST_DATE.with(
+			TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+	/** the kind of the unit, C for conference room, H for hotel suite or O for office */
+	@Param({"C", "H", "O"})
+	public String kind;
+	/** the number of leases the unit holds */
+	@Param({"10", "100", "500"})
+	public int size;
+	/** the client holding every lease */
+	private Client client;
+	/** the unit */
+	private RentalUnit unit;
+	/** the confirmation number of the lease in the middle of the unit's leases */
+	private int middleNumber;
+
+	/**
+	 * The Fresh class holds a new unit for each call of a benchmark that
+	 * changes the unit too much to put back
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+
+		/** the unit */
+		RentalUnit unit;
+
+		/**
+		 * Builds a new unit
+		 *
+		 * @param benchmark the benchmark whose unit is copied
+		 * @throws Exception if the unit cannot be filled
+		 */
+		@Setup(Level.Invocation)
+		public void build(RentalUnitBenchmark benchmark) throws Exception {
+			unit = benchmark.build();
+		}
+	}
+
+	/**
+	 * Builds the unit the benchmarks share
+	 *
+	 * @throws Exception if the unit cannot be filled
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		client = new Client("Benchmark", "bench");
+		unit = build();
+		SimpleListIterator<Lease> it = unit.leaseIterator();
+		for (int i = 0; i < size / 2; i++) {
+			it.next();
+		}
+		middleNumber = it.next().getConfirmationNumber();
+	}
+
+	/**
+	 * Builds a unit of the benchmark's kind, with numbering of its own,
+	 * holding the benchmark's number of leases
+	 *
+	 * @return the unit
+	 * @throws RentalCapacityException if the unit cannot hold the leases
+	 * @throws RentalDateException if the leases do not fit the unit's dates
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	RentalUnit build() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		RentalUnit built;
+		switch (kind) {
+		case "C":
+			built = new ConferenceRoom("5-10", ConferenceRoom.MAX_CAPACITY);
+			break;
+		case "H":
+			built = new HotelSuite("5-10", HotelSuite.MAX_CAPACITY);
+			break;
+		default:
+			built = new Office("5-10", Office.MAX_CAPACITY);
+			break;
+		}
+		built.setConfirmationNumbering(Lease.newNumbering());
+		for (int i = 0; i <= size; i++) {
+			if (i != size / 2) {
+				built.reserve(client, slot(i), 1, 1);
+			}
+		}
+		return built;
+	}
+
+	/**
+	 * Gets the start date of the lease in the given place
+	 *
+	 * @param index the place of the lease
+	 * @return the start date
+	 */
+	private LocalDate slot(int index) {
+		switch (kind) {
+		case "C":
+			return PropertyManager.EARLIEST_DATE.plusDays(index);
+		case "H":
+			return FIRST_SUNDAY.plusWeeks(index);
+		default:
+			return PropertyManager.EARLIEST_DATE.plusMonths(index % MONTHS);
+		}
+	}
+
+	/**
+	 * Reserves the free place in the middle of the unit's leases, then
+	 * cancels the lease and gives back its number
+	 *
+	 * @return the lease
+	 * @throws Exception if the lease cannot be made
+	 */
+	@Benchmark
+	public Lease reserve() throws Exception {
+		Lease lease = unit.reserve(client, slot(size / 2), 1, 1);
+		unit.cancelLeaseByNumber(lease.getConfirmationNumber());
+		unit.getConfirmationNumbering().release(lease.getConfirmationNumber());
+		return lease;
+	}
+
+	/**
+	 * Cancels the lease in the middle of the unit's leases, then puts it back
+	 *
+	 * @return the lease
+	 */
+	@Benchmark
+	public Lease cancelLeaseByNumber() {
+		Lease lease = unit.cancelLeaseByNumber(middleNumber);
+		unit.addLease(lease);
+		return lease;
+	}
+
+	/**
+	 * Removes a new unit from service from the middle of its leases on
+	 *
+	 * @param fresh the new unit
+	 * @return the removed leases
+	 */
+	@Benchmark
+	public SortedList<Lease> removeFromServiceStarting(Fresh fresh) {
+		return fresh.unit.removeFromServiceStarting(slot(size / 2));
+	}
+}
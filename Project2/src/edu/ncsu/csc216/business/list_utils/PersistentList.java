@@ -0,0 +1,449 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.list_utils;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable list whose changes each return a new list, sharing every
+ * part of the old list they did not touch. The elements are kept in a
+ * balanced tree sized by position, so getting, replacing, inserting and
+ * removing an element all take logarithmic time, and an old list stays
+ * valid, and safe to read from any thread, however the new ones change.
+ *
+ * @param <E> the type of the elements
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public final class PersistentList<E> implements Iterable<E> {
+
+	/** the list with no elements */
+	private static final PersistentList<Object> EMPTY = new PersistentList<Object>(null);
+
+	/** the root of the tree, or null if the list is empty */
+	private final Node<E> root;
+
+	/**
+	 * Constructs a list over a tree
+	 *
+	 * @param root the root of the tree, or null for an empty list
+	 */
+	private PersistentList(Node<E> root) {
+		this.root = root;
+	}
+
+	/**
+	 * Returns the list with no elements
+	 *
+	 * @param <E> the type of the elements
+	 * @return the empty list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentList<E> empty() {
+		return (PersistentList<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a list of the given elements, in the same order
+	 *
+	 * @param <E> the type of the elements
+	 * @param elements the elements, which the list does not hold on to
+	 * @return the list
+	 */
+	public static <E> PersistentList<E> of(E[] elements) {
+		return new PersistentList<E>(build(elements, 0, elements.length));
+	}
+
+	/**
+	 * Returns the number of elements in the list
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Returns whether the list has no elements
+	 *
+	 * @return true if the list is empty
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * Returns the element at the given position
+	 *
+	 * @param index the position of the element
+	 * @return the element
+	 * @throws IndexOutOfBoundsException if index is less than zero or not less than the size
+	 */
+	public E get(int index) {
+		checkIndex(index, size());
+		Node<E> node = root;
+		while (true) {
+			int left = size(node.left);
+			if (index < left) {
+				node = node.left;
+			} else if (index > left) {
+				index -= left + 1;
+				node = node.right;
+			} else {
+				return node.value;
+			}
+		}
+	}
+
+	/**
+	 * Searches a list whose elements are in order of a whole number key for
+	 * the element with the given key
+	 *
+	 * @param keyOf gives the key of an element
+	 * @param key the key to search for
+	 * @return the position of the element with that key, or 
+	 *         (-(insertion point) - 1) if there is none
+	 */
+	public int search(ToLongFunction<? super E> keyOf, long key) {
+		Node<E> node = root;
+		int before = 0;
+		while (node != null) {
+			long at = keyOf.applyAsLong(node.value);
+			if (key < at) {
+				node = node.left;
+			} else if (key > at) {
+				before += size(node.left) + 1;
+				node = node.right;
+			} else {
+				return before + size(node.left);
+			}
+		}
+		return -(before + 1);
+	}
+
+	/**
+	 * Returns a list with the element at the given position replaced
+	 *
+	 * @param index the position of the element
+	 * @param e the new element
+	 * @return the new list
+	 * @throws IndexOutOfBoundsException if index is less than zero or not less than the size
+	 */
+	public PersistentList<E> set(int index, E e) {
+		checkIndex(index, size());
+		return new PersistentList<E>(set(root, index, e));
+	}
+
+	/**
+	 * Returns a list with the element added to the end
+	 *
+	 * @param e the element to add
+	 * @return the new list
+	 */
+	public PersistentList<E> add(E e) {
+		return add(size(), e);
+	}
+
+	/**
+	 * Returns a list with the element inserted at the given position,
+	 * ahead of the element that was there and those after it
+	 *
+	 * @param index the position to insert at
+	 * @param e the element to insert
+	 * @return the new list
+	 * @throws IndexOutOfBoundsException if index is less than zero or greater than the size
+	 */
+	public PersistentList<E> add(int index, E e) {
+		checkIndex(index, size() + 1);
+		return new PersistentList<E>(add(root, index, e));
+	}
+
+	/**
+	 * Returns a list with the element at the given position removed
+	 *
+	 * @param index the position of the element to remove
+	 * @return the new list
+	 * @throws IndexOutOfBoundsException if index is less than zero or not less than the size
+	 */
+	public PersistentList<E> remove(int index) {
+		checkIndex(index, size());
+		return new PersistentList<E>(remove(root, index));
+	}
+
+	/**
+	 * Returns an iterator over the elements in order. The list never 
+	 * changes, so the iterator cannot remove elements.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			/** the nodes whose elements and right trees are still to come, the next on top */
+			private final ArrayDeque<Node<E>> path = leftmost(new ArrayDeque<Node<E>>(), root);
+
+			@Override
+			public boolean hasNext() {
+				return !path.isEmpty();
+			}
+
+			@Override
+			public E next() {
+				if (path.isEmpty()) {
+					throw new NoSuchElementException();
+				}
+				Node<E> node = path.pop();
+				leftmost(path, node.right);
+				return node.value;
+			}
+		};
+	}
+
+	/**
+	 * Copies the elements, in order, into an array
+	 *
+	 * @param array an array to copy into if it is large enough, otherwise 
+	 *        one of the same type is made
+	 * @return the array of the elements
+	 */
+	public E[] toArray(E[] array) {
+		E[] copy = array.length >= size() ? array : Arrays.copyOf(array, size());
+		int i = 0;
+		for (E e : this) {
+			copy[i++] = e;
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns an unmodifiable java.util.List view of the list, whose get 
+	 * takes logarithmic time
+	 *
+	 * @return the view
+	 */
+	public List<E> asList() {
+		return new AbstractList<E>() {
+
+			@Override
+			public E get(int index) {
+				return PersistentList.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return PersistentList.this.size();
+			}
+
+			@Override
+			public Iterator<E> iterator() {
+				return PersistentList.this.iterator();
+			}
+		};
+	}
+
+	/**
+	 * Pushes a node and the nodes down its left side onto a path, so that
+	 * the first of them in order is on top
+	 *
+	 * @param <E> the type of the elements
+	 * @param path the path
+	 * @param node the root of a tree, or null if it is empty
+	 * @return the path
+	 */
+	private static <E> ArrayDeque<Node<E>> leftmost(ArrayDeque<Node<E>> path, Node<E> node) {
+		for (; node != null; node = node.left) {
+			path.push(node);
+		}
+		return path;
+	}
+
+	/**
+	 * Throws if an index is out of range
+	 *
+	 * @param index the index
+	 * @param bound the first index past the range
+	 * @throws IndexOutOfBoundsException if index is less than zero or not less than bound
+	 */
+	private static void checkIndex(int index, int bound) {
+		if (index < 0 || index >= bound) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Builds a balanced tree of part of an array
+	 *
+	 * @param <E> the type of the elements
+	 * @param elements the array
+	 * @param from the first position of the part
+	 * @param to the first position past the part
+	 * @return the root of the tree, or null if the part is empty
+	 */
+	private static <E> Node<E> build(E[] elements, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		return new Node<E>(build(elements, from, mid), elements[mid], build(elements, mid + 1, to));
+	}
+
+	/**
+	 * Returns a tree with the element at the given position replaced
+	 *
+	 * @param <E> the type of the elements
+	 * @param node the root of the tree
+	 * @param index the position, which is in the tree
+	 * @param e the new element
+	 * @return the root of the new tree
+	 */
+	private static <E> Node<E> set(Node<E> node, int index, E e) {
+		int left = size(node.left);
+		if (index < left) {
+			return new Node<E>(set(node.left, index, e), node.value, node.right);
+		} else if (index > left) {
+			return new Node<E>(node.left, node.value, set(node.right, index - left - 1, e));
+		}
+		return new Node<E>(node.left, e, node.right);
+	}
+
+	/**
+	 * Returns a tree with the element inserted at the given position
+	 *
+	 * @param <E> the type of the elements
+	 * @param node the root of the tree, or null if it is empty
+	 * @param index the position, which is at most the size of the tree
+	 * @param e the element to insert
+	 * @return the root of the new tree
+	 */
+	private static <E> Node<E> add(Node<E> node, int index, E e) {
+		if (node == null) {
+			return new Node<E>(null, e, null);
+		}
+		int left = size(node.left);
+		if (index <= left) {
+			return balance(add(node.left, index, e), node.value, node.right);
+		}
+		return balance(node.left, node.value, add(node.right, index - left - 1, e));
+	}
+
+	/**
+	 * Returns a tree with the element at the given position removed
+	 *
+	 * @param <E> the type of the elements
+	 * @param node the root of the tree
+	 * @param index the position, which is in the tree
+	 * @return the root of the new tree, or null if it is empty
+	 */
+	private static <E> Node<E> remove(Node<E> node, int index) {
+		int left = size(node.left);
+		if (index < left) {
+			return balance(remove(node.left, index), node.value, node.right);
+		} else if (index > left) {
+			return balance(node.left, node.value, remove(node.right, index - left - 1));
+		} else if (node.left == null) {
+			return node.right;
+		} else if (node.right == null) {
+			return node.left;
+		}
+		Node<E> first = node.right;
+		while (first.left != null) {
+			first = first.left;
+		}
+		return balance(node.left, first.value, remove(node.right, 0));
+	}
+
+	/**
+	 * Joins two trees and an element between them, rotating once or twice
+	 * if one side has grown two levels taller than the other
+	 *
+	 * @param <E> the type of the elements
+	 * @param left the tree of the elements before
+	 * @param value the element
+	 * @param right the tree of the elements after
+	 * @return the root of the joined tree
+	 */
+	private static <E> Node<E> balance(Node<E> left, E value, Node<E> right) {
+		if (height(left) > height(right) + 1) {
+			if (height(left.left) >= height(left.right)) {
+				return new Node<E>(left.left, left.value, new Node<E>(left.right, value, right));
+			}
+			Node<E> mid = left.right;
+			return new Node<E>(new Node<E>(left.left, left.value, mid.left), mid.value,
+					new Node<E>(mid.right, value, right));
+		}
+		if (height(right) > height(left) + 1) {
+			if (height(right.right) >= height(right.left)) {
+				return new Node<E>(new Node<E>(left, value, right.left), right.value, right.right);
+			}
+			Node<E> mid = right.left;
+			return new Node<E>(new Node<E>(left, value, mid.left), mid.value,
+					new Node<E>(mid.right, right.value, right.right));
+		}
+		return new Node<E>(left, value, right);
+	}
+
+	/**
+	 * Returns the number of elements in a tree
+	 *
+	 * @param node the root of the tree, or null if it is empty
+	 * @return the number of elements
+	 */
+	private static int size(Node<?> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Returns the height of a tree
+	 *
+	 * @param node the root of the tree, or null if it is empty
+	 * @return the height
+	 */
+	private static int height(Node<?> node) {
+		return node == null ? 0 : node.height;
+	}
+
+	/**
+	 * The Node class is one element of the tree with the trees of the
+	 * elements before and after it. Nodes never change once made.
+	 *
+	 * @param <E> the type of the element
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static final class Node<E> {
+
+		/** the tree of the elements before, or null */
+		private final Node<E> left;
+		/** the element */
+		private final E value;
+		/** the tree of the elements after, or null */
+		private final Node<E> right;
+		/** the number of elements in the tree */
+		private final int size;
+		/** the number of levels in the tree */
+		private final int height;
+
+		/**
+		 * Constructs a Node
+		 *
+		 * @param left the tree of the elements before, or null
+		 * @param value the element
+		 * @param right the tree of the elements after, or null
+		 */
+		private Node(Node<E> left, E value, Node<E> right) {
+			this.left = left;
+			this.value = value;
+			this.right = right;
+			this.size = size(left) + size(right) + 1;
+			this.height = Math.max(height(left), height(right)) + 1;
+		}
+	}
+}
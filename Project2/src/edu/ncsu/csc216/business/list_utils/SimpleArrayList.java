@@ -3,6 +3,8 @@
  */
 package edu.ncsu.csc216.business.list_utils;
 
+import java.util.function.Predicate;
+
 /**
  * Implements the SimpleList interface with an array data structure.
  * 
@@ -185,6 +187,30 @@ public class SimpleArrayList<E> implements SimpleList<E> {
 	}
 	
 	
+	/**
+	 * Removes every element that matches the given filter in a single
+	 * pass, keeping the remaining elements in their original order.
+	 * 
+	 * @param filter the test that an element must pass to be removed
+	 * @return the number of elements removed
+	 */
+	@SuppressWarnings("unchecked")
+	public int removeMatching(Predicate<? super E> filter) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!filter.test((E)(list[i]))) {
+				list[kept] = list[i];
+				kept++;
+			}
+		}
+		int removed = size - kept;
+		for (int i = kept; i < size; i++) {
+			list[i] = null;
+		}
+		this.size = kept;
+		return removed;
+	}
+	
 	/**
 	 * Resizes the array to create more storage
 	 */
@@ -15,6 +15,8 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 
 	/** Node object */
 	private Node<E> head;
+	/** the number of Nodes looked at by every operation so far */
+	private long visits;
 	
 	/**
 	 * The Constructor
@@ -36,6 +38,7 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 			current = current.next;
 			count++;
 		}
+		visits += count;
 		return count;
 	}
 
@@ -76,13 +79,20 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 		if (contains(e)) {
 			throw new IllegalArgumentException();
 		}
+		if (head != null) {
+			visits++;
+		}
 		if (head == null || head.value.compareTo(e) >= 0) {
 			head = new Node<E>(e, head);
 		} else {
 			Node<E> current = head;
 			while (current.next != null && current.next.value.compareTo(e) < 0) {
+				visits++;
 				current = current.next;
 			}
+			if (current.next != null) {
+				visits++;
+			}
 			current.next = new Node<E>(e, current.next);
 		}
 		return true;
@@ -114,6 +124,7 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 		for (int i = 0; i < index; i++) {
 			current = current.next;
 		}
+		visits += index + 1;
 		return current.value;
 	}
 
@@ -141,6 +152,7 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 			elem = current.next.value;
 			current.next = current.next.next;
 		}
+		visits += index + 1;
 		return elem;
 	}
 
@@ -169,6 +181,7 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 			}
 			tail = current.next;
 			current.next = null;
+			visits += start;
 		}
 		SortedLinkedListWithIterator<E> tailList = new SortedLinkedListWithIterator<E>();
 		tailList.head = tail;
@@ -183,12 +196,13 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 	 */
 	@Override
 	public int indexOf(E e) {
-		Node<E> current = head;
-		for (int i = 0; i < size(); i++) {
+		int i = 0;
+		for (Node<E> current = head; current != null; current = current.next) {
+			visits++;
 			if (current.value.equals(e)) {
 				return i;
 			}
-			current = current.next;
+			i++;
 		}
 		return -1;
 	}
@@ -214,6 +228,18 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 		}
 	}
 
+	/**
+	 * Gets the number of elements looked at by every operation on the
+	 * list so far, including the steps of its iterators. The count only
+	 * grows, so its difference across an operation is the number of 
+	 * elements that operation looked at.
+	 * 
+	 * @return the number of elements looked at
+	 */
+	public long getVisits() {
+		return visits;
+	}
+	
 	/**
 	 * Creates and returns an iterator for the list
 	 * 
@@ -289,6 +315,7 @@ public class SortedLinkedListWithIterator<E extends Comparable<E>> implements So
 			if (!hasNext()) {
 				throw new NoSuchElementException();
 			}
+			visits++;
 			E value = traveler.value;
 			traveler = traveler.next;
 			return value;
@@ -0,0 +1,247 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.contracts;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The ConfirmationNumberAllocator class hands out confirmation numbers
+ * from its first number up to one less than its first number plus its
+ * capacity, safely across threads. Allocators over disjoint ranges never
+ * hand out the same number, so they can number the Leases of separate
+ * managers that must not collide. Each
+ * thread reserves a block of BLOCK_SIZE numbers at a time from a shared
+ * cursor and then hands them out on its own, so concurrent bookers touch
+ * the shared cursor only once per block. A bitmap with one bit per number
+ * records which numbers belong to live Leases; once the cursor wraps 
+ * around, numbers that are still in use are skipped, so a recycled number
+ * never collides with a live Lease. Numbers handed out by one thread are
+ * in ascending order, but numbers handed out by different threads are not
+ * ordered with respect to each other.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ConfirmationNumberAllocator {
+
+	/** the number of numbers a thread reserves at a time */
+	public static final int BLOCK_SIZE = 64;
+	/** the number of bits in a word of the bitmap */
+	private static final int WORD_BITS = 64;
+	/** the first confirmation number */
+	private final int first;
+	/** the number of confirmation numbers */
+	private final int capacity;
+	/** the position in the range of the first number of the next block to be reserved */
+	private final AtomicInteger cursor;
+	/** changes whenever the reserved blocks must be given up */
+	private final AtomicInteger epoch;
+	/** one bit for each number, set while the number is in use */
+	private final AtomicLongArray inUse;
+	/** the block each thread is handing out numbers from */
+	private final ThreadLocal<Block> blocks;
+	
+	/**
+	 * Constructs an allocator for the numbers from 0 to capacity - 1
+	 * 
+	 * @param capacity the number of confirmation numbers
+	 * @throws IllegalArgumentException if capacity is not positive
+	 */
+	public ConfirmationNumberAllocator(int capacity) {
+		this(0, capacity);
+	}
+	
+	/**
+	 * Constructs an allocator for the numbers from first to first + capacity - 1
+	 * 
+	 * @param first the first confirmation number
+	 * @param capacity the number of confirmation numbers
+	 * @throws IllegalArgumentException if first is negative, if capacity is not
+	 *         positive, or if the last number would overflow
+	 */
+	public ConfirmationNumberAllocator(int first, int capacity) {
+		if (first < 0 || capacity <= 0 || first > Integer.MAX_VALUE - capacity) {
+			throw new IllegalArgumentException();
+		}
+		this.first = first;
+		this.capacity = capacity;
+		this.cursor = new AtomicInteger();
+		this.epoch = new AtomicInteger();
+		this.inUse = new AtomicLongArray((capacity + WORD_BITS - 1) / WORD_BITS);
+		this.blocks = ThreadLocal.withInitial(Block::new);
+	}
+	
+	/**
+	 * Hands out a confirmation number that is not in use and marks it
+	 * as in use.
+	 * 
+	 * @return the confirmation number
+	 * @throws IllegalStateException if every number is in use
+	 */
+	public int allocate() {
+		Block block = blocks.get();
+		for (int tried = 0; tried < capacity; tried++) {
+			if (block.epoch != epoch.get() || block.next >= block.end) {
+				reserve(block);
+			}
+			int index = block.next++;
+			if (claim(index)) {
+				return first + index;
+			}
+		}
+		throw new IllegalStateException("No confirmation numbers are left");
+	}
+	
+	/**
+	 * Marks a number as no longer in use, so that it can be handed out
+	 * again once the cursor comes back around to it.
+	 * 
+	 * @param number the number to release
+	 * @throws IllegalArgumentException if the number is out of range
+	 */
+	public void release(int number) {
+		int index = checkRange(number);
+		long bit = 1L << (index % WORD_BITS);
+		inUse.getAndUpdate(index / WORD_BITS, word -> word & ~bit);
+	}
+	
+	/**
+	 * Marks a number that was given out elsewhere, such as one read from 
+	 * a file, as in use. If the number is at or past the cursor, the cursor
+	 * moves past it so that numbers keep ascending after it.
+	 * 
+	 * @param number the number in use
+	 * @throws IllegalArgumentException if the number is out of range
+	 */
+	public void markInUse(int number) {
+		int index = checkRange(number);
+		claim(index);
+		if (index + 1 < capacity && cursor.getAndAccumulate(index + 1, Math::max) <= index) {
+			epoch.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Returns whether a number is in use
+	 * 
+	 * @param number the number to check
+	 * @return whether the number is in use
+	 * @throws IllegalArgumentException if the number is out of range
+	 */
+	public boolean isInUse(int number) {
+		int index = checkRange(number);
+		return (inUse.get(index / WORD_BITS) & (1L << (index % WORD_BITS))) != 0;
+	}
+	
+	/**
+	 * Gets the number the calling thread would try to hand out next
+	 * 
+	 * @return the next number
+	 */
+	public int peek() {
+		Block block = blocks.get();
+		if (block.epoch == epoch.get() && block.next < block.end) {
+			return first + block.next;
+		}
+		return first + cursor.get();
+	}
+	
+	/**
+	 * Starts numbering over from the given number, forgetting every 
+	 * number that was in use.
+	 * 
+	 * @param next the next number to hand out
+	 * @throws IllegalArgumentException if next is out of range
+	 */
+	public void reset(int next) {
+		checkRange(next);
+		for (int i = 0; i < inUse.length(); i++) {
+			inUse.set(i, 0);
+		}
+		rewind(next);
+	}
+	
+	/**
+	 * Moves the cursor back, or forward, to the given number while keeping
+	 * track of the numbers in use, which are skipped when they come up.
+	 * 
+	 * @param next the next number to hand out
+	 * @throws IllegalArgumentException if next is out of range
+	 */
+	public void rewind(int next) {
+		cursor.set(checkRange(next));
+		epoch.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the first number of the allocator's range
+	 * 
+	 * @return the first number
+	 */
+	public int getFirst() {
+		return this.first;
+	}
+	
+	/**
+	 * Gets the number of numbers in the allocator's range
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	/**
+	 * Reserves the next block of numbers from the shared cursor for 
+	 * the calling thread, wrapping around to 0 at the end of the range.
+	 * 
+	 * @param block the calling thread's block
+	 */
+	private void reserve(Block block) {
+		block.epoch = epoch.get();
+		int start = cursor.getAndUpdate(c -> c + BLOCK_SIZE >= capacity ? 0 : c + BLOCK_SIZE);
+		block.next = start;
+		block.end = Math.min(start + BLOCK_SIZE, capacity);
+	}
+	
+	/**
+	 * Marks a number as in use if it is not already.
+	 * 
+	 * @param index the position of the number in the range
+	 * @return whether the number was free before
+	 */
+	private boolean claim(int index) {
+		long bit = 1L << (index % WORD_BITS);
+		return (inUse.getAndUpdate(index / WORD_BITS, word -> word | bit) & bit) == 0;
+	}
+	
+	/**
+	 * Checks that a number is in the range of the allocator
+	 * 
+	 * @param number the number to check
+	 * @return the position of the number in the range
+	 * @throws IllegalArgumentException if the number is out of range
+	 */
+	private int checkRange(int number) {
+		if (number < first || number - first >= capacity) {
+			throw new IllegalArgumentException();
+		}
+		return number - first;
+	}
+	
+	/**
+	 * The Block class is the range of numbers a thread has reserved.
+	 * 
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Block {
+		
+		/** the position of the next number to hand out */
+		private int next;
+		/** one past the position of the last number of the block */
+		private int end;
+		/** the epoch the block was reserved in */
+		private int epoch = -1;
+	}
+}
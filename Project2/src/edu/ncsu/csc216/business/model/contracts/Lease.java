@@ -4,35 +4,41 @@
 package edu.ncsu.csc216.business.model.contracts;
 
 import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
 import edu.ncsu.csc216.business.model.properties.RentalUnit;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 
 /**
  * The Lease class provides all necessary state and behavior
  * for a Lease object. Leases are stored in lists that are 
- * used my Client and RentalUnit objects.
+ * used my Client and RentalUnit objects. The dates are kept as counts 
+ * of days from the epoch rather than LocalDate objects, and each unit
+ * also indexes the dates of its Leases in an OccupancyIndex.
  * 
  * @author Alex Raum, Walker Clem
  *
  */
 public class Lease implements Comparable<Lease> {
 	
-	/** the confirmation counter for the lease */
-	private static int confirmationCounter;
 	/** the max confirmation number */
 	private static final int MAX_CONF_NUM = 999999;
+	/** hands out the confirmation numbers of new leases on units that have no numbering of their own */
+	private static final ConfirmationNumberAllocator NUMBERS = newNumbering();
 	/** the confirmation number for the lease */
 	private int confirmationNumber;
-	/** the start date of the lease */
-	private LocalDate startDate;
-	/** the end date of the lease */
-	private LocalDate endDate;
+	/** the start date of the lease, as a count of days from the epoch */
+	private int startDay;
+	/** the end date of the lease, as a count of days from the epoch */
+	private int endDay;
 	/** the number of occupants under the lease */
 	private int numOccupants;
 	/** the owner of the lease */
 	private Client owner;
 	/** the property for the lease */
 	private RentalUnit property;
+	/** the place of the lease in the order its client took its leases */
+	private int sequence;
 	
 	/**
 	 * The Lease constructor
@@ -44,7 +50,7 @@ public class Lease implements Comparable<Lease> {
 	 * @param numOccupants the number of occupants for the lease
 	 */
 	public Lease(Client owner, RentalUnit property, LocalDate startDate, LocalDate endDate, int numOccupants) {
-		this(confirmationCounter++, owner, property, startDate, endDate, numOccupants);
+		this(numberingOf(property).allocate(), owner, property, startDate, endDate, numOccupants, false);
 	}
 	
 	/**
@@ -57,20 +63,36 @@ public class Lease implements Comparable<Lease> {
 	 * @param startDate start of the Lease
 	 * @param endDate end of the Lease
 	 * @param numOccupants the number of occupants for the Lease
+	 * @throws IllegalArgumentException if the confirmation number is less
+	 *         than 0 or greater than the MAX_CONF_NUM constant
 	 */
 	public Lease(int confirmationNumber, Client owner, RentalUnit property, LocalDate startDate, LocalDate endDate, int numOccupants) {
-		if (confirmationCounter > MAX_CONF_NUM) {
-			confirmationCounter = 0;
-			confirmationNumber = 0;
-		}
-		if (confirmationNumber > confirmationCounter) {
-			confirmationCounter = confirmationNumber + 1;
+		this(confirmationNumber, owner, property, startDate, endDate, numOccupants, true);
+	}
+	
+	/**
+	 * The constructor both public constructors delegate to. A confirmation
+	 * number that was not handed out by the allocator is marked as in use
+	 * in the numbering of the Lease's unit.
+	 * 
+	 * @param confirmationNumber the confirmation number of the Lease
+	 * @param owner the client for the Lease
+	 * @param property the unit for the Lease
+	 * @param startDate start of the Lease
+	 * @param endDate end of the Lease
+	 * @param numOccupants the number of occupants for the Lease
+	 * @param existing whether the number was given out elsewhere
+	 */
+	private Lease(int confirmationNumber, Client owner, RentalUnit property, LocalDate startDate, 
+			LocalDate endDate, int numOccupants, boolean existing) {
+		if (existing) {
+			numberingOf(property).markInUse(confirmationNumber);
 		}
 		this.confirmationNumber = confirmationNumber;
 		this.owner = owner;
 		this.property = property;
-		this.startDate = startDate;
-		this.endDate = endDate;
+		this.startDay = (int) startDate.toEpochDay();
+		this.endDay = (int) endDate.toEpochDay();
 		this.numOccupants = numOccupants;
 	}
 	
@@ -107,7 +129,7 @@ public class Lease implements Comparable<Lease> {
 	 * @return the start date
 	 */
 	public LocalDate getStart() {
-		return this.startDate;
+		return LocalDate.ofEpochDay(startDay);
 	}
 	
 	/**
@@ -116,7 +138,46 @@ public class Lease implements Comparable<Lease> {
 	 * @return the end date
 	 */
 	public LocalDate getEnd() {
-		return this.endDate;
+		return LocalDate.ofEpochDay(endDay);
+	}
+	
+	/**
+	 * Returns the place of the Lease in the order its client took its
+	 * Leases, which stays the same as the client's other Leases are canceled
+	 * 
+	 * @return the sequence number
+	 */
+	public int getSequence() {
+		return this.sequence;
+	}
+	
+	/**
+	 * Sets the place of the Lease in the order its client took its Leases
+	 * 
+	 * @param sequence the sequence number
+	 */
+	public void setSequence(int sequence) {
+		this.sequence = sequence;
+	}
+	
+	/**
+	 * Returns the start date of the Lease as a count of days from the
+	 * epoch, for comparing dates without creating LocalDate objects
+	 * 
+	 * @return the start day
+	 */
+	public int getStartDay() {
+		return this.startDay;
+	}
+	
+	/**
+	 * Returns the end date of the Lease as a count of days from the
+	 * epoch, for comparing dates without creating LocalDate objects
+	 * 
+	 * @return the end day
+	 */
+	public int getEndDay() {
+		return this.endDay;
 	}
 	
 	/**
@@ -137,10 +198,26 @@ public class Lease implements Comparable<Lease> {
 	 *        date of the lease
 	 */
 	public void setEndDateEarlier(LocalDate date) {
-		if (date.isAfter(endDate) || date.isBefore(startDate)) {
+		int day = (int) date.toEpochDay();
+		if (day > endDay || day < startDay) {
 			throw new IllegalArgumentException();
 		}
-		this.endDate = date;
+		this.endDay = day;
+	}
+	
+	/**
+	 * Sets the end date to a later date
+	 * 
+	 * @param date the new end date
+	 * @throws IllegalArgumentException if the date is before the current 
+	 *         end date
+	 */
+	public void setEndDateLater(LocalDate date) {
+		int day = (int) date.toEpochDay();
+		if (day < endDay) {
+			throw new IllegalArgumentException();
+		}
+		this.endDay = day;
 	}
 	
 	/**
@@ -150,28 +227,125 @@ public class Lease implements Comparable<Lease> {
 	 */
 	public String[] leaseData() {
 		String[] leaseData = new String[6];
-		leaseData[0] = String.format("%06d", this.confirmationNumber) + "";
-		leaseData[1] = this.startDate + " to " + endDate;
-		leaseData[2] = this.numOccupants + "";
-		int num = this.property.getDescription().indexOf("|");
-		leaseData[3] = this.property.getDescription().substring(0, num - 1);
+		StringBuilder text = new StringBuilder();
+		leaseData[0] = RentalRenderer.appendPadded(text, this.confirmationNumber, 6, '0').toString();
+		text.setLength(0);
+		RentalRenderer.appendDate(text, startDay).append(" to ");
+		leaseData[1] = RentalRenderer.appendDate(text, endDay).toString();
+		leaseData[2] = Integer.toString(this.numOccupants);
+		text.setLength(0);
+		leaseData[3] = RentalRenderer.appendUnitName(text, this.property).toString();
 		leaseData[4] = this.owner.getName();
 		leaseData[5] = this.owner.getId();
 		return leaseData;
 	}
 	
 	/**
-	 * Resets the confirmation counter to the given parameter
+	 * Returns the confirmation numbering that Leases on the given unit take
+	 * their numbers from
+	 * 
+	 * @param property the unit, or null
+	 * @return the unit's numbering, or the shared numbering if there is no unit
+	 */
+	private static ConfirmationNumberAllocator numberingOf(RentalUnit property) {
+		return property == null ? NUMBERS : property.getConfirmationNumbering();
+	}
+	
+	/**
+	 * Creates a new, empty confirmation numbering covering every valid 
+	 * confirmation number
+	 * 
+	 * @return the new numbering
+	 */
+	public static ConfirmationNumberAllocator newNumbering() {
+		return new ConfirmationNumberAllocator(MAX_CONF_NUM + 1);
+	}
+	
+	/**
+	 * Creates a new, empty confirmation numbering covering one of several
+	 * equal, disjoint parts of the valid confirmation numbers, so that the
+	 * managers using the different parts never hand out the same number
+	 * 
+	 * @param part which part to cover, from 0
+	 * @param parts the number of parts
+	 * @return the new numbering
+	 * @throws IllegalArgumentException if parts is not positive or part is
+	 *         not between 0 and parts - 1
+	 */
+	public static ConfirmationNumberAllocator newNumbering(int part, int parts) {
+		if (parts < 1 || part < 0 || part >= parts) {
+			throw new IllegalArgumentException();
+		}
+		int size = (MAX_CONF_NUM + 1) / parts;
+		return new ConfirmationNumberAllocator(part * size, part == parts - 1 ? MAX_CONF_NUM + 1 - part * size : size);
+	}
+	
+	/**
+	 * Gets the confirmation numbering shared by every unit that has not 
+	 * been given one of its own, which the static methods of this class use
+	 * 
+	 * @return the shared numbering
+	 */
+	public static ConfirmationNumberAllocator getSharedNumbering() {
+		return NUMBERS;
+	}
+	
+	/**
+	 * Gets the confirmation number the next new Lease made on the calling
+	 * thread will be given, unless that number is in use by then
+	 * 
+	 * @return the current value of the confirmation counter
+	 */
+	public static int getConfirmationCounter() {
+		return NUMBERS.peek();
+	}
+	
+	/**
+	 * Gives back the confirmation number of a Lease that was canceled,
+	 * so that it can be handed out again
+	 * 
+	 * @param confirmationNumber the number to give back
+	 * @throws IllegalArgumentException if the number is less than 0 or 
+	 *         greater than the MAX_CONF_NUM constant
+	 */
+	public static void releaseConfirmationNumber(int confirmationNumber) {
+		NUMBERS.release(confirmationNumber);
+	}
+	
+	/**
+	 * Returns whether a confirmation number is held by a Lease
+	 * 
+	 * @param confirmationNumber the number to check
+	 * @return whether the number is in use
+	 * @throws IllegalArgumentException if the number is less than 0 or 
+	 *         greater than the MAX_CONF_NUM constant
+	 */
+	public static boolean isConfirmationNumberInUse(int confirmationNumber) {
+		return NUMBERS.isInUse(confirmationNumber);
+	}
+	
+	/**
+	 * Moves the confirmation counter back to the given value without 
+	 * forgetting which numbers are in use
+	 * 
+	 * @param newCounter the value to move the counter to
+	 * @throws IllegalArgumentException if the newCounter parameter
+	 *         is less than 0 or greater than the MAX_CONF_NUM constant
+	 */
+	public static void rewindConfirmationNumbering(int newCounter) {
+		NUMBERS.rewind(newCounter);
+	}
+	
+	/**
+	 * Resets the confirmation counter to the given parameter, forgetting
+	 * every confirmation number that was in use
 	 * 
 	 * @param newCounter the value to reset the counter to
 	 * @throws IllegalArgumentException if the newCounter parameter
 	 *         is less than 0 or greater than the MAX_CONF_NUM constant
 	 */
 	public static void resetConfirmationNumbering(int newCounter) {
-		if (newCounter < 0 || newCounter > MAX_CONF_NUM) {
-			throw new IllegalArgumentException();
-		}
-		confirmationCounter = newCounter;
+		NUMBERS.reset(newCounter);
 	}
 	
 	/**
@@ -183,8 +357,8 @@ public class Lease implements Comparable<Lease> {
 	 * @return which Lease is first
 	 */
 	public int compareTo(Lease lease) {
-		if (!startDate.equals(lease.startDate)) {
-			return startDate.compareTo(lease.startDate);
+		if (startDay != lease.startDay) {
+			return Integer.compare(startDay, lease.startDay);
 		} else {
 			return confirmationNumber - lease.confirmationNumber;
 		}
@@ -0,0 +1,94 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.contracts;
+
+import java.time.LocalDate;
+
+/**
+ * The LeaseRequest class describes one reservation in a batch of 
+ * reservations. The Client and RentalUnit are named by their id and
+ * location rather than by their positions in a list, so a request 
+ * means the same thing no matter how the rental units are filtered.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class LeaseRequest {
+
+	/** the id of the client making the request */
+	private String clientId;
+	/** the location of the requested rental unit, in the form FF-RR */
+	private String location;
+	/** the requested start date */
+	private LocalDate start;
+	/** the requested duration (units depending on rental unit type) */
+	private int duration;
+	/** the requested number of occupants */
+	private int people;
+	
+	/**
+	 * Constructor for a LeaseRequest
+	 * 
+	 * @param clientId the id of the client making the request
+	 * @param location the location of the requested rental unit
+	 * @param start the requested start date
+	 * @param duration the requested duration (units depending on rental unit type)
+	 * @param people the requested number of occupants
+	 * @throws IllegalArgumentException if clientId, location or start are null
+	 */
+	public LeaseRequest(String clientId, String location, LocalDate start, int duration, int people) {
+		if (clientId == null || location == null || start == null) {
+			throw new IllegalArgumentException();
+		}
+		this.clientId = clientId;
+		this.location = location;
+		this.start = start;
+		this.duration = duration;
+		this.people = people;
+	}
+	
+	/**
+	 * Gets the id of the client making the request
+	 * 
+	 * @return the client id
+	 */
+	public String getClientId() {
+		return this.clientId;
+	}
+	
+	/**
+	 * Gets the location of the requested rental unit
+	 * 
+	 * @return the location
+	 */
+	public String getLocation() {
+		return this.location;
+	}
+	
+	/**
+	 * Gets the requested start date
+	 * 
+	 * @return the start date
+	 */
+	public LocalDate getStart() {
+		return this.start;
+	}
+	
+	/**
+	 * Gets the requested duration
+	 * 
+	 * @return the duration
+	 */
+	public int getDuration() {
+		return this.duration;
+	}
+	
+	/**
+	 * Gets the requested number of occupants
+	 * 
+	 * @return the number of occupants
+	 */
+	public int getPeople() {
+		return this.people;
+	}
+}
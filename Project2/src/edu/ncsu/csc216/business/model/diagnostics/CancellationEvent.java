@@ -0,0 +1,67 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The CancellationEvent class is the Flight Recorder event for taking a
+ * Lease off a rental unit by its confirmation number, with the number of
+ * Leases the unit's lease list walked over to find and unlink it.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@Name("edu.ncsu.csc216.business.Cancellation")
+@Label("Cancellation")
+@Category({"Wolf High-Rise", "Rental Units"})
+@Description("A lease taken off a rental unit by its confirmation number")
+@StackTrace(false)
+public final class CancellationEvent extends Event {
+
+	/** the kind of the unit */
+	@Label("Unit Kind")
+	private String kind;
+	/** the floor of the unit */
+	@Label("Floor")
+	private int floor;
+	/** the room of the unit */
+	@Label("Room")
+	private int room;
+	/** the confirmation number of the Lease */
+	@Label("Confirmation Number")
+	private int confirmationNumber;
+	/** whether the unit held the Lease */
+	@Label("Found")
+	private boolean found;
+	/** the number of lease list and occupancy index entries looked at */
+	@Label("Entries Examined")
+	@Description("The number of entries of the unit's lease list and occupancy index the cancellation looked at")
+	private int leasesScanned;
+
+	/**
+	 * Fills in the event and commits it. Callers should first check that
+	 * shouldCommit() is true, so nothing is worked out for a disabled event.
+	 *
+	 * @param kind the kind of the unit
+	 * @param floor the floor of the unit
+	 * @param room the room of the unit
+	 * @param confirmationNumber the confirmation number of the Lease
+	 * @param found whether the unit held the Lease
+	 * @param leasesScanned the number of lease list and occupancy index entries looked at
+	 */
+	public void finish(String kind, int floor, int room, int confirmationNumber, boolean found, int leasesScanned) {
+		this.kind = kind;
+		this.floor = floor;
+		this.room = room;
+		this.confirmationNumber = confirmationNumber;
+		this.found = found;
+		this.leasesScanned = leasesScanned;
+		commit();
+	}
+}
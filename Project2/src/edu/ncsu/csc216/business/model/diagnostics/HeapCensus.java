@@ -0,0 +1,575 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Holder;
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Row;
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The HeapCensus class walks the live graph of a PropertyManager and counts
+ * the objects in it and their estimated bytes, by type and by owner, to
+ * tell which part of the model the heap goes to. The walk starts from one
+ * holder at a time: a rental unit, which holds its leases and everything
+ * under them; a client; or the manager, which holds its own lists, indexes
+ * and caches. A walk does not go into another holder, so every object is
+ * counted once, under the holder that keeps it alive.
+ * <p>
+ * Bytes are worked out from the fields of each class, as a 64-bit JVM with
+ * compressed references lays them out: a 12-byte header, 4-byte references
+ * and objects padded to 8 bytes. The classes of the model are walked
+ * field by field; those of the JDK are measured from their size and, for
+ * strings, maps and collections, from their contents.
+ * <p>
+ * The manager is only walked a holder at a time, each in a turn of its
+ * own, so that a census can be taken of a manager in use: see
+ * {@link #take(PropertyManager, Consumer)}.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class HeapCensus {
+
+	/** the bytes of an object's header */
+	private static final int HEADER = 12;
+	/** the bytes of an array's header, with its length */
+	private static final int ARRAY_HEADER = 16;
+	/** the bytes of a reference */
+	private static final int REFERENCE = 4;
+	/** the bytes every object is padded to a multiple of */
+	private static final int ALIGNMENT = 8;
+	/** the bytes of an entry of a hash map or set */
+	private static final int HASH_ENTRY = 32;
+	/** the bytes of an entry of a tree map or set */
+	private static final int TREE_ENTRY = 40;
+	/** the share of a hash table's buckets that may be used before it grows */
+	private static final double LOAD_FACTOR = 0.75;
+	/** the fewest buckets of a hash table */
+	private static final int MIN_BUCKETS = 16;
+	/** the number of units and clients with the most leases that are reported */
+	private static final int LARGEST = 10;
+	/** the last character of Latin-1 */
+	private static final char LATIN_1 = 0xFF;
+	/** the start of the name of every class of the model */
+	private static final String MODEL = "edu.ncsu.csc216.business.model.";
+	/** the start of the name of every class of the lists */
+	private static final String LISTS = "edu.ncsu.csc216.business.list_utils.";
+	/** the owner the clients are counted under */
+	private static final String CLIENTS = "Clients";
+	/** the owner the manager's own objects are counted under */
+	private static final String MANAGER = "Manager";
+	/** orders holders by leases, then by bytes */
+	private static final Comparator<Holder> BY_LEASES =
+			Comparator.comparingInt(Holder::getLeases).thenComparingLong(Holder::getBytes);
+
+	/** the layout of each class met */
+	private HashMap<Class<?>, Layout> layouts = new HashMap<Class<?>, Layout>();
+	/** the label of each type of JDK object, keyed by the field that holds it and then its type */
+	private HashMap<String, HashMap<String, String>> labels = new HashMap<String, HashMap<String, String>>();
+	/** the objects and bytes of each type, keyed by label */
+	private HashMap<String, long[]> types = new HashMap<String, long[]>();
+	/** the objects and bytes of the units of each kind */
+	private TreeMap<String, long[]> kinds = new TreeMap<String, long[]>();
+	/** the objects and bytes of the clients */
+	private long[] clients;
+	/** the objects and bytes of the manager */
+	private long[] manager;
+	/** the units with the most leases, fewest first */
+	private PriorityQueue<Holder> largestUnits = new PriorityQueue<Holder>(BY_LEASES);
+	/** the clients with the most leases, fewest first */
+	private PriorityQueue<Holder> largestClients = new PriorityQueue<Holder>(BY_LEASES);
+	/** the objects met in the walk under way */
+	private IdentityHashMap<Object, Boolean> seen = new IdentityHashMap<Object, Boolean>();
+	/** the objects waiting to be measured in the walk under way */
+	private ArrayDeque<Object> pending = new ArrayDeque<Object>();
+	/** the field that holds each waiting object, or an empty String for the holder */
+	private ArrayDeque<String> holders = new ArrayDeque<String>();
+	/** whether the walk under way counts the leases it meets */
+	private boolean ownsLeases;
+	/** whether the walk under way counts the confirmation numbering it meets */
+	private boolean ownsNumbering;
+	/** the objects counted by the walk under way */
+	private long walkObjects;
+	/** the bytes counted by the walk under way */
+	private long walkBytes;
+	/** the leases counted by the walk under way */
+	private int walkLeases;
+
+	/**
+	 * Takes a census of a manager in turns, so that it can be taken while the
+	 * manager is in use. The first turn finds the units and clients; then
+	 * each unit, each client and finally the manager's own objects are
+	 * walked in a turn of their own. The given runner runs each turn while
+	 * holding the manager in whatever way its other users do, such as with a
+	 * lock, and lets it go between turns, so bookings are held up for no
+	 * longer than one unit takes to walk. Each holder is counted as it
+	 * stood in its turn; a unit or client added after the first turn is
+	 * left out.
+	 *
+	 * @param manager the manager
+	 * @param turns runs each turn while holding the manager
+	 * @return the report of the census
+	 * @throws IllegalArgumentException if manager or turns is null
+	 */
+	public static HeapReport take(PropertyManager manager, Consumer<Runnable> turns) {
+		if (manager == null || turns == null) {
+			throw new IllegalArgumentException();
+		}
+		HeapCensus census = new HeapCensus();
+		ArrayList<RentalUnit> units = new ArrayList<RentalUnit>();
+		ArrayList<Client> clients = new ArrayList<Client>();
+		turns.accept(() -> {
+			SimpleListIterator<RentalUnit> it = manager.rentalUnitIterator();
+			while (it.hasNext()) {
+				units.add(it.next());
+			}
+			for (int i = 0; i < manager.getClientCount(); i++) {
+				clients.add(manager.getClientAt(i));
+			}
+		});
+		for (RentalUnit unit : units) {
+			turns.accept(() -> census.countUnit(unit));
+		}
+		for (Client client : clients) {
+			turns.accept(() -> census.countClient(client));
+		}
+		turns.accept(() -> census.countManager(manager));
+		return census.report();
+	}
+
+	/**
+	 * Takes a census of a manager in one go, on the thread that uses it
+	 *
+	 * @param manager the manager
+	 * @return the report of the census
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public static HeapReport take(PropertyManager manager) {
+		return take(manager, Runnable::run);
+	}
+
+	/**
+	 * Counts a rental unit and everything it holds, including its leases
+	 *
+	 * @param unit the unit
+	 */
+	public void countUnit(RentalUnit unit) {
+		walk(unit, true, false);
+		add(kinds.computeIfAbsent(unit.getKindLabel(), k -> new long[2]));
+		String location = String.format("%02d-%d", unit.getFloor(), unit.getRoom());
+		offer(largestUnits, new Holder(location, unit.getKindLabel(), walkLeases, walkBytes));
+	}
+
+	/**
+	 * Counts a client and everything it holds but its leases, which its
+	 * units hold
+	 *
+	 * @param client the client
+	 */
+	public void countClient(Client client) {
+		walk(client, false, false);
+		if (clients == null) {
+			clients = new long[2];
+		}
+		add(clients);
+		offer(largestClients, new Holder(client.getId(), null, client.getLeaseCount(), walkBytes));
+	}
+
+	/**
+	 * Counts the manager's own objects, such as its lists, indexes and
+	 * caches, but not its units, clients or leases
+	 *
+	 * @param propertyManager the manager
+	 */
+	public void countManager(PropertyManager propertyManager) {
+		walk(propertyManager, false, true);
+		if (manager == null) {
+			manager = new long[2];
+		}
+		add(manager);
+	}
+
+	/**
+	 * Reports what has been counted so far
+	 *
+	 * @return the report
+	 */
+	public HeapReport report() {
+		List<Row> typeRows = new ArrayList<Row>();
+		for (Map.Entry<String, long[]> entry : types.entrySet()) {
+			typeRows.add(new Row(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+		}
+		typeRows.sort(Comparator.comparingLong(Row::getBytes).reversed().thenComparing(Row::getLabel));
+		List<Row> ownerRows = new ArrayList<Row>();
+		for (Map.Entry<String, long[]> entry : kinds.entrySet()) {
+			ownerRows.add(new Row(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+		}
+		if (clients != null) {
+			ownerRows.add(new Row(CLIENTS, clients[0], clients[1]));
+		}
+		if (manager != null) {
+			ownerRows.add(new Row(MANAGER, manager[0], manager[1]));
+		}
+		return new HeapReport(typeRows, ownerRows, largest(largestUnits), largest(largestClients));
+	}
+
+	/**
+	 * Walks everything a holder keeps alive, measuring each object once
+	 *
+	 * @param holder the unit, client or manager
+	 * @param leases whether the walk counts the leases it meets
+	 * @param numbering whether the walk counts the confirmation numbering it meets
+	 */
+	private void walk(Object holder, boolean leases, boolean numbering) {
+		ownsLeases = leases;
+		ownsNumbering = numbering;
+		walkObjects = 0;
+		walkBytes = 0;
+		walkLeases = 0;
+		seen.clear();
+		seen.put(holder, Boolean.TRUE);
+		pending.push(holder);
+		holders.push("");
+		while (!pending.isEmpty()) {
+			measure(pending.pop(), holders.pop());
+		}
+	}
+
+	/**
+	 * Queues an object to be measured, unless it has been already, it is
+	 * shared by the whole program, or it belongs to another holder
+	 *
+	 * @param object the object, or null
+	 * @param field the field that holds the object
+	 */
+	private void visit(Object object, String field) {
+		if (object == null || seen.containsKey(object) || object instanceof Class || object instanceof Enum
+				|| object instanceof RentalUnit || object instanceof Client || object instanceof PropertyManager
+				|| (object instanceof Lease && !ownsLeases)
+				|| (object instanceof ConfirmationNumberAllocator && !ownsNumbering)) {
+			return;
+		}
+		seen.put(object, Boolean.TRUE);
+		pending.push(object);
+		holders.push(field);
+	}
+
+	/**
+	 * Measures an object and queues the objects it refers to
+	 *
+	 * @param object the object
+	 * @param field the field that holds the object, or an empty String for the holder
+	 */
+	private void measure(Object object, String field) {
+		Class<?> type = object.getClass();
+		long size;
+		String label;
+		if (type.isArray()) {
+			Class<?> component = type.getComponentType();
+			int length = Array.getLength(object);
+			size = align(ARRAY_HEADER + (long) length * sizeOf(component));
+			label = label(type.getSimpleName(), field);
+			if (!component.isPrimitive()) {
+				for (Object element : (Object[]) object) {
+					visit(element, field);
+				}
+			}
+		} else if (object instanceof String) {
+			String s = (String) object;
+			size = layout(type).size + align(ARRAY_HEADER + (isLatin1(s) ? s.length() : 2L * s.length()));
+			label = label("String", field);
+		} else if (isWalked(type)) {
+			Layout layout = layout(type);
+			size = layout.size;
+			label = layout.name;
+			for (int i = 0; i < layout.references.length; i++) {
+				visit(read(layout.references[i], object), layout.fields[i]);
+			}
+		} else if (object instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) object;
+			size = layout(type).size + entries(map, map.size());
+			label = label(type.getSimpleName(), field);
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				visit(entry.getKey(), field);
+				visit(entry.getValue(), field);
+			}
+		} else if (object instanceof Collection) {
+			Collection<?> collection = (Collection<?>) object;
+			size = layout(type).size + entries(collection, collection.size());
+			label = label(type.getSimpleName(), field);
+			for (Object element : collection) {
+				visit(element, field);
+			}
+		} else {
+			size = layout(type).size;
+			label = label(type.isSynthetic() ? "lambda" : type.getSimpleName(), field);
+		}
+		long[] row = types.computeIfAbsent(label, k -> new long[2]);
+		row[0]++;
+		row[1] += size;
+		walkObjects++;
+		walkBytes += size;
+		if (object instanceof Lease) {
+			walkLeases++;
+		}
+	}
+
+	/**
+	 * Adds the walk just made to the counts of its owner
+	 *
+	 * @param owner the objects and bytes of the owner
+	 */
+	private void add(long[] owner) {
+		owner[0] += walkObjects;
+		owner[1] += walkBytes;
+	}
+
+	/**
+	 * Gets the label of an object that is not walked field by field, which
+	 * names the field that holds it, as in "String in RentalUnit.description"
+	 *
+	 * @param type the name of the object's type
+	 * @param field the field that holds the object, or an empty String for the holder
+	 * @return the label
+	 */
+	private String label(String type, String field) {
+		return labels.computeIfAbsent(field, f -> new HashMap<String, String>())
+				.computeIfAbsent(type, t -> field.isEmpty() ? t : t + " in " + field);
+	}
+
+	/**
+	 * Gets the layout of a class, working it out the first time it is met
+	 *
+	 * @param type the class
+	 * @return the layout
+	 */
+	private Layout layout(Class<?> type) {
+		Layout layout = layouts.get(type);
+		if (layout == null) {
+			layout = new Layout(type, isWalked(type));
+			layouts.put(type, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 * Returns whether objects of a class are walked field by field: those of
+	 * the model and its lists, but not their lambdas
+	 *
+	 * @param type the class
+	 * @return whether the class is walked
+	 */
+	private static boolean isWalked(Class<?> type) {
+		return (type.getName().startsWith(MODEL) || type.getName().startsWith(LISTS)) && !type.isSynthetic();
+	}
+
+	/**
+	 * Reads a field of an object
+	 *
+	 * @param field the field, made accessible
+	 * @param object the object
+	 * @return the value of the field
+	 */
+	private static Object read(Field field, Object object) {
+		try {
+			return field.get(object);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Estimates the bytes a map or collection takes for its entries, not
+	 * counting the keys and values themselves
+	 *
+	 * @param container the map or collection
+	 * @param size the number of entries
+	 * @return the bytes
+	 */
+	private static long entries(Object container, int size) {
+		if (container instanceof HashMap || container instanceof HashSet || container instanceof Hashtable
+				|| container instanceof ConcurrentHashMap) {
+			long buckets = size == 0 ? 0
+					: Math.max(MIN_BUCKETS, Long.highestOneBit((long) Math.ceil(size / LOAD_FACTOR) - 1) << 1);
+			return size * (long) HASH_ENTRY + align(ARRAY_HEADER + buckets * REFERENCE);
+		}
+		if (container instanceof TreeMap || container instanceof TreeSet) {
+			return size * (long) TREE_ENTRY;
+		}
+		return align(ARRAY_HEADER + (long) size * REFERENCE);
+	}
+
+	/**
+	 * Returns whether a String is kept as one byte per character, as it is
+	 * when every character is in Latin-1
+	 *
+	 * @param s the String
+	 * @return whether the String is kept in Latin-1
+	 */
+	private static boolean isLatin1(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) > LATIN_1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the bytes a field or array element of a type takes
+	 *
+	 * @param type the type
+	 * @return the bytes
+	 */
+	private static int sizeOf(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return Long.BYTES;
+		} else if (type == int.class || type == float.class) {
+			return Integer.BYTES;
+		} else if (type == short.class || type == char.class) {
+			return Short.BYTES;
+		} else if (type == byte.class || type == boolean.class) {
+			return Byte.BYTES;
+		}
+		return REFERENCE;
+	}
+
+	/**
+	 * Pads a size to a multiple of the alignment
+	 *
+	 * @param size the size
+	 * @return the padded size
+	 */
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	/**
+	 * Offers a holder to those with the most leases, keeping only the largest
+	 *
+	 * @param largest the holders with the most leases, fewest first
+	 * @param holder the holder
+	 */
+	private static void offer(PriorityQueue<Holder> largest, Holder holder) {
+		largest.add(holder);
+		if (largest.size() > LARGEST) {
+			largest.poll();
+		}
+	}
+
+	/**
+	 * Lists the holders with the most leases
+	 *
+	 * @param largest the holders with the most leases, fewest first
+	 * @return the holders, most first
+	 */
+	private static List<Holder> largest(PriorityQueue<Holder> largest) {
+		List<Holder> list = new ArrayList<Holder>(largest);
+		list.sort(BY_LEASES.reversed());
+		return list;
+	}
+
+	/**
+	 * Prints a census of the data in a file from the command line. The
+	 * argument is the name of the file.
+	 *
+	 * @param args the name of the file
+	 */
+	public static void main(String[] args) {
+		if (args.length != 1) {
+			System.err.println("Usage: HeapCensus file");
+			return;
+		}
+		PropertyManager propertyManager = new PropertyManager();
+		RentalReader.readRentalData(args[0], propertyManager);
+		System.out.print(take(propertyManager));
+	}
+
+	/**
+	 * The Layout class is how objects of one class are laid out: their
+	 * size and, for the classes walked field by field, the fields that
+	 * refer to other objects.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Layout {
+
+		/** the label of the objects */
+		private String name;
+		/** the bytes of an object, padded */
+		private long size;
+		/** the fields that refer to other objects, made accessible */
+		private Field[] references;
+		/** the name of each such field, as Class.field */
+		private String[] fields;
+
+		/**
+		 * Works out the layout of a class from its fields and those it
+		 * inherits
+		 *
+		 * @param type the class
+		 * @param walked whether objects of the class are walked field by field
+		 */
+		Layout(Class<?> type, boolean walked) {
+			name = nameOf(type);
+			ArrayList<Field> found = new ArrayList<Field>();
+			long bytes = HEADER;
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers())) {
+						continue;
+					}
+					bytes += sizeOf(field.getType());
+					if (walked && !field.getType().isPrimitive()) {
+						field.setAccessible(true);
+						found.add(field);
+					}
+				}
+			}
+			size = align(bytes);
+			references = found.toArray(new Field[found.size()]);
+			fields = new String[references.length];
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = nameOf(references[i].getDeclaringClass()) + "." + references[i].getName();
+			}
+		}
+
+		/**
+		 * Gets the name of a class without its package, with nested classes
+		 * named after the classes they are in, as in
+		 * "SortedLinkedListWithIterator.Node"
+		 *
+		 * @param type the class
+		 * @return the name
+		 */
+		private static String nameOf(Class<?> type) {
+			String name = type.getName();
+			return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+		}
+	}
+}
@@ -0,0 +1,294 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The HeapReport class is what a HeapCensus found in the graph of a
+ * PropertyManager: the objects and estimated bytes of each type of object,
+ * of the rental units of each kind, of the clients and of the manager's own
+ * indexes, and the units and clients with the most leases. Bytes are
+ * estimated from the fields of each object, so they are close to, but not
+ * exactly, what the JVM holds.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class HeapReport {
+
+	/** the widest label printed for a row */
+	private static final int LABEL = 56;
+
+	/** the rows of each type of object, largest first */
+	private final List<Row> types;
+	/** the rows of the units of each kind, the clients and the manager */
+	private final List<Row> owners;
+	/** the units with the most leases, most first */
+	private final List<Holder> largestUnits;
+	/** the clients with the most leases, most first */
+	private final List<Holder> largestClients;
+	/** the number of objects counted */
+	private final long objects;
+	/** the estimated bytes counted */
+	private final long bytes;
+
+	/**
+	 * Constructs a HeapReport
+	 *
+	 * @param types the rows of each type of object, largest first
+	 * @param owners the rows of the units of each kind, the clients and the manager
+	 * @param largestUnits the units with the most leases, most first
+	 * @param largestClients the clients with the most leases, most first
+	 */
+	HeapReport(List<Row> types, List<Row> owners, List<Holder> largestUnits, List<Holder> largestClients) {
+		this.types = Collections.unmodifiableList(types);
+		this.owners = Collections.unmodifiableList(owners);
+		this.largestUnits = Collections.unmodifiableList(largestUnits);
+		this.largestClients = Collections.unmodifiableList(largestClients);
+		long o = 0;
+		long b = 0;
+		for (Row row : owners) {
+			o += row.getObjects();
+			b += row.getBytes();
+		}
+		this.objects = o;
+		this.bytes = b;
+	}
+
+	/**
+	 * Gets a row for each type of object, such as "Lease" or "String in
+	 * RentalUnit.description"; objects of the JDK are told apart by the
+	 * field they are held in
+	 *
+	 * @return the rows, with the most bytes first
+	 */
+	public List<Row> getTypes() {
+		return types;
+	}
+
+	/**
+	 * Gets a row for the rental units of each kind, with everything they
+	 * hold including their leases, then one for the clients and one for the
+	 * manager's own lists, indexes and caches
+	 *
+	 * @return the rows
+	 */
+	public List<Row> getOwners() {
+		return owners;
+	}
+
+	/**
+	 * Gets the rental units with the most leases
+	 *
+	 * @return the units, with the most leases first
+	 */
+	public List<Holder> getLargestUnits() {
+		return largestUnits;
+	}
+
+	/**
+	 * Gets the clients with the most leases
+	 *
+	 * @return the clients, with the most leases first
+	 */
+	public List<Holder> getLargestClients() {
+		return largestClients;
+	}
+
+	/**
+	 * Gets the number of objects counted
+	 *
+	 * @return the count
+	 */
+	public long getObjects() {
+		return objects;
+	}
+
+	/**
+	 * Gets the estimated bytes of every object counted
+	 *
+	 * @return the bytes
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the report as tables of owners and types, with each row's
+	 * share of the bytes, followed by the largest units and clients
+	 *
+	 * @return the report
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%,d bytes in %,d objects%n", bytes, objects));
+		appendRows(sb, "owner", owners);
+		appendRows(sb, "type", types);
+		appendHolders(sb, "units", largestUnits);
+		appendHolders(sb, "clients", largestClients);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends a table of rows
+	 *
+	 * @param sb the builder to append to
+	 * @param heading the heading of the labels
+	 * @param rows the rows
+	 */
+	private void appendRows(StringBuilder sb, String heading, List<Row> rows) {
+		sb.append(String.format("%n  %-" + LABEL + "s %12s %14s %7s%n", heading, "objects", "bytes", "share"));
+		for (Row row : rows) {
+			String label = row.getLabel();
+			if (label.length() > LABEL) {
+				label = label.substring(0, LABEL - 1) + "~";
+			}
+			sb.append(String.format("  %-" + LABEL + "s %,12d %,14d %6.2f%%%n", label, row.getObjects(),
+					row.getBytes(), bytes == 0 ? 0 : 100.0 * row.getBytes() / bytes));
+		}
+	}
+
+	/**
+	 * Appends a table of the units or clients with the most leases
+	 *
+	 * @param sb the builder to append to
+	 * @param heading what the holders are
+	 * @param holders the holders
+	 */
+	private static void appendHolders(StringBuilder sb, String heading, List<Holder> holders) {
+		sb.append(String.format("%n  largest %-" + (LABEL - 8) + "s %12s %14s%n", heading, "leases", "bytes"));
+		for (Holder holder : holders) {
+			String name = holder.getKind() == null ? holder.getName() : holder.getName() + " " + holder.getKind();
+			sb.append(String.format("  %-" + LABEL + "s %,12d %,14d%n", name, holder.getLeases(), holder.getBytes()));
+		}
+	}
+
+	/**
+	 * The Row class is the number of objects of one type or one owner, and
+	 * their estimated bytes.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Row {
+
+		/** what the objects are */
+		private final String label;
+		/** the number of objects */
+		private final long objects;
+		/** the estimated bytes of the objects */
+		private final long bytes;
+
+		/**
+		 * Constructs a Row
+		 *
+		 * @param label what the objects are
+		 * @param objects the number of objects
+		 * @param bytes the estimated bytes of the objects
+		 */
+		Row(String label, long objects, long bytes) {
+			this.label = label;
+			this.objects = objects;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Gets what the objects are
+		 *
+		 * @return the label
+		 */
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * Gets the number of objects
+		 *
+		 * @return the count
+		 */
+		public long getObjects() {
+			return objects;
+		}
+
+		/**
+		 * Gets the estimated bytes of the objects
+		 *
+		 * @return the bytes
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+	}
+
+	/**
+	 * The Holder class is a rental unit or client with its number of leases
+	 * and the estimated bytes of everything it holds.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Holder {
+
+		/** the location of the unit, in the form FF-RR, or the id of the client */
+		private final String name;
+		/** the kind of the unit, or null for a client */
+		private final String kind;
+		/** the number of leases */
+		private final int leases;
+		/** the estimated bytes held */
+		private final long bytes;
+
+		/**
+		 * Constructs a Holder
+		 *
+		 * @param name the location of the unit, in the form FF-RR, or the id of the client
+		 * @param kind the kind of the unit, or null for a client
+		 * @param leases the number of leases
+		 * @param bytes the estimated bytes held
+		 */
+		Holder(String name, String kind, int leases, long bytes) {
+			this.name = name;
+			this.kind = kind;
+			this.leases = leases;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Gets the location of the unit or the id of the client
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the kind of the unit
+		 *
+		 * @return the kind, such as "Office", or null for a client
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * Gets the number of leases
+		 *
+		 * @return the count
+		 */
+		public int getLeases() {
+			return leases;
+		}
+
+		/**
+		 * Gets the estimated bytes of everything held, including the leases
+		 * of a unit but not those of a client, which its units hold
+		 *
+		 * @return the bytes
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+	}
+}
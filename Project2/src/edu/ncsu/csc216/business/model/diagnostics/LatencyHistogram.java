@@ -0,0 +1,205 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class counts latencies in buckets that grow with
+ * the latency, so that it takes the same small, fixed space however many
+ * latencies are recorded and however long they are. Each power of two is
+ * split into 16 buckets, so a percentile is within 1/16 of the true value.
+ * Latencies are in nanoseconds.
+ * <p>
+ * Any number of threads may record at once. Each bucket is a LongAdder,
+ * made the first time a latency falls in it, so threads recording the
+ * same latency do not contend and the buckets never used take no space.
+ * Readings made while latencies are being recorded may miss the latest.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class LatencyHistogram {
+
+	/** the number of bits of a latency kept within its power of two */
+	private static final int SUB_BITS = 4;
+	/** the number of buckets for each power of two */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	/** the number of buckets, enough for any long */
+	private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+	/** the nanoseconds per microsecond */
+	private static final double NANOS_PER_MICRO = 1e3;
+	/** the widest bar drawn for a row of the histogram */
+	private static final int BAR = 40;
+
+	/** the number of latencies in each bucket, or null for a bucket never used */
+	private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<LongAdder>(BUCKETS);
+	/** the number of latencies recorded */
+	private final LongAdder count = new LongAdder();
+	/** the sum of the latencies recorded */
+	private final LongAdder total = new LongAdder();
+	/** the longest latency recorded */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Records a latency
+	 *
+	 * @param nanos the latency in nanoseconds
+	 * @throws IllegalArgumentException if nanos is negative
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			throw new IllegalArgumentException();
+		}
+		int b = bucketOf(nanos);
+		LongAdder bucket = counts.get(b);
+		if (bucket == null) {
+			counts.compareAndSet(b, null, new LongAdder());
+			bucket = counts.get(b);
+		}
+		bucket.increment();
+		count.increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Gets the number of latencies recorded
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Gets the mean of the latencies recorded
+	 *
+	 * @return the mean in nanoseconds, or 0 if none were recorded
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) total.sum() / n;
+	}
+
+	/**
+	 * Gets the longest latency recorded
+	 *
+	 * @return the longest latency in nanoseconds, or 0 if none were recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the latency that the given fraction of latencies were within,
+	 * rounded up to the top of its bucket but never above the longest
+	 *
+	 * @param fraction the fraction of latencies, such as 0.99
+	 * @return the latency at that percentile in nanoseconds, or 0 if none were recorded
+	 * @throws IllegalArgumentException if fraction is not above 0 and at most 1
+	 */
+	public long getPercentile(double fraction) {
+		if (fraction <= 0 || fraction > 1) {
+			throw new IllegalArgumentException();
+		}
+		long[] snapshot = snapshot();
+		long n = 0;
+		for (long c : snapshot) {
+			n += c;
+		}
+		long rank = (long) Math.ceil(fraction * n);
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += snapshot[b];
+			if (seen >= rank && seen > 0) {
+				return Math.min(highestIn(b), max.get());
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the histogram with a row for each power of two of
+	 * microseconds that has latencies in it, giving its count, the share of
+	 * latencies within it and a bar of its count
+	 *
+	 * @return the rows of the histogram
+	 */
+	@Override
+	public String toString() {
+		long[] snapshot = snapshot();
+		long[] rows = new long[Long.SIZE + 1];
+		long n = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			rows[Long.SIZE - Long.numberOfLeadingZeros(highestIn(b) / (long) NANOS_PER_MICRO)] += snapshot[b];
+			n += snapshot[b];
+		}
+		long most = 0;
+		for (long row : rows) {
+			most = Math.max(most, row);
+		}
+		StringBuilder sb = new StringBuilder();
+		long seen = 0;
+		for (int r = 0; r < rows.length; r++) {
+			if (rows[r] == 0) {
+				continue;
+			}
+			seen += rows[r];
+			sb.append(String.format("  < %10.0f us %10d %6.2f%% ", Math.pow(2, r), rows[r], 100.0 * seen / n));
+			for (long i = 0; i < (rows[r] * BAR + most - 1) / most; i++) {
+				sb.append('#');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Reads the count of every bucket, so that a percentile or the rows of
+	 * the histogram are worked out from one set of counts
+	 *
+	 * @return the count of each bucket
+	 */
+	private long[] snapshot() {
+		long[] snapshot = new long[BUCKETS];
+		for (int b = 0; b < BUCKETS; b++) {
+			LongAdder bucket = counts.get(b);
+			if (bucket != null) {
+				snapshot[b] = bucket.sum();
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Gets the bucket a latency is counted in
+	 *
+	 * @param nanos the latency
+	 * @return the bucket
+	 */
+	private static int bucketOf(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int shift = Long.SIZE - Long.numberOfLeadingZeros(nanos) - 1 - SUB_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Gets the longest latency counted in a bucket
+	 *
+	 * @param bucket the bucket
+	 * @return the latency
+	 */
+	private static long highestIn(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The LatencySummary class is a reading of a LatencyHistogram in
+ * microseconds: the count, the mean, the longest and the usual
+ * percentiles. It is what RentalMetrics reports of a histogram over JMX,
+ * where it appears as a composite value.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class LatencySummary {
+
+	/** the nanoseconds per microsecond */
+	private static final double NANOS_PER_MICRO = 1e3;
+
+	/** the number of latencies recorded */
+	private final long count;
+	/** the mean latency in microseconds */
+	private final double mean;
+	/** the median latency in microseconds */
+	private final double p50;
+	/** the 90th percentile latency in microseconds */
+	private final double p90;
+	/** the 99th percentile latency in microseconds */
+	private final double p99;
+	/** the 99.9th percentile latency in microseconds */
+	private final double p999;
+	/** the longest latency in microseconds */
+	private final double max;
+
+	/**
+	 * Constructs a LatencySummary from its values, as a JMX client
+	 * rebuilds one from its composite value
+	 *
+	 * @param count the number of latencies recorded
+	 * @param mean the mean latency in microseconds
+	 * @param p50 the median latency in microseconds
+	 * @param p90 the 90th percentile latency in microseconds
+	 * @param p99 the 99th percentile latency in microseconds
+	 * @param p999 the 99.9th percentile latency in microseconds
+	 * @param max the longest latency in microseconds
+	 */
+	@ConstructorProperties({"count", "mean", "p50", "p90", "p99", "p999", "max"})
+	public LatencySummary(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	/**
+	 * Constructs a LatencySummary of a histogram as it stands
+	 *
+	 * @param histogram the histogram
+	 * @throws IllegalArgumentException if histogram is null
+	 */
+	public LatencySummary(LatencyHistogram histogram) {
+		if (histogram == null) {
+			throw new IllegalArgumentException();
+		}
+		this.count = histogram.getCount();
+		this.mean = histogram.getMean() / NANOS_PER_MICRO;
+		this.p50 = histogram.getPercentile(0.5) / NANOS_PER_MICRO;
+		this.p90 = histogram.getPercentile(0.9) / NANOS_PER_MICRO;
+		this.p99 = histogram.getPercentile(0.99) / NANOS_PER_MICRO;
+		this.p999 = histogram.getPercentile(0.999) / NANOS_PER_MICRO;
+		this.max = histogram.getMax() / NANOS_PER_MICRO;
+	}
+
+	/**
+	 * Gets the number of latencies recorded
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the mean latency
+	 *
+	 * @return the mean in microseconds
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Gets the median latency
+	 *
+	 * @return the median in microseconds
+	 */
+	public double getP50() {
+		return p50;
+	}
+
+	/**
+	 * Gets the latency that 90 percent of latencies were within
+	 *
+	 * @return the 90th percentile in microseconds
+	 */
+	public double getP90() {
+		return p90;
+	}
+
+	/**
+	 * Gets the latency that 99 percent of latencies were within
+	 *
+	 * @return the 99th percentile in microseconds
+	 */
+	public double getP99() {
+		return p99;
+	}
+
+	/**
+	 * Gets the latency that 99.9 percent of latencies were within
+	 *
+	 * @return the 99.9th percentile in microseconds
+	 */
+	public double getP999() {
+		return p999;
+	}
+
+	/**
+	 * Gets the longest latency
+	 *
+	 * @return the longest in microseconds
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the summary as one line
+	 *
+	 * @return the count and the latencies in microseconds
+	 */
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+				count, mean, p50, p90, p99, p999, max);
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The ListingEvent class is the Flight Recorder event for one of the
+ * manager's listings, such as listRentalUnits(), with the number of rows
+ * it described.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@Name("edu.ncsu.csc216.business.Listing")
+@Label("Listing")
+@Category({"Wolf High-Rise", "Property Manager"})
+@Description("A listing of the manager's rental units, clients or leases")
+@StackTrace(false)
+public final class ListingEvent extends Event {
+
+	/** the listing of the rental units */
+	public static final String RENTAL_UNITS = "rental units";
+	/** the listing of the clients */
+	public static final String CLIENTS = "clients";
+	/** the listing of the leases of a client */
+	public static final String CLIENT_LEASES = "client leases";
+	/** the listing of the leases of a rental unit */
+	public static final String UNIT_LEASES = "unit leases";
+
+	/** what was listed */
+	@Label("Listing")
+	private String listing;
+	/** the number of rows described */
+	@Label("Rows")
+	private int rows;
+
+	/**
+	 * Fills in the event and commits it. Callers should first check that
+	 * shouldCommit() is true, so nothing is worked out for a disabled event.
+	 *
+	 * @param listing what was listed
+	 * @param rows the number of rows described
+	 */
+	public void finish(String listing, int rows) {
+		this.listing = listing;
+		this.rows = rows;
+		commit();
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The RentalFileEvent class is the Flight Recorder event for one phase of
+ * loading or saving rental data, so that the time spent reading the units
+ * can be told apart from the time spent on the clients and their leases.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@Name("edu.ncsu.csc216.business.RentalFile")
+@Label("Rental File Phase")
+@Category({"Wolf High-Rise", "Rental Files"})
+@Description("A phase of loading or saving rental data")
+@StackTrace(false)
+public final class RentalFileEvent extends Event {
+
+	/** the action of loading data */
+	public static final String LOAD = "load";
+	/** the action of saving data */
+	public static final String SAVE = "save";
+	/** the phase that clears the manager before loading, or takes a snapshot before saving */
+	public static final String PREPARE = "prepare";
+	/** the phase that reads or writes the rental units */
+	public static final String UNITS = "units";
+	/** the phase that reads or writes the clients and their leases */
+	public static final String CLIENTS = "clients";
+
+	/** load or save */
+	@Label("Action")
+	private String action;
+	/** the phase of the action */
+	@Label("Phase")
+	private String phase;
+	/** the number of lines read or written in the phase */
+	@Label("Lines")
+	private int lines;
+
+	/**
+	 * Constructs an event for a phase and begins it
+	 *
+	 * @param action load or save
+	 * @param phase the phase of the action
+	 */
+	public RentalFileEvent(String action, String phase) {
+		this.action = action;
+		this.phase = phase;
+		begin();
+	}
+
+	/**
+	 * Counts a line read or written in the phase
+	 */
+	public void line() {
+		lines++;
+	}
+}
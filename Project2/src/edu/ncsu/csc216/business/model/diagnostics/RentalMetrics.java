@@ -0,0 +1,468 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The RentalMetrics class keeps the live counters of one PropertyManager
+ * and shows them over JMX once registered. The manager records into it
+ * as it works; every counter is a LongAdder, or a LatencyHistogram of
+ * LongAdders, so recording from many threads at once, as an AsyncLandlord
+ * does, costs an uncontended add and takes a lock only once every few
+ * seconds, when a rate moves on. The work of turning counts into
+ * percentiles is left to the readings.
+ * <p>
+ * The counts of units, clients and leases are read from the manager when
+ * asked for, without its lock, so a reading taken while the manager is
+ * changing may lag behind it.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalMetrics implements RentalMetricsMXBean {
+
+	/** the JMX domain the metrics are registered under */
+	public static final String DOMAIN = "edu.ncsu.csc216.business";
+	/** the nanoseconds per millisecond */
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	/** the leases created */
+	private final Meter created;
+	/** the leases canceled by their clients */
+	private final Meter canceled;
+	/** the rental units taken out of service */
+	private final Meter outages;
+	/** the reservations rejected, keyed by kind of unit and exception */
+	private final ConcurrentHashMap<String, LongAdder> rejections = new ConcurrentHashMap<String, LongAdder>();
+	/** the latencies of the reservations */
+	private final LatencyHistogram reserveLatency = new LatencyHistogram();
+	/** the latencies of the listings */
+	private final LatencyHistogram listLatency = new LatencyHistogram();
+	/** reads the number of rental units */
+	private final IntSupplier units;
+	/** reads the number of clients */
+	private final IntSupplier clients;
+	/** reads the number of active leases */
+	private final IntSupplier leases;
+	/** how long the last load took in nanoseconds */
+	private volatile long lastLoad;
+	/** how long the last save took in nanoseconds */
+	private volatile long lastSave;
+	/** the name the metrics are registered under, or null if they are not */
+	private ObjectName name;
+
+	/**
+	 * Constructs the metrics of a manager, which reads its counts of units,
+	 * clients and leases with the given suppliers
+	 *
+	 * @param units reads the number of rental units
+	 * @param clients reads the number of clients
+	 * @param leases reads the number of active leases
+	 * @throws IllegalArgumentException if any supplier is null
+	 */
+	public RentalMetrics(IntSupplier units, IntSupplier clients, IntSupplier leases) {
+		this(units, clients, leases, System::nanoTime);
+	}
+
+	/**
+	 * Constructs the metrics of a manager whose rates are timed by the
+	 * given clock
+	 *
+	 * @param units reads the number of rental units
+	 * @param clients reads the number of clients
+	 * @param leases reads the number of active leases
+	 * @param clock reads the time in nanoseconds
+	 * @throws IllegalArgumentException if any supplier is null
+	 */
+	RentalMetrics(IntSupplier units, IntSupplier clients, IntSupplier leases, LongSupplier clock) {
+		if (units == null || clients == null || leases == null || clock == null) {
+			throw new IllegalArgumentException();
+		}
+		this.units = units;
+		this.clients = clients;
+		this.leases = leases;
+		this.created = new Meter(clock);
+		this.canceled = new Meter(clock);
+		this.outages = new Meter(clock);
+	}
+
+	/**
+	 * Records a lease created
+	 */
+	public void leaseCreated() {
+		created.mark(1);
+	}
+
+	/**
+	 * Records a lease canceled by its client
+	 */
+	public void leaseCanceled() {
+		canceled.mark(1);
+	}
+
+	/**
+	 * Records rental units taken out of service
+	 *
+	 * @param count the number of units
+	 */
+	public void outage(int count) {
+		outages.mark(count);
+	}
+
+	/**
+	 * Records a reservation a rental unit rejected
+	 *
+	 * @param kind the kind of the unit, such as "Hotel Suite"
+	 * @param reason the exception the unit rejected the reservation with
+	 */
+	public void rejected(String kind, Exception reason) {
+		rejections.computeIfAbsent(kind + ": " + reason.getClass().getSimpleName(), k -> new LongAdder())
+				.increment();
+	}
+
+	/**
+	 * Records how long a reservation took
+	 *
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void reserved(long nanos) {
+		reserveLatency.record(nanos);
+	}
+
+	/**
+	 * Records how long a listing took
+	 *
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void listed(long nanos) {
+		listLatency.record(nanos);
+	}
+
+	/**
+	 * Records how long a load from a file took
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void loaded(long nanos) {
+		lastLoad = nanos;
+	}
+
+	/**
+	 * Records how long a save to a file took
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void saved(long nanos) {
+		lastSave = nanos;
+	}
+
+	/**
+	 * Gets the number of leases created
+	 *
+	 * @return the number of leases created
+	 */
+	@Override
+	public long getLeasesCreated() {
+		return created.getCount();
+	}
+
+	/**
+	 * Gets the rate leases are being created at
+	 *
+	 * @return the leases created per second
+	 */
+	@Override
+	public double getLeaseCreateRate() {
+		return created.getRate();
+	}
+
+	/**
+	 * Gets the number of leases canceled by their clients
+	 *
+	 * @return the number of leases canceled
+	 */
+	@Override
+	public long getLeasesCanceled() {
+		return canceled.getCount();
+	}
+
+	/**
+	 * Gets the rate leases are being canceled by their clients at
+	 *
+	 * @return the leases canceled per second
+	 */
+	@Override
+	public double getLeaseCancelRate() {
+		return canceled.getRate();
+	}
+
+	/**
+	 * Gets the number of rental units taken out of service
+	 *
+	 * @return the number of units taken out of service
+	 */
+	@Override
+	public long getOutages() {
+		return outages.getCount();
+	}
+
+	/**
+	 * Gets the rate rental units are being taken out of service at
+	 *
+	 * @return the units taken out of service per second
+	 */
+	@Override
+	public double getOutageRate() {
+		return outages.getRate();
+	}
+
+	/**
+	 * Gets the number of reservations rejected, keyed by the kind of rental
+	 * unit and the exception it was rejected with, such as
+	 * "Hotel Suite: RentalCapacityException"
+	 *
+	 * @return the rejections of each kind of unit for each reason
+	 */
+	@Override
+	public Map<String, Long> getRejections() {
+		TreeMap<String, Long> counts = new TreeMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : rejections.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().sum());
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets the latencies of the reservations made on the rental units,
+	 * whether taken or rejected
+	 *
+	 * @return the summary of the reservation latencies
+	 */
+	@Override
+	public LatencySummary getReserveLatency() {
+		return new LatencySummary(reserveLatency);
+	}
+
+	/**
+	 * Gets the latencies of the listings of rental units, clients and leases
+	 *
+	 * @return the summary of the listing latencies
+	 */
+	@Override
+	public LatencySummary getListLatency() {
+		return new LatencySummary(listLatency);
+	}
+
+	/**
+	 * Gets the number of rental units
+	 *
+	 * @return the number of units
+	 */
+	@Override
+	public int getUnitCount() {
+		return units.getAsInt();
+	}
+
+	/**
+	 * Gets the number of clients
+	 *
+	 * @return the number of clients
+	 */
+	@Override
+	public int getClientCount() {
+		return clients.getAsInt();
+	}
+
+	/**
+	 * Gets the number of active leases
+	 *
+	 * @return the number of leases
+	 */
+	@Override
+	public int getLeaseCount() {
+		return leases.getAsInt();
+	}
+
+	/**
+	 * Gets how long the last load from a file took
+	 *
+	 * @return the duration in milliseconds, or 0 if nothing has been loaded
+	 */
+	@Override
+	public double getLastLoadMillis() {
+		return lastLoad / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Gets how long the last save to a file took
+	 *
+	 * @return the duration in milliseconds, or 0 if nothing has been saved
+	 */
+	@Override
+	public double getLastSaveMillis() {
+		return lastSave / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server, so that JMX
+	 * clients such as jconsole can read them, under the type PropertyManager
+	 * and the given name
+	 *
+	 * @param managerName the name of the manager, such as "instance"
+	 * @return the name the metrics were registered under
+	 * @throws IllegalArgumentException if managerName is null, the metrics
+	 *         are already registered, or other metrics hold the name
+	 */
+	public synchronized ObjectName register(String managerName) {
+		if (managerName == null || name != null) {
+			throw new IllegalArgumentException();
+		}
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=PropertyManager,name="
+					+ ObjectName.quote(managerName));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			name = objectName;
+			return name;
+		} catch (JMException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Unregisters the metrics from the platform MBean server, if they are
+	 * registered, so that their name can be used again
+	 */
+	public synchronized void unregister() {
+		if (name == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (InstanceNotFoundException e) {
+			// someone else has unregistered them already
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+		name = null;
+	}
+
+	/**
+	 * Gets the name the metrics are registered under
+	 *
+	 * @return the name, or null if the metrics are not registered
+	 */
+	public synchronized ObjectName getObjectName() {
+		return name;
+	}
+
+	/**
+	 * The Meter class counts events and the rate they have been happening
+	 * at, as a moving average that decays over a minute. The average moves
+	 * on a fixed tick of five seconds, taking in the events of each tick as
+	 * it ends, so the rate is the same however often it is read. Marking is
+	 * a LongAdder add, and the tick is taken by the mark that finds it due,
+	 * under the meter's lock. Reading changes nothing: if ticks have ended
+	 * since the last mark, the reading works out what they would give.
+	 */
+	private static final class Meter {
+
+		/** the seconds the rate decays over */
+		private static final double WINDOW = 60;
+		/** the seconds between ticks */
+		private static final double TICK_SECONDS = 5;
+		/** the nanoseconds between ticks */
+		private static final long TICK_NANOS = 5_000_000_000L;
+		/** the share of the rate each tick keeps */
+		private static final double KEPT = Math.exp(-TICK_SECONDS / WINDOW);
+
+		/** reads the time in nanoseconds */
+		private final LongSupplier clock;
+		/** the events counted */
+		private final LongAdder count = new LongAdder();
+		/** the events counted since the last tick */
+		private final LongAdder uncounted = new LongAdder();
+		/** the time of the last tick */
+		private volatile long tickNanos;
+		/** the rate as of the last tick, per second */
+		private double rate;
+
+		/**
+		 * Constructs a meter
+		 *
+		 * @param clock reads the time in nanoseconds
+		 */
+		Meter(LongSupplier clock) {
+			this.clock = clock;
+			this.tickNanos = clock.getAsLong();
+		}
+
+		/**
+		 * Counts events, first moving the average on if a tick is due
+		 *
+		 * @param events the number of events
+		 */
+		void mark(int events) {
+			if (clock.getAsLong() - tickNanos >= TICK_NANOS) {
+				tick();
+			}
+			count.add(events);
+			uncounted.add(events);
+		}
+
+		/**
+		 * Moves the average on by every tick that has ended
+		 */
+		private synchronized void tick() {
+			long ticks = (clock.getAsLong() - tickNanos) / TICK_NANOS;
+			if (ticks > 0) {
+				rate = decay(rate, uncounted.sumThenReset(), ticks);
+				tickNanos += ticks * TICK_NANOS;
+			}
+		}
+
+		/**
+		 * Gets the number of events counted
+		 *
+		 * @return the count
+		 */
+		long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * Gets the rate events are happening at, as of the last tick that
+		 * ended
+		 *
+		 * @return the events per second
+		 */
+		synchronized double getRate() {
+			long ticks = (clock.getAsLong() - tickNanos) / TICK_NANOS;
+			return ticks > 0 ? decay(rate, uncounted.sum(), ticks) : rate;
+		}
+
+		/**
+		 * Moves a rate on by some ticks, the first of which had the given
+		 * events and the rest none
+		 *
+		 * @param rate the rate before the ticks, per second
+		 * @param events the events of the first tick
+		 * @param ticks the number of ticks, at least one
+		 * @return the rate after the ticks, per second
+		 */
+		private static double decay(double rate, long events, long ticks) {
+			double first = rate * KEPT + (1 - KEPT) * events / TICK_SECONDS;
+			return first * Math.pow(KEPT, ticks - 1);
+		}
+	}
+}
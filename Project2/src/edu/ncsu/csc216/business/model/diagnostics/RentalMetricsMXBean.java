@@ -0,0 +1,121 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import java.util.Map;
+
+/**
+ * The RentalMetricsMXBean interface is what a manager's RentalMetrics
+ * shows over JMX, to jconsole or any other JMX client: how fast leases
+ * are being created and canceled and units taken out of service, why
+ * reservations are rejected, how long reservations and listings take,
+ * how much the manager holds and how long it last took to load and save.
+ * Rates are per second, decayed over the last minute or so, and move on
+ * every five seconds.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public interface RentalMetricsMXBean {
+
+	/**
+	 * Gets the number of leases created
+	 *
+	 * @return the number of leases created
+	 */
+	long getLeasesCreated();
+
+	/**
+	 * Gets the rate leases are being created at
+	 *
+	 * @return the leases created per second
+	 */
+	double getLeaseCreateRate();
+
+	/**
+	 * Gets the number of leases canceled by their clients
+	 *
+	 * @return the number of leases canceled
+	 */
+	long getLeasesCanceled();
+
+	/**
+	 * Gets the rate leases are being canceled by their clients at
+	 *
+	 * @return the leases canceled per second
+	 */
+	double getLeaseCancelRate();
+
+	/**
+	 * Gets the number of rental units taken out of service
+	 *
+	 * @return the number of units taken out of service
+	 */
+	long getOutages();
+
+	/**
+	 * Gets the rate rental units are being taken out of service at
+	 *
+	 * @return the units taken out of service per second
+	 */
+	double getOutageRate();
+
+	/**
+	 * Gets the number of reservations rejected, keyed by the kind of rental
+	 * unit and the exception it was rejected with, such as
+	 * "Hotel Suite: RentalCapacityException"
+	 *
+	 * @return the rejections of each kind of unit for each reason
+	 */
+	Map<String, Long> getRejections();
+
+	/**
+	 * Gets the latencies of the reservations made on the rental units,
+	 * whether taken or rejected
+	 *
+	 * @return the summary of the reservation latencies
+	 */
+	LatencySummary getReserveLatency();
+
+	/**
+	 * Gets the latencies of the listings of rental units, clients and leases
+	 *
+	 * @return the summary of the listing latencies
+	 */
+	LatencySummary getListLatency();
+
+	/**
+	 * Gets the number of rental units
+	 *
+	 * @return the number of units
+	 */
+	int getUnitCount();
+
+	/**
+	 * Gets the number of clients
+	 *
+	 * @return the number of clients
+	 */
+	int getClientCount();
+
+	/**
+	 * Gets the number of active leases
+	 *
+	 * @return the number of leases
+	 */
+	int getLeaseCount();
+
+	/**
+	 * Gets how long the last load from a file took
+	 *
+	 * @return the duration in milliseconds, or 0 if nothing has been loaded
+	 */
+	double getLastLoadMillis();
+
+	/**
+	 * Gets how long the last save to a file took
+	 *
+	 * @return the duration in milliseconds, or 0 if nothing has been saved
+	 */
+	double getLastSaveMillis();
+}
@@ -0,0 +1,74 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The ReservationEvent class is the Flight Recorder event for one attempt
+ * to reserve a rental unit for a new Lease. It is begun before the unit's
+ * checks and committed once the Lease is added or refused, with the number
+ * of Leases the unit's lease list walked over to add it, which is where a
+ * reservation on a busy unit spends its time.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+@Name("edu.ncsu.csc216.business.Reservation")
+@Label("Reservation")
+@Category({"Wolf High-Rise", "Rental Units"})
+@Description("An attempt to reserve a rental unit for a new lease")
+@StackTrace(false)
+public final class ReservationEvent extends Event {
+
+	/** the outcome of a reservation that was made */
+	public static final String RESERVED = "reserved";
+
+	/** the kind of the unit */
+	@Label("Unit Kind")
+	private String kind;
+	/** the floor of the unit */
+	@Label("Floor")
+	private int floor;
+	/** the room of the unit */
+	@Label("Room")
+	private int room;
+	/** reserved, or the exception the reservation was refused with */
+	@Label("Outcome")
+	@Description("reserved, or the simple name of the exception the reservation was refused with")
+	private String outcome;
+	/** the number of Leases the unit held before the reservation */
+	@Label("Leases")
+	@Description("The number of leases the unit held before the reservation")
+	private int leases;
+	/** the number of lease list and occupancy index entries looked at */
+	@Label("Entries Examined")
+	@Description("The number of entries of the unit's lease list and occupancy index the reservation looked at")
+	private int leasesScanned;
+
+	/**
+	 * Fills in the event and commits it. Callers should first check that
+	 * shouldCommit() is true, so nothing is worked out for a disabled event.
+	 *
+	 * @param kind the kind of the unit
+	 * @param floor the floor of the unit
+	 * @param room the room of the unit
+	 * @param outcome reserved, or the exception the reservation was refused with
+	 * @param leases the number of Leases the unit held before the reservation
+	 * @param leasesScanned the number of lease list and occupancy index entries looked at
+	 */
+	public void finish(String kind, int floor, int room, String outcome, int leases, int leasesScanned) {
+		this.kind = kind;
+		this.floor = floor;
+		this.room = room;
+		this.outcome = outcome;
+		this.leases = leases;
+		this.leasesScanned = leasesScanned;
+		commit();
+	}
+}
@@ -0,0 +1,838 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.io;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Random;
+
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.properties.Office;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateRoomException;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The RentalDataGenerator class makes up rental data at any scale, for
+ * testing how the system copes with far more than the test files hold.
+ * Everything it makes follows from a seed, so the same seed and settings
+ * always make the same data. It places rental units at locations picked
+ * from all 4050 floors and rooms, in a mix of kinds, then makes clients and
+ * spreads the leases over them, each lease following the rules of its
+ * unit's kind: conference rooms for up to seven days without overlapping,
+ * hotel suites from Sunday to Sunday without overlapping, and offices for
+ * whole months within their capacity.
+ *
+ * The data is either written in the format RentalReader reads, a line at
+ * a time as it is made, or added straight to a manager. Writing keeps only
+ * a calendar for each unit, never the leases, so the memory it takes does
+ * not grow with the number of leases. Confirmation numbers have six
+ * digits, so there are at most a million leases.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalDataGenerator {
+
+	/** the number of locations, every room of every floor */
+	public static final int LOCATIONS = (RentalUnit.MAX_FLOOR - RentalUnit.MIN_FLOOR + 1)
+			* (RentalUnit.MAX_ROOM - RentalUnit.MIN_ROOM + 1);
+	/** the most leases there can be, one for each confirmation number */
+	public static final int MAX_LEASES = 1000000;
+	/** the number of rooms on a floor */
+	private static final int ROOMS = RentalUnit.MAX_ROOM - RentalUnit.MIN_ROOM + 1;
+	/** the number of days leases can be made on */
+	private static final int DAYS = (int) ChronoUnit.DAYS.between(PropertyManager.EARLIEST_DATE,
+			PropertyManager.LATEST_DATE) + 1;
+	/** the first Sunday a hotel suite lease can start on */
+	private static final LocalDate FIRST_SUNDAY = PropertyManager.EARLIEST_DATE.with(
+			TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+	/** the number of Sunday to Sunday weeks between the earliest and latest dates */
+	private static final int WEEKS = (int) ChronoUnit.WEEKS.between(FIRST_SUNDAY,
+			PropertyManager.LATEST_DATE.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY)));
+	/** the number of months leases can be made in */
+	private static final int MONTHS = (int) ChronoUnit.MONTHS.between(PropertyManager.EARLIEST_DATE,
+			PropertyManager.LATEST_DATE) + 1;
+	/** the longest hotel suite lease made, in weeks */
+	private static final int MAX_WEEKS = 4;
+	/** the longest office lease made, in months */
+	private static final int MAX_MONTHS = 12;
+	/** the number of random places tried for a lease before looking through the whole unit */
+	private static final int TRIES = 8;
+	/** the first names clients are made from */
+	private static final String[] FIRST_NAMES = {"Amanda", "Sandy", "James", "Melody", "Ammar", "Jason",
+		"Matthew", "Shreeya", "Zach", "Jo", "Sarah", "Alex", "Walker", "Dana", "Priya", "Luis"};
+	/** the last names clients are made from */
+	private static final String[] LAST_NAMES = {"Smith", "Biggs", "Tetterton", "Griesen", "Abbas", "Hurst",
+		"Zahn", "Dhakal", "Groseclose", "Perry", "Heckman", "Raum", "Clem", "Nguyen", "Patel", "Garcia"};
+
+	/** the seed everything is made from */
+	private long seed;
+	/** the number of rental units */
+	private int units;
+	/** the number of clients */
+	private int clients;
+	/** the number of leases */
+	private int leases;
+	/** the share of conference rooms, hotel suites and offices among the units */
+	private int[] mix = {1, 1, 1};
+
+	/**
+	 * Constructs a generator with an equal mix of the three kinds of unit
+	 *
+	 * @param seed the seed everything is made from
+	 * @param units the number of rental units, from 0 to 4050
+	 * @param clients the number of clients
+	 * @param leases the number of leases, from 0 to a million
+	 * @throws IllegalArgumentException if any number is out of range, or if
+	 *         there are leases but no clients
+	 */
+	public RentalDataGenerator(long seed, int units, int clients, int leases) {
+		if (units < 0 || units > LOCATIONS || clients < 0 || leases < 0 || leases > MAX_LEASES
+				|| (leases > 0 && clients == 0)) {
+			throw new IllegalArgumentException();
+		}
+		this.seed = seed;
+		this.units = units;
+		this.clients = clients;
+		this.leases = leases;
+	}
+
+	/**
+	 * Sets the mix of kinds of rental unit, as a share of each. A mix of
+	 * 2, 1 and 1 makes half the units conference rooms and a quarter each
+	 * hotel suites and offices.
+	 *
+	 * @param conferenceRooms the share of conference rooms
+	 * @param hotelSuites the share of hotel suites
+	 * @param offices the share of offices
+	 * @throws IllegalArgumentException if a share is negative or all are 0
+	 */
+	public void setKindMix(int conferenceRooms, int hotelSuites, int offices) {
+		if (conferenceRooms < 0 || hotelSuites < 0 || offices < 0 || conferenceRooms + hotelSuites + offices == 0) {
+			throw new IllegalArgumentException();
+		}
+		this.mix = new int[] {conferenceRooms, hotelSuites, offices};
+	}
+
+	/**
+	 * Writes the data in the format RentalReader reads, a line at a time
+	 *
+	 * @param out the Writer to write to
+	 * @throws IOException if the data cannot be written
+	 * @throws IllegalArgumentException if the units cannot hold the leases
+	 */
+	public void write(Writer out) throws IOException {
+		generate(new TextSink(out));
+	}
+
+	/**
+	 * Writes the data to a file in the format RentalReader reads
+	 *
+	 * @param filename the name of the file
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the units cannot hold the leases
+	 */
+	public void write(String filename) throws IOException {
+		try (Writer out = new BufferedWriter(new FileWriter(filename), 1 << 16)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Adds the data to a manager, after throwing away what it held, as if
+	 * the written data had been read into it
+	 *
+	 * @param manager the manager
+	 * @throws IllegalArgumentException if the units cannot hold the leases
+	 */
+	public void fill(PropertyManager manager) {
+		manager.flushAllData();
+		try {
+			generate(new ManagerSink(manager));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Makes the data and hands it to a sink: the units in order of
+	 * location, then each client followed by that client's leases
+	 *
+	 * @param sink where the data goes
+	 * @throws IOException if the sink cannot take the data
+	 * @throws IllegalArgumentException if the units cannot hold the leases
+	 */
+	private void generate(Sink sink) throws IOException {
+		Random random = new Random(seed);
+		Calendar[] calendars = placeUnits(random);
+		long room = 0;
+		for (Calendar calendar : calendars) {
+			room += calendar.room();
+		}
+		if (leases > room) {
+			throw new IllegalArgumentException("The units cannot hold " + leases + " leases");
+		}
+		for (Calendar calendar : calendars) {
+			sink.unit(calendar.unit);
+		}
+		sink.endUnits();
+		int[] open = new int[calendars.length];
+		for (int i = 0; i < open.length; i++) {
+			open[i] = i;
+		}
+		int openCount = open.length;
+		long slack = room - leases;
+		int number = 0;
+		for (int c = 0; c < clients; c++) {
+			String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+			String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			ClientView client = new ClientView(first + " " + last,
+					(first.charAt(0) + last).toLowerCase() + c, 0);
+			sink.client(client);
+			int share = leases / clients + (c < leases % clients ? 1 : 0);
+			for (int l = 0; l < share; l++) {
+				LeaseView lease = null;
+				while (lease == null) {
+					int pick = random.nextInt(openCount);
+					Calendar calendar = calendars[open[pick]];
+					long used = calendar.used;
+					lease = calendar.place(random, number, client, slack);
+					if (lease == null) {
+						open[pick] = open[--openCount];
+					} else {
+						slack -= calendar.used - used - 1;
+					}
+				}
+				sink.lease(lease);
+				number++;
+			}
+		}
+	}
+
+	/**
+	 * Picks the units' locations, kinds and capacities
+	 *
+	 * @param random the source of randomness
+	 * @return a calendar for each unit, in order of location
+	 */
+	private Calendar[] placeUnits(Random random) {
+		int[] locations = new int[LOCATIONS];
+		for (int i = 0; i < locations.length; i++) {
+			locations[i] = i;
+		}
+		for (int i = 0; i < units; i++) {
+			int j = i + random.nextInt(LOCATIONS - i);
+			int swap = locations[i];
+			locations[i] = locations[j];
+			locations[j] = swap;
+		}
+		Arrays.sort(locations, 0, units);
+		char[] kinds = new char[units];
+		int total = mix[0] + mix[1] + mix[2];
+		int conference = (int) ((long) units * mix[0] / total);
+		int hotel = (int) ((long) units * mix[1] / total);
+		for (int i = 0; i < units; i++) {
+			kinds[i] = i < conference ? 'C' : i < conference + hotel ? 'H' : 'O';
+		}
+		if (mix[2] == 0) {
+			Arrays.fill(kinds, conference + hotel, units, mix[1] == 0 ? 'C' : 'H');
+		}
+		for (int i = units - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			char swap = kinds[i];
+			kinds[i] = kinds[j];
+			kinds[j] = swap;
+		}
+		Calendar[] calendars = new Calendar[units];
+		for (int i = 0; i < units; i++) {
+			int floor = RentalUnit.MIN_FLOOR + locations[i] / ROOMS;
+			int room = RentalUnit.MIN_ROOM + locations[i] % ROOMS;
+			switch (kinds[i]) {
+			case 'C':
+				calendars[i] = new DayCalendar(new UnitView("Conference Room", floor, room,
+						1 + random.nextInt(ConferenceRoom.MAX_CAPACITY), true));
+				break;
+			case 'H':
+				calendars[i] = new WeekCalendar(new UnitView("Hotel Suite", floor, room,
+						1 + random.nextInt(HotelSuite.MAX_CAPACITY), true));
+				break;
+			default:
+				calendars[i] = new MonthCalendar(new UnitView("Office", floor, room,
+						1 + random.nextInt(Office.MAX_CAPACITY), true));
+				break;
+			}
+		}
+		return calendars;
+	}
+
+	/**
+	 * Writes data to a file from the command line. The arguments are the
+	 * seed, the numbers of units, clients and leases, the name of the file
+	 * and, optionally, the shares of conference rooms, hotel suites and
+	 * offices.
+	 *
+	 * @param args the settings and the file name
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 5 && args.length != 8) {
+			System.err.println("Usage: RentalDataGenerator seed units clients leases file [conference hotel office]");
+			return;
+		}
+		RentalDataGenerator generator = new RentalDataGenerator(Long.parseLong(args[0]), Integer.parseInt(args[1]),
+				Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+		if (args.length == 8) {
+			generator.setKindMix(Integer.parseInt(args[5]), Integer.parseInt(args[6]), Integer.parseInt(args[7]));
+		}
+		generator.write(args[4]);
+	}
+
+	/**
+	 * The Sink interface takes the data as it is made.
+	 */
+	private interface Sink {
+
+		/**
+		 * Takes a rental unit
+		 *
+		 * @param unit the unit
+		 * @throws IOException if the unit cannot be taken
+		 */
+		void unit(UnitView unit) throws IOException;
+
+		/**
+		 * Marks the end of the rental units
+		 *
+		 * @throws IOException if the end cannot be taken
+		 */
+		void endUnits() throws IOException;
+
+		/**
+		 * Takes a client, whose leases follow
+		 *
+		 * @param client the client
+		 * @throws IOException if the client cannot be taken
+		 */
+		void client(ClientView client) throws IOException;
+
+		/**
+		 * Takes a lease of the last client
+		 *
+		 * @param lease the lease
+		 * @throws IOException if the lease cannot be taken
+		 */
+		void lease(LeaseView lease) throws IOException;
+	}
+
+	/**
+	 * The TextSink class writes the data as RentalWriter would.
+	 */
+	private static class TextSink implements Sink {
+
+		/** the Writer the lines are written to */
+		private Writer out;
+		/** the line being built */
+		private StringBuilder line = new StringBuilder(128);
+
+		/**
+		 * Constructs a sink for the given Writer
+		 *
+		 * @param out the Writer the lines are written to
+		 */
+		TextSink(Writer out) {
+			this.out = out;
+		}
+
+		/**
+		 * Writes the line of a rental unit
+		 *
+		 * @param unit the unit
+		 * @throws IOException if the line cannot be written
+		 */
+		@Override
+		public void unit(UnitView unit) throws IOException {
+			line.setLength(0);
+			write(RentalRenderer.appendUnit(line, unit));
+		}
+
+		/**
+		 * Writes the blank line after the rental units
+		 *
+		 * @throws IOException if the line cannot be written
+		 */
+		@Override
+		public void endUnits() throws IOException {
+			line.setLength(0);
+			write(line);
+		}
+
+		/**
+		 * Writes the line of a client
+		 *
+		 * @param client the client
+		 * @throws IOException if the line cannot be written
+		 */
+		@Override
+		public void client(ClientView client) throws IOException {
+			line.setLength(0);
+			write(RentalRenderer.appendClient(line.append('#'), client));
+		}
+
+		/**
+		 * Writes the line of a lease, indented under its client
+		 *
+		 * @param lease the lease
+		 * @throws IOException if the line cannot be written
+		 */
+		@Override
+		public void lease(LeaseView lease) throws IOException {
+			line.setLength(0);
+			write(RentalRenderer.appendClientLease(line.append("   "), lease));
+		}
+
+		/**
+		 * Writes a line followed by a line separator
+		 *
+		 * @param text the line
+		 * @throws IOException if the line cannot be written
+		 */
+		private void write(StringBuilder text) throws IOException {
+			out.append(text).append(System.lineSeparator());
+		}
+	}
+
+	/**
+	 * The ManagerSink class adds the data to a manager.
+	 */
+	private static class ManagerSink implements Sink {
+
+		/** the manager the data is added to */
+		private PropertyManager manager;
+		/** the last client added */
+		private Client client;
+
+		/**
+		 * Constructs a sink for the given manager
+		 *
+		 * @param manager the manager the data is added to
+		 */
+		ManagerSink(PropertyManager manager) {
+			this.manager = manager;
+		}
+
+		/**
+		 * Adds a rental unit to the manager
+		 *
+		 * @param unit the unit
+		 */
+		@Override
+		public void unit(UnitView unit) {
+			try {
+				manager.addNewUnit(String.valueOf(unit.getKind()), unit.getFloor() + "-" + unit.getRoom(),
+						unit.getCapacity());
+			} catch (DuplicateRoomException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Does nothing, as the manager needs no mark between units and clients
+		 */
+		@Override
+		public void endUnits() {
+			// nothing to do
+		}
+
+		/**
+		 * Adds a client to the manager
+		 *
+		 * @param view the client
+		 */
+		@Override
+		public void client(ClientView view) {
+			try {
+				client = manager.addNewClient(view.getName(), view.getId());
+			} catch (DuplicateClientException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Adds a lease of the last client to the manager
+		 *
+		 * @param lease the lease
+		 */
+		@Override
+		public void lease(LeaseView lease) {
+			manager.addLeaseFromFile(client, lease.getConfirmationNumber(),
+					manager.getUnitAtLocation(lease.getUnitFloor() + "-" + lease.getUnitRoom()),
+					lease.getStart(), lease.getEnd(), lease.getOccupants());
+		}
+	}
+
+	/**
+	 * The Calendar class keeps track of what a rental unit has room for, so
+	 * that the leases made for it follow its rules.
+	 */
+	private abstract static class Calendar {
+
+		/** the unit */
+		final UnitView unit;
+		/** the room taken by the leases placed so far */
+		long used;
+
+		/**
+		 * Constructs a calendar for the given unit
+		 *
+		 * @param unit the unit
+		 */
+		Calendar(UnitView unit) {
+			this.unit = unit;
+		}
+
+		/**
+		 * Returns the most leases the unit can hold
+		 *
+		 * @return the number of leases
+		 */
+		abstract long room();
+
+		/**
+		 * Places a lease of random length and occupants at a random free
+		 * place, or failing that a lease of the shortest length for one
+		 * person at the first free place. A lease takes no more than the
+		 * slack beyond the one place every lease needs, so that the units
+		 * never fill up before every lease is placed.
+		 *
+		 * @param random the source of randomness
+		 * @param number the confirmation number of the lease
+		 * @param client the client of the lease
+		 * @param slack the most room the lease may take beyond one place
+		 * @return the lease, or null if the unit is full
+		 */
+		abstract LeaseView place(Random random, int number, ClientView client, long slack);
+
+		/**
+		 * Makes a lease of the unit
+		 *
+		 * @param number the confirmation number of the lease
+		 * @param start the start date
+		 * @param end the end date
+		 * @param occupants the number of occupants
+		 * @param client the client of the lease
+		 * @return the lease
+		 */
+		LeaseView lease(int number, LocalDate start, LocalDate end, int occupants, ClientView client) {
+			return new LeaseView(number, (int) start.toEpochDay(), (int) end.toEpochDay(), occupants,
+					unit.getKindLabel(), unit.getFloor(), unit.getRoom(), client.getName(), client.getId());
+		}
+	}
+
+	/**
+	 * The SlotCalendar class is the calendar of a unit that holds one lease
+	 * at a time, as a bit for each slot, a day or a week, that is taken.
+	 */
+	private abstract static class SlotCalendar extends Calendar {
+
+		/** a bit for each slot, set if the slot is taken */
+		private long[] taken;
+		/** the number of slots */
+		private int slots;
+		/** the most slots a lease takes */
+		private int longest;
+
+		/**
+		 * Constructs a calendar for the given unit
+		 *
+		 * @param unit the unit
+		 * @param slots the number of slots
+		 * @param longest the most slots a lease takes
+		 */
+		SlotCalendar(UnitView unit, int slots, int longest) {
+			super(unit);
+			this.slots = slots;
+			this.longest = longest;
+			this.taken = new long[(slots + 63) / 64];
+		}
+
+		/**
+		 * Returns the most leases the unit can hold, one for each slot
+		 *
+		 * @return the number of slots
+		 */
+		@Override
+		long room() {
+			return slots;
+		}
+
+		/**
+		 * Places a lease of random length and occupants on random free slots,
+		 * or failing that a lease of one slot for one person on the first
+		 * free slot from a random one
+		 *
+		 * @param random the source of randomness
+		 * @param number the confirmation number of the lease
+		 * @param client the client of the lease
+		 * @param slack the most slots the lease may take beyond one
+		 * @return the lease, or null if every slot is taken
+		 */
+		@Override
+		LeaseView place(Random random, int number, ClientView client, long slack) {
+			int length = (int) Math.min(1 + random.nextInt(longest), slack + 1);
+			for (int i = 0; i < TRIES; i++) {
+				int start = random.nextInt(slots - length + 1);
+				if (free(start, length)) {
+					return take(start, length, 1 + random.nextInt(unit.getCapacity()), number, client);
+				}
+			}
+			int start = random.nextInt(slots);
+			for (int i = 0; i < slots; i++) {
+				int slot = (start + i) % slots;
+				if (free(slot, 1)) {
+					return take(slot, 1, 1, number, client);
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns whether slots are all free
+		 *
+		 * @param start the first slot
+		 * @param length the number of slots
+		 * @return whether none of the slots are taken
+		 */
+		private boolean free(int start, int length) {
+			for (int s = start; s < start + length; s++) {
+				if ((taken[s >>> 6] & (1L << s)) != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Takes slots for a lease
+		 *
+		 * @param start the first slot
+		 * @param length the number of slots
+		 * @param occupants the number of occupants
+		 * @param number the confirmation number of the lease
+		 * @param client the client of the lease
+		 * @return the lease
+		 */
+		private LeaseView take(int start, int length, int occupants, int number, ClientView client) {
+			for (int s = start; s < start + length; s++) {
+				taken[s >>> 6] |= 1L << s;
+			}
+			used += length;
+			return lease(number, startOf(start), endOf(start + length - 1), occupants, client);
+		}
+
+		/**
+		 * Gets the first day of a slot
+		 *
+		 * @param slot the slot
+		 * @return the date
+		 */
+		abstract LocalDate startOf(int slot);
+
+		/**
+		 * Gets the end date of a lease whose last slot is the given one
+		 *
+		 * @param slot the slot
+		 * @return the date
+		 */
+		abstract LocalDate endOf(int slot);
+	}
+
+	/**
+	 * The DayCalendar class is the calendar of a conference room, whose
+	 * leases run for one to seven days.
+	 */
+	private static class DayCalendar extends SlotCalendar {
+
+		/**
+		 * Constructs a calendar for the given conference room
+		 *
+		 * @param unit the conference room
+		 */
+		DayCalendar(UnitView unit) {
+			super(unit, DAYS, ConferenceRoom.MAX_DURATION);
+		}
+
+		/**
+		 * Gets the day of a slot
+		 *
+		 * @param slot the slot
+		 * @return the date
+		 */
+		@Override
+		LocalDate startOf(int slot) {
+			return PropertyManager.EARLIEST_DATE.plusDays(slot);
+		}
+
+		/**
+		 * Gets the day of a slot, the last day of a lease ending with it
+		 *
+		 * @param slot the slot
+		 * @return the date
+		 */
+		@Override
+		LocalDate endOf(int slot) {
+			return PropertyManager.EARLIEST_DATE.plusDays(slot);
+		}
+	}
+
+	/**
+	 * The WeekCalendar class is the calendar of a hotel suite, whose leases
+	 * run from a Sunday to a later Sunday. A lease may start on the Sunday
+	 * another ends.
+	 */
+	private static class WeekCalendar extends SlotCalendar {
+
+		/**
+		 * Constructs a calendar for the given hotel suite
+		 *
+		 * @param unit the hotel suite
+		 */
+		WeekCalendar(UnitView unit) {
+			super(unit, WEEKS, MAX_WEEKS);
+		}
+
+		/**
+		 * Gets the Sunday a week starts on
+		 *
+		 * @param slot the week
+		 * @return the date
+		 */
+		@Override
+		LocalDate startOf(int slot) {
+			return FIRST_SUNDAY.plusWeeks(slot);
+		}
+
+		/**
+		 * Gets the Sunday after a week, the end of a lease ending with it
+		 *
+		 * @param slot the week
+		 * @return the date
+		 */
+		@Override
+		LocalDate endOf(int slot) {
+			return FIRST_SUNDAY.plusWeeks(slot + 1);
+		}
+	}
+
+	/**
+	 * The MonthCalendar class is the calendar of an office, whose leases
+	 * run for whole months and share its capacity.
+	 */
+	private static class MonthCalendar extends Calendar {
+
+		/** the capacity left in each month */
+		private int[] left;
+
+		/**
+		 * Constructs a calendar for the given office
+		 *
+		 * @param unit the office
+		 */
+		MonthCalendar(UnitView unit) {
+			super(unit);
+			left = new int[MONTHS];
+			Arrays.fill(left, unit.getCapacity());
+		}
+
+		/**
+		 * Returns the most leases the office can hold, one person a month
+		 *
+		 * @return the number of leases
+		 */
+		@Override
+		long room() {
+			return (long) MONTHS * unit.getCapacity();
+		}
+
+		/**
+		 * Places a lease of random length and occupants on random months
+		 * with room, or failing that a lease of one month for one person in
+		 * the first month with room from a random one
+		 *
+		 * @param random the source of randomness
+		 * @param number the confirmation number of the lease
+		 * @param client the client of the lease
+		 * @param slack the most room the lease may take beyond one person for one month
+		 * @return the lease, or null if every month is full
+		 */
+		@Override
+		LeaseView place(Random random, int number, ClientView client, long slack) {
+			int occupants = (int) Math.min(1 + random.nextInt(Math.max(1, unit.getCapacity() / 10)), slack + 1);
+			int length = (int) Math.min(1 + random.nextInt(MAX_MONTHS), (slack + 1) / occupants);
+			for (int i = 0; i < TRIES; i++) {
+				int start = random.nextInt(MONTHS - length + 1);
+				if (fits(start, length, occupants)) {
+					return take(start, length, occupants, number, client);
+				}
+			}
+			int start = random.nextInt(MONTHS);
+			for (int i = 0; i < MONTHS; i++) {
+				int month = (start + i) % MONTHS;
+				if (left[month] > 0) {
+					return take(month, 1, 1, number, client);
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns whether months have room for more occupants
+		 *
+		 * @param start the first month
+		 * @param length the number of months
+		 * @param occupants the number of occupants
+		 * @return whether every month has room
+		 */
+		private boolean fits(int start, int length, int occupants) {
+			for (int m = start; m < start + length; m++) {
+				if (left[m] < occupants) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Takes capacity for a lease
+		 *
+		 * @param start the first month
+		 * @param length the number of months
+		 * @param occupants the number of occupants
+		 * @param number the confirmation number of the lease
+		 * @param client the client of the lease
+		 * @return the lease
+		 */
+		private LeaseView take(int start, int length, int occupants, int number, ClientView client) {
+			for (int m = start; m < start + length; m++) {
+				left[m] -= occupants;
+			}
+			used += (long) length * occupants;
+			LocalDate first = PropertyManager.EARLIEST_DATE.plusMonths(start);
+			LocalDate last = first.plusMonths(length - 1);
+			return lease(number, first, last.withDayOfMonth(last.lengthOfMonth()), occupants, client);
+		}
+	}
+}
@@ -8,6 +8,7 @@ import java.io.FileNotFoundException;
 import java.time.LocalDate;
 import java.util.Scanner;
 
+import edu.ncsu.csc216.business.model.diagnostics.RentalFileEvent;
 import edu.ncsu.csc216.business.model.properties.RentalUnit;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
@@ -16,19 +17,13 @@ import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
 
 /**
  * The RentalReader class reads data into the system from a specified input
- * file. It uses a single instance of  PropertyManager to populate the necessary
- * field in the PropertyManager class.
+ * file. It populates the single instance of PropertyManager, or any other
+ * manager it is given.
  * 
  * @author Walker Clem, Alex Raum
  */
 public class RentalReader {
 	
-	/** 
-	 * An instance of the PropertyManager class used to store
-	 * data that is read into PropertyManagers fields.
-	 */
-	static PropertyManager manager = PropertyManager.getInstance();
-	
 	/**
 	 * Reads the rental data from a file and stores it in
 	 * the PropertyManager.
@@ -36,7 +31,22 @@ public class RentalReader {
 	 * @param filename the name of the file to be read from
 	 */
 	public static void readRentalData(String filename) {
+		readRentalData(filename, PropertyManager.getInstance());
+	}
+	
+	/**
+	 * Reads the rental data from a file and stores it in
+	 * the given manager, replacing the manager's data.
+	 * 
+	 * @param filename the name of the file to be read from
+	 * @param manager the manager to store the data in
+	 */
+	public static void readRentalData(String filename, PropertyManager manager) {
+		long began = System.nanoTime();
+		RentalFileEvent phase = new RentalFileEvent(RentalFileEvent.LOAD, RentalFileEvent.PREPARE);
 		manager.flushAllData();
+		phase.commit();
+		phase = new RentalFileEvent(RentalFileEvent.LOAD, RentalFileEvent.UNITS);
 		try {
 
 			Scanner fileReader = new Scanner(new File(filename));
@@ -48,11 +58,16 @@ public class RentalReader {
 			Client lastClient = null;
 			while (fileReader.hasNextLine()) {
 				String next = fileReader.nextLine().trim();
+				if (next.startsWith("#") && lastClient == null) {
+					phase.commit();
+					phase = new RentalFileEvent(RentalFileEvent.LOAD, RentalFileEvent.CLIENTS);
+				}
+				phase.line();
 
 				if (!next.isBlank()) {
 					if (next.startsWith("H") || next.startsWith("C") || next.startsWith("O")) {
 						try {
-							rentalUnitReader(next);
+							rentalUnitReader(next, manager);
 						} catch (DuplicateRoomException e) {
 							fileReader.close();
 							manager.flushAllData();
@@ -60,20 +75,22 @@ public class RentalReader {
 						}
 					} else if (next.startsWith("#")) {
 						try {
-							lastClient = clientReader(next);
+							lastClient = clientReader(next, manager);
 						} catch (DuplicateClientException e) {
 							fileReader.close();
 							manager.flushAllData();
 							throw new IllegalArgumentException();
 						}
 					} else if (Character.isDigit(next.trim().charAt(0))) {
-						leaseReader(next, lastClient);
+						leaseReader(next, lastClient, manager);
 					}
 				} else {
 					continue;
 				}
 			}
 			fileReader.close();
+			phase.commit();
+			manager.getMetrics().loaded(System.nanoTime() - began);
 			
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to load file.");
@@ -84,29 +101,25 @@ public class RentalReader {
 	 * Read in a Client.
 	 * 
 	 * @param next the next line to read
+	 * @param manager the manager to add the client to
 	 * @return the client
 	 * @throws DuplicateClientException if there is an error
 	 */
-	private static Client clientReader(String next) throws DuplicateClientException {
-		Client c = null;
+	private static Client clientReader(String next, PropertyManager manager) throws DuplicateClientException {
 		Scanner clientReader = new Scanner(next);
 
 		clientReader.useDelimiter("\\(|\\)");
 		String fullName = clientReader.next().trim().substring(1);
 		String id = clientReader.next();
-
-		c = new Client(fullName, id);
 		
 		clientReader.close();
 		
 		try {
-			manager.addNewClient(fullName, id);
+			return manager.addNewClient(fullName, id);
 		} catch (DuplicateClientException e) {
 			manager.flushAllData();
 			throw new IllegalArgumentException();
 		}
-		
-		return c;
 	}
 
 	/**
@@ -114,8 +127,9 @@ public class RentalReader {
 	 * 
 	 * @param line the line to read in 
 	 * @param c the client to add to lease
+	 * @param manager the manager to add the lease to
 	 */
-	private static void leaseReader(String line, Client c) {
+	private static void leaseReader(String line, Client c, PropertyManager manager) {
 		Scanner leaseReader = new Scanner(line);
 		leaseReader.useDelimiter("\\|");
 		String id = leaseReader.next().replaceAll("\\s", "");
@@ -149,10 +163,11 @@ public class RentalReader {
 	 * Reads in a Unit.
 	 * 
 	 * @param line the line to read
+	 * @param manager the manager to add the unit to
 	 * @return the Rental Unit
 	 * @throws DuplicateRoomException if there is an error
 	 */
-	private static RentalUnit rentalUnitReader(String line) throws DuplicateRoomException {
+	private static RentalUnit rentalUnitReader(String line, PropertyManager manager) throws DuplicateRoomException {
 		RentalUnit a = null;
 
 		Scanner rentalUnitReader = new Scanner(line); // makes a reader for the first line
@@ -0,0 +1,279 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.io;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The RentalRenderer class writes the text lines used to list and save
+ * rental units, clients and leases into a StringBuilder supplied by the 
+ * caller. Numbers are padded and dates are spelled out by hand, straight
+ * from the fields of each object, so rendering a line creates no objects
+ * beyond the growth of the builder itself. Each line can be rendered
+ * from the live object or from its view, with the same result.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalRenderer {
+	
+	/** the width of the kind label of a rental unit, including the colon */
+	private static final int KIND_WIDTH = 17;
+	/** the width of the floor number of a rental unit */
+	private static final int FLOOR_WIDTH = 2;
+	/** the width of the capacity of a rental unit */
+	private static final int CAPACITY_WIDTH = 3;
+	/** the width of the number of occupants on a client's lease line */
+	private static final int OCCUPANTS_WIDTH = 3;
+	/** the width of a confirmation number */
+	private static final int CONFIRMATION_WIDTH = 6;
+	/** the separator between the columns of a line */
+	private static final String SEPARATOR = " | ";
+	
+	/**
+	 * Appends the name of a rental unit, such as "Office:           2-56"
+	 * 
+	 * @param out the builder to append to
+	 * @param unit the rental unit
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnitName(StringBuilder out, RentalUnit unit) {
+		return appendUnitName(out, unit.getKindLabel(), unit.getFloor(), unit.getRoom());
+	}
+	
+	/**
+	 * Appends the name of a viewed rental unit, such as "Office:           2-56"
+	 * 
+	 * @param out the builder to append to
+	 * @param unit the view of the rental unit
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnitName(StringBuilder out, UnitView unit) {
+		return appendUnitName(out, unit.getKindLabel(), unit.getFloor(), unit.getRoom());
+	}
+	
+	/**
+	 * Appends the description of a rental unit: its name, its capacity 
+	 * and whether it is unavailable
+	 * 
+	 * @param out the builder to append to
+	 * @param unit the rental unit
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnit(StringBuilder out, RentalUnit unit) {
+		appendUnitName(out, unit).append(SEPARATOR);
+		return appendCapacity(out, unit.getCapacity(), unit.isInService());
+	}
+	
+	/**
+	 * Appends the description of a viewed rental unit: its name, its capacity 
+	 * and whether it is unavailable
+	 * 
+	 * @param out the builder to append to
+	 * @param unit the view of the rental unit
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnit(StringBuilder out, UnitView unit) {
+		appendUnitName(out, unit).append(SEPARATOR);
+		return appendCapacity(out, unit.getCapacity(), unit.isInService());
+	}
+	
+	/**
+	 * Appends a client's name followed by the client's id in parentheses
+	 * 
+	 * @param out the builder to append to
+	 * @param client the client
+	 * @return the builder
+	 */
+	public static StringBuilder appendClient(StringBuilder out, Client client) {
+		return appendClient(out, client.getName(), client.getId());
+	}
+	
+	/**
+	 * Appends a viewed client's name followed by the client's id in parentheses
+	 * 
+	 * @param out the builder to append to
+	 * @param client the view of the client
+	 * @return the builder
+	 */
+	public static StringBuilder appendClient(StringBuilder out, ClientView client) {
+		return appendClient(out, client.getName(), client.getId());
+	}
+	
+	/**
+	 * Appends a lease as it is listed for its rental unit: confirmation 
+	 * number, dates, occupants and client
+	 * 
+	 * @param out the builder to append to
+	 * @param lease the lease
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnitLease(StringBuilder out, Lease lease) {
+		appendLeaseDates(out, lease.getConfirmationNumber(), lease.getStartDay(), lease.getEndDay());
+		out.append(SEPARATOR).append(lease.getNumOccupants()).append(SEPARATOR);
+		return appendClient(out, lease.getClient());
+	}
+	
+	/**
+	 * Appends a viewed lease as it is listed for its rental unit: 
+	 * confirmation number, dates, occupants and client
+	 * 
+	 * @param out the builder to append to
+	 * @param lease the view of the lease
+	 * @return the builder
+	 */
+	public static StringBuilder appendUnitLease(StringBuilder out, LeaseView lease) {
+		appendLeaseDates(out, lease.getConfirmationNumber(), lease.getStartDay(), lease.getEndDay());
+		out.append(SEPARATOR).append(lease.getOccupants()).append(SEPARATOR);
+		return appendClient(out, lease.getClientName(), lease.getClientId());
+	}
+	
+	/**
+	 * Appends a lease as it is listed for its client: confirmation 
+	 * number, dates, occupants and rental unit
+	 * 
+	 * @param out the builder to append to
+	 * @param lease the lease
+	 * @return the builder
+	 */
+	public static StringBuilder appendClientLease(StringBuilder out, Lease lease) {
+		appendLeaseDates(out, lease.getConfirmationNumber(), lease.getStartDay(), lease.getEndDay());
+		out.append(SEPARATOR);
+		appendPadded(out, lease.getNumOccupants(), OCCUPANTS_WIDTH, ' ').append(SEPARATOR);
+		return appendUnitName(out, lease.getProperty());
+	}
+	
+	/**
+	 * Appends a viewed lease as it is listed for its client: confirmation 
+	 * number, dates, occupants and rental unit
+	 * 
+	 * @param out the builder to append to
+	 * @param lease the view of the lease
+	 * @return the builder
+	 */
+	public static StringBuilder appendClientLease(StringBuilder out, LeaseView lease) {
+		appendLeaseDates(out, lease.getConfirmationNumber(), lease.getStartDay(), lease.getEndDay());
+		out.append(SEPARATOR);
+		appendPadded(out, lease.getOccupants(), OCCUPANTS_WIDTH, ' ').append(SEPARATOR);
+		return appendUnitName(out, lease.getUnitKindLabel(), lease.getUnitFloor(), lease.getUnitRoom());
+	}
+	
+	/**
+	 * Appends the name of a rental unit from its kind label and location
+	 * 
+	 * @param out the builder to append to
+	 * @param kindLabel the label for the kind of the unit
+	 * @param floor the floor of the unit
+	 * @param room the room of the unit
+	 * @return the builder
+	 */
+	private static StringBuilder appendUnitName(StringBuilder out, String kindLabel, int floor, int room) {
+		int mark = out.length();
+		out.append(kindLabel).append(':');
+		appendPadding(out, KIND_WIDTH - (out.length() - mark), ' ');
+		appendPadded(out, floor, FLOOR_WIDTH, ' ');
+		return out.append('-').append(room);
+	}
+	
+	/**
+	 * Appends the capacity of a rental unit and whether it is unavailable
+	 * 
+	 * @param out the builder to append to
+	 * @param capacity the capacity of the unit
+	 * @param inService whether the unit is in service
+	 * @return the builder
+	 */
+	private static StringBuilder appendCapacity(StringBuilder out, int capacity, boolean inService) {
+		appendPadded(out, capacity, CAPACITY_WIDTH, ' ');
+		if (!inService) {
+			out.append(" Unavailable");
+		}
+		return out;
+	}
+	
+	/**
+	 * Appends a client's name followed by the client's id in parentheses
+	 * 
+	 * @param out the builder to append to
+	 * @param name the name of the client
+	 * @param id the id of the client
+	 * @return the builder
+	 */
+	private static StringBuilder appendClient(StringBuilder out, String name, String id) {
+		return out.append(name).append(" (").append(id).append(')');
+	}
+	
+	/**
+	 * Appends the confirmation number of a lease and its dates
+	 * 
+	 * @param out the builder to append to
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param startDay the start date of the lease as a count of days from the epoch
+	 * @param endDay the end date of the lease as a count of days from the epoch
+	 * @return the builder
+	 */
+	private static StringBuilder appendLeaseDates(StringBuilder out, int confirmationNumber, int startDay, int endDay) {
+		appendPadded(out, confirmationNumber, CONFIRMATION_WIDTH, '0').append(SEPARATOR);
+		appendDate(out, startDay).append(" to ");
+		return appendDate(out, endDay);
+	}
+	
+	/**
+	 * Appends a date in the form yyyy-mm-dd, computed directly from its 
+	 * count of days from the epoch
+	 * 
+	 * @param out the builder to append to
+	 * @param epochDay the date as a count of days from the epoch
+	 * @return the builder
+	 */
+	public static StringBuilder appendDate(StringBuilder out, long epochDay) {
+		long z = epochDay + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long shifted = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * shifted + 2) / 5 + 1);
+		int month = (int) (shifted < 10 ? shifted + 3 : shifted - 9);
+		int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+		appendPadded(out, year, 4, '0').append('-');
+		appendPadded(out, month, 2, '0').append('-');
+		return appendPadded(out, day, 2, '0');
+	}
+	
+	/**
+	 * Appends a non-negative number padded on the left to the given width
+	 * 
+	 * @param out the builder to append to
+	 * @param value the number
+	 * @param width the smallest number of characters to take up
+	 * @param pad the character to pad with
+	 * @return the builder
+	 */
+	public static StringBuilder appendPadded(StringBuilder out, int value, int width, char pad) {
+		int digits = 1;
+		for (int rest = value / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		appendPadding(out, width - digits, pad);
+		return out.append(value);
+	}
+	
+	/**
+	 * Appends a character the given number of times
+	 * 
+	 * @param out the builder to append to
+	 * @param count the number of times, nothing is appended if it is not positive
+	 * @param pad the character to append
+	 */
+	private static void appendPadding(StringBuilder out, int count, char pad) {
+		for (int i = 0; i < count; i++) {
+			out.append(pad);
+		}
+	}
+}
@@ -4,18 +4,23 @@
 package edu.ncsu.csc216.business.model.io;
 
 
+import edu.ncsu.csc216.business.model.diagnostics.RentalFileEvent;
 import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.io.File;
-
-//import java.io.IOException;
+import java.io.Writer;
 
 /**
  * The RentalWriter class writes existing system data to a
- * specified output data. It uses a single instance of 
- * PropertyManager to obtain all necessary date to be written.
+ * specified output data. It writes from a snapshot of the single 
+ * instance of PropertyManager, or of any other manager it is given, so
+ * saving never reads the live data while it is being changed.
+ * Each line is rendered into one reused StringBuilder and copied
+ * into one reused buffer, so saving creates no garbage per line.
  * 
  * @author Walker Clem, Alex Raum
  */
@@ -28,24 +33,120 @@ public class RentalWriter {
 	 * @param filename the name of the file that data is to be written to
 	 */
 	public static void writeRentalFile(String filename) {
-		PropertyManager manager = PropertyManager.getInstance();
-		try {
-			// PrintWriter fileWriter = new PrintWriter(new File(filename));
-			PrintStream fileWriter = new PrintStream(new File(filename));
-			for (String unit : manager.listRentalUnits()) {
-				fileWriter.println(unit);
-			}
-			fileWriter.println();
-			int i = 0;
-			for (String client : manager.listClients()) {
-				fileWriter.println("#" + client);
-				for (String lease : manager.listClientLeases(i)) {
-					fileWriter.println("   " + lease);
-				}
-				i++;
-			}
+		writeRentalFile(filename, PropertyManager.getInstance());
+	}
+	
+	/**
+	 * Static method used to write the data of the given manager
+	 * to a specified file. 
+	 * 
+	 * @param filename the name of the file that data is to be written to
+	 * @param manager the manager whose data is written
+	 */
+	public static void writeRentalFile(String filename, PropertyManager manager) {
+		long began = System.nanoTime();
+		try (Writer fileWriter = new BufferedWriter(new FileWriter(filename))) {
+			writeRentalData(manager, fileWriter);
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to save file.");
 		}
+		manager.getMetrics().saved(System.nanoTime() - began);
+	}
+	
+	/**
+	 * Writes every rental unit of the manager, then each client of the 
+	 * manager followed by that client's leases, to the given Writer.
+	 * 
+	 * @param manager the manager whose data is written
+	 * @param out the Writer to write to
+	 * @throws IOException if the data cannot be written
+	 */
+	public static void writeRentalData(PropertyManager manager, Writer out) throws IOException {
+		RentalFileEvent phase = new RentalFileEvent(RentalFileEvent.SAVE, RentalFileEvent.PREPARE);
+		RentalSnapshot snapshot = manager.snapshot();
+		phase.commit();
+		writeRentalData(snapshot, out);
+	}
+	
+	/**
+	 * Writes every rental unit of the snapshot, then each client of the 
+	 * snapshot followed by that client's leases, to the given Writer.
+	 * 
+	 * @param snapshot the snapshot whose data is written
+	 * @param out the Writer to write to
+	 * @throws IOException if the data cannot be written
+	 */
+	public static void writeRentalData(RentalSnapshot snapshot, Writer out) throws IOException {
+		LineWriter lines = new LineWriter(out);
+		RentalFileEvent phase = new RentalFileEvent(RentalFileEvent.SAVE, RentalFileEvent.UNITS);
+		for (int i = 0; i < snapshot.getUnitCount(); i++) {
+			lines.write(RentalRenderer.appendUnit(lines.start(), snapshot.getUnit(i)));
+			phase.line();
+		}
+		lines.write(lines.start());
+		phase.line();
+		phase.commit();
+		phase = new RentalFileEvent(RentalFileEvent.SAVE, RentalFileEvent.CLIENTS);
+		for (int i = 0; i < snapshot.getClientCount(); i++) {
+			lines.write(RentalRenderer.appendClient(lines.start().append('#'), snapshot.getClient(i)));
+			phase.line();
+			for (LeaseView lease : snapshot.getLeasesForClient(i)) {
+				lines.write(RentalRenderer.appendClientLease(lines.start().append("   "), lease));
+				phase.line();
+			}
+		}
+		phase.commit();
+	}
+	
+	/**
+	 * The LineWriter class copies lines from a reused StringBuilder into
+	 * a Writer through a reused character buffer.
+	 * 
+	 * @author Walker Clem, Alex Raum
+	 */
+	private static class LineWriter {
+		
+		/** the Writer lines are written to */
+		private Writer out;
+		/** the line being built */
+		private StringBuilder line;
+		/** the buffer lines are copied through */
+		private char[] buffer;
+		
+		/**
+		 * Constructs a LineWriter for the given Writer
+		 * 
+		 * @param out the Writer lines are written to
+		 */
+		LineWriter(Writer out) {
+			this.out = out;
+			this.line = new StringBuilder(128);
+			this.buffer = new char[128];
+		}
+		
+		/**
+		 * Empties the line and returns it so the next line can be built
+		 * 
+		 * @return the empty line
+		 */
+		StringBuilder start() {
+			line.setLength(0);
+			return line;
+		}
+		
+		/**
+		 * Writes the line followed by a line separator
+		 * 
+		 * @param text the line, which must be the builder returned by start
+		 * @throws IOException if the line cannot be written
+		 */
+		void write(StringBuilder text) throws IOException {
+			text.append(System.lineSeparator());
+			if (buffer.length < text.length()) {
+				buffer = new char[text.length() * 2];
+			}
+			text.getChars(0, text.length(), buffer, 0);
+			out.write(buffer, 0, text.length());
+		}
 	}
 }
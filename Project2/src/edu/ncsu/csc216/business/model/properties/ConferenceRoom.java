@@ -4,10 +4,11 @@
 package edu.ncsu.csc216.business.model.properties;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
-import edu.ncsu.csc216.business.list_utils.SortedList;
 import edu.ncsu.csc216.business.model.contracts.Lease;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
 
 /**
  * The ConferenceRoom class provides all necessary state and behavior 
@@ -39,7 +40,7 @@ public class ConferenceRoom extends RentalUnit {
 	}
 	
 	/**
-	 * The reserve method is used to reserve the conference room for a new Lease
+	 * The reserveLease method is used to reserve the conference room for a new Lease
 	 * 
 	 * @param client the client creating the lease
 	 * @param startDate the start date of the lease
@@ -52,7 +53,7 @@ public class ConferenceRoom extends RentalUnit {
 	 * @throws RentalOutOfServiceException if the conference room is currently out of service
 	 */
 	@Override
-	public Lease reserve(Client client, LocalDate startDate, int duration, 
+	protected Lease reserveLease(Client client, LocalDate startDate, int duration, 
 			int occupants) throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
 		LocalDate endDate = startDate.plusDays(duration - 1);
 		checkLeaseConditions(client, startDate, duration, occupants);
@@ -62,12 +63,11 @@ public class ConferenceRoom extends RentalUnit {
 		if (occupants > super.getCapacity()) {
 			throw new RentalCapacityException("Too many occupants");
 		}
-		for (int i = 0; i < myLeases.size(); i++) {
-			if (endDate.compareTo(myLeases.get(i).getStart()) >= 0 && startDate.compareTo(myLeases.get(i).getEnd()) <= 0) {
-				throw new RentalDateException("Invalid date");
-			}
+		if (conflictWith(startDate, endDate) != null) {
+			throw new RentalDateException("Invalid date");
 		}
 		this.checkDates(startDate, endDate);
+		this.checkMaintenance(startDate, endDate);
 		Lease lease = new Lease(client, this, startDate, endDate, occupants);
 		super.addLease(lease);
 		return lease;
@@ -84,7 +84,8 @@ public class ConferenceRoom extends RentalUnit {
 	 * @return the Lease that the rental unit is being reserved for
 	 * @throws RentalCapacityException if the conference room cannot hold the
 	 *         number of occupants over the dates of the proposed lease
-	 * @throws RentalDateException if the start date or end dates are not valid
+	 * @throws RentalDateException if the start date or end dates are not valid,
+	 *         or if the dates fall in a maintenance window
 	 */
 	@Override
 	public Lease recordExistingLease(int confirmationNumber, Client client, LocalDate startDate,
@@ -96,39 +97,98 @@ public class ConferenceRoom extends RentalUnit {
 		if (!endDate.minusDays(MAX_DURATION).isBefore(startDate)) {
 			throw new RentalDateException("Invalid date");
 		}
+		checkMaintenance(startDate, endDate);
 		Lease lease = new Lease(confirmationNumber, client, this, startDate, endDate, numOccupants);
 		this.addLease(lease);
 		return lease;
 	}
 	
 	/**
-	 * Calls parent method to obtain Leases then goes through them to 
-	 * adjust their end dates as needed.
+	 * Returns up to k of the earliest start dates, on or after the from
+	 * date, for which this conference room could be reserved. Each conflicting
+	 * Lease or maintenance window is skipped as a whole, so the gaps between
+	 * Leases are visited directly rather than one day at a time.
 	 * 
-	 * @param date the cutoff date for the leases
-	 * @return a list of leases whose end dates have been adjusted 
-	 *         according to their rental unit type
+	 * @param from the earliest start date to consider
+	 * @param duration the duration of the lease in days
+	 * @param occupants the number of occupants for the lease
+	 * @param k the maximum number of start dates to return
+	 * @return the feasible start dates in ascending order
+	 * @throws IllegalArgumentException if from is null, or if the duration,
+	 *         occupants or k parameters are less than 1
 	 */
 	@Override
-	public SortedList<Lease> removeFromServiceStarting(LocalDate date) {
-		SortedList<Lease> list = super.removeFromServiceStarting(date);
-		for (int i = 0; i < myLeases.size(); i++) {
-			Lease l = myLeases.get(i);
-			if (l.getEnd().compareTo(date) >= 0) {
-				LocalDate newDate = date.minusDays(1);
-				l.setEndDateEarlier(newDate);
+	public LocalDate[] availableStarts(LocalDate from, int duration, int occupants, int k) {
+		if (from == null || duration < 1 || occupants < 1 || k < 1) {
+			throw new IllegalArgumentException();
+		}
+		if (!isBookable() || duration > MAX_DURATION || occupants > getCapacity()) {
+			return new LocalDate[0];
+		}
+		LocalDate[] starts = new LocalDate[k];
+		int found = 0;
+		LocalDate start = from.isBefore(PropertyManager.EARLIEST_DATE) ? PropertyManager.EARLIEST_DATE : from;
+		while (found < k) {
+			LocalDate end = start.plusDays(duration - 1);
+			if (end.isAfter(PropertyManager.LATEST_DATE)) {
+				break;
 			}
+			Lease conflict = conflictWith(start, end);
+			MaintenanceWindow window = maintenanceDuring(start, end);
+			if (conflict != null) {
+				start = conflict.getEnd().plusDays(1);
+			} else if (window != null) {
+				start = window.getEnd().plusDays(1);
+			} else {
+				starts[found] = start;
+				found++;
+				start = start.plusDays(1);
+			}
+		}
+		return Arrays.copyOf(starts, found);
+	}
+	
+	/**
+	 * Checks that a Lease may be extended to the new end date: the Lease
+	 * may not run longer than MAX_DURATION days, and no other Lease may 
+	 * start before the new end date.
+	 * 
+	 * @param lease the Lease to be extended
+	 * @param newEnd the new end date of the Lease
+	 * @throws RentalDateException if the Lease would be too long or 
+	 *         would overlap another Lease
+	 */
+	@Override
+	protected void checkExtension(Lease lease, LocalDate newEnd) throws RentalDateException {
+		if (!newEnd.minusDays(MAX_DURATION).isBefore(lease.getStart())) {
+			throw new RentalDateException("Invalid date");
+		}
+		Lease next = occupancy.floor((int) newEnd.toEpochDay());
+		if (next != null && next != lease) {
+			throw new RentalDateException("Invalid date");
 		}
-		return list;
 	}
 	
 	/**
-	 * Returns a String description of this conference room
+	 * Returns the Lease that overlaps the given dates, if any. Leases for
+	 * a conference room never overlap one another, so only the Lease with
+	 * the latest start on or before the end date needs to be checked.
+	 * 
+	 * @param startDate the start date of the interval
+	 * @param endDate the end date of the interval
+	 * @return the conflicting Lease, or null if the interval is free
+	 */
+	private Lease conflictWith(LocalDate startDate, LocalDate endDate) {
+		return occupancy.overlapping((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+	}
+	
+	/**
+	 * Returns the label for the kind of this conference room
 	 * 
-	 * @return a description of this conference room as a String
+	 * @return the kind label
 	 */
 	@Override
-	public String getDescription() {
-		return "Conference Room: " + super.getDescription();
+	public String getKindLabel() {
+		return "Conference Room";
 	}
 }
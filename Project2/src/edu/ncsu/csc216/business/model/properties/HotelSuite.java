@@ -5,8 +5,9 @@ package edu.ncsu.csc216.business.model.properties;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
 
-import edu.ncsu.csc216.business.list_utils.SortedList;
 import edu.ncsu.csc216.business.model.contracts.Lease;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
@@ -48,7 +49,7 @@ public class HotelSuite extends RentalUnit {
 	}
 	
 	/**
-	 * The reserve method is used to reserve the hotel suite for a new Lease
+	 * The reserveLease method is used to reserve the hotel suite for a new Lease
 	 * 
 	 * @param client the client creating the lease
 	 * @param startDate the start date of the lease
@@ -61,7 +62,7 @@ public class HotelSuite extends RentalUnit {
 	 * @throws RentalOutOfServiceException if the hotel suite is currently out of service
 	 */
 	@Override
-	public Lease reserve(Client client, LocalDate startDate, int duration,
+	protected Lease reserveLease(Client client, LocalDate startDate, int duration,
 			int occupants) throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
 		checkLeaseConditions(client, startDate, duration, occupants);
 		LocalDate endDate = startDate.plusWeeks(duration);
@@ -70,19 +71,14 @@ public class HotelSuite extends RentalUnit {
 			!(endDate.getDayOfWeek().equals(DayOfWeek.SUNDAY))) {
 			throw new RentalDateException("Invalid date");
 		}
-		for (int i = 0; i < myLeases.size(); i++) {
-			Lease l = myLeases.get(i);
-			if (endDate.compareTo(l.getStart()) > 0 && startDate.compareTo(l.getEnd()) < 0) {
-				throw new RentalDateException("Invalid date");
-			}
-			if (l.getStart().equals(startDate)) {
-				throw new RentalDateException("Invalid date");
-			}
+		if (conflictWith(startDate, endDate) != null) {
+			throw new RentalDateException("Invalid date");
 		}
 		if (occupants > super.getCapacity()) {
 			throw new RentalCapacityException("Too many occupants");
 		}
 		this.checkDates(startDate, endDate);
+		this.checkMaintenance(startDate, endDate);
 		Lease lease = new Lease(client, this, startDate, endDate, occupants);
 		super.addLease(lease);
 		return lease;	
@@ -99,7 +95,8 @@ public class HotelSuite extends RentalUnit {
 	 * @return the Lease that the hotel suite is being reserved for
 	 * @throws RentalCapacityException if the hotel suite cannot hold the number of 
 	 *         occupants over the dates of the proposed lease
-	 * @throws RentalDateException if the start date or end dates are not on Sunday
+	 * @throws RentalDateException if the start date or end dates are not on Sunday,
+	 *         or if the dates fall in a maintenance window
 	 */
 	@Override
 	public Lease recordExistingLease(int confirmationNumber, Client client, LocalDate startDate,
@@ -107,55 +104,113 @@ public class HotelSuite extends RentalUnit {
 		if (numOccupants > this.getCapacity()) {
 			throw new RentalCapacityException("Too many occupants");
 		}
-		for (int i = 0; i < myLeases.size(); i++) {
-			Lease l = myLeases.get(i);
-			if (endDate.compareTo(l.getStart()) > 0 && startDate.compareTo(l.getEnd()) < 0) {
-				throw new RentalDateException("Invalid date");
-			}
-			if (l.getStart().equals(startDate)) {
-				throw new RentalDateException("Invalid date");
-			}
+		if (conflictWith(startDate, endDate) != null) {
+			throw new RentalDateException("Invalid date");
 		}
 		this.checkDates(startDate, endDate);
+		this.checkMaintenance(startDate, endDate);
 		Lease lease = new Lease(confirmationNumber, client, this, startDate, endDate, numOccupants);
 		this.addLease(lease);
 		return lease;
 	}
 	
 	/**
-	 * Calls parent method to obtain Leases then goes through them to 
-	 * adjust their end dates as needed.
+	 * Returns up to k of the earliest Sundays, on or after the from date,
+	 * on which this hotel suite could be reserved. Each conflicting Lease or
+	 * maintenance window is skipped as a whole, so the gaps between Leases are
+	 * visited directly rather than one week at a time.
 	 * 
-	 * @param date the cutoff date for the leases
-	 * @return a list of leases whose end dates have been adjusted 
-	 *         according to their rental unit type
+	 * @param from the earliest start date to consider
+	 * @param duration the duration of the lease in weeks
+	 * @param occupants the number of occupants for the lease
+	 * @param k the maximum number of start dates to return
+	 * @return the feasible start dates in ascending order
+	 * @throws IllegalArgumentException if from is null, or if the duration,
+	 *         occupants or k parameters are less than 1
 	 */
 	@Override
-	public SortedList<Lease> removeFromServiceStarting(LocalDate date) {
-		SortedList<Lease> list = super.removeFromServiceStarting(date);
-		for (int i = 0; i < myLeases.size(); i++) {
-			Lease l = myLeases.get(i);
-			if (l.getEnd().compareTo(date) >= 0 && date.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
-				l.setEndDateEarlier(date);
+	public LocalDate[] availableStarts(LocalDate from, int duration, int occupants, int k) {
+		if (from == null || duration < 1 || occupants < 1 || k < 1) {
+			throw new IllegalArgumentException();
+		}
+		if (!isBookable() || occupants > getCapacity()) {
+			return new LocalDate[0];
+		}
+		LocalDate[] starts = new LocalDate[k];
+		int found = 0;
+		LocalDate start = from.isBefore(PropertyManager.EARLIEST_DATE) ? PropertyManager.EARLIEST_DATE : from;
+		start = start.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+		while (found < k) {
+			LocalDate end = start.plusWeeks(duration);
+			if (end.isAfter(PropertyManager.LATEST_DATE)) {
+				break;
 			}
-			if (l.getEnd().compareTo(date) >= 0 && !date.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
-				while (!date.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
-					date = date.minusDays(1);
-				}
-				l.setEndDateEarlier(date);
+			Lease conflict = conflictWith(start, end);
+			MaintenanceWindow window = maintenanceDuring(start, end);
+			if (conflict != null) {
+				start = conflict.getEnd().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+			} else if (window != null) {
+				start = window.getEnd().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+			} else {
+				starts[found] = start;
+				found++;
+				start = start.plusWeeks(1);
 			}
 		}
-		return list;
+		return Arrays.copyOf(starts, found);
+	}
+	
+	/**
+	 * Checks that a Lease may be extended to the new end date, which 
+	 * requires that no other Lease starts before the new end date.
+	 * 
+	 * @param lease the Lease to be extended
+	 * @param newEnd the new end date of the Lease
+	 * @throws RentalDateException if the Lease would overlap another Lease
+	 */
+	@Override
+	protected void checkExtension(Lease lease, LocalDate newEnd) throws RentalDateException {
+		Lease next = occupancy.lower((int) newEnd.toEpochDay());
+		if (next != null && next != lease) {
+			throw new RentalDateException("Invalid date");
+		}
+	}
+	
+	/**
+	 * Returns the Lease that overlaps the given dates, if any. Hotel suite
+	 * Leases may share a Sunday as one's end and the next one's start but
+	 * never overlap otherwise, so the interval is checked without its 
+	 * first and last days.
+	 * 
+	 * @param startDate the start date of the interval
+	 * @param endDate the end date of the interval
+	 * @return the conflicting Lease, or null if the interval is free
+	 */
+	private Lease conflictWith(LocalDate startDate, LocalDate endDate) {
+		return occupancy.overlapping((int) startDate.toEpochDay() + 1, (int) endDate.toEpochDay() - 1);
+	}
+	
+	/**
+	 * Returns the last day that a Lease running into a removal from
+	 * service on the given date may keep, the last Sunday on or before
+	 * the date.
+	 * 
+	 * @param date the date the hotel suite is removed from service
+	 * @return the latest end date for a Lease that is cut back
+	 */
+	@Override
+	public LocalDate serviceCutoffEnd(LocalDate date) {
+		return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
 	}
 	
 	/**
-	 * Returns a String description of this hotel suite
+	 * Returns the label for the kind of this hotel suite
 	 * 
-	 * @return a description of this hotel suite as a String
+	 * @return the kind label
 	 */
 	@Override
-	public String getDescription() {
-		return "Hotel Suite:     " + super.getDescription();
+	public String getKindLabel() {
+		return "Hotel Suite";
 	}
 	
 	/**
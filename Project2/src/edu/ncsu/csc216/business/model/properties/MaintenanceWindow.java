@@ -0,0 +1,75 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.properties;
+
+import java.time.LocalDate;
+
+/**
+ * The MaintenanceWindow class represents a period, from a start date to
+ * an end date inclusive, during which a RentalUnit is closed for maintenance.
+ * A unit cannot be reserved for any date in one of its windows, but can
+ * still be reserved before and after it.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class MaintenanceWindow {
+
+	/** the unit under maintenance */
+	private RentalUnit unit;
+	/** the first day of the window */
+	private LocalDate start;
+	/** the last day of the window */
+	private LocalDate end;
+
+	/**
+	 * Constructor for a MaintenanceWindow
+	 *
+	 * @param unit the unit under maintenance
+	 * @param start the first day of the window
+	 * @param end the last day of the window
+	 */
+	MaintenanceWindow(RentalUnit unit, LocalDate start, LocalDate end) {
+		this.unit = unit;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Gets the unit under maintenance
+	 *
+	 * @return the unit
+	 */
+	public RentalUnit getUnit() {
+		return this.unit;
+	}
+
+	/**
+	 * Gets the first day of the window
+	 *
+	 * @return the start date
+	 */
+	public LocalDate getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Gets the last day of the window
+	 *
+	 * @return the end date
+	 */
+	public LocalDate getEnd() {
+		return this.end;
+	}
+
+	/**
+	 * Returns whether the window shares any day with the given dates
+	 *
+	 * @param from the first day to check
+	 * @param to the last day to check
+	 * @return whether the window overlaps the dates
+	 */
+	public boolean overlaps(LocalDate from, LocalDate to) {
+		return !start.isAfter(to) && !end.isBefore(from);
+	}
+}
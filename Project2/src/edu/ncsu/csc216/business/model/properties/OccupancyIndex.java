@@ -0,0 +1,216 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.properties;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+
+/**
+ * The OccupancyIndex class is an index over the Leases of a single
+ * RentalUnit. The index is kept as parallel arrays in the same order as
+ * the unit's lease list, by start date and then confirmation number: the
+ * start and end of each Lease as epoch days, and the Lease itself. Any
+ * position in the list can be found by a binary search over plain ints,
+ * without touching any Lease or LocalDate objects. For units whose Leases
+ * may not overlap one another, it is also a gap index: the Lease that 
+ * could conflict with a proposed interval, and therefore the next gap 
+ * after it, is found the same way.
+ *
+ * Each unit has an index of its own; there is no store of Leases shared
+ * by the whole manager, and Leases stay objects held by their Clients and
+ * units. Together with the int dates of Lease, this takes a Lease and its
+ * entry here to about 52 bytes, against 88 for a Lease holding two
+ * LocalDates, a cut of about 1.7 times rather than several times.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+class OccupancyIndex {
+
+	/** the initial length of the arrays */
+	private static final int INITIAL_SIZE = 8;
+	/** the start day of each indexed Lease, in ascending order */
+	private int[] starts;
+	/** the end day of each indexed Lease */
+	private int[] ends;
+	/** the indexed Leases */
+	private Lease[] leases;
+	/** the number of indexed Leases */
+	private int size;
+	/** the number of entries looked at by every search so far */
+	private long examined;
+
+	/**
+	 * Constructs an empty OccupancyIndex
+	 */
+	OccupancyIndex() {
+		this.starts = new int[INITIAL_SIZE];
+		this.ends = new int[INITIAL_SIZE];
+		this.leases = new Lease[INITIAL_SIZE];
+	}
+
+	/**
+	 * Adds a Lease to the index, in order of start day and then
+	 * confirmation number
+	 *
+	 * @param lease the Lease to be indexed
+	 */
+	void add(Lease lease) {
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+			leases = Arrays.copyOf(leases, size * 2);
+		}
+		int i = after(lease.getStartDay(), lease.getConfirmationNumber());
+		System.arraycopy(starts, i, starts, i + 1, size - i);
+		System.arraycopy(ends, i, ends, i + 1, size - i);
+		System.arraycopy(leases, i, leases, i + 1, size - i);
+		starts[i] = lease.getStartDay();
+		ends[i] = lease.getEndDay();
+		leases[i] = lease;
+		size++;
+	}
+
+	/**
+	 * Removes a Lease from the index, does nothing if the
+	 * Lease is not indexed
+	 *
+	 * @param lease the Lease to be removed
+	 */
+	void remove(Lease lease) {
+		for (int i = upperBound(lease.getStartDay()) - 1; i >= 0 && starts[i] == lease.getStartDay(); i--) {
+			examined++;
+			if (leases[i] == lease) {
+				System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+				System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+				System.arraycopy(leases, i + 1, leases, i, size - i - 1);
+				size--;
+				leases[size] = null;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Records a new end day for an indexed Lease, does nothing if the
+	 * Lease is not indexed
+	 *
+	 * @param lease the Lease whose end day changed
+	 */
+	void updateEnd(Lease lease) {
+		for (int i = upperBound(lease.getStartDay()) - 1; i >= 0 && starts[i] == lease.getStartDay(); i--) {
+			examined++;
+			if (leases[i] == lease) {
+				ends[i] = lease.getEndDay();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the Lease with the latest start day that is on
+	 * or before the given day.
+	 *
+	 * @param day the epoch day to search from
+	 * @return the Lease found, or null if there is no such Lease
+	 */
+	Lease floor(int day) {
+		int i = upperBound(day) - 1;
+		return i < 0 ? null : leases[i];
+	}
+
+	/**
+	 * Returns the Lease with the latest start day that is
+	 * strictly before the given day.
+	 *
+	 * @param day the epoch day to search from
+	 * @return the Lease found, or null if there is no such Lease
+	 */
+	Lease lower(int day) {
+		int i = upperBound(day - 1) - 1;
+		return i < 0 ? null : leases[i];
+	}
+
+	/**
+	 * Returns the position of the first Lease that comes after the given
+	 * start day and confirmation number in the order of the index
+	 *
+	 * @param startDay the start day to search for
+	 * @param confirmationNumber the confirmation number to search for
+	 * @return the position of the first Lease after the key
+	 */
+	int after(int startDay, int confirmationNumber) {
+		int i = upperBound(startDay);
+		while (i > 0 && starts[i - 1] == startDay && leases[i - 1].getConfirmationNumber() > confirmationNumber) {
+			examined++;
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Gets the Lease at the given position of the index
+	 *
+	 * @param i the position
+	 * @return the Lease
+	 */
+	Lease get(int i) {
+		return leases[i];
+	}
+
+	/**
+	 * Gets the number of indexed Leases
+	 *
+	 * @return the number of Leases
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of entries looked at by every search of the index
+	 * so far. The count only grows, so its difference across an operation
+	 * is the number of entries that operation looked at.
+	 *
+	 * @return the number of entries looked at
+	 */
+	long getExamined() {
+		return examined;
+	}
+
+	/**
+	 * Returns the Lease that shares a day with the days from the from day
+	 * to the to day inclusive. Since indexed Leases do not overlap, only 
+	 * the Lease with the latest start on or before the to day can.
+	 *
+	 * @param from the first epoch day to check
+	 * @param to the last epoch day to check
+	 * @return the overlapping Lease, or null if there is none
+	 */
+	Lease overlapping(int from, int to) {
+		int i = upperBound(to) - 1;
+		return i >= 0 && ends[i] >= from ? leases[i] : null;
+	}
+
+	/**
+	 * Returns the position of the first Lease that starts after the given day
+	 *
+	 * @param day the epoch day to search for
+	 * @return the number of Leases that start on or before the day
+	 */
+	private int upperBound(int day) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			examined++;
+			if (starts[mid] <= day) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
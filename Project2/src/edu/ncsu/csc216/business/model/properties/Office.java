@@ -4,10 +4,8 @@
 package edu.ncsu.csc216.business.model.properties;
 
 import java.time.LocalDate;
-import java.time.Month;
 import java.util.Arrays;
 
-import edu.ncsu.csc216.business.list_utils.SortedList;
 import edu.ncsu.csc216.business.model.contracts.Lease;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
@@ -35,6 +33,15 @@ public class Office extends RentalUnit {
 	private static final int MONTH_SHIFT = 1;
 	/** constants that represents the number of months per year */
 	private static final int MONTHS_PER_YEAR = 12;
+	/** the epoch day of the first day of each month in the capacity calendar */
+	private static final int[] MONTH_STARTS = new int[CAL_ROWS * CAL_COLS];
+	
+	static {
+		LocalDate first = LocalDate.of(YEAR_SHIFT, MONTH_SHIFT, 1);
+		for (int m = 0; m < MONTH_STARTS.length; m++) {
+			MONTH_STARTS[m] = (int) first.plusMonths(m).toEpochDay();
+		}
+	}
 	
 	/**
 	 * Constructor for the Office class
@@ -56,7 +63,7 @@ public class Office extends RentalUnit {
 	}
 	
 	/**
-	 * The reserve method is used to reserve the office for a new Lease.
+	 * The reserveLease method is used to reserve the office for a new Lease.
 	 * 
 	 * @param client the client creating the lease
 	 * @param startDate the start date of the lease
@@ -70,29 +77,22 @@ public class Office extends RentalUnit {
 	 * @throws IllegalArgumentException if any of the parameters are invalid
 	 */
 	@Override
-	public Lease reserve(Client client, LocalDate startDate, int duration,
+	protected Lease reserveLease(Client client, LocalDate startDate, int duration,
 			int occupants) throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
 		LocalDate endDate = startDate.plusMonths(duration).minusDays(1);
 		if (client == null || startDate == null || duration < 1 || occupants < 1) {
 			throw new IllegalArgumentException();
 		}
-		if (!this.isInService()) {
+		if (!this.isBookable()) {
 			throw new RentalOutOfServiceException("Not in service");
 		}
 		if (occupants > super.getCapacity()) {
 			throw new RentalCapacityException("Too many occupants");
 		}
 		this.checkDates(startDate, endDate);
-		int startMonth = startDate.getMonthValue() - MONTH_SHIFT;
-		int startYear = startDate.getYear() - YEAR_SHIFT;
-		int endMonth = endDate.getMonthValue() - MONTH_SHIFT;
-		int endYear = endDate.getYear() - YEAR_SHIFT;
-		for (int i = startYear; i <= endYear; i++) {
-			for (int j = startMonth; j <= endMonth; j++) {
-				if (calendar[i][j] < occupants) {
-					throw new RentalCapacityException("Capacity is breached");
-				}
-			}
+		this.checkMaintenance(startDate, endDate);
+		if (!hasCapacity(startDate, endDate, occupants)) {
+			throw new RentalCapacityException("Capacity is breached");
 		}
 		Lease lease = new Lease(client, this, startDate, endDate, occupants);
 		this.addLease(lease);
@@ -111,7 +111,8 @@ public class Office extends RentalUnit {
 	 * @throws RentalCapacityException if the office cannot hold the number of 
 	 *         occupants over the dates of the proposed lease
 	 * @throws RentalDateException if the start date is not the first day of the
-	 *         month and the end date is not the last day of the month
+	 *         month and the end date is not the last day of the month, or if 
+	 *         the dates fall in a maintenance window
 	 */
 	@Override
 	public Lease recordExistingLease(int confirmationNumber, Client client, LocalDate startDate, 
@@ -119,18 +120,11 @@ public class Office extends RentalUnit {
 		if (numOccupants > this.getCapacity()) {
 			throw new RentalCapacityException("Too many occupants");
 		}
-		int startMonth = startDate.getMonthValue() - MONTH_SHIFT;
-		int startYear = startDate.getYear() - YEAR_SHIFT;
-		int endMonth = endDate.getMonthValue() - MONTH_SHIFT;
-		int endYear = endDate.getYear() - YEAR_SHIFT;
-		for (int i = startYear; i <= endYear; i++) {
-			for (int j = startMonth; j <= endMonth; j++) {
-				if (calendar[i][j] < numOccupants) {
-					throw new RentalCapacityException("Capacity is breached");
-				}
-			}
-		}
 		this.checkDates(startDate, endDate);
+		this.checkMaintenance(startDate, endDate);
+		if (!hasCapacity(startDate, endDate, numOccupants)) {
+			throw new RentalCapacityException("Capacity is breached");
+		}
 		Lease lease = new Lease(confirmationNumber, client, this, startDate, endDate, numOccupants);
 		this.addLease(lease);
 		return lease;
@@ -150,38 +144,76 @@ public class Office extends RentalUnit {
 				|| date.isAfter(PropertyManager.LATEST_DATE)) {
 			throw new IllegalArgumentException();
 		}
-		int month = date.getMonthValue() - MONTH_SHIFT;
-		int year = date.getYear() - YEAR_SHIFT;
-		return calendar[year][month];
+		int month = monthIndex(date);
+		return calendar[month / MONTHS_PER_YEAR][month % MONTHS_PER_YEAR];
 	}
 	
 	/**
-	 * Calls parent method to obtain Leases then goes through them to 
-	 * adjust their end dates as needed.
+	 * Returns up to k of the earliest first days of the month, on or after
+	 * the from date, on which this office could be leased. When a month in
+	 * a candidate range lacks capacity or has maintenance, every start that
+	 * would include that month is skipped at once.
 	 * 
-	 * @param date the cutoff date for the leases
-	 * @return a list of leases whose end dates have been adjusted 
-	 *         according to their rental unit type
+	 * @param from the earliest start date to consider
+	 * @param duration the duration of the lease in months
+	 * @param occupants the number of occupants for the lease
+	 * @param k the maximum number of start dates to return
+	 * @return the feasible start dates in ascending order
+	 * @throws IllegalArgumentException if from is null, or if the duration,
+	 *         occupants or k parameters are less than 1
 	 */
 	@Override
-	public SortedList<Lease> removeFromServiceStarting(LocalDate date) {
-		SortedList<Lease> list = super.removeFromServiceStarting(date);
-		for (int i = 0; i < myLeases.size(); i++) {
-			Lease l = myLeases.get(i);
-			LocalDate cutoff = date;
-			if (l.getEnd().compareTo(cutoff) >= 0) {
-				Month m = cutoff.getMonth();
-				while (cutoff.getMonth().equals(m)) {
-					cutoff = cutoff.minusDays(1);
-				}
-				if (cutoff.isBefore(l.getStart())) {
-					list.add(myLeases.remove(i));
-				} else {
-					l.setEndDateEarlier(cutoff);
+	public LocalDate[] availableStarts(LocalDate from, int duration, int occupants, int k) {
+		if (from == null || duration < 1 || occupants < 1 || k < 1) {
+			throw new IllegalArgumentException();
+		}
+		if (!isBookable() || occupants > getCapacity()) {
+			return new LocalDate[0];
+		}
+		LocalDate[] starts = new LocalDate[k];
+		int found = 0;
+		LocalDate start = from.isBefore(PropertyManager.EARLIEST_DATE) ? PropertyManager.EARLIEST_DATE : from;
+		if (start.getDayOfMonth() != 1) {
+			start = start.withDayOfMonth(1).plusMonths(1);
+		}
+		while (found < k) {
+			LocalDate end = start.plusMonths(duration).minusDays(1);
+			if (end.isAfter(PropertyManager.LATEST_DATE)) {
+				break;
+			}
+			LocalDate blocked = null;
+			for (LocalDate month = start; month.isBefore(end); month = month.plusMonths(1)) {
+				if (remainingCapacityFor(month) < occupants) {
+					blocked = month;
 				}
 			}
+			MaintenanceWindow window = maintenanceDuring(start, end);
+			if (window != null && (blocked == null || window.getEnd().isAfter(blocked))) {
+				blocked = window.getEnd().withDayOfMonth(1);
+			}
+			if (blocked == null) {
+				starts[found] = start;
+				found++;
+				start = start.plusMonths(1);
+			} else {
+				start = blocked.plusMonths(1);
+			}
 		}
-		return list;
+		return Arrays.copyOf(starts, found);
+	}
+	
+	/**
+	 * Returns the last day that a Lease running into a removal from
+	 * service on the given date may keep, the last day of the month
+	 * before the date. Leases that start in the month of the date are 
+	 * therefore removed.
+	 * 
+	 * @param date the date the office is removed from service
+	 * @return the latest end date for a Lease that is cut back
+	 */
+	@Override
+	public LocalDate serviceCutoffEnd(LocalDate date) {
+		return date.withDayOfMonth(1).minusDays(1);
 	}
 	
 	/**
@@ -201,13 +233,13 @@ public class Office extends RentalUnit {
 	}
 	
 	/**
-	 * Returns a String description of this hotel suite
+	 * Returns the label for the kind of this office
 	 * 
-	 * @return a description of this hotel suite as a String
+	 * @return the kind label
 	 */
 	@Override
-	public String getDescription() {
-		return "Office:          " + super.getDescription();
+	public String getKindLabel() {
+		return "Office";
 	}
 	
 	/**
@@ -245,22 +277,15 @@ public class Office extends RentalUnit {
 	 */
 	@Override
 	public void addLease(Lease lease) {
-		if (!isInService()) {
+		if (!isBookable()) {
 			return;
 		}
 		if (!this.equals(lease.getProperty())) {
 			throw new IllegalArgumentException();
 		}
-		int startMonth = lease.getStart().getMonthValue() - MONTH_SHIFT;
-		int startYear = lease.getStart().getYear() - YEAR_SHIFT;
-		int endMonth = lease.getEnd().getMonthValue() - MONTH_SHIFT;
-		int endYear = lease.getEnd().getYear() - YEAR_SHIFT;
-		for (int i = startYear; i <= endYear; i++) {
-			for (int j = startMonth; j <= endMonth; j++) {
-				calendar[i][j] -= lease.getNumOccupants();
-			}
-		}
+		occupy(lease.getStartDay(), lease.getEndDay(), lease.getNumOccupants());
 		this.myLeases.add(lease);
+		this.occupancy.add(lease);
 	}
 	
 	/**
@@ -276,15 +301,80 @@ public class Office extends RentalUnit {
 	@Override
 	public Lease cancelLeaseByNumber(int confirmationNumber) {
 		Lease lease = super.cancelLeaseByNumber(confirmationNumber);
-		int startMonth = lease.getStart().getMonthValue() - MONTH_SHIFT;
-		int startYear = lease.getStart().getYear() - YEAR_SHIFT;
-		int endMonth = lease.getEnd().getMonthValue() - MONTH_SHIFT;
-		int endYear = lease.getEnd().getYear() - YEAR_SHIFT;
-		for (int j = startYear; j <= endYear; j++) {
-			for (int k = startMonth; k <= endMonth; k++) {
-				calendar[j][k] += lease.getNumOccupants();
+		occupy(lease.getStartDay(), lease.getEndDay(), -lease.getNumOccupants());
+		return lease;
+	}
+	
+	/**
+	 * Checks that the office can hold the number of occupants of a Lease
+	 * for the months it would be extended by.
+	 * 
+	 * @param lease the Lease to be extended
+	 * @param newEnd the new end date of the Lease
+	 * @throws RentalCapacityException if a month the Lease would be extended 
+	 *         into cannot hold its occupants
+	 */
+	@Override
+	protected void checkExtension(Lease lease, LocalDate newEnd) throws RentalCapacityException {
+		if (!hasCapacity(lease.getEnd().plusDays(1), newEnd, lease.getNumOccupants())) {
+			throw new RentalCapacityException("Capacity is breached");
+		}
+	}
+	
+	/**
+	 * Takes the given number of occupants out of the remaining capacity
+	 * of every month from the from day to the to day, or gives them 
+	 * back if the number is negative.
+	 * 
+	 * @param from the first epoch day held
+	 * @param to the last epoch day held
+	 * @param occupants the number of occupants taking the days
+	 */
+	@Override
+	protected void occupy(int from, int to, int occupants) {
+		for (int m = monthIndex(from); m <= monthIndex(to); m++) {
+			calendar[m / MONTHS_PER_YEAR][m % MONTHS_PER_YEAR] -= occupants;
+		}
+	}
+	
+	/**
+	 * Returns whether every month from the from date to the to date
+	 * has room for the given number of occupants.
+	 * 
+	 * @param from the first day to check
+	 * @param to the last day to check
+	 * @param occupants the number of occupants
+	 * @return whether the months have enough remaining capacity
+	 */
+	private boolean hasCapacity(LocalDate from, LocalDate to, int occupants) {
+		for (int m = monthIndex(from); m <= monthIndex(to); m++) {
+			if (calendar[m / MONTHS_PER_YEAR][m % MONTHS_PER_YEAR] < occupants) {
+				return false;
 			}
 		}
-		return lease;
+		return true;
+	}
+	
+	/**
+	 * Returns the position in the capacity calendar of the month of 
+	 * the given date, counting from the first month of the first year.
+	 * 
+	 * @param date the date to locate
+	 * @return the month's position in the calendar
+	 */
+	private static int monthIndex(LocalDate date) {
+		return (date.getYear() - YEAR_SHIFT) * MONTHS_PER_YEAR + date.getMonthValue() - MONTH_SHIFT;
+	}
+	
+	/**
+	 * Returns the position in the capacity calendar of the month of 
+	 * the given epoch day, without making a LocalDate of it.
+	 * 
+	 * @param day the epoch day to locate
+	 * @return the month's position in the calendar
+	 */
+	private static int monthIndex(int day) {
+		int i = Arrays.binarySearch(MONTH_STARTS, day);
+		return i >= 0 ? i : -i - 2;
 	}
 }
\ No newline at end of file
@@ -4,11 +4,18 @@
 package edu.ncsu.csc216.business.model.properties;
 
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
 import edu.ncsu.csc216.business.list_utils.SortedLinkedListWithIterator;
 import edu.ncsu.csc216.business.list_utils.SortedList;
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
 import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.diagnostics.CancellationEvent;
+import edu.ncsu.csc216.business.model.diagnostics.ReservationEvent;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
 
@@ -40,6 +47,16 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	private int capacity;
 	/** a list of all the current Leases for the unit */
 	protected SortedLinkedListWithIterator<Lease> myLeases;
+	/** an index over the Leases, and a gap index for units whose Leases may not overlap */
+	protected OccupancyIndex occupancy;
+	/** the scheduled maintenance windows for the unit keyed by start date */
+	private TreeMap<LocalDate, MaintenanceWindow> windows;
+	/** the maintenance window the unit is currently closed for, if any */
+	private MaintenanceWindow activeWindow;
+	/** the description of the unit, null until it is next needed */
+	private String description;
+	/** hands out the confirmation numbers of the unit's Leases */
+	private ConfirmationNumberAllocator numbering;
 	
 	/**
 	 * Constructor for the Rental unit
@@ -72,6 +89,8 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 		this.room = r;
 		this.capacity = capacity;
 		this.myLeases = new SortedLinkedListWithIterator<Lease>();
+		this.occupancy = new OccupancyIndex();
+		this.windows = new TreeMap<LocalDate, MaintenanceWindow>();
 	}
 	
 	/**
@@ -119,31 +138,283 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	}
 	
 	/**
-	 * Returns the unit to service
+	 * Returns the unit to service, ending early the maintenance window
+	 * it is closed for, if any
 	 */
 	public void returnToService() {
+		if (activeWindow != null) {
+			cancelMaintenance(activeWindow);
+		}
 		this.inService = true;
+		this.description = null;
 	}
 	
 	/**
-	 * If the unit is in service
+	 * If the unit is in service, a unit that is closed for
+	 * a maintenance window is not in service
 	 * 
 	 * @return a boolean indicating if the 
 	 *         unit is currently in service
 	 */
 	public boolean isInService() {
+		return this.inService && this.activeWindow == null;
+	}
+	
+	/**
+	 * If the unit has not been removed from service. Unlike isInService,
+	 * this ignores maintenance windows, which only block their own dates.
+	 * 
+	 * @return a boolean indicating if the unit takes new Leases
+	 */
+	public boolean isBookable() {
 		return this.inService;
 	}
 	
+	/**
+	 * Schedules a maintenance window for the unit. The window may not
+	 * overlap another window or any of the unit's Leases.
+	 * 
+	 * @param start the first day of the window
+	 * @param end the last day of the window
+	 * @return the scheduled window
+	 * @throws IllegalArgumentException if either date is null, if start
+	 *         is after end, if either date is outside of the earliest and latest
+	 *         dates, or if the window overlaps another window or a Lease
+	 */
+	public MaintenanceWindow scheduleMaintenance(LocalDate start, LocalDate end) {
+		if (start == null || end == null || start.isAfter(end)) {
+			throw new IllegalArgumentException();
+		}
+		if (start.isBefore(PropertyManager.EARLIEST_DATE) || end.isAfter(PropertyManager.LATEST_DATE)) {
+			throw new IllegalArgumentException();
+		}
+		if (maintenanceDuring(start, end) != null) {
+			throw new IllegalArgumentException("Maintenance windows cannot overlap");
+		}
+		int startDay = (int) start.toEpochDay();
+		int endDay = (int) end.toEpochDay();
+		SimpleListIterator<Lease> it = myLeases.iterator();
+		while (it.hasNext()) {
+			Lease l = it.next();
+			if (l.getStartDay() <= endDay && l.getEndDay() >= startDay) {
+				throw new IllegalArgumentException("Maintenance window overlaps a lease");
+			}
+		}
+		MaintenanceWindow window = new MaintenanceWindow(this, start, end);
+		windows.put(start, window);
+		return window;
+	}
+	
+	/**
+	 * Cancels a scheduled maintenance window, returning the unit to 
+	 * service if it was closed for that window.
+	 * 
+	 * @param window the window to cancel
+	 */
+	public void cancelMaintenance(MaintenanceWindow window) {
+		windows.remove(window.getStart(), window);
+		if (activeWindow == window) {
+			activeWindow = null;
+			description = null;
+		}
+	}
+	
+	/**
+	 * Closes the unit for one of its scheduled maintenance windows. 
+	 * Does nothing if the window is no longer scheduled.
+	 * 
+	 * @param window the window that is starting
+	 */
+	public void beginMaintenance(MaintenanceWindow window) {
+		if (windows.get(window.getStart()) == window) {
+			activeWindow = window;
+			description = null;
+		}
+	}
+	
+	/**
+	 * Reopens the unit after one of its maintenance windows and drops the
+	 * window from the schedule. Does nothing to the unit's service state
+	 * if it is not closed for that window.
+	 * 
+	 * @param window the window that is ending
+	 */
+	public void endMaintenance(MaintenanceWindow window) {
+		windows.remove(window.getStart(), window);
+		if (activeWindow == window) {
+			activeWindow = null;
+			description = null;
+		}
+	}
+	
+	/**
+	 * Gets the maintenance window the unit is closed for
+	 * 
+	 * @return the window under way, or null if there is none
+	 */
+	public MaintenanceWindow getActiveMaintenance() {
+		return activeWindow;
+	}
+	
+	/**
+	 * Gets the scheduled maintenance windows in order of their start dates
+	 * 
+	 * @return the scheduled windows
+	 */
+	public MaintenanceWindow[] getMaintenanceWindows() {
+		return windows.values().toArray(new MaintenanceWindow[0]);
+	}
+	
+	/**
+	 * Returns the maintenance window that shares a day with the given
+	 * dates, if any. Windows never overlap one another, so only the window
+	 * with the latest start on or before the end date needs to be checked.
+	 * 
+	 * @param startDate the first day to check
+	 * @param endDate the last day to check
+	 * @return the overlapping window, or null if there is none
+	 */
+	protected MaintenanceWindow maintenanceDuring(LocalDate startDate, LocalDate endDate) {
+		Map.Entry<LocalDate, MaintenanceWindow> entry = windows.floorEntry(endDate);
+		if (entry != null && entry.getValue().overlaps(startDate, endDate)) {
+			return entry.getValue();
+		}
+		return null;
+	}
+	
+	/**
+	 * Checks that the given dates do not fall in a maintenance window
+	 * 
+	 * @param startDate the start date of the Lease
+	 * @param endDate the end date of the Lease
+	 * @throws RentalDateException if the dates overlap a maintenance window
+	 */
+	protected void checkMaintenance(LocalDate startDate, LocalDate endDate) throws RentalDateException {
+		if (maintenanceDuring(startDate, endDate) != null) {
+			throw new RentalDateException("Rental unit is closed for maintenance");
+		}
+	}
+	
 	/**
 	 * removes the unit from service
 	 */
 	public void takeOutOfService() {
 		this.inService = false;
+		this.description = null;
+	}
+	
+	/**
+	 * The reserve method is used to reserve the rental unit for a new Lease.
+	 * Each attempt is recorded as a ReservationEvent when Flight Recorder
+	 * has the event enabled.
+	 * 
+	 * @param client the client creating the lease
+	 * @param startDate the start date of the lease
+	 * @param duration the duration of the lease
+	 * @param occupants the number of occupants for the lease
+	 * @return the new Lease that was reserved
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	public Lease reserve(Client client, LocalDate startDate, int duration,
+			int occupants) throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
+		ReservationEvent event = new ReservationEvent();
+		event.begin();
+		int leases = occupancy.size();
+		long examined = getEntriesExamined();
+		Lease lease = null;
+		String outcome = null;
+		try {
+			lease = reserveLease(client, startDate, duration, occupants);
+			outcome = ReservationEvent.RESERVED;
+			return lease;
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException | RuntimeException e) {
+			outcome = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			finishReservation(event, outcome, leases, (int) (getEntriesExamined() - examined));
+		}
+	}
+	
+	/**
+	 * Reserves the rental unit for a new Lease by the same rules as reserve,
+	 * but records no ReservationEvent, so that a caller reserving a batch of
+	 * Leases can take this one back with releaseLease without a trace. The
+	 * caller records the attempt with finishReservation once it knows the 
+	 * Lease is kept or was refused.
+	 * 
+	 * @param client the client creating the lease
+	 * @param startDate the start date of the lease
+	 * @param duration the duration of the lease
+	 * @param occupants the number of occupants for the lease
+	 * @return the new Lease that was reserved
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	public Lease holdLease(Client client, LocalDate startDate, int duration,
+			int occupants) throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
+		return reserveLease(client, startDate, duration, occupants);
+	}
+	
+	/**
+	 * Takes back a Lease made with holdLease that is not being kept. Unlike
+	 * cancelLeaseByNumber, this records no CancellationEvent, as the Lease 
+	 * was never made as far as anyone else can tell.
+	 * 
+	 * @param lease the held Lease
+	 * @throws IllegalArgumentException if the unit does not hold the Lease
+	 */
+	public void releaseLease(Lease lease) {
+		int i = myLeases.indexOf(lease);
+		if (i < 0) {
+			throw new IllegalArgumentException();
+		}
+		myLeases.remove(i);
+		occupancy.remove(lease);
+	}
+	
+	/**
+	 * Commits the ReservationEvent for an attempt to reserve the unit, if
+	 * Flight Recorder has the event enabled
+	 * 
+	 * @param event the event, begun before the attempt
+	 * @param outcome reserved, or the exception the attempt was refused with
+	 * @param leases the number of Leases the unit held before the attempt
+	 * @param examined the number of lease list and occupancy index entries
+	 *        the attempt looked at, as counted by getEntriesExamined
+	 */
+	public void finishReservation(ReservationEvent event, String outcome, int leases, int examined) {
+		if (event.shouldCommit()) {
+			event.finish(getKindLabel(), floor, room, outcome, leases, examined);
+		}
 	}
 	
 	/**
-	 * The reserve method is used to reserve the rental unit for a new Lease
+	 * Gets the number of entries of the unit's lease list and occupancy
+	 * index looked at so far. The count only grows, so its difference 
+	 * across an operation on the unit is the number of entries that 
+	 * operation looked at.
+	 * 
+	 * @return the number of entries looked at
+	 */
+	public long getEntriesExamined() {
+		return myLeases.getVisits() + occupancy.getExamined();
+	}
+	
+	/**
+	 * Gets the number of Leases the unit holds
+	 * 
+	 * @return the number of Leases
+	 */
+	public int getLeaseCount() {
+		return occupancy.size();
+	}
+	
+	/**
+	 * Checks that the rental unit can be reserved for a new Lease, following 
+	 * the rules of its kind, and adds the Lease
 	 * 
 	 * @param client the client creating the lease
 	 * @param startDate the start date of the lease
@@ -154,7 +425,7 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	 * @throws RentalDateException if the date is invalid
 	 * @throws RentalOutOfServiceException if the unit is out of service
 	 */
-	public abstract Lease reserve(Client client, LocalDate startDate, int duration,
+	protected abstract Lease reserveLease(Client client, LocalDate startDate, int duration,
 			int occupants) throws RentalOutOfServiceException, RentalDateException, RentalCapacityException; 
 	
 	/**
@@ -167,11 +438,28 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	 * @param numOccupants the number of occupants of the lease 
 	 * @return the new Lease that was reserved
 	 * @throws RentalCapacityException if the maximum capacity is exceeded
-	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalDateException if the date is invalid or falls in one of
+	 *         the unit's maintenance windows
 	 */
 	public abstract Lease recordExistingLease(int confirmationNumber, Client client,
 			LocalDate startDate, LocalDate endDate, int numOccupants) throws RentalDateException, RentalCapacityException;
 	
+	/**
+	 * Returns up to k of the earliest start dates, on or after the from
+	 * date, for which a Lease of the given duration and number of occupants
+	 * could be reserved on this unit. The start dates follow the date rules
+	 * of the unit's kind, and an out of service unit has no start dates.
+	 * 
+	 * @param from the earliest start date to consider
+	 * @param duration the duration of the lease
+	 * @param occupants the number of occupants for the lease
+	 * @param k the maximum number of start dates to return
+	 * @return the feasible start dates in ascending order
+	 * @throws IllegalArgumentException if from is null, or if the duration,
+	 *         occupants or k parameters are less than 1
+	 */
+	public abstract LocalDate[] availableStarts(LocalDate from, int duration, int occupants, int k);
+	
 	/**
 	 * Checks the start and end dates to ensure that they
 	 * are valid and that they don't conflict.
@@ -213,17 +501,19 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 		if (client == null || startDate == null || duration < 1 || numOccupants < 1) {
 			throw new IllegalArgumentException();
 		}
-		if (!isInService()) {
+		if (!isBookable()) {
 			throw new RentalOutOfServiceException("Rental unit not in service");
 		}
 	}
 	
 	/**
-	 * Removes from service on a specified date
+	 * Removes the unit from service starting on a specified date. Leases
+	 * that start on or after the date are removed, and Leases that run into
+	 * the date are cut back to end on the date given by serviceCutoffEnd, or
+	 * removed as well if that would leave them ending before they start.
 	 * 
 	 * @param date the cutoff date for the unit to be removed
-	 * @return a list of leases with whose start date is after
-	 *         the cutoff date
+	 * @return a list of the Leases that were removed from the unit
 	 */
 	public SortedList<Lease> removeFromServiceStarting(LocalDate date) {
 		takeOutOfService();
@@ -231,12 +521,63 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 		int cutoff = cutoffIndex(date);
 		if (cutoff >= 0) {
 			removed = (SortedLinkedListWithIterator<Lease>) myLeases.truncate(cutoff);
-		} else {
-			return removed;
+			SimpleListIterator<Lease> it = removed.iterator();
+			while (it.hasNext()) {
+				Lease l = it.next();
+				occupancy.remove(l);
+				occupy(l.getStartDay(), l.getEndDay(), -l.getNumOccupants());
+			}
+		}
+		LocalDate newEnd = serviceCutoffEnd(date);
+		int day = (int) date.toEpochDay();
+		int newEndDay = (int) newEnd.toEpochDay();
+		SortedLinkedListWithIterator<Lease> dropped = new SortedLinkedListWithIterator<Lease>();
+		SimpleListIterator<Lease> it = myLeases.iterator();
+		while (it.hasNext()) {
+			Lease l = it.next();
+			if (l.getEndDay() >= day) {
+				if (newEndDay < l.getStartDay()) {
+					dropped.add(l);
+				} else {
+					occupy(newEndDay + 1, l.getEndDay(), -l.getNumOccupants());
+					l.setEndDateEarlier(newEnd);
+					occupancy.updateEnd(l);
+				}
+			}
+		}
+		it = dropped.iterator();
+		while (it.hasNext()) {
+			Lease l = it.next();
+			myLeases.remove(myLeases.indexOf(l));
+			occupancy.remove(l);
+			occupy(l.getStartDay(), l.getEndDay(), -l.getNumOccupants());
+			removed.add(l);
 		}
 		return removed;
 	}
 	
+	/**
+	 * Returns the last day that a Lease running into a removal from
+	 * service on the given date may keep, according to the date rules 
+	 * of the unit's kind. By default this is the day before the date.
+	 * 
+	 * @param date the date the unit is removed from service
+	 * @return the latest end date for a Lease that is cut back
+	 */
+	public LocalDate serviceCutoffEnd(LocalDate date) {
+		return date.minusDays(1);
+	}
+	
+	/**
+	 * Returns an iterator over the Leases for this unit in order
+	 * of their start dates.
+	 * 
+	 * @return an iterator over the Leases for this unit
+	 */
+	public SimpleListIterator<Lease> leaseIterator() {
+		return myLeases.iterator();
+	}
+	
 	/**
 	 * Returns the index of the first Lease with a start date on
 	 * or after the parameter date.
@@ -246,8 +587,10 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	 *         parameter date
 	 */
 	protected int cutoffIndex(LocalDate date) {
-		for (int i = 0; i < myLeases.size(); i++) {
-			if (myLeases.get(i).getStart().compareTo(date) >= 0) {
+		int day = (int) date.toEpochDay();
+		SimpleListIterator<Lease> it = myLeases.iterator();
+		for (int i = 0; it.hasNext(); i++) {
+			if (it.next().getStartDay() >= day) {
 				return i;
 			}
 		}
@@ -265,14 +608,112 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	 *         does not match any leases in the myLeases list 
 	 */
 	public Lease cancelLeaseByNumber(int confirmationNumber) {
-		for (int i = 0; i < myLeases.size(); i++) {
-			if (myLeases.get(i).getConfirmationNumber() == confirmationNumber) {
-				return myLeases.remove(i);
+		CancellationEvent event = new CancellationEvent();
+		event.begin();
+		long examined = getEntriesExamined();
+		int i = 0;
+		SimpleListIterator<Lease> it = myLeases.iterator();
+		while (it.hasNext()) {
+			if (it.next().getConfirmationNumber() == confirmationNumber) {
+				Lease lease = myLeases.remove(i);
+				occupancy.remove(lease);
+				if (event.shouldCommit()) {
+					event.finish(getKindLabel(), floor, room, confirmationNumber, true, 
+							(int) (getEntriesExamined() - examined));
+				}
+				return lease;
 			}
+			i++;
+		}
+		if (event.shouldCommit()) {
+			event.finish(getKindLabel(), floor, room, confirmationNumber, false, (int) (getEntriesExamined() - examined));
 		}
 		throw new IllegalArgumentException();
 	}
 	
+	/**
+	 * Extends a Lease of this rental unit to a later end date. The days 
+	 * added to the Lease must be valid for this kind of unit, must not 
+	 * fall in a maintenance window and must not conflict with any other
+	 * Lease of the unit.
+	 * 
+	 * @param lease the Lease to be extended
+	 * @param newEnd the new end date of the Lease
+	 * @throws IllegalArgumentException if the Lease is not for this unit or
+	 *         newEnd is not after the current end date
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 * @throws RentalDateException if the new end date is invalid for this
+	 *         kind of unit or the added days are not available
+	 * @throws RentalCapacityException if the added days cannot hold the
+	 *         occupants of the Lease
+	 */
+	public void extendLease(Lease lease, LocalDate newEnd) 
+			throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
+		if (lease == null || lease.getProperty() != this || newEnd == null 
+				|| !newEnd.isAfter(lease.getEnd())) {
+			throw new IllegalArgumentException();
+		}
+		if (!isBookable()) {
+			throw new RentalOutOfServiceException("Rental unit is out of service");
+		}
+		checkDates(lease.getStart(), newEnd);
+		checkMaintenance(lease.getEnd().plusDays(1), newEnd);
+		checkExtension(lease, newEnd);
+		occupy(lease.getEndDay() + 1, (int) newEnd.toEpochDay(), lease.getNumOccupants());
+		lease.setEndDateLater(newEnd);
+		occupancy.updateEnd(lease);
+	}
+	
+	/**
+	 * Cuts a Lease of this rental unit back to an earlier end date, 
+	 * giving the days after it back to the unit. A Lease can be shortened
+	 * even while the unit is out of service.
+	 * 
+	 * @param lease the Lease to be shortened
+	 * @param newEnd the new end date of the Lease
+	 * @throws IllegalArgumentException if the Lease is not for this unit or
+	 *         newEnd is not before the current end date
+	 * @throws RentalDateException if the new end date is invalid for this
+	 *         kind of unit
+	 */
+	public void shortenLease(Lease lease, LocalDate newEnd) throws RentalDateException {
+		if (lease == null || lease.getProperty() != this || newEnd == null 
+				|| !newEnd.isBefore(lease.getEnd())) {
+			throw new IllegalArgumentException();
+		}
+		checkDates(lease.getStart(), newEnd);
+		occupy((int) newEnd.toEpochDay() + 1, lease.getEndDay(), -lease.getNumOccupants());
+		lease.setEndDateEarlier(newEnd);
+		occupancy.updateEnd(lease);
+	}
+	
+	/**
+	 * Checks that the days from the day after the end of a Lease through
+	 * the new end date can be added to the Lease.
+	 * 
+	 * @param lease the Lease to be extended
+	 * @param newEnd the new end date of the Lease
+	 * @throws RentalDateException if the added days are not available
+	 * @throws RentalCapacityException if the added days cannot hold the
+	 *         occupants of the Lease
+	 */
+	protected abstract void checkExtension(Lease lease, LocalDate newEnd) 
+			throws RentalDateException, RentalCapacityException;
+	
+	/**
+	 * Records that the given number of occupants hold the unit from the 
+	 * from day to the to day, or give it back if the number is negative.
+	 * Does nothing by default; units that track remaining capacity by
+	 * date override it.
+	 * 
+	 * @param from the first epoch day held
+	 * @param to the last epoch day held
+	 * @param occupants the number of occupants taking the days
+	 */
+	protected void occupy(int from, int to, int occupants) {
+		// Only units with shared capacity keep track of it
+	}
+	
 	/**
 	 * Adds a Lease to the myLeases field.
 	 *
@@ -288,6 +729,34 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 			throw new IllegalArgumentException();
 		}
 		this.myLeases.add(lease);
+		this.occupancy.add(lease);
+	}
+	
+	/**
+	 * Returns up to limit of this unit's Leases that come after the Lease
+	 * with the given start day and confirmation number in the order of the
+	 * lease list. The Lease with that key need not exist any more, so a 
+	 * listing can resume from it even after Leases were added or canceled.
+	 * 
+	 * @param startDay the start date of the last Lease already seen, as
+	 *        a count of days from the epoch, or Integer.MIN_VALUE to start
+	 *        from the first Lease
+	 * @param confirmationNumber the confirmation number of the last Lease
+	 *        already seen
+	 * @param limit the most Leases to return
+	 * @return the Leases after the given one
+	 * @throws IllegalArgumentException if limit is negative
+	 */
+	public Lease[] leasesAfter(int startDay, int confirmationNumber, int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException();
+		}
+		int from = occupancy.after(startDay, confirmationNumber);
+		Lease[] page = new Lease[Math.min(limit, occupancy.size() - from)];
+		for (int i = 0; i < page.length; i++) {
+			page[i] = occupancy.get(from + i);
+		}
+		return page;
 	}
 	
 	/**
@@ -299,35 +768,57 @@ public abstract class RentalUnit implements Comparable<RentalUnit> { // implemen
 	 */
 	public String[] listLeases() {
 		String[] leases = new String[myLeases.size()];
-		for (int i = 0; i < myLeases.size(); i++) {
-			String[] data = myLeases.get(i).leaseData();
-			leases[i] = data[0] + " | " + data[1] + " | " 
-			+ data[2] + " | " + data[4] + " (" +  data[5] + ")";
+		StringBuilder line = new StringBuilder();
+		SimpleListIterator<Lease> it = myLeases.iterator();
+		for (int i = 0; it.hasNext(); i++) {
+			line.setLength(0);
+			leases[i] = RentalRenderer.appendUnitLease(line, it.next()).toString();
 		}
 		return leases;
 	}
 	
 	/**
-	 * Gets the description of the RentalUnit as a String
+	 * Gets the description of the RentalUnit as a String. The description
+	 * is built once and kept until the unit's service state changes.
 	 * 
 	 * @return the description of the RentalUnit as a String
 	 */
 	public String getDescription() {
-		String f = "" + getFloor();
-		String c = "" + getCapacity();
-		if (f.length() == 1) {
-			f = " " + getFloor();
-		} 
-		if (c.length() == 1) {
-			c = "  " + getCapacity();
-		} else if (c.length() == 2) {
-			c = " " + getCapacity();
-		} 
-		if (isInService()) {
-			return f + "-" + getRoom() + " | " + c;
-		} else {
-			return f + "-" + getRoom() + " | " + c + " Unavailable";
+		if (description == null) {
+			description = RentalRenderer.appendUnit(new StringBuilder(), this).toString();
+		}
+		return description;
+	}
+	
+	/**
+	 * Gets the label for the kind of the RentalUnit, such as "Office"
+	 * 
+	 * @return the kind label
+	 */
+	public abstract String getKindLabel();
+	
+	/**
+	 * Gets the confirmation numbering the unit's Leases take their numbers
+	 * from, which is the shared numbering unless the unit was given another
+	 * 
+	 * @return the numbering
+	 */
+	public ConfirmationNumberAllocator getConfirmationNumbering() {
+		return numbering == null ? Lease.getSharedNumbering() : numbering;
+	}
+	
+	/**
+	 * Sets the confirmation numbering the unit's new Leases take their numbers
+	 * from, so that the units of one building share a numbering of their own
+	 * 
+	 * @param numbering the numbering
+	 * @throws IllegalArgumentException if numbering is null
+	 */
+	public void setConfirmationNumbering(ConfirmationNumberAllocator numbering) {
+		if (numbering == null) {
+			throw new IllegalArgumentException();
 		}
+		this.numbering = numbering;
 	}
 	
 	/**
@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.scheduling;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.business.model.properties.MaintenanceWindow;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The MaintenanceScheduler class closes RentalUnits for their maintenance
+ * windows and reopens them afterwards as its calendar is advanced. The start
+ * and end of every window are kept on a TimingWheel that ticks once per day,
+ * so tens of thousands of pending windows cost nothing until they come due.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class MaintenanceScheduler {
+
+	/** the pending start and end events, one tick per day */
+	private TimingWheel<Runnable> wheel;
+	/** the pending events of each scheduled window */
+	private HashMap<MaintenanceWindow, Pending> events;
+	/** told about each unit whose maintenance state changes */
+	private Consumer<RentalUnit> onChange;
+
+	/**
+	 * Constructs a MaintenanceScheduler whose calendar starts on the given day
+	 *
+	 * @param today the current day of the calendar
+	 */
+	public MaintenanceScheduler(LocalDate today) {
+		this(today, unit -> { });
+	}
+
+	/**
+	 * Constructs a MaintenanceScheduler whose calendar starts on the given day
+	 * and that reports every unit it closes or reopens
+	 *
+	 * @param today the current day of the calendar
+	 * @param onChange told about each unit that is closed or reopened
+	 */
+	public MaintenanceScheduler(LocalDate today, Consumer<RentalUnit> onChange) {
+		this.wheel = new TimingWheel<Runnable>(today.toEpochDay());
+		this.events = new HashMap<MaintenanceWindow, Pending>();
+		this.onChange = onChange;
+	}
+
+	/**
+	 * Gets the current day of the calendar
+	 *
+	 * @return the current day
+	 */
+	public LocalDate getToday() {
+		return LocalDate.ofEpochDay(wheel.getNow());
+	}
+
+	/**
+	 * Gets the number of start and end events that have not happened yet
+	 *
+	 * @return the number of pending events
+	 */
+	public int pending() {
+		return wheel.pending();
+	}
+
+	/**
+	 * Schedules a maintenance window for a unit. The unit is closed at the
+	 * start of the window, immediately if the window has already started,
+	 * and reopened on the day after the window ends.
+	 *
+	 * @param unit the unit to be maintained
+	 * @param start the first day of the window
+	 * @param end the last day of the window
+	 * @return the scheduled window
+	 * @throws IllegalArgumentException if the unit cannot schedule the window
+	 */
+	public MaintenanceWindow schedule(RentalUnit unit, LocalDate start, LocalDate end) {
+		MaintenanceWindow window = unit.scheduleMaintenance(start, end);
+		LocalDate today = getToday();
+		if (end.isBefore(today)) {
+			return window;
+		}
+		TimingWheel.Timeout<Runnable> begin = null;
+		if (start.isAfter(today)) {
+			begin = wheel.schedule(start.toEpochDay(), () -> {
+				unit.beginMaintenance(window);
+				onChange.accept(unit);
+			});
+		} else {
+			unit.beginMaintenance(window);
+			onChange.accept(unit);
+		}
+		TimingWheel.Timeout<Runnable> finish = wheel.schedule(end.toEpochDay() + 1, () -> {
+			unit.endMaintenance(window);
+			events.remove(window);
+			onChange.accept(unit);
+		});
+		events.put(window, new Pending(begin, finish));
+		return window;
+	}
+
+	/**
+	 * Cancels a scheduled maintenance window and its pending events,
+	 * reopening the unit if it is closed for that window.
+	 *
+	 * @param window the window to cancel
+	 */
+	public void cancel(MaintenanceWindow window) {
+		Pending pending = events.remove(window);
+		if (pending != null) {
+			if (pending.begin != null) {
+				pending.begin.cancel();
+			}
+			pending.finish.cancel();
+		}
+		window.getUnit().cancelMaintenance(window);
+		onChange.accept(window.getUnit());
+	}
+
+	/**
+	 * Advances the calendar to the given day, closing and reopening units
+	 * for every window that starts or ends along the way. Does nothing if
+	 * the day is not after the current day.
+	 *
+	 * @param today the new current day
+	 * @return the number of start and end events that happened
+	 */
+	public int advanceTo(LocalDate today) {
+		int before = wheel.pending();
+		wheel.advanceTo(today.toEpochDay(), Runnable::run);
+		return before - wheel.pending();
+	}
+
+	/**
+	 * The Pending class holds the start and end events of a scheduled
+	 * window that have not happened yet.
+	 */
+	private static final class Pending {
+
+		/** the start of the window, or null if it had started when scheduled */
+		private final TimingWheel.Timeout<Runnable> begin;
+		/** the end of the window */
+		private final TimingWheel.Timeout<Runnable> finish;
+
+		/**
+		 * Constructs the pending events of a window
+		 *
+		 * @param begin the start of the window, or null if it has started
+		 * @param finish the end of the window
+		 */
+		Pending(TimingWheel.Timeout<Runnable> begin, TimingWheel.Timeout<Runnable> finish) {
+			this.begin = begin;
+			this.finish = finish;
+		}
+	}
+}
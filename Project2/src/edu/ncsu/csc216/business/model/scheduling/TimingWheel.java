@@ -0,0 +1,233 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.scheduling;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The TimingWheel class is a hierarchical timing wheel that holds items
+ * due at whole-numbered ticks. Each level has SLOTS slots, and each slot
+ * of a level spans SLOTS times as many ticks as a slot of the level below
+ * it. An item is placed in the lowest level that can reach its due tick,
+ * and is moved down a level each time the wheel below it completes a turn,
+ * so scheduling and canceling cost constant time and advancing costs time
+ * proportional to the ticks passed plus the items that come due, no matter
+ * how many items are pending.
+ *
+ * @param <T> the type of item scheduled on the wheel
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class TimingWheel<T> {
+
+	/** the number of bits used to index a slot of a level */
+	private static final int SLOT_BITS = 6;
+	/** the number of slots in each level */
+	private static final int SLOTS = 1 << SLOT_BITS;
+	/** the mask that selects a slot of a level */
+	private static final int SLOT_MASK = SLOTS - 1;
+	/** the number of levels in the wheel */
+	private static final int LEVELS = 4;
+	/** the slots of each level */
+	private ArrayList<ArrayList<Timeout<T>>> wheel;
+	/** items due beyond the reach of the highest level */
+	private ArrayList<Timeout<T>> overflow;
+	/** the current tick */
+	private long now;
+	/** the number of items that are pending */
+	private int pending;
+
+	/**
+	 * Constructs an empty TimingWheel whose clock starts at the given tick
+	 *
+	 * @param start the starting tick
+	 */
+	public TimingWheel(long start) {
+		this.now = start;
+		this.wheel = new ArrayList<ArrayList<Timeout<T>>>(LEVELS * SLOTS);
+		for (int i = 0; i < LEVELS * SLOTS; i++) {
+			wheel.add(new ArrayList<Timeout<T>>());
+		}
+		this.overflow = new ArrayList<Timeout<T>>();
+	}
+
+	/**
+	 * Gets the current tick of the wheel
+	 *
+	 * @return the current tick
+	 */
+	public long getNow() {
+		return this.now;
+	}
+
+	/**
+	 * Gets the number of items that are scheduled but have not
+	 * come due or been canceled
+	 *
+	 * @return the number of pending items
+	 */
+	public int pending() {
+		return this.pending;
+	}
+
+	/**
+	 * Schedules an item to come due at the given tick. An item due
+	 * at or before the current tick comes due on the next advance.
+	 *
+	 * @param due the tick the item comes due
+	 * @param item the item to schedule
+	 * @return a handle that can be used to cancel the item
+	 * @throws IllegalArgumentException if item is null
+	 */
+	public Timeout<T> schedule(long due, T item) {
+		if (item == null) {
+			throw new IllegalArgumentException();
+		}
+		Timeout<T> timeout = new Timeout<T>(this, Math.max(due, now + 1), item);
+		place(timeout);
+		pending++;
+		return timeout;
+	}
+
+	/**
+	 * Advances the clock to the given tick, handing every item that comes
+	 * due along the way to the consumer in order of due tick. Items due at
+	 * the same tick are handed over in the order they were scheduled.
+	 *
+	 * @param target the tick to advance to
+	 * @param consumer the consumer that receives each item as it comes due
+	 */
+	public void advanceTo(long target, Consumer<? super T> consumer) {
+		while (now < target) {
+			now++;
+			cascade();
+			ArrayList<Timeout<T>> slot = wheel.get((int) (now & SLOT_MASK));
+			if (slot.isEmpty()) {
+				continue;
+			}
+			ArrayList<Timeout<T>> due = new ArrayList<Timeout<T>>(slot);
+			slot.clear();
+			for (Timeout<T> timeout : due) {
+				if (!timeout.canceled) {
+					timeout.fired = true;
+					pending--;
+					consumer.accept(timeout.item);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves the items of every higher level slot that is reached at the
+	 * current tick down into the lower levels, and moves overflowed items
+	 * into the wheel once the highest level turns over.
+	 */
+	private void cascade() {
+		for (int level = 1; level < LEVELS; level++) {
+			long shifted = now >> (SLOT_BITS * level);
+			if ((now & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+				return;
+			}
+			redistribute(wheel.get(level * SLOTS + (int) (shifted & SLOT_MASK)));
+		}
+		if ((now & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+			redistribute(overflow);
+		}
+	}
+
+	/**
+	 * Empties the given slot and places each of its live items again
+	 * relative to the current tick.
+	 *
+	 * @param slot the slot to redistribute
+	 */
+	private void redistribute(ArrayList<Timeout<T>> slot) {
+		if (slot.isEmpty()) {
+			return;
+		}
+		ArrayList<Timeout<T>> moved = new ArrayList<Timeout<T>>(slot);
+		slot.clear();
+		for (Timeout<T> timeout : moved) {
+			if (!timeout.canceled) {
+				place(timeout);
+			}
+		}
+	}
+
+	/**
+	 * Places an item in the lowest level that can reach its due tick.
+	 *
+	 * @param timeout the item to place
+	 */
+	private void place(Timeout<T> timeout) {
+		long delta = timeout.due - now;
+		for (int level = 0; level < LEVELS; level++) {
+			if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+				int slot = (int) ((timeout.due >> (SLOT_BITS * level)) & SLOT_MASK);
+				wheel.get(level * SLOTS + slot).add(timeout);
+				return;
+			}
+		}
+		overflow.add(timeout);
+	}
+
+	/**
+	 * The Timeout class is the handle for an item scheduled on a TimingWheel.
+	 *
+	 * @param <T> the type of item scheduled on the wheel
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Timeout<T> {
+
+		/** the wheel the item is scheduled on */
+		private TimingWheel<T> owner;
+		/** the tick the item comes due */
+		private long due;
+		/** the scheduled item */
+		private T item;
+		/** whether the item has been canceled */
+		private boolean canceled;
+		/** whether the item has come due */
+		private boolean fired;
+
+		/**
+		 * Constructs a Timeout
+		 *
+		 * @param owner the wheel the item is scheduled on
+		 * @param due the tick the item comes due
+		 * @param item the scheduled item
+		 */
+		Timeout(TimingWheel<T> owner, long due, T item) {
+			this.owner = owner;
+			this.due = due;
+			this.item = item;
+		}
+
+		/**
+		 * Gets the tick the item comes due
+		 *
+		 * @return the due tick
+		 */
+		public long getDue() {
+			return this.due;
+		}
+
+		/**
+		 * Cancels the item so that it never comes due. Does nothing if
+		 * the item has already come due or been canceled.
+		 *
+		 * @return whether the item was canceled by this call
+		 */
+		public boolean cancel() {
+			if (canceled || fired) {
+				return false;
+			}
+			canceled = true;
+			owner.pending--;
+			return true;
+		}
+	}
+}
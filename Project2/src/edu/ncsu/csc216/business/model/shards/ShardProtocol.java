@@ -0,0 +1,318 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.shards;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ShardProtocol class holds the messages a ShardRouter and its 
+ * ShardWorkers exchange over their sockets. Every request and every 
+ * response is a single line of tab separated fields, with tabs, line 
+ * breaks and backslashes in a field escaped by a backslash. A request 
+ * starts with the name of its operation, and a response starts with OK
+ * followed by its results, or with ERR followed by the simple name of 
+ * the exception the worker threw and its message. Units, clients and 
+ * leases are sent as views, each a fixed number of fields in a row.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+class ShardProtocol {
+
+	/** the first field of a successful response */
+	static final String OK = "OK";
+	/** the first field of a failed response */
+	static final String ERR = "ERR";
+	/** the number of fields in a unit */
+	static final int UNIT_FIELDS = 5;
+	/** the number of fields in a client */
+	static final int CLIENT_FIELDS = 3;
+	/** the number of fields in a lease */
+	static final int LEASE_FIELDS = 9;
+	/** the number of fields in a page before its items */
+	static final int PAGE_FIELDS = 3;
+	
+	/**
+	 * The operations a ShardWorker carries out
+	 */
+	enum Op {
+		/** gets the floors and confirmation numbers of the shard */
+		HELLO,
+		/** adds a client */
+		ADD_CLIENT,
+		/** adds a rental unit */
+		ADD_UNIT,
+		/** sets the filters of the rental units */
+		FILTER,
+		/** counts the filtered rental units */
+		COUNT,
+		/** lists the filtered rental units */
+		UNITS,
+		/** lists the filtered rental units after a location */
+		UNITS_AFTER,
+		/** lists the leases of a rental unit */
+		UNIT_LEASES,
+		/** lists a page of the leases of a rental unit */
+		PAGE_UNIT_LEASES,
+		/** lists the clients */
+		CLIENTS,
+		/** lists a page of the clients */
+		PAGE_CLIENTS,
+		/** lists the leases of a client */
+		CLIENT_LEASES,
+		/** creates a lease */
+		CREATE,
+		/** cancels a lease by confirmation number */
+		CANCEL,
+		/** extends a lease */
+		EXTEND,
+		/** shortens a lease */
+		SHORTEN,
+		/** removes a rental unit from service */
+		REMOVE,
+		/** closes a rental unit */
+		CLOSE,
+		/** returns a rental unit to service */
+		RETURN,
+		/** removes all data */
+		FLUSH
+	}
+	
+	/**
+	 * Writes a message as a single line and flushes it
+	 * 
+	 * @param out the writer to write to
+	 * @param fields the fields of the message
+	 * @throws IOException if the message cannot be written
+	 */
+	static void write(Writer out, List<String> fields) throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < fields.size(); i++) {
+			if (i > 0) {
+				line.append('\t');
+			}
+			escape(line, fields.get(i));
+		}
+		out.write(line.append('\n').toString());
+		out.flush();
+	}
+	
+	/**
+	 * Reads a message written by write
+	 * 
+	 * @param in the reader to read from
+	 * @return the fields of the message
+	 * @throws IOException if the message cannot be read, or the other end
+	 *         has closed the connection
+	 */
+	static String[] read(BufferedReader in) throws IOException {
+		String line = in.readLine();
+		if (line == null) {
+			throw new EOFException("Shard connection closed");
+		}
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '\t') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\\' && i + 1 < line.length()) {
+				char e = line.charAt(++i);
+				field.append(e == 't' ? '\t' : e == 'n' ? '\n' : e == 'r' ? '\r' : e);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields.toArray(new String[fields.size()]);
+	}
+	
+	/**
+	 * Appends a field with its tabs, line breaks and backslashes escaped
+	 * 
+	 * @param line the line to append to
+	 * @param field the field
+	 */
+	private static void escape(StringBuilder line, String field) {
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == '\t') {
+				line.append("\\t");
+			} else if (c == '\n') {
+				line.append("\\n");
+			} else if (c == '\r') {
+				line.append("\\r");
+			} else if (c == '\\') {
+				line.append("\\\\");
+			} else {
+				line.append(c);
+			}
+		}
+	}
+	
+	/**
+	 * Adds the fields of a unit to a message
+	 * 
+	 * @param fields the fields of the message
+	 * @param unit the view of the unit
+	 */
+	static void addUnit(List<String> fields, UnitView unit) {
+		fields.add(unit.getKindLabel());
+		fields.add(Integer.toString(unit.getFloor()));
+		fields.add(Integer.toString(unit.getRoom()));
+		fields.add(Integer.toString(unit.getCapacity()));
+		fields.add(Boolean.toString(unit.isInService()));
+	}
+	
+	/**
+	 * Adds the fields of a client to a message
+	 * 
+	 * @param fields the fields of the message
+	 * @param client the view of the client
+	 */
+	static void addClient(List<String> fields, ClientView client) {
+		fields.add(client.getName());
+		fields.add(client.getId());
+		fields.add(Integer.toString(client.getLeaseCount()));
+	}
+	
+	/**
+	 * Adds the fields of a lease to a message
+	 * 
+	 * @param fields the fields of the message
+	 * @param lease the view of the lease
+	 */
+	static void addLease(List<String> fields, LeaseView lease) {
+		fields.add(Integer.toString(lease.getConfirmationNumber()));
+		fields.add(Integer.toString(lease.getStartDay()));
+		fields.add(Integer.toString(lease.getEndDay()));
+		fields.add(Integer.toString(lease.getOccupants()));
+		fields.add(lease.getUnitKindLabel());
+		fields.add(Integer.toString(lease.getUnitFloor()));
+		fields.add(Integer.toString(lease.getUnitRoom()));
+		fields.add(lease.getClientName());
+		fields.add(lease.getClientId());
+	}
+	
+	/**
+	 * Adds the fields of a page of descriptions to a message: whether 
+	 * there is a next page, the key and position of its cursor, and the
+	 * descriptions
+	 * 
+	 * @param fields the fields of the message
+	 * @param page the page
+	 */
+	static void addPage(List<String> fields, Page<String> page) {
+		PageCursor next = page.getNext();
+		fields.add(Boolean.toString(next != null));
+		fields.add(next == null ? "0" : Long.toString(next.getKey()));
+		fields.add(next == null ? "0" : Integer.toString(next.getPosition()));
+		for (String item : page.getItems()) {
+			fields.add(item);
+		}
+	}
+	
+	/**
+	 * Reads the units of a message, starting at the given field
+	 * 
+	 * @param fields the fields of the message
+	 * @param from the first field of the units
+	 * @return the views of the units
+	 */
+	static UnitView[] units(String[] fields, int from) {
+		UnitView[] units = new UnitView[(fields.length - from) / UNIT_FIELDS];
+		for (int i = 0, f = from; i < units.length; i++, f += UNIT_FIELDS) {
+			units[i] = new UnitView(fields[f], Integer.parseInt(fields[f + 1]), Integer.parseInt(fields[f + 2]),
+					Integer.parseInt(fields[f + 3]), Boolean.parseBoolean(fields[f + 4]));
+		}
+		return units;
+	}
+	
+	/**
+	 * Reads the clients of a message, starting at the given field
+	 * 
+	 * @param fields the fields of the message
+	 * @param from the first field of the clients
+	 * @return the views of the clients
+	 */
+	static ClientView[] clients(String[] fields, int from) {
+		ClientView[] clients = new ClientView[(fields.length - from) / CLIENT_FIELDS];
+		for (int i = 0, f = from; i < clients.length; i++, f += CLIENT_FIELDS) {
+			clients[i] = new ClientView(fields[f], fields[f + 1], Integer.parseInt(fields[f + 2]));
+		}
+		return clients;
+	}
+	
+	/**
+	 * Reads the leases of a message, starting at the given field
+	 * 
+	 * @param fields the fields of the message
+	 * @param from the first field of the leases
+	 * @return the views of the leases
+	 */
+	static LeaseView[] leases(String[] fields, int from) {
+		LeaseView[] leases = new LeaseView[(fields.length - from) / LEASE_FIELDS];
+		for (int i = 0, f = from; i < leases.length; i++, f += LEASE_FIELDS) {
+			leases[i] = new LeaseView(Integer.parseInt(fields[f]), Integer.parseInt(fields[f + 1]), 
+					Integer.parseInt(fields[f + 2]), Integer.parseInt(fields[f + 3]), fields[f + 4], 
+					Integer.parseInt(fields[f + 5]), Integer.parseInt(fields[f + 6]), fields[f + 7], fields[f + 8]);
+		}
+		return leases;
+	}
+	
+	/**
+	 * Reads the page of a message, starting at the given field
+	 * 
+	 * @param fields the fields of the message
+	 * @param from the first field of the page
+	 * @return the page
+	 */
+	static Page<String> page(String[] fields, int from) {
+		PageCursor next = null;
+		if (Boolean.parseBoolean(fields[from])) {
+			next = new PageCursor(Long.parseLong(fields[from + 1]), Integer.parseInt(fields[from + 2]));
+		}
+		String[] items = new String[fields.length - from - PAGE_FIELDS];
+		System.arraycopy(fields, from + PAGE_FIELDS, items, 0, items.length);
+		return new Page<String>(items, next);
+	}
+	
+	/**
+	 * Adds the fields of a cursor to a request: whether there is a cursor,
+	 * its key and its position
+	 * 
+	 * @param fields the fields of the request
+	 * @param cursor the cursor, or null
+	 */
+	static void addCursor(List<String> fields, PageCursor cursor) {
+		fields.add(Boolean.toString(cursor != null));
+		fields.add(cursor == null ? "0" : Long.toString(cursor.getKey()));
+		fields.add(cursor == null ? "0" : Integer.toString(cursor.getPosition()));
+	}
+	
+	/**
+	 * Reads the cursor of a request, starting at the given field
+	 * 
+	 * @param fields the fields of the request
+	 * @param from the first field of the cursor
+	 * @return the cursor, or null
+	 */
+	static PageCursor cursor(String[] fields, int from) {
+		if (!Boolean.parseBoolean(fields[from])) {
+			return null;
+		}
+		return new PageCursor(Long.parseLong(fields[from + 1]), Integer.parseInt(fields[from + 2]));
+	}
+}
@@ -0,0 +1,1033 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.shards;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.properties.Office;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.shards.ShardProtocol.Op;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateRoomException;
+import edu.ncsu.csc216.business.model.stakeholders.Landlord;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeListener;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ShardRouter class is a Landlord for a building whose floors are split
+ * across several ShardWorkers, each usually a process of its own on the same
+ * machine. Calls about a rental unit are forwarded to the worker that owns
+ * its floor, with the unit's position in the building's filtered list turned
+ * into its position in the worker's list. Calls about a lease are forwarded
+ * by confirmation number, since each worker numbers its leases from its own
+ * part of the numbers. Clients are added to every worker, and listings that
+ * span workers are gathered from all of them, in the order of their floors.
+ * A request is written to every worker before any answer is read, so the
+ * workers carry it out in parallel.
+ *
+ * Objects returned by the router are copies that are not attached to the
+ * data in the workers. A client's leases are listed by start date and then
+ * confirmation number, since the order they were created in is not known
+ * across workers. Change events name the kind of change a call made, with
+ * the positions of the units and clients it was given. The router is not
+ * safe for use by several threads at once.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class ShardRouter implements Landlord, Closeable {
+
+	/** how long a worker process is given to exit once it is told to, in seconds */
+	private static final int EXIT_WAIT = 5;
+	/** the workers, in order of their floors */
+	private ArrayList<Shard> shards;
+	/** the listeners told about changes made through the router */
+	private ArrayList<RentalChangeListener> listeners;
+	/** numbers the copies of leases returned by the router */
+	private ConfirmationNumberAllocator copies;
+
+	/**
+	 * Constructs a router with no workers
+	 */
+	public ShardRouter() {
+		this.shards = new ArrayList<Shard>();
+		this.listeners = new ArrayList<RentalChangeListener>();
+		this.copies = Lease.newNumbering();
+	}
+
+	/**
+	 * Starts the given number of worker processes on this machine, splitting
+	 * the floors of the building evenly between them, and connects a router
+	 * to them. The workers exit when the router is closed.
+	 *
+	 * @param count the number of workers
+	 * @return the connected router
+	 * @throws IllegalArgumentException if count is less than 1 or more than
+	 *         the number of floors
+	 * @throws IOException if a worker cannot be started or connected to
+	 */
+	public static ShardRouter launch(int count) throws IOException {
+		int floors = RentalUnit.MAX_FLOOR - RentalUnit.MIN_FLOOR + 1;
+		if (count < 1 || count > floors) {
+			throw new IllegalArgumentException();
+		}
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		ShardRouter router = new ShardRouter();
+		try {
+			for (int i = 0; i < count; i++) {
+				int minFloor = RentalUnit.MIN_FLOOR + i * floors / count;
+				int maxFloor = RentalUnit.MIN_FLOOR + (i + 1) * floors / count - 1;
+				Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+						ShardWorker.class.getName(), Integer.toString(minFloor), Integer.toString(maxFloor),
+						Integer.toString(i), Integer.toString(count))
+						.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+				BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+				String line = out.readLine();
+				if (line == null || !line.startsWith("PORT ")) {
+					process.destroy();
+					throw new IOException("Shard worker did not start");
+				}
+				router.connect(Integer.parseInt(line.substring(5).trim()));
+				router.shards.get(i).process = process;
+			}
+		} catch (IOException | RuntimeException e) {
+			router.close();
+			throw e;
+		}
+		return router;
+	}
+
+	/**
+	 * Connects to a worker listening on the given port of the loopback
+	 * address. Workers must be connected in order of their floors.
+	 *
+	 * @param port the port of the worker
+	 * @throws IOException if the worker cannot be connected to
+	 * @throws IllegalArgumentException if the worker's floors are not above
+	 *         the floors of the workers already connected
+	 */
+	public void connect(int port) throws IOException {
+		Shard shard = new Shard(new Socket(InetAddress.getLoopbackAddress(), port));
+		String[] hello = check(shard.call(fields(Op.HELLO)));
+		shard.minFloor = Integer.parseInt(hello[1]);
+		shard.maxFloor = Integer.parseInt(hello[2]);
+		shard.firstNumber = Integer.parseInt(hello[3]);
+		shard.lastNumber = Integer.parseInt(hello[4]);
+		if (!shards.isEmpty() && shards.get(shards.size() - 1).maxFloor >= shard.minFloor) {
+			shard.close();
+			throw new IllegalArgumentException("Shard floors overlap");
+		}
+		shards.add(shard);
+	}
+
+	/**
+	 * Gets the number of connected workers
+	 *
+	 * @return the number of workers
+	 */
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	/**
+	 * Disconnects from every worker, and tells the workers the router
+	 * started to exit
+	 */
+	@Override
+	public void close() {
+		for (Shard shard : shards) {
+			shard.close();
+		}
+		shards.clear();
+	}
+
+	/**
+	 * Adds a new client to every worker
+	 *
+	 * @param name client's name
+	 * @param id client's id
+	 * @return a copy of the new client
+	 * @throws IllegalArgumentException if the name or id is not valid
+	 * @throws DuplicateClientException if a client with the same id already exists
+	 */
+	@Override
+	public Client addNewClient(String name, String id) throws DuplicateClientException {
+		Client client = new Client(name, id);
+		String[][] responses = scatter(Op.ADD_CLIENT, name, id);
+		for (String[] response : responses) {
+			if (isError(response, DuplicateClientException.class)) {
+				throw new DuplicateClientException(response[2]);
+			}
+		}
+		checkAll(responses);
+		fire(Change.CLIENT_ADDED, new int[0], new int[0], new int[] {Integer.parseInt(responses[0][1]) - 1});
+		return client;
+	}
+
+	/**
+	 * Adds a new rental unit to the worker that owns its floor
+	 *
+	 * @param kind Type of RentalUnit (starts with 'O' for office, 'C' for conference room,
+	 *           'H' for hotel suite)
+	 * @param location location of the unit in the form FF-RR
+	 * @param capacity Maximum capacity of the unit
+	 * @return a copy of the new unit
+	 * @throws IllegalArgumentException if the parameters are invalid, or no
+	 *         worker owns the unit's floor
+	 * @throws DuplicateRoomException if a unit already exists at the location
+	 */
+	@Override
+	public RentalUnit addNewUnit(String kind, String location, int capacity) throws DuplicateRoomException {
+		RentalUnit unit = newUnit(kind, location, capacity);
+		String[] response = call(shardForFloor(unit.getFloor()), Op.ADD_UNIT, kind, location, capacity);
+		if (isError(response, DuplicateRoomException.class)) {
+			throw new DuplicateRoomException(response[2]);
+		}
+		check(response);
+		fire(Change.UNIT_ADDED, new int[0], new int[0], new int[0]);
+		return unit;
+	}
+
+	/**
+	 * Sets the filters for the rental units on every worker
+	 *
+	 * @param filter1 the kind of unit to consider
+	 * @param filter2 whether to consider only units in service
+	 */
+	@Override
+	public void filterRentalUnits(String filter1, boolean filter2) {
+		if (filter1 == null) {
+			throw new IllegalArgumentException();
+		}
+		checkAll(scatter(Op.FILTER, filter1, filter2));
+	}
+
+	/**
+	 * Creates a lease on the worker that owns the rental unit
+	 *
+	 * @param clientIndex Index of the client
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @param start Start date of the lease
+	 * @param duration Duration of the lease (units depending on rental unit type)
+	 * @param people Number of occupants for the lease
+	 * @return a copy of the new lease
+	 * @throws IllegalArgumentException if the lease cannot be created
+	 */
+	@Override
+	public Lease createLease(int clientIndex, int propertyIndex, LocalDate start, int duration, int people) {
+		if (start == null) {
+			throw new IllegalArgumentException();
+		}
+		Target target = locate(propertyIndex);
+		Lease lease = copyOf(check(call(target.shard, Op.CREATE, clientIndex, target.index, start.toEpochDay(), duration, people)));
+		fire(Change.LEASE_CREATED, new int[] {propertyIndex}, new int[0], new int[] {clientIndex});
+		return lease;
+	}
+
+	/**
+	 * Extends the lease with the given confirmation number on the worker
+	 * that holds it
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return a copy of the extended lease
+	 * @throws IllegalArgumentException if the lease cannot be extended
+	 */
+	@Override
+	public Lease extendLease(int confirmationNumber, LocalDate newEnd) {
+		return changeLease(Op.EXTEND, Change.LEASE_EXTENDED, confirmationNumber, newEnd);
+	}
+
+	/**
+	 * Shortens the lease with the given confirmation number on the worker
+	 * that holds it
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return a copy of the shortened lease
+	 * @throws IllegalArgumentException if the lease cannot be shortened
+	 */
+	@Override
+	public Lease shortenLease(int confirmationNumber, LocalDate newEnd) {
+		return changeLease(Op.SHORTEN, Change.LEASE_TRUNCATED, confirmationNumber, newEnd);
+	}
+
+	/**
+	 * Cancels a client's lease on the worker that holds it
+	 *
+	 * @param clientIndex Index of the client
+	 * @param leaseIndex Index of the lease in the client's leases, in order
+	 *        of start date and then confirmation number
+	 * @throws IllegalArgumentException if either index is not valid
+	 */
+	@Override
+	public void cancelClientsLease(int clientIndex, int leaseIndex) {
+		LeaseView[] leases = clientLeases(clientIndex);
+		if (leaseIndex < 0 || leaseIndex >= leases.length) {
+			throw new IllegalArgumentException();
+		}
+		int confirmationNumber = leases[leaseIndex].getConfirmationNumber();
+		check(call(shardForNumber(confirmationNumber), Op.CANCEL, clientIndex, confirmationNumber));
+		fire(Change.LEASE_CANCELED, new int[0], new int[0], new int[] {clientIndex});
+	}
+
+	/**
+	 * Removes a rental unit from service on the worker that owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @param start Date the unit is removed from service
+	 * @return a copy of the unit
+	 * @throws IllegalArgumentException if the index or date is not valid
+	 */
+	@Override
+	public RentalUnit removeFromService(int propertyIndex, LocalDate start) {
+		if (start == null) {
+			throw new IllegalArgumentException();
+		}
+		Target target = locate(propertyIndex);
+		UnitView unit = ShardProtocol.units(check(call(target.shard, Op.REMOVE, target.index, start.toEpochDay())), 1)[0];
+		fire(Change.UNIT_SERVICE_CHANGED, new int[0], new int[0], new int[0]);
+		return copyOf(unit);
+	}
+
+	/**
+	 * Closes a rental unit on the worker that owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public void closeRentalUnit(int propertyIndex) {
+		Target target = locate(propertyIndex);
+		check(call(target.shard, Op.CLOSE, target.index));
+		fire(Change.UNIT_CLOSED, new int[0], new int[] {propertyIndex}, new int[0]);
+	}
+
+	/**
+	 * Returns a rental unit to service on the worker that owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public void returnToService(int propertyIndex) {
+		Target target = locate(propertyIndex);
+		check(call(target.shard, Op.RETURN, target.index));
+		fire(Change.UNIT_SERVICE_CHANGED, new int[0], new int[0], new int[0]);
+	}
+
+	/**
+	 * Lists the clients, as kept by the first worker
+	 *
+	 * @return the descriptions of the clients
+	 */
+	@Override
+	public String[] listClients() {
+		ClientView[] clients = ShardProtocol.clients(check(call(first(), Op.CLIENTS)), 1);
+		String[] list = new String[clients.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendClient(line, clients[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the leases a client holds on every worker, in order of start
+	 * date and then confirmation number
+	 *
+	 * @param clientIndex Index of the client
+	 * @return the descriptions of the client's leases
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public String[] listClientLeases(int clientIndex) {
+		LeaseView[] leases = clientLeases(clientIndex);
+		String[] list = new String[leases.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendClientLease(line, leases[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the rental units of every worker that meet the filters in place,
+	 * in order of location
+	 *
+	 * @return the descriptions of the units
+	 */
+	@Override
+	public String[] listRentalUnits() {
+		UnitView[] units = viewRentalUnits();
+		String[] list = new String[units.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendUnit(line, units[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the leases of a rental unit, as kept by the worker that owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return the descriptions of the unit's leases
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public String[] listLeasesForRentalUnit(int propertyIndex) {
+		LeaseView[] leases = viewLeasesForRentalUnit(propertyIndex);
+		String[] list = new String[leases.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendUnitLease(line, leases[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Gathers views of the rental units of every worker that meet the filters
+	 * in place, in order of location
+	 *
+	 * @return the views of the units
+	 */
+	@Override
+	public UnitView[] viewRentalUnits() {
+		ArrayList<UnitView> units = new ArrayList<UnitView>();
+		for (String[] response : checkAll(scatter(Op.UNITS))) {
+			units.addAll(Arrays.asList(ShardProtocol.units(response, 1)));
+		}
+		return units.toArray(new UnitView[units.size()]);
+	}
+
+	/**
+	 * Gathers views of the clients, counting the leases each client holds
+	 * on every worker
+	 *
+	 * @return the views of the clients
+	 */
+	@Override
+	public ClientView[] viewClients() {
+		String[][] responses = checkAll(scatter(Op.CLIENTS));
+		ClientView[] clients = ShardProtocol.clients(responses[0], 1);
+		int[] counts = new int[clients.length];
+		for (String[] response : responses) {
+			ClientView[] part = ShardProtocol.clients(response, 1);
+			for (int i = 0; i < counts.length && i < part.length; i++) {
+				counts[i] += part[i].getLeaseCount();
+			}
+		}
+		for (int i = 0; i < clients.length; i++) {
+			clients[i] = new ClientView(clients[i].getName(), clients[i].getId(), counts[i]);
+		}
+		return clients;
+	}
+
+	/**
+	 * Gathers views of the leases a client holds on every worker, in order
+	 * of start date and then confirmation number
+	 *
+	 * @param clientIndex Index of the client
+	 * @return the views of the client's leases
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public LeaseView[] viewClientLeases(int clientIndex) {
+		return clientLeases(clientIndex);
+	}
+
+	/**
+	 * Gets views of the leases of a rental unit from the worker that owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return the views of the unit's leases
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	@Override
+	public LeaseView[] viewLeasesForRentalUnit(int propertyIndex) {
+		Target target = locate(propertyIndex);
+		return ShardProtocol.leases(check(call(target.shard, Op.UNIT_LEASES, target.index)), 1);
+	}
+
+	/**
+	 * Returns one page of the rental units that meet the filters in place.
+	 * Workers are asked in order of their floors, each for the units after
+	 * the location in the cursor, until the page is full.
+	 *
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most units on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageRentalUnits(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		long key = cursor == null ? -1 : cursor.getKey();
+		ArrayList<UnitView> units = new ArrayList<UnitView>();
+		for (Shard shard : shards) {
+			if (units.size() > limit) {
+				break;
+			}
+			if (shard.maxFloor * 100 + RentalUnit.MAX_ROOM > key) {
+				units.addAll(Arrays.asList(ShardProtocol.units(check(call(shard, Op.UNITS_AFTER, key, limit + 1 - units.size())), 1)));
+			}
+		}
+		String[] items = new String[Math.min(limit, units.size())];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendUnit(line, units.get(i)).toString();
+		}
+		PageCursor next = null;
+		if (units.size() > limit) {
+			UnitView last = units.get(limit - 1);
+			next = new PageCursor(last.getFloor() * 100 + last.getRoom(), -1);
+		}
+		return new Page<String>(items, next);
+	}
+
+	/**
+	 * Returns one page of the clients, as kept by the first worker
+	 *
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most clients on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClients(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		return ShardProtocol.page(check(call(first(), Op.PAGE_CLIENTS, cursor, limit)), 1);
+	}
+
+	/**
+	 * Returns one page of the leases a client holds on every worker, in order
+	 * of start date and then confirmation number. The page resumes right
+	 * after the lease saved in the cursor.
+	 *
+	 * @param clientIndex Index of the client
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if clientIndex is not a valid index or
+	 *         limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClientLeases(int clientIndex, PageCursor cursor, int limit) {
+		checkLimit(limit);
+		LeaseView[] leases = clientLeases(clientIndex);
+		int from = 0;
+		if (cursor != null) {
+			while (from < leases.length && leaseKey(leases[from]) <= cursor.getKey()) {
+				from++;
+			}
+		}
+		int to = Math.min(leases.length, from + limit);
+		String[] items = new String[to - from];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendClientLease(line, leases[from + i]).toString();
+		}
+		return new Page<String>(items, to < leases.length ? new PageCursor(leaseKey(leases[to - 1]), to - 1) : null);
+	}
+
+	/**
+	 * Returns one page of the leases of a rental unit from the worker that
+	 * owns it
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if the index is not valid or limit is
+	 *         less than 1
+	 */
+	@Override
+	public Page<String> pageLeasesForRentalUnit(int propertyIndex, PageCursor cursor, int limit) {
+		checkLimit(limit);
+		Target target = locate(propertyIndex);
+		return ShardProtocol.page(check(call(target.shard, Op.PAGE_UNIT_LEASES, target.index, cursor, limit)), 1);
+	}
+
+	/**
+	 * Removes all data from every worker
+	 */
+	@Override
+	public void flushAllData() {
+		checkAll(scatter(Op.FLUSH));
+		fire(Change.DATA_FLUSHED, new int[0], new int[0], new int[0]);
+	}
+
+	/**
+	 * Registers a listener to be told about every change made through the router
+	 *
+	 * @param listener the listener to register
+	 * @throws IllegalArgumentException if listener is null
+	 */
+	@Override
+	public void addRentalChangeListener(RentalChangeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stops telling a listener about changes. Does nothing if the listener
+	 * is not registered.
+	 *
+	 * @param listener the listener to remove
+	 */
+	@Override
+	public void removeRentalChangeListener(RentalChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Extends or shortens a lease on the worker that holds it
+	 *
+	 * @param op the operation, EXTEND or SHORTEN
+	 * @param change the kind of change made
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return a copy of the changed lease
+	 * @throws IllegalArgumentException if the lease cannot be changed
+	 */
+	private Lease changeLease(Op op, Change change, int confirmationNumber, LocalDate newEnd) {
+		if (newEnd == null) {
+			throw new IllegalArgumentException();
+		}
+		Lease lease = copyOf(check(call(shardForNumber(confirmationNumber), op, confirmationNumber, newEnd.toEpochDay())));
+		fire(change, new int[0], new int[0], new int[0]);
+		return lease;
+	}
+
+	/**
+	 * Gathers the leases a client holds on every worker
+	 *
+	 * @param clientIndex Index of the client
+	 * @return the views of the leases, in order of start date and then
+	 *         confirmation number
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	private LeaseView[] clientLeases(int clientIndex) {
+		ArrayList<LeaseView> leases = new ArrayList<LeaseView>();
+		for (String[] response : checkAll(scatter(Op.CLIENT_LEASES, clientIndex))) {
+			leases.addAll(Arrays.asList(ShardProtocol.leases(response, 1)));
+		}
+		leases.sort(Comparator.comparingLong(ShardRouter::leaseKey));
+		return leases.toArray(new LeaseView[leases.size()]);
+	}
+
+	/**
+	 * Gets the sort key of a lease: its start day and then its confirmation number
+	 *
+	 * @param lease the view of the lease
+	 * @return the key
+	 */
+	private static long leaseKey(LeaseView lease) {
+		return ((long) lease.getStartDay() << 32) | (lease.getConfirmationNumber() & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Finds the worker that owns the unit at the given position of the
+	 * building's filtered list, and the unit's position in that worker's list
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return the worker and position
+	 * @throws IllegalArgumentException if the index is not valid
+	 */
+	private Target locate(int propertyIndex) {
+		if (propertyIndex < 0) {
+			throw new IllegalArgumentException();
+		}
+		String[][] counts = checkAll(scatter(Op.COUNT));
+		int index = propertyIndex;
+		for (int i = 0; i < counts.length; i++) {
+			int count = Integer.parseInt(counts[i][1]);
+			if (index < count) {
+				return new Target(shards.get(i), index);
+			}
+			index -= count;
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Finds the worker that owns a floor
+	 *
+	 * @param floor the floor
+	 * @return the worker
+	 * @throws IllegalArgumentException if no worker owns the floor
+	 */
+	private Shard shardForFloor(int floor) {
+		for (Shard shard : shards) {
+			if (floor >= shard.minFloor && floor <= shard.maxFloor) {
+				return shard;
+			}
+		}
+		throw new IllegalArgumentException("No shard owns floor " + floor);
+	}
+
+	/**
+	 * Finds the worker that hands out a confirmation number
+	 *
+	 * @param confirmationNumber the confirmation number
+	 * @return the worker
+	 * @throws IllegalArgumentException if no worker hands out the number
+	 */
+	private Shard shardForNumber(int confirmationNumber) {
+		for (Shard shard : shards) {
+			if (confirmationNumber >= shard.firstNumber && confirmationNumber <= shard.lastNumber) {
+				return shard;
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Gets the first worker, which answers for the clients
+	 *
+	 * @return the first worker
+	 * @throws IllegalStateException if no worker is connected
+	 */
+	private Shard first() {
+		if (shards.isEmpty()) {
+			throw new IllegalStateException("No shards are connected");
+		}
+		return shards.get(0);
+	}
+
+	/**
+	 * Sends a request to one worker and waits for its answer
+	 *
+	 * @param shard the worker
+	 * @param request the operation and arguments of the request
+	 * @return the fields of the response
+	 * @throws UncheckedIOException if the worker cannot be reached
+	 */
+	private String[] call(Shard shard, Object... request) {
+		try {
+			return shard.call(fields(request));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Sends a request to every worker, and then waits for all of their
+	 * answers, so that the workers carry it out in parallel
+	 *
+	 * @param request the operation and arguments of the request
+	 * @return the fields of each worker's response, in order of their floors
+	 * @throws IllegalStateException if no worker is connected
+	 * @throws UncheckedIOException if a worker cannot be reached
+	 */
+	private String[][] scatter(Object... request) {
+		first();
+		List<String> fields = fields(request);
+		String[][] responses = new String[shards.size()][];
+		try {
+			for (Shard shard : shards) {
+				ShardProtocol.write(shard.out, fields);
+			}
+			for (int i = 0; i < responses.length; i++) {
+				responses[i] = ShardProtocol.read(shards.get(i).in);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return responses;
+	}
+
+	/**
+	 * Turns the operation and arguments of a request into its fields
+	 *
+	 * @param request the operation and arguments
+	 * @return the fields
+	 */
+	private static List<String> fields(Object... request) {
+		ArrayList<String> fields = new ArrayList<String>();
+		for (Object arg : request) {
+			if (arg instanceof PageCursor || arg == null) {
+				ShardProtocol.addCursor(fields, (PageCursor) arg);
+			} else {
+				fields.add(arg.toString());
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * Returns whether a response failed with the given exception
+	 *
+	 * @param response the fields of the response
+	 * @param type the exception
+	 * @return whether the response is that failure
+	 */
+	private static boolean isError(String[] response, Class<? extends Exception> type) {
+		return response[0].equals(ShardProtocol.ERR) && response[1].equals(type.getSimpleName());
+	}
+
+	/**
+	 * Checks that a response succeeded, and throws the worker's exception again
+	 * if it did not
+	 *
+	 * @param response the fields of the response
+	 * @return the response
+	 * @throws IllegalArgumentException if the worker rejected the request
+	 * @throws IllegalStateException if the worker failed in some other way
+	 */
+	private static String[] check(String[] response) {
+		if (!response[0].equals(ShardProtocol.ERR)) {
+			return response;
+		}
+		String message = response[2].isEmpty() ? null : response[2];
+		if (response[1].equals(IllegalStateException.class.getSimpleName())) {
+			throw new IllegalStateException(message);
+		}
+		if (response[1].equals(IllegalArgumentException.class.getSimpleName())
+				|| response[1].equals(NumberFormatException.class.getSimpleName())) {
+			throw new IllegalArgumentException(message);
+		}
+		throw new IllegalStateException(response[1] + ": " + response[2]);
+	}
+
+	/**
+	 * Checks that every response succeeded
+	 *
+	 * @param responses the fields of each response
+	 * @return the responses
+	 * @throws IllegalArgumentException if a worker rejected the request
+	 * @throws IllegalStateException if a worker failed in some other way
+	 */
+	private static String[][] checkAll(String[][] responses) {
+		for (String[] response : responses) {
+			check(response);
+		}
+		return responses;
+	}
+
+	/**
+	 * Tells the listeners about a change made through the router
+	 *
+	 * @param change the kind of change
+	 * @param unitIndexes the filtered positions of the affected units
+	 * @param closedUnitIndexes the filtered positions of the closed units
+	 * @param clientIndexes the positions of the affected clients
+	 */
+	private void fire(Change change, int[] unitIndexes, int[] closedUnitIndexes, int[] clientIndexes) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		EnumMap<Change, Integer> counts = new EnumMap<Change, Integer>(Change.class);
+		counts.put(change, 1);
+		RentalChangeEvent event = new RentalChangeEvent(counts, unitIndexes, closedUnitIndexes, clientIndexes);
+		for (RentalChangeListener listener : new ArrayList<RentalChangeListener>(listeners)) {
+			listener.rentalDataChanged(event);
+		}
+	}
+
+	/**
+	 * Makes a rental unit of the given kind that is not part of any building
+	 *
+	 * @param kind Type of RentalUnit (starts with 'O' for office, 'C' for conference room,
+	 *           'H' for hotel suite)
+	 * @param location location of the unit in the form FF-RR
+	 * @param capacity Maximum capacity of the unit
+	 * @return the unit
+	 * @throws IllegalArgumentException if the parameters are invalid
+	 */
+	private static RentalUnit newUnit(String kind, String location, int capacity) {
+		if ("C".equals(kind)) {
+			return new ConferenceRoom(location, capacity);
+		} else if ("H".equals(kind)) {
+			return new HotelSuite(location, capacity);
+		} else if ("O".equals(kind)) {
+			return new Office(location, capacity);
+		}
+		throw new IllegalArgumentException("Invalid Rental Unit type");
+	}
+
+	/**
+	 * Makes a copy of a viewed rental unit
+	 *
+	 * @param view the view of the unit
+	 * @return the copy
+	 */
+	private static RentalUnit copyOf(UnitView view) {
+		RentalUnit unit = newUnit(String.valueOf(view.getKind()), view.getFloor() + "-" + view.getRoom(), view.getCapacity());
+		if (!view.isInService()) {
+			unit.takeOutOfService();
+		}
+		return unit;
+	}
+
+	/**
+	 * Makes a copy of the lease in a response, whose fields are the lease's
+	 * unit followed by the lease
+	 *
+	 * @param response the fields of the response
+	 * @return the copy
+	 */
+	private Lease copyOf(String[] response) {
+		RentalUnit unit = copyOf(ShardProtocol.units(Arrays.copyOf(response, 1 + ShardProtocol.UNIT_FIELDS), 1)[0]);
+		LeaseView view = ShardProtocol.leases(response, 1 + ShardProtocol.UNIT_FIELDS)[0];
+		unit.setConfirmationNumbering(copies);
+		Lease lease = new Lease(view.getConfirmationNumber(), new Client(view.getClientName(), view.getClientId()),
+				unit, view.getStart(), view.getEnd(), view.getOccupants());
+		copies.release(view.getConfirmationNumber());
+		return lease;
+	}
+
+	/**
+	 * Checks the size of a page
+	 *
+	 * @param limit the most entries on a page
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	private static void checkLimit(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * The Target class is a rental unit's worker and its position in that
+	 * worker's filtered list.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Target {
+
+		/** the worker that owns the unit */
+		private Shard shard;
+		/** the position of the unit in the worker's filtered list */
+		private int index;
+
+		/**
+		 * Constructs a Target
+		 *
+		 * @param shard the worker that owns the unit
+		 * @param index the position of the unit in the worker's filtered list
+		 */
+		Target(Shard shard, int index) {
+			this.shard = shard;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * The Shard class is the router's connection to one worker.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Shard {
+
+		/** the lowest floor the worker owns */
+		private int minFloor;
+		/** the highest floor the worker owns */
+		private int maxFloor;
+		/** the first confirmation number the worker hands out */
+		private int firstNumber;
+		/** the last confirmation number the worker hands out */
+		private int lastNumber;
+		/** the connection to the worker */
+		private Socket socket;
+		/** reads the worker's responses */
+		private BufferedReader in;
+		/** writes requests to the worker */
+		private BufferedWriter out;
+		/** the worker's process, or null if the router did not start it */
+		private Process process;
+
+		/**
+		 * Constructs a Shard over a connection to a worker
+		 *
+		 * @param socket the connection
+		 * @throws IOException if the connection's streams cannot be opened
+		 */
+		Shard(Socket socket) throws IOException {
+			this.socket = socket;
+			socket.setTcpNoDelay(true);
+			this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Sends a request to the worker and waits for its answer
+		 *
+		 * @param request the fields of the request
+		 * @return the fields of the response
+		 * @throws IOException if the worker cannot be reached
+		 */
+		String[] call(List<String> request) throws IOException {
+			ShardProtocol.write(out, request);
+			return ShardProtocol.read(in);
+		}
+
+		/**
+		 * Closes the connection, and tells the worker to exit if the router
+		 * started it
+		 */
+		void close() {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+			if (process != null) {
+				try {
+					process.getOutputStream().close();
+					if (!process.waitFor(EXIT_WAIT, TimeUnit.SECONDS)) {
+						process.destroy();
+					}
+				} catch (IOException e) {
+					process.destroy();
+				} catch (InterruptedException e) {
+					process.destroy();
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,342 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.shards;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.shards.ShardProtocol.Op;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ShardWorker class owns the rental units on a range of floors of a 
+ * building, along with their leases, in a PropertyManager of its own. Every
+ * worker keeps a full copy of the clients, which the router adds to every
+ * worker in the same order, so a client has the same index everywhere. The
+ * worker's leases are numbered from its own part of the confirmation 
+ * numbers, so numbers never collide across workers. A worker listens on a
+ * loopback socket and carries out one ShardProtocol request at a time.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ShardWorker {
+
+	/** the lowest floor the worker owns */
+	private int minFloor;
+	/** the highest floor the worker owns */
+	private int maxFloor;
+	/** the confirmation numbering of the worker's leases */
+	private ConfirmationNumberAllocator numbering;
+	/** the manager holding the worker's units, clients and leases */
+	private PropertyManager manager;
+	/** the socket the worker listens on, or null if it is not bound */
+	private ServerSocket server;
+	
+	/**
+	 * Constructs a worker for the given floors, numbering its leases from 
+	 * the given part of the confirmation numbers
+	 * 
+	 * @param minFloor the lowest floor the worker owns
+	 * @param maxFloor the highest floor the worker owns
+	 * @param part which part of the confirmation numbers the worker uses, from 0
+	 * @param parts the number of parts the confirmation numbers are split into
+	 * @throws IllegalArgumentException if the floors are not valid floors in 
+	 *         ascending order, or part is not a valid part
+	 */
+	public ShardWorker(int minFloor, int maxFloor, int part, int parts) {
+		if (minFloor < RentalUnit.MIN_FLOOR || maxFloor > RentalUnit.MAX_FLOOR || minFloor > maxFloor) {
+			throw new IllegalArgumentException();
+		}
+		this.minFloor = minFloor;
+		this.maxFloor = maxFloor;
+		this.numbering = Lease.newNumbering(part, parts);
+		this.manager = new PropertyManager(numbering);
+	}
+	
+	/**
+	 * Gets the manager holding the worker's units, clients and leases
+	 * 
+	 * @return the manager
+	 */
+	public PropertyManager getManager() {
+		return this.manager;
+	}
+	
+	/**
+	 * Starts listening on the given port of the loopback address
+	 * 
+	 * @param port the port, or 0 for any free port
+	 * @return the port the worker listens on
+	 * @throws IOException if the socket cannot be bound
+	 */
+	public int bind(int port) throws IOException {
+		server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+		return server.getLocalPort();
+	}
+	
+	/**
+	 * Accepts connections until the worker is closed, serving each one on
+	 * a thread of its own
+	 * 
+	 * @throws IllegalStateException if the worker is not bound
+	 */
+	public void serve() {
+		if (server == null) {
+			throw new IllegalStateException();
+		}
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				Thread session = new Thread(() -> session(socket), "shard-session");
+				session.setDaemon(true);
+				session.start();
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Stops listening for connections
+	 */
+	public void close() {
+		try {
+			if (server != null) {
+				server.close();
+			}
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+	
+	/**
+	 * Answers the requests of one connection until it is closed
+	 * 
+	 * @param socket the connection
+	 */
+	private void session(Socket socket) {
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+			s.setTcpNoDelay(true);
+			while (true) {
+				ShardProtocol.write(out, handle(ShardProtocol.read(in)));
+			}
+		} catch (IOException e) {
+			// the router went away
+		}
+	}
+	
+	/**
+	 * Carries out a request
+	 * 
+	 * @param request the fields of the request
+	 * @return the fields of the response
+	 */
+	synchronized List<String> handle(String[] request) {
+		ArrayList<String> response = new ArrayList<String>();
+		response.add(ShardProtocol.OK);
+		try {
+			carryOut(request, response);
+			return response;
+		} catch (Exception e) {
+			return Arrays.asList(ShardProtocol.ERR, e.getClass().getSimpleName(), 
+					e.getMessage() == null ? "" : e.getMessage());
+		}
+	}
+	
+	/**
+	 * Carries out a request, adding its results to the response
+	 * 
+	 * @param request the fields of the request
+	 * @param response the fields of the response
+	 * @throws Exception if the manager rejects the request
+	 */
+	private void carryOut(String[] request, List<String> response) throws Exception {
+		switch (Op.valueOf(request[0])) {
+		case HELLO:
+			response.add(Integer.toString(minFloor));
+			response.add(Integer.toString(maxFloor));
+			response.add(Integer.toString(numbering.getFirst()));
+			response.add(Integer.toString(numbering.getFirst() + numbering.getCapacity() - 1));
+			break;
+		case ADD_CLIENT:
+			manager.addNewClient(request[1], request[2]);
+			response.add(Integer.toString(manager.getClientCount()));
+			break;
+		case ADD_UNIT:
+			int floor = floorOf(request[2]);
+			if (floor < minFloor || floor > maxFloor) {
+				throw new IllegalArgumentException("Floor " + floor + " is not on this shard");
+			}
+			ShardProtocol.addUnit(response, new UnitView(manager.addNewUnit(request[1], request[2], Integer.parseInt(request[3]))));
+			break;
+		case FILTER:
+			manager.filterRentalUnits(request[1], Boolean.parseBoolean(request[2]));
+			break;
+		case COUNT:
+			response.add(Integer.toString(manager.viewRentalUnits().length));
+			break;
+		case UNITS:
+			for (UnitView unit : manager.viewRentalUnits()) {
+				ShardProtocol.addUnit(response, unit);
+			}
+			break;
+		case UNITS_AFTER:
+			long key = Long.parseLong(request[1]);
+			int limit = Integer.parseInt(request[2]);
+			for (UnitView unit : manager.viewRentalUnits()) {
+				if (limit > 0 && unit.getFloor() * 100 + unit.getRoom() > key) {
+					ShardProtocol.addUnit(response, unit);
+					limit--;
+				}
+			}
+			break;
+		case UNIT_LEASES:
+			for (LeaseView lease : manager.viewLeasesForRentalUnit(Integer.parseInt(request[1]))) {
+				ShardProtocol.addLease(response, lease);
+			}
+			break;
+		case PAGE_UNIT_LEASES:
+			ShardProtocol.addPage(response, manager.pageLeasesForRentalUnit(Integer.parseInt(request[1]),
+					ShardProtocol.cursor(request, 2), Integer.parseInt(request[5])));
+			break;
+		case CLIENTS:
+			for (ClientView client : manager.viewClients()) {
+				ShardProtocol.addClient(response, client);
+			}
+			break;
+		case PAGE_CLIENTS:
+			ShardProtocol.addPage(response, manager.pageClients(ShardProtocol.cursor(request, 1), Integer.parseInt(request[4])));
+			break;
+		case CLIENT_LEASES:
+			for (LeaseView lease : manager.viewClientLeases(Integer.parseInt(request[1]))) {
+				ShardProtocol.addLease(response, lease);
+			}
+			break;
+		case CREATE:
+			addLease(response, manager.createLease(Integer.parseInt(request[1]), Integer.parseInt(request[2]), 
+					day(request[3]), Integer.parseInt(request[4]), Integer.parseInt(request[5])));
+			break;
+		case CANCEL:
+			int clientIndex = Integer.parseInt(request[1]);
+			int confirmationNumber = Integer.parseInt(request[2]);
+			Client client = manager.getClientAt(clientIndex);
+			int leaseIndex = client.findLease(confirmationNumber, client.getLeaseCount() - 1);
+			if (leaseIndex < 0 || client.getLeaseAt(leaseIndex).getConfirmationNumber() != confirmationNumber) {
+				throw new IllegalArgumentException();
+			}
+			manager.cancelClientsLease(clientIndex, leaseIndex);
+			break;
+		case EXTEND:
+			addLease(response, manager.extendLease(Integer.parseInt(request[1]), day(request[2])));
+			break;
+		case SHORTEN:
+			addLease(response, manager.shortenLease(Integer.parseInt(request[1]), day(request[2])));
+			break;
+		case REMOVE:
+			ShardProtocol.addUnit(response, new UnitView(manager.removeFromService(Integer.parseInt(request[1]), day(request[2]))));
+			break;
+		case CLOSE:
+			manager.closeRentalUnit(Integer.parseInt(request[1]));
+			break;
+		case RETURN:
+			manager.returnToService(Integer.parseInt(request[1]));
+			break;
+		case FLUSH:
+			manager.flushAllData();
+			break;
+		default:
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	/**
+	 * Adds a lease to a response, after its unit so that the router can
+	 * rebuild a copy of the lease
+	 * 
+	 * @param response the fields of the response
+	 * @param lease the lease
+	 */
+	private static void addLease(List<String> response, Lease lease) {
+		ShardProtocol.addUnit(response, new UnitView(lease.getProperty()));
+		ShardProtocol.addLease(response, new LeaseView(lease));
+	}
+	
+	/**
+	 * Reads a date sent as a count of days from the epoch
+	 * 
+	 * @param field the field holding the date
+	 * @return the date
+	 */
+	private static LocalDate day(String field) {
+		return LocalDate.ofEpochDay(Long.parseLong(field));
+	}
+	
+	/**
+	 * Reads the floor of a location of the form floor-room
+	 * 
+	 * @param location the location
+	 * @return the floor
+	 * @throws IllegalArgumentException if the location has no floor
+	 */
+	static int floorOf(String location) {
+		int dash = location == null ? -1 : location.indexOf('-');
+		try {
+			return Integer.parseInt(location.substring(0, dash).trim());
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid location");
+		}
+	}
+	
+	/**
+	 * Runs a worker as a process of its own. The arguments are the lowest
+	 * and highest floors, the part of the confirmation numbers and the 
+	 * number of parts, and optionally the port to listen on. Once it is
+	 * listening, the worker prints PORT followed by its port. It exits when
+	 * its standard input is closed, so it does not outlive the process that
+	 * started it.
+	 * 
+	 * @param args the floors, the part and parts, and the port
+	 * @throws IOException if the socket cannot be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		ShardWorker worker = new ShardWorker(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+				Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+		int port = worker.bind(args.length > 4 ? Integer.parseInt(args[4]) : 0);
+		System.out.println("PORT " + port);
+		System.out.flush();
+		Thread watcher = new Thread(() -> {
+			try {
+				while (System.in.read() >= 0) {
+					continue;
+				}
+			} catch (IOException e) {
+				// treat as closed
+			}
+			worker.close();
+		}, "shard-stdin");
+		watcher.setDaemon(true);
+		watcher.start();
+		worker.serve();
+	}
+}
@@ -0,0 +1,563 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.RentalCapacityException;
+import edu.ncsu.csc216.business.model.properties.RentalDateException;
+import edu.ncsu.csc216.business.model.properties.RentalOutOfServiceException;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The AsyncLandlord class puts a PropertyManager behind an API that queues
+ * work and returns CompletableFutures instead of blocking the caller.
+ * Every RentalUnit gets a mailbox: the operations on a unit run one after
+ * another in the order they were submitted, while the mailboxes of
+ * different units are drained in parallel on a shared pool.
+ *
+ * A unit's operation changes the unit without holding any lock the other
+ * units need. Only then does it take a short lock to bring the rest of the
+ * manager up to date, adding the Lease to its client's list or removing it,
+ * so a client and its units never disagree about which Leases are active.
+ * Operations on the manager as a whole, such as adding a client or taking
+ * a snapshot, wait for the unit operations under way and keep new ones
+ * waiting until they are done.
+ *
+ * Each mailbox holds a bounded number of operations. An operation submitted
+ * to a full mailbox is not queued; its future fails at once with a
+ * RejectedExecutionException, so an overloaded unit pushes back on its
+ * callers instead of queuing without end. While an AsyncLandlord is in use
+ * the manager must not be used directly, and listeners are told about
+ * changes on the pool's threads.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class AsyncLandlord {
+
+	/** the number of operations a mailbox holds unless told otherwise */
+	public static final int DEFAULT_MAILBOX_CAPACITY = 1024;
+	/** the number of operations a mailbox runs before giving up its thread */
+	private static final int BATCH = 32;
+	/** the manager the operations run against */
+	private PropertyManager manager;
+	/** runs the mailboxes and the operations on the whole manager */
+	private Executor executor;
+	/** the number of operations each mailbox holds */
+	private int capacity;
+	/** the mailbox of each unit */
+	private ConcurrentHashMap<RentalUnit, Mailbox> mailboxes;
+	/** shared by unit operations, held alone by operations on the whole manager */
+	private ReentrantReadWriteLock gate;
+	/** guards the clients, the active Leases and the change records */
+	private ReentrantLock books;
+
+	/**
+	 * Constructs an AsyncLandlord that runs on the common pool, with mailboxes
+	 * of the default capacity
+	 *
+	 * @param manager the manager the operations run against
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public AsyncLandlord(PropertyManager manager) {
+		this(manager, ForkJoinPool.commonPool(), DEFAULT_MAILBOX_CAPACITY);
+	}
+
+	/**
+	 * Constructs an AsyncLandlord
+	 *
+	 * @param manager the manager the operations run against
+	 * @param executor runs the operations
+	 * @param capacity the number of operations each unit's mailbox holds
+	 * @throws IllegalArgumentException if manager or executor is null, or capacity is less than 1
+	 */
+	public AsyncLandlord(PropertyManager manager, Executor executor, int capacity) {
+		if (manager == null || executor == null || capacity < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+		this.executor = executor;
+		this.capacity = capacity;
+		this.mailboxes = new ConcurrentHashMap<RentalUnit, Mailbox>();
+		this.gate = new ReentrantReadWriteLock();
+		this.books = new ReentrantLock();
+	}
+
+	/**
+	 * Creates a lease for the client with the given id on the unit at the
+	 * given location, in the unit's mailbox
+	 *
+	 * @param clientId the id of the client
+	 * @param location the location of the unit, of the form FF-RR
+	 * @param start the start date
+	 * @param duration the duration (units depending on rental unit type)
+	 * @param occupants the number of occupants
+	 * @return the view of the new lease; fails with an IllegalArgumentException if
+	 *         there is no such client or unit or the unit cannot take the lease
+	 */
+	public CompletableFuture<LeaseView> createLease(String clientId, String location, LocalDate start,
+			int duration, int occupants) {
+		Client client;
+		RentalUnit unit;
+		try {
+			client = shared(() -> manager.getClientById(clientId));
+			unit = shared(() -> manager.getUnitAtLocation(location));
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return submit(unit, () -> {
+			Lease lease;
+			try {
+				lease = manager.reserve(unit, client, start, duration, occupants);
+			} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+				throw new IllegalArgumentException(e.getMessage());
+			}
+			return booked(() -> {
+				manager.leaseReserved(lease);
+				return new LeaseView(lease);
+			});
+		});
+	}
+
+	/**
+	 * Extends a lease to a later end date, in its unit's mailbox
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return the view of the extended lease; fails with an IllegalArgumentException
+	 *         if there is no such lease or it cannot be extended
+	 */
+	public CompletableFuture<LeaseView> extendLease(int confirmationNumber, LocalDate newEnd) {
+		return onLease(confirmationNumber, lease -> {
+			try {
+				lease.getProperty().extendLease(lease, newEnd);
+			} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+				throw new IllegalArgumentException(e.getMessage());
+			}
+			return booked(() -> {
+				manager.leaseChanged(lease, Change.LEASE_EXTENDED);
+				return new LeaseView(lease);
+			});
+		});
+	}
+
+	/**
+	 * Shortens a lease to an earlier end date, in its unit's mailbox
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return the view of the shortened lease; fails with an IllegalArgumentException
+	 *         if there is no such lease or it cannot be shortened
+	 */
+	public CompletableFuture<LeaseView> shortenLease(int confirmationNumber, LocalDate newEnd) {
+		return onLease(confirmationNumber, lease -> {
+			try {
+				lease.getProperty().shortenLease(lease, newEnd);
+			} catch (RentalDateException e) {
+				throw new IllegalArgumentException(e.getMessage());
+			}
+			return booked(() -> {
+				manager.leaseChanged(lease, Change.LEASE_TRUNCATED);
+				return new LeaseView(lease);
+			});
+		});
+	}
+
+	/**
+	 * Cancels a lease, in its unit's mailbox
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @return the view of the canceled lease; fails with an IllegalArgumentException
+	 *         if there is no such lease
+	 */
+	public CompletableFuture<LeaseView> cancelLease(int confirmationNumber) {
+		return onLease(confirmationNumber, lease -> {
+			lease.getProperty().cancelLeaseByNumber(confirmationNumber);
+			return booked(() -> {
+				manager.leaseCanceled(lease);
+				return new LeaseView(lease);
+			});
+		});
+	}
+
+	/**
+	 * Gets views of the leases of the unit at the given location, in its
+	 * mailbox, so they reflect every operation on the unit submitted before
+	 *
+	 * @param location the location of the unit, of the form FF-RR
+	 * @return the views of the unit's leases, in order of start date; fails with
+	 *         an IllegalArgumentException if there is no such unit
+	 */
+	public CompletableFuture<LeaseView[]> viewLeases(String location) {
+		RentalUnit unit;
+		try {
+			unit = shared(() -> manager.getUnitAtLocation(location));
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return submit(unit, () -> {
+			ArrayList<LeaseView> views = new ArrayList<LeaseView>();
+			SimpleListIterator<Lease> it = unit.leaseIterator();
+			while (it.hasNext()) {
+				views.add(new LeaseView(it.next()));
+			}
+			return views.toArray(new LeaseView[views.size()]);
+		});
+	}
+
+	/**
+	 * Adds a client, with the whole manager held
+	 *
+	 * @param name the name of the client
+	 * @param id the id of the client
+	 * @return the view of the new client; fails with a DuplicateClientException if
+	 *         the id is taken, or an IllegalArgumentException if the client is not valid
+	 */
+	public CompletableFuture<ClientView> addNewClient(String name, String id) {
+		return exclusive(m -> {
+			try {
+				return new ClientView(m.addNewClient(name, id));
+			} catch (DuplicateClientException e) {
+				throw new AsyncFailure(e);
+			}
+		});
+	}
+
+	/**
+	 * Adds a rental unit, with the whole manager held
+	 *
+	 * @param kind the kind of the unit, by its first letter
+	 * @param location the location of the unit, of the form FF-RR
+	 * @param capacity the capacity of the unit
+	 * @return the view of the new unit; fails with a DuplicateRoomException if
+	 *         the location is taken, or an IllegalArgumentException if the unit is not valid
+	 */
+	public CompletableFuture<UnitView> addNewUnit(String kind, String location, int capacity) {
+		return exclusive(m -> {
+			try {
+				return new UnitView(m.addNewUnit(kind, location, capacity));
+			} catch (DuplicateRoomException e) {
+				throw new AsyncFailure(e);
+			}
+		});
+	}
+
+	/**
+	 * Takes a snapshot of the manager once the unit operations under way are done
+	 *
+	 * @return the snapshot
+	 */
+	public CompletableFuture<RentalSnapshot> snapshot() {
+		return exclusive(PropertyManager::snapshot);
+	}
+
+	/**
+	 * Runs some work with the whole manager held: no unit operation runs
+	 * until the work is done. Any operation of the manager may be used.
+	 *
+	 * @param <T> the type of the result of the work
+	 * @param work the work, given the manager
+	 * @return the result of the work
+	 */
+	public <T> CompletableFuture<T> exclusive(Function<PropertyManager, T> work) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		try {
+			executor.execute(() -> {
+				gate.writeLock().lock();
+				try {
+					future.complete(work.apply(manager));
+				} catch (AsyncFailure e) {
+					future.completeExceptionally(e.getCause());
+				} catch (RuntimeException e) {
+					future.completeExceptionally(e);
+				} finally {
+					gate.writeLock().unlock();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Gets the number of operations waiting in the mailbox of the unit at
+	 * the given location, not counting one that is running
+	 *
+	 * @param location the location of the unit, of the form FF-RR
+	 * @return the number of queued operations
+	 * @throws IllegalArgumentException if there is no such unit
+	 */
+	public int getQueued(String location) {
+		Mailbox mailbox = mailboxes.get(shared(() -> manager.getUnitAtLocation(location)));
+		return mailbox == null ? 0 : mailbox.size();
+	}
+
+	/**
+	 * Finds an active lease and runs some work on it in its unit's mailbox.
+	 * The lease is looked up again when the work runs, in case an earlier
+	 * operation on the unit canceled it and its number went to another.
+	 *
+	 * @param <T> the type of the result of the work
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param work the work, given the lease
+	 * @return the result of the work
+	 */
+	private <T> CompletableFuture<T> onLease(int confirmationNumber, Function<Lease, T> work) {
+		Lease lease;
+		try {
+			lease = booked(() -> manager.getLease(confirmationNumber));
+		} catch (IllegalArgumentException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return submit(lease.getProperty(), () -> {
+			if (booked(() -> manager.getLease(confirmationNumber)) != lease) {
+				throw new IllegalArgumentException();
+			}
+			return work.apply(lease);
+		});
+	}
+
+	/**
+	 * Queues an operation in a unit's mailbox
+	 *
+	 * @param <T> the type of the result of the operation
+	 * @param unit the unit
+	 * @param operation the operation
+	 * @return the result of the operation; fails with a RejectedExecutionException
+	 *         if the mailbox is full
+	 */
+	private <T> CompletableFuture<T> submit(RentalUnit unit, Operation<T> operation) {
+		Queued<T> task = new Queued<T>(operation);
+		if (!mailboxes.computeIfAbsent(unit, u -> new Mailbox()).offer(task)) {
+			task.reject(new RejectedExecutionException("Too many operations queued for "
+					+ unit.getFloor() + "-" + unit.getRoom()));
+		}
+		return task.future;
+	}
+
+	/**
+	 * Does some work with the unit operations kept out, as when looking
+	 * up a client or unit
+	 *
+	 * @param <T> the type of the result of the work
+	 * @param work the work
+	 * @return the result of the work
+	 */
+	private <T> T shared(Operation<T> work) {
+		gate.readLock().lock();
+		try {
+			return work.run();
+		} finally {
+			gate.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Does some work while holding the clients, the active Leases and the
+	 * change records
+	 *
+	 * @param <T> the type of the result of the work
+	 * @param work the work
+	 * @return the result of the work
+	 */
+	private <T> T booked(Operation<T> work) {
+		books.lock();
+		try {
+			return work.run();
+		} finally {
+			books.unlock();
+		}
+	}
+
+	/**
+	 * The Operation interface is a piece of work that returns a result and
+	 * throws only unchecked exceptions.
+	 *
+	 * @param <T> the type of the result
+	 * @author Alex Raum, Walker Clem
+	 */
+	private interface Operation<T> {
+
+		/**
+		 * Does the work
+		 *
+		 * @return the result
+		 */
+		T run();
+	}
+
+	/**
+	 * The AsyncFailure class carries a checked exception out of work that
+	 * cannot throw one, to fail a future with it.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class AsyncFailure extends RuntimeException {
+
+		/** the ID used for serialization */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Constructs an AsyncFailure
+		 *
+		 * @param cause the checked exception
+		 */
+		AsyncFailure(Exception cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * The Queued class is an operation waiting in a mailbox and the future
+	 * of its result. It runs with the unit operations let in.
+	 *
+	 * @param <T> the type of the result
+	 * @author Alex Raum, Walker Clem
+	 */
+	private class Queued<T> implements Runnable {
+
+		/** the operation */
+		private Operation<T> operation;
+		/** the future of the result */
+		private CompletableFuture<T> future;
+
+		/**
+		 * Constructs a Queued operation
+		 *
+		 * @param operation the operation
+		 */
+		Queued(Operation<T> operation) {
+			this.operation = operation;
+			this.future = new CompletableFuture<T>();
+		}
+
+		/**
+		 * Runs the operation and completes the future with its result
+		 */
+		@Override
+		public void run() {
+			gate.readLock().lock();
+			try {
+				future.complete(operation.run());
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			} finally {
+				gate.readLock().unlock();
+			}
+		}
+
+		/**
+		 * Fails the future without running the operation
+		 *
+		 * @param e the reason
+		 */
+		void reject(RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * The Mailbox class is the queue of operations for one unit. It is run
+	 * on the executor whenever it has operations and is not running already,
+	 * and runs a batch of them before handing its thread back, so one busy
+	 * unit cannot keep the others waiting.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private class Mailbox implements Runnable {
+
+		/** the operations waiting to run */
+		private ArrayDeque<Queued<?>> queue = new ArrayDeque<Queued<?>>();
+		/** whether the mailbox is running or waiting on the executor to run */
+		private boolean scheduled;
+
+		/**
+		 * Queues an operation, scheduling the mailbox if it is idle
+		 *
+		 * @param task the operation
+		 * @return whether the operation was queued, false if the mailbox is full
+		 */
+		boolean offer(Queued<?> task) {
+			synchronized (this) {
+				if (queue.size() >= capacity) {
+					return false;
+				}
+				queue.add(task);
+				if (scheduled) {
+					return true;
+				}
+				scheduled = true;
+			}
+			schedule();
+			return true;
+		}
+
+		/**
+		 * Gets the number of operations waiting to run
+		 *
+		 * @return the number of operations
+		 */
+		synchronized int size() {
+			return queue.size();
+		}
+
+		/**
+		 * Runs a batch of operations, then schedules the mailbox again if
+		 * any are left
+		 */
+		@Override
+		public void run() {
+			for (int i = 0; i < BATCH; i++) {
+				Queued<?> task;
+				synchronized (this) {
+					task = queue.poll();
+					if (task == null) {
+						scheduled = false;
+						return;
+					}
+				}
+				task.run();
+			}
+			schedule();
+		}
+
+		/**
+		 * Hands the mailbox to the executor. If the executor refuses it,
+		 * every queued operation fails.
+		 */
+		private void schedule() {
+			try {
+				executor.execute(this);
+			} catch (RejectedExecutionException e) {
+				ArrayDeque<Queued<?>> dropped;
+				synchronized (this) {
+					dropped = queue;
+					queue = new ArrayDeque<Queued<?>>();
+					scheduled = false;
+				}
+				for (Queued<?> task : dropped) {
+					task.reject(e);
+				}
+			}
+		}
+	}
+}
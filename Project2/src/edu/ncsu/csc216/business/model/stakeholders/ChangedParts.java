@@ -0,0 +1,153 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ChangedParts class collects which rental units and clients of a
+ * PropertyManager have changed over a run of snapshots, so that two of
+ * those snapshots can be compared on just those units and clients rather
+ * than in full. Units are known by location and clients by position,
+ * neither of which changes while the data is not flushed.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+class ChangedParts {
+
+	/** the locations of the changed rental units, as floor times 100 plus room */
+	private TreeSet<Integer> locations;
+	/** the positions of the changed clients */
+	private TreeSet<Integer> clients;
+	/** whether all the data was removed, so that nothing can be compared */
+	private boolean flushed;
+
+	/**
+	 * Constructs a collection of no changes
+	 */
+	ChangedParts() {
+		this.locations = new TreeSet<Integer>();
+		this.clients = new TreeSet<Integer>();
+	}
+
+	/**
+	 * Records a changed rental unit
+	 *
+	 * @param location the floor of the unit times 100 plus its room
+	 */
+	void unitChanged(int location) {
+		locations.add(location);
+	}
+
+	/**
+	 * Records a changed client
+	 *
+	 * @param position the position of the client
+	 */
+	void clientChanged(int position) {
+		clients.add(position);
+	}
+
+	/**
+	 * Records that all the data was removed, forgetting the changes before
+	 */
+	void flushed() {
+		locations.clear();
+		clients.clear();
+		flushed = true;
+	}
+
+	/**
+	 * Adds the changes collected after these to these
+	 *
+	 * @param later the later changes
+	 */
+	void addAll(ChangedParts later) {
+		if (later.flushed) {
+			flushed();
+		}
+		locations.addAll(later.locations);
+		clients.addAll(later.clients);
+	}
+
+	/**
+	 * Returns whether all the data was removed, in which case the snapshots
+	 * must be compared in full
+	 *
+	 * @return whether the data was flushed
+	 */
+	boolean isFlushed() {
+		return flushed;
+	}
+
+	/**
+	 * Gets the locations of the changed rental units
+	 *
+	 * @return the locations, in ascending order
+	 */
+	TreeSet<Integer> getLocations() {
+		return locations;
+	}
+
+	/**
+	 * Returns how one snapshot differs from an earlier one, comparing only
+	 * the changed units and clients
+	 *
+	 * @param before the earlier snapshot
+	 * @param after the later snapshot
+	 * @return the differences
+	 */
+	PropertyDiff diff(RentalSnapshot before, RentalSnapshot after) {
+		return new PropertyDiff(cut(before), cut(after));
+	}
+
+	/**
+	 * Makes a snapshot of just the changed units and clients that are in
+	 * the given snapshot
+	 *
+	 * @param snapshot the snapshot to cut them from
+	 * @return the snapshot of the changed units and clients
+	 */
+	private RentalSnapshot cut(RentalSnapshot snapshot) {
+		int[] units = new int[locations.size()];
+		int unitCount = 0;
+		for (int location : locations) {
+			int position = snapshot.indexOfUnit(location / 100, location % 100);
+			if (position >= 0) {
+				units[unitCount++] = position;
+			}
+		}
+		UnitView[] partUnits = new UnitView[unitCount];
+		LeaseView[][] partUnitLeases = new LeaseView[unitCount][];
+		for (int i = 0; i < unitCount; i++) {
+			partUnits[i] = snapshot.getUnit(units[i]);
+			partUnitLeases[i] = leases(snapshot.getLeasesForUnit(units[i]));
+		}
+		int clientCount = clients.headSet(snapshot.getClientCount()).size();
+		ClientView[] partClients = new ClientView[clientCount];
+		LeaseView[][] partClientLeases = new LeaseView[clientCount][];
+		int i = 0;
+		for (int position : clients.headSet(snapshot.getClientCount())) {
+			partClients[i] = snapshot.getClient(position);
+			partClientLeases[i++] = leases(snapshot.getLeasesForClient(position));
+		}
+		return new RentalSnapshot(partUnits, partUnitLeases, partClients, partClientLeases);
+	}
+
+	/**
+	 * Copies views of leases into an array
+	 *
+	 * @param leases the views
+	 * @return the array of the views
+	 */
+	private static LeaseView[] leases(List<LeaseView> leases) {
+		return leases.toArray(new LeaseView[leases.size()]);
+	}
+}
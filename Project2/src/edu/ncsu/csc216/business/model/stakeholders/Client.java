@@ -3,8 +3,11 @@
  */
 package edu.ncsu.csc216.business.model.stakeholders;
 
+import java.util.Set;
+
 import edu.ncsu.csc216.business.list_utils.SimpleArrayList;
 import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
 
 /**
  * The Client class represents a client of the business, each 
@@ -20,6 +23,8 @@ public class Client {
 	private String id;
 	/** a list representing all of the current Leases for the client */
 	private SimpleArrayList<Lease> myLeases;
+	/** the number of Leases ever added, which gives each new Lease its sequence number */
+	private int leasesAdded;
 	
 	/**
 	 * Client constructor
@@ -113,6 +118,7 @@ public class Client {
 		if (!lease.getClient().equals(this)) {
 			throw new IllegalArgumentException();
 		}
+		lease.setSequence(leasesAdded++);
 		myLeases.add(lease);
 	}
 	
@@ -124,18 +130,75 @@ public class Client {
 	 */
 	public String[] listLeases() {
 		String[] leases = new String[myLeases.size()];
+		StringBuilder line = new StringBuilder();
 		for (int i = 0; i < myLeases.size(); i++) {
-			String[] data = myLeases.get(i).leaseData();
-			if (data[2].length() == 1) {
-				data[2] = "  " + data[2];
+			line.setLength(0);
+			leases[i] = RentalRenderer.appendClientLease(line, myLeases.get(i)).toString();
+		}
+		return leases;
+	}
+	
+	/**
+	 * Gets the number of Leases the Client holds
+	 * 
+	 * @return the number of Leases
+	 */
+	public int getLeaseCount() {
+		return myLeases.size();
+	}
+	
+	/**
+	 * Finds the position of the Lease with the given confirmation number,
+	 * looking first at the position where it was last seen and then before
+	 * it, since Leases only ever move toward the front of the list.
+	 * 
+	 * @param confirmationNumber the confirmation number of the Lease
+	 * @param hint the position where the Lease was last seen
+	 * @return the position of the Lease, or -1 if the Client does not hold it
+	 */
+	public int findLease(int confirmationNumber, int hint) {
+		int start = Math.min(hint, myLeases.size() - 1);
+		for (int i = start; i >= 0; i--) {
+			if (myLeases.get(i).getConfirmationNumber() == confirmationNumber) {
+				return i;
 			}
-			if (data[2].length() == 2) {
-				data[2] = " " + data[2];
+		}
+		return -1;
+	}
+	
+	/**
+	 * Finds the position of the first Lease the Client took after the
+	 * Lease with the given sequence number, whether or not that Lease is
+	 * still held. The list is in the order the Leases were taken, so their
+	 * sequence numbers rise along it and a binary search finds the place.
+	 * 
+	 * @param sequence the sequence number of a Lease
+	 * @return the position of the next Lease, or the number of Leases if
+	 *         there is none
+	 */
+	public int findLeaseAfter(int sequence) {
+		int low = 0;
+		int high = myLeases.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (myLeases.get(mid).getSequence() <= sequence) {
+				low = mid + 1;
+			} else {
+				high = mid;
 			}
-			leases[i] = data[0] + " | " + data[1] + " | " 
-			+ data[2] + " | " + data[3];
 		}
-		return leases;
+		return low;
+	}
+	
+	/**
+	 * Gets the Lease at the given position in the Client's list of Leases
+	 * 
+	 * @param index the position of the Lease
+	 * @return the Lease
+	 * @throws IndexOutOfBoundsException if index is not a valid position
+	 */
+	public Lease getLeaseAt(int index) {
+		return myLeases.get(index);
 	}
 	
 	/**
@@ -174,4 +237,16 @@ public class Client {
 		}
 		throw new IllegalArgumentException();
 	}
+	
+	/**
+	 * Cancels every Lease in the myLeases field whose confirmationNumber
+	 * is in the given set, in a single pass over the list.
+	 * 
+	 * @param confirmationNumbers the confirmation numbers of the Leases
+	 *        to be canceled
+	 * @return the number of Leases canceled
+	 */
+	public int cancelLeasesWithNumbers(Set<Integer> confirmationNumbers) {
+		return myLeases.removeMatching(l -> confirmationNumbers.contains(l.getConfirmationNumber()));
+	}
 }
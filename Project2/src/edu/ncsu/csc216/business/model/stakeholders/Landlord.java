@@ -5,6 +5,11 @@ import java.time.LocalDate;
 
 import edu.ncsu.csc216.business.model.contracts.Lease;
 import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.UnitView;
 
 /**
  * Landlord describes behaviors that the back end (model) must support for a front end 
@@ -66,6 +71,28 @@ public interface Landlord {
 	 */
 	Lease createLease(int clientIndex, int propertyIndex, LocalDate start, int duration, int people);
 
+	/**
+	 * Extends the lease with the given confirmation number to a later end date.
+	 * 
+	 * @param confirmationNumber Confirmation number of the lease to be extended
+	 * @param newEnd New end date for the lease
+	 * @return the extended lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be extended to the new end date
+	 */
+	Lease extendLease(int confirmationNumber, LocalDate newEnd);
+
+	/**
+	 * Cuts the lease with the given confirmation number back to an earlier end date.
+	 * 
+	 * @param confirmationNumber Confirmation number of the lease to be shortened
+	 * @param newEnd New end date for the lease
+	 * @return the shortened lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be shortened to the new end date
+	 */
+	Lease shortenLease(int confirmationNumber, LocalDate newEnd);
+
 	/**
 	 * Cancels the lease in the given position on the client's list of leases.
 	 * 
@@ -146,8 +173,107 @@ public interface Landlord {
 	 */
 	String[] listLeasesForRentalUnit(int propertyIndex);
 	
+	/**
+	 * What are the rental units for this landlord, as views? (Consider only the units
+	 * that meet filters currently in place.)
+	 * 
+	 * @return a view of each rental unit that meets all filters in place, in the same
+	 *         order as listRentalUnits
+	 */
+	UnitView[] viewRentalUnits();
+	
+	/**
+	 * Who are the clients of this landlord, as views?
+	 * 
+	 * @return a view of each client, in the same order as listClients
+	 */
+	ClientView[] viewClients();
+	
+	/**
+	 * What are the leases for the client at this index, as views?
+	 * 
+	 * @param clientIndex Index of the client in the landlord's customer base
+	 * @return a view of each lease of the client, in the same order as listClientLeases
+	 * @throws IllegalArgumentException if clientIndex is not a valid index
+	 */
+	LeaseView[] viewClientLeases(int clientIndex);
+	
+	/**
+	 * What are the leases for the rental unit at this particular index in the filtered
+	 * list of rental units, as views?
+	 * 
+	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
+	 * @return a view of each lease of the rental unit, in the same order as 
+	 *         listLeasesForRentalUnit
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration
+	 */
+	LeaseView[] viewLeasesForRentalUnit(int propertyIndex);
+	
+	/**
+	 * What is the next page of rental units for this landlord? (Consider only the units
+	 * that meet filters currently in place.)
+	 * 
+	 * @param cursor the cursor returned with the previous page, or null for the first page
+	 * @param limit the most rental units on the page
+	 * @return the page of rental unit descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	Page<String> pageRentalUnits(PageCursor cursor, int limit);
+	
+	/**
+	 * What is the next page of clients of this landlord?
+	 * 
+	 * @param cursor the cursor returned with the previous page, or null for the first page
+	 * @param limit the most clients on the page
+	 * @return the page of client descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	Page<String> pageClients(PageCursor cursor, int limit);
+	
+	/**
+	 * What is the next page of leases for the client at this index?
+	 * 
+	 * @param clientIndex Index of the client in the landlord's customer base
+	 * @param cursor the cursor returned with the previous page, or null for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of lease descriptions
+	 * @throws IllegalArgumentException if clientIndex is not a valid index or limit is
+	 *         less than 1
+	 */
+	Page<String> pageClientLeases(int clientIndex, PageCursor cursor, int limit);
+	
+	/**
+	 * What is the next page of leases for the rental unit at this particular index in
+	 * the filtered list of rental units?
+	 * 
+	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
+	 * @param cursor the cursor returned with the previous page, or null for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of lease descriptions
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration, or limit is less than 1
+	 */
+	Page<String> pageLeasesForRentalUnit(int propertyIndex, PageCursor cursor, int limit);
+	
 	/**
 	 * Removes all Landlord data and resets the reservation confirmation numbering to 0.
 	 */
 	void flushAllData();
+	
+	/**
+	 * Registers a listener to be told, once per operation, about every change 
+	 * to the landlord's data.
+	 * 
+	 * @param listener the listener to register
+	 * @throws IllegalArgumentException if listener is null
+	 */
+	void addRentalChangeListener(RentalChangeListener listener);
+	
+	/**
+	 * Stops telling a listener about changes to the landlord's data.
+	 * 
+	 * @param listener the listener to remove
+	 */
+	void removeRentalChangeListener(RentalChangeListener listener);
 }
\ No newline at end of file
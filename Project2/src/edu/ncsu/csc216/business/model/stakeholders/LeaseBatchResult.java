@@ -0,0 +1,80 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+
+/**
+ * The LeaseBatchResult class reports the outcome of a batch of lease 
+ * requests. A batch is committed only if every request in it can be 
+ * reserved; otherwise nothing is reserved and the result gives the reason
+ * each rejected request failed. Both arrays are in the order of the 
+ * requests in the batch.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class LeaseBatchResult {
+
+	/** whether the whole batch was reserved */
+	private boolean committed;
+	/** the Lease made for each request, all null if the batch was not committed */
+	private Lease[] leases;
+	/** the reason each request was rejected, null for requests that were accepted */
+	private String[] reasons;
+	
+	/**
+	 * Constructor for a LeaseBatchResult
+	 * 
+	 * @param committed whether the whole batch was reserved
+	 * @param leases the Lease made for each request
+	 * @param reasons the reason each request was rejected
+	 */
+	LeaseBatchResult(boolean committed, Lease[] leases, String[] reasons) {
+		this.committed = committed;
+		this.leases = leases;
+		this.reasons = reasons;
+	}
+	
+	/**
+	 * Returns whether the whole batch was reserved
+	 * 
+	 * @return whether the batch was committed
+	 */
+	public boolean isCommitted() {
+		return this.committed;
+	}
+	
+	/**
+	 * Gets the Lease made for each request
+	 * 
+	 * @return the Leases, all null if the batch was not committed
+	 */
+	public Lease[] getLeases() {
+		return this.leases;
+	}
+	
+	/**
+	 * Gets the reason each request was rejected
+	 * 
+	 * @return the reasons, null for requests that were accepted
+	 */
+	public String[] getReasons() {
+		return this.reasons;
+	}
+	
+	/**
+	 * Gets the number of requests that were rejected
+	 * 
+	 * @return the number of rejected requests
+	 */
+	public int getRejectedCount() {
+		int count = 0;
+		for (String reason : reasons) {
+			if (reason != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
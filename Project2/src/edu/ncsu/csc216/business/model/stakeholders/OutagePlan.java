@@ -0,0 +1,147 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The OutagePlan class describes the effect of removing a group of
+ * RentalUnits from service starting on a given date, before anything
+ * is changed. The plan is computed in a single pass over the Leases of
+ * each unit, using the same cut back rules that the units apply when
+ * they are removed from service, and serves as a dry-run impact report.
+ * PropertyManager applies a plan to all of its units in one batch.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class OutagePlan {
+
+	/** the date the units are removed from service */
+	private LocalDate start;
+	/** the units to be removed from service */
+	private RentalUnit[] units;
+	/** the Leases that would be canceled */
+	private Lease[] canceled;
+	/** the Leases that would be cut back */
+	private Lease[] truncated;
+	/** the new end dates of the Leases that would be cut back */
+	private LocalDate[] newEnds;
+	/** the Clients who would lose or have cut back Leases */
+	private Client[] clients;
+	/** the occupant-days that would be lost */
+	private long occupantDays;
+
+	/**
+	 * Constructs the plan for removing the given units from service
+	 * starting on the given date.
+	 *
+	 * @param units the units to be removed from service
+	 * @param start the date the units are removed from service
+	 */
+	OutagePlan(RentalUnit[] units, LocalDate start) {
+		this.start = start;
+		this.units = units;
+		ArrayList<Lease> cancelList = new ArrayList<Lease>();
+		ArrayList<Lease> truncList = new ArrayList<Lease>();
+		ArrayList<LocalDate> endList = new ArrayList<LocalDate>();
+		LinkedHashSet<Client> clientSet = new LinkedHashSet<Client>();
+		int startDay = (int) start.toEpochDay();
+		for (RentalUnit unit : units) {
+			LocalDate newEnd = unit.serviceCutoffEnd(start);
+			int newEndDay = (int) newEnd.toEpochDay();
+			SimpleListIterator<Lease> it = unit.leaseIterator();
+			while (it.hasNext()) {
+				Lease l = it.next();
+				if (l.getEndDay() < startDay) {
+					continue;
+				}
+				if (l.getStartDay() >= startDay || newEndDay < l.getStartDay()) {
+					cancelList.add(l);
+					occupantDays += (long) (l.getEndDay() - l.getStartDay() + 1) * l.getNumOccupants();
+				} else {
+					truncList.add(l);
+					endList.add(newEnd);
+					occupantDays += (long) (l.getEndDay() - newEndDay) * l.getNumOccupants();
+				}
+				clientSet.add(l.getClient());
+			}
+		}
+		this.canceled = cancelList.toArray(new Lease[0]);
+		this.truncated = truncList.toArray(new Lease[0]);
+		this.newEnds = endList.toArray(new LocalDate[0]);
+		this.clients = clientSet.toArray(new Client[0]);
+	}
+
+	/**
+	 * Gets the date the units are removed from service
+	 *
+	 * @return the start of the outage
+	 */
+	public LocalDate getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Gets the units to be removed from service
+	 *
+	 * @return the units in the plan
+	 */
+	public RentalUnit[] getUnits() {
+		return this.units;
+	}
+
+	/**
+	 * Gets the Leases that would be canceled
+	 *
+	 * @return the canceled Leases
+	 */
+	public Lease[] getCanceledLeases() {
+		return this.canceled;
+	}
+
+	/**
+	 * Gets the Leases that would be cut back
+	 *
+	 * @return the truncated Leases
+	 */
+	public Lease[] getTruncatedLeases() {
+		return this.truncated;
+	}
+
+	/**
+	 * Gets the new end dates of the Leases that would be cut back,
+	 * in the same order as getTruncatedLeases
+	 *
+	 * @return the new end dates
+	 */
+	public LocalDate[] getTruncatedEnds() {
+		return this.newEnds;
+	}
+
+	/**
+	 * Gets the Clients who would lose or have cut back Leases
+	 *
+	 * @return the affected Clients
+	 */
+	public Client[] getAffectedClients() {
+		return this.clients;
+	}
+
+	/**
+	 * Gets the number of occupant-days that would be lost, counting
+	 * each day of a canceled Lease and each day cut from a truncated
+	 * Lease once per occupant
+	 *
+	 * @return the occupant-days lost
+	 */
+	public long getOccupantDays() {
+		return this.occupantDays;
+	}
+}
@@ -0,0 +1,276 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+
+/**
+ * The Portfolio class is a facade over the PropertyManagers of several
+ * buildings. Searches, listings and reports are split into one task per 
+ * building on a work-stealing ForkJoinPool, and the results are merged in
+ * the order the buildings were added, each line starting with the name of
+ * its building. The caller waits for the results, so the managers must 
+ * not be changed by other threads while a request is running.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class Portfolio {
+
+	/** the manager of each building, in the order they were added */
+	private LinkedHashMap<String, PropertyManager> buildings;
+	/** the pool the work for each building runs on */
+	private ForkJoinPool pool;
+	
+	/**
+	 * Constructs an empty Portfolio that runs on the common pool
+	 */
+	public Portfolio() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs an empty Portfolio that runs on the given pool
+	 * 
+	 * @param pool the pool to run on
+	 * @throws IllegalArgumentException if pool is null
+	 */
+	public Portfolio(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException();
+		}
+		this.pool = pool;
+		this.buildings = new LinkedHashMap<String, PropertyManager>();
+	}
+	
+	/**
+	 * Adds a building with a new, empty manager of its own
+	 * 
+	 * @param name the name of the building
+	 * @return the building's manager
+	 * @throws IllegalArgumentException if name is null or blank, or if 
+	 *         there is already a building with that name
+	 */
+	public PropertyManager addBuilding(String name) {
+		PropertyManager manager = new PropertyManager();
+		addBuilding(name, manager);
+		return manager;
+	}
+	
+	/**
+	 * Adds a building managed by the given manager
+	 * 
+	 * @param name the name of the building
+	 * @param manager the building's manager
+	 * @throws IllegalArgumentException if name is null or blank, if manager
+	 *         is null, or if there is already a building with that name
+	 */
+	public void addBuilding(String name, PropertyManager manager) {
+		if (name == null || name.isBlank() || manager == null || buildings.containsKey(name)) {
+			throw new IllegalArgumentException();
+		}
+		buildings.put(name, manager);
+	}
+	
+	/**
+	 * Gets the manager of the named building
+	 * 
+	 * @param name the name of the building
+	 * @return the building's manager
+	 * @throws IllegalArgumentException if there is no building with that name
+	 */
+	public PropertyManager getBuilding(String name) {
+		PropertyManager manager = buildings.get(name);
+		if (manager == null) {
+			throw new IllegalArgumentException();
+		}
+		return manager;
+	}
+	
+	/**
+	 * Gets the names of the buildings, in the order they were added
+	 * 
+	 * @return the names of the buildings
+	 */
+	public String[] getBuildingNames() {
+		return buildings.keySet().toArray(new String[buildings.size()]);
+	}
+	
+	/**
+	 * Finds every in service rental unit of the given kind, in any building,
+	 * that could take a Lease for the given number of occupants starting on
+	 * the given date.
+	 * 
+	 * @param kind the kind of unit, starting with 'C', 'H' or 'O', or an empty
+	 *        String for every kind
+	 * @param start the start date of the Lease
+	 * @param duration the duration of the Lease (units depending on rental unit type)
+	 * @param occupants the number of occupants for the Lease
+	 * @return the descriptions of the available units, each after the name of
+	 *         its building
+	 * @throws IllegalArgumentException if kind or start are null, or if 
+	 *         duration or occupants are less than 1
+	 */
+	public String[] findAvailable(String kind, LocalDate start, int duration, int occupants) {
+		if (kind == null || start == null || duration < 1 || occupants < 1) {
+			throw new IllegalArgumentException();
+		}
+		String k = kind.trim().toUpperCase();
+		return fanOut((name, manager) -> {
+			ArrayList<String> lines = new ArrayList<String>();
+			StringBuilder line = new StringBuilder();
+			SimpleListIterator<RentalUnit> it = manager.rentalUnitIterator();
+			while (it.hasNext()) {
+				RentalUnit unit = it.next();
+				if (!k.isEmpty() && unit.getKindLabel().charAt(0) != k.charAt(0)) {
+					continue;
+				}
+				LocalDate[] starts = unit.availableStarts(start, duration, occupants, 1);
+				if (starts.length > 0 && starts[0].equals(start)) {
+					line.setLength(0);
+					lines.add(RentalRenderer.appendUnit(line.append(name).append(": "), unit).toString());
+				}
+			}
+			return lines;
+		});
+	}
+	
+	/**
+	 * Lists every rental unit of every building, with no filters applied
+	 * 
+	 * @return the descriptions of the units, each after the name of its building
+	 */
+	public String[] listRentalUnits() {
+		return fanOut((name, manager) -> {
+			RentalSnapshot snapshot = manager.snapshot();
+			ArrayList<String> lines = new ArrayList<String>(snapshot.getUnitCount());
+			StringBuilder line = new StringBuilder();
+			for (int i = 0; i < snapshot.getUnitCount(); i++) {
+				line.setLength(0);
+				lines.add(RentalRenderer.appendUnit(line.append(name).append(": "), snapshot.getUnit(i)).toString());
+			}
+			return lines;
+		});
+	}
+	
+	/**
+	 * Reports, for each building, its number of units, clients and Leases,
+	 * and the occupant-days booked between the from and to dates inclusive.
+	 * 
+	 * @param from the first day of the report
+	 * @param to the last day of the report
+	 * @return one line for each building
+	 * @throws IllegalArgumentException if from or to are null, or if to is
+	 *         before from
+	 */
+	public String[] occupancyReport(LocalDate from, LocalDate to) {
+		if (from == null || to == null || to.isBefore(from)) {
+			throw new IllegalArgumentException();
+		}
+		int first = (int) from.toEpochDay();
+		int last = (int) to.toEpochDay();
+		return fanOut((name, manager) -> {
+			RentalSnapshot snapshot = manager.snapshot();
+			int leases = 0;
+			long occupantDays = 0;
+			for (int i = 0; i < snapshot.getUnitCount(); i++) {
+				for (LeaseView lease : snapshot.getLeasesForUnit(i)) {
+					leases++;
+					int days = Math.min(last, lease.getEndDay()) - Math.max(first, lease.getStartDay()) + 1;
+					if (days > 0) {
+						occupantDays += (long) days * lease.getOccupants();
+					}
+				}
+			}
+			return List.of(name + ": " + snapshot.getUnitCount() + " units, " + snapshot.getClientCount() 
+					+ " clients, " + leases + " leases, " + occupantDays + " occupant-days");
+		});
+	}
+	
+	/**
+	 * Runs the given work for every building on the pool and merges the
+	 * lines it returns in the order the buildings were added.
+	 * 
+	 * @param work the work to run, given the name and manager of a building
+	 * @return the merged lines
+	 */
+	private String[] fanOut(BiFunction<String, PropertyManager, List<String>> work) {
+		if (buildings.isEmpty()) {
+			return new String[0];
+		}
+		List<Map.Entry<String, PropertyManager>> entries = new ArrayList<Map.Entry<String, PropertyManager>>(buildings.entrySet());
+		List<String> lines = pool.invoke(new BuildingTask(entries, work, 0, entries.size()));
+		return lines.toArray(new String[lines.size()]);
+	}
+	
+	/**
+	 * The BuildingTask class runs work for a range of buildings, splitting 
+	 * the range in half until each task covers a single building so idle
+	 * workers can steal the other halves.
+	 * 
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class BuildingTask extends RecursiveTask<List<String>> {
+		
+		/** the ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** the buildings */
+		private transient List<Map.Entry<String, PropertyManager>> buildings;
+		/** the work to run for each building */
+		private transient BiFunction<String, PropertyManager, List<String>> work;
+		/** the first building of the range */
+		private int from;
+		/** the building after the last of the range */
+		private int to;
+		
+		/**
+		 * Constructs a task for a range of buildings
+		 * 
+		 * @param buildings the buildings
+		 * @param work the work to run for each building
+		 * @param from the first building of the range
+		 * @param to the building after the last of the range
+		 */
+		BuildingTask(List<Map.Entry<String, PropertyManager>> buildings, 
+				BiFunction<String, PropertyManager, List<String>> work, int from, int to) {
+			this.buildings = buildings;
+			this.work = work;
+			this.from = from;
+			this.to = to;
+		}
+		
+		/**
+		 * Runs the work for the range, one building directly and more by 
+		 * forking the first half and running the second
+		 * 
+		 * @return the lines for the range, in building order
+		 */
+		@Override
+		protected List<String> compute() {
+			if (to - from == 1) {
+				Map.Entry<String, PropertyManager> building = buildings.get(from);
+				return work.apply(building.getKey(), building.getValue());
+			}
+			int mid = (from + to) >>> 1;
+			BuildingTask first = new BuildingTask(buildings, work, from, mid);
+			first.fork();
+			List<String> second = new BuildingTask(buildings, work, mid, to).compute();
+			List<String> lines = new ArrayList<String>(first.join());
+			lines.addAll(second);
+			return lines;
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The PropertyDiff class describes how a fork of a PropertyManager differs
+ * from its parent. It is computed from a snapshot of each in a single pass,
+ * matching rental units by location, clients by id and leases by 
+ * confirmation number, and lists every entry as it is in the fork, or as
+ * it was in the parent for closed units and canceled leases.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class PropertyDiff {
+
+	/** the rental units only in the fork */
+	private UnitView[] addedUnits;
+	/** the rental units only in the parent */
+	private UnitView[] closedUnits;
+	/** the rental units in both whose service state differs */
+	private UnitView[] serviceChangedUnits;
+	/** the clients only in the fork */
+	private ClientView[] addedClients;
+	/** the clients only in the parent */
+	private ClientView[] removedClients;
+	/** the leases only in the fork */
+	private LeaseView[] createdLeases;
+	/** the leases only in the parent */
+	private LeaseView[] canceledLeases;
+	/** the leases in both whose end dates differ */
+	private LeaseView[] changedLeases;
+	
+	/**
+	 * Computes the difference between a parent and a fork
+	 * 
+	 * @param parent the snapshot of the parent
+	 * @param fork the snapshot of the fork
+	 */
+	PropertyDiff(RentalSnapshot parent, RentalSnapshot fork) {
+		HashMap<Integer, UnitView> units = new HashMap<Integer, UnitView>();
+		for (int i = 0; i < parent.getUnitCount(); i++) {
+			UnitView unit = parent.getUnit(i);
+			units.put(unit.getFloor() * 100 + unit.getRoom(), unit);
+		}
+		ArrayList<UnitView> added = new ArrayList<UnitView>();
+		ArrayList<UnitView> changed = new ArrayList<UnitView>();
+		for (int i = 0; i < fork.getUnitCount(); i++) {
+			UnitView unit = fork.getUnit(i);
+			UnitView old = units.get(unit.getFloor() * 100 + unit.getRoom());
+			if (old != null && old.getKind() == unit.getKind() && old.getCapacity() == unit.getCapacity()) {
+				units.remove(unit.getFloor() * 100 + unit.getRoom());
+				if (old.isInService() != unit.isInService()) {
+					changed.add(unit);
+				}
+			} else {
+				added.add(unit);
+			}
+		}
+		this.addedUnits = added.toArray(new UnitView[added.size()]);
+		this.closedUnits = units.values().toArray(new UnitView[units.size()]);
+		this.serviceChangedUnits = changed.toArray(new UnitView[changed.size()]);
+		
+		HashMap<String, ClientView> clients = new HashMap<String, ClientView>();
+		HashMap<Integer, LeaseView> leases = new HashMap<Integer, LeaseView>();
+		for (int i = 0; i < parent.getClientCount(); i++) {
+			clients.put(parent.getClient(i).getId(), parent.getClient(i));
+			for (LeaseView lease : parent.getLeasesForClient(i)) {
+				leases.put(lease.getConfirmationNumber(), lease);
+			}
+		}
+		ArrayList<ClientView> newClients = new ArrayList<ClientView>();
+		ArrayList<LeaseView> created = new ArrayList<LeaseView>();
+		ArrayList<LeaseView> ended = new ArrayList<LeaseView>();
+		for (int i = 0; i < fork.getClientCount(); i++) {
+			if (clients.remove(fork.getClient(i).getId()) == null) {
+				newClients.add(fork.getClient(i));
+			}
+			for (LeaseView lease : fork.getLeasesForClient(i)) {
+				LeaseView old = leases.get(lease.getConfirmationNumber());
+				if (old != null && sameLease(old, lease)) {
+					leases.remove(lease.getConfirmationNumber());
+					if (old.getEndDay() != lease.getEndDay()) {
+						ended.add(lease);
+					}
+				} else {
+					created.add(lease);
+				}
+			}
+		}
+		this.addedClients = newClients.toArray(new ClientView[newClients.size()]);
+		this.removedClients = clients.values().toArray(new ClientView[clients.size()]);
+		this.createdLeases = created.toArray(new LeaseView[created.size()]);
+		this.canceledLeases = leases.values().toArray(new LeaseView[leases.size()]);
+		this.changedLeases = ended.toArray(new LeaseView[ended.size()]);
+	}
+	
+	/**
+	 * Constructs a difference from its parts, as read back from another
+	 * process
+	 * 
+	 * @param addedUnits the rental units only in the fork
+	 * @param closedUnits the rental units only in the parent
+	 * @param serviceChangedUnits the rental units in both whose service state differs
+	 * @param addedClients the clients only in the fork
+	 * @param removedClients the clients only in the parent
+	 * @param createdLeases the leases only in the fork
+	 * @param canceledLeases the leases only in the parent
+	 * @param changedLeases the leases in both whose end dates differ
+	 */
+	PropertyDiff(UnitView[] addedUnits, UnitView[] closedUnits, UnitView[] serviceChangedUnits,
+			ClientView[] addedClients, ClientView[] removedClients, LeaseView[] createdLeases,
+			LeaseView[] canceledLeases, LeaseView[] changedLeases) {
+		this.addedUnits = addedUnits;
+		this.closedUnits = closedUnits;
+		this.serviceChangedUnits = serviceChangedUnits;
+		this.addedClients = addedClients;
+		this.removedClients = removedClients;
+		this.createdLeases = createdLeases;
+		this.canceledLeases = canceledLeases;
+		this.changedLeases = changedLeases;
+	}
+	
+	/**
+	 * Returns whether two views are of the same Lease, which may only
+	 * differ in their end dates
+	 * 
+	 * @param a one view
+	 * @param b the other view
+	 * @return whether the views are of the same Lease
+	 */
+	private static boolean sameLease(LeaseView a, LeaseView b) {
+		return a.getStartDay() == b.getStartDay() && a.getOccupants() == b.getOccupants()
+				&& a.getUnitFloor() == b.getUnitFloor() && a.getUnitRoom() == b.getUnitRoom()
+				&& a.getClientId().equals(b.getClientId());
+	}
+	
+	/**
+	 * Returns whether the fork is the same as its parent
+	 * 
+	 * @return whether there are no differences
+	 */
+	public boolean isEmpty() {
+		return addedUnits.length + closedUnits.length + serviceChangedUnits.length + addedClients.length
+				+ removedClients.length + createdLeases.length + canceledLeases.length + changedLeases.length == 0;
+	}
+	
+	/**
+	 * Gets the rental units that were added in the fork
+	 * 
+	 * @return the added units
+	 */
+	public UnitView[] getAddedUnits() {
+		return this.addedUnits;
+	}
+	
+	/**
+	 * Gets the rental units that were closed in the fork, as they were in the parent
+	 * 
+	 * @return the closed units
+	 */
+	public UnitView[] getClosedUnits() {
+		return this.closedUnits;
+	}
+	
+	/**
+	 * Gets the rental units that were taken out of service or returned to
+	 * service in the fork
+	 * 
+	 * @return the units whose service state changed
+	 */
+	public UnitView[] getServiceChangedUnits() {
+		return this.serviceChangedUnits;
+	}
+	
+	/**
+	 * Gets the clients that were added in the fork
+	 * 
+	 * @return the added clients
+	 */
+	public ClientView[] getAddedClients() {
+		return this.addedClients;
+	}
+	
+	/**
+	 * Gets the clients of the parent that the fork no longer has, which 
+	 * only happens if the fork's data was flushed
+	 * 
+	 * @return the removed clients
+	 */
+	public ClientView[] getRemovedClients() {
+		return this.removedClients;
+	}
+	
+	/**
+	 * Gets the leases that were created in the fork
+	 * 
+	 * @return the created leases
+	 */
+	public LeaseView[] getCreatedLeases() {
+		return this.createdLeases;
+	}
+	
+	/**
+	 * Gets the leases that were canceled in the fork, as they were in the parent
+	 * 
+	 * @return the canceled leases
+	 */
+	public LeaseView[] getCanceledLeases() {
+		return this.canceledLeases;
+	}
+	
+	/**
+	 * Gets the leases that were extended or cut back in the fork
+	 * 
+	 * @return the leases whose end dates changed
+	 */
+	public LeaseView[] getChangedLeases() {
+		return this.changedLeases;
+	}
+
+}
@@ -0,0 +1,1175 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.business.list_utils.PersistentList;
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.properties.MaintenanceWindow;
+import edu.ncsu.csc216.business.model.properties.Office;
+import edu.ncsu.csc216.business.model.properties.RentalCapacityException;
+import edu.ncsu.csc216.business.model.properties.RentalDateException;
+import edu.ncsu.csc216.business.model.properties.RentalOutOfServiceException;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The PropertyFork class is a Landlord for trying out changes to the data
+ * of a PropertyManager, its parent, without touching it. The fork starts
+ * from the views of the parent's snapshot and reads through to them: its
+ * own views are persistent lists that share every view it has not changed
+ * with the parent's, so making a fork takes the same time however much
+ * data there is. Only the rental units the fork changes are rebuilt, from
+ * their views, so that their own rules check each lease, and only the
+ * views of those units and of the clients whose leases changed are
+ * replaced. The fork can report how it differs from its parent with diff,
+ * which compares just those, and can then be committed back or discarded.
+ *
+ * Leases made in the fork take their confirmation numbers from the
+ * parent's numbering, and their numbers are given back if they are
+ * canceled or discarded. Each rebuilt unit is given the maintenance
+ * windows of the parent's unit, so the fork turns down leases in them
+ * as the parent would, and returning a unit closed for maintenance to
+ * service cancels its window in the parent once committed.
+ * Units, clients and leases returned by the fork belong to it rather than
+ * to the parent. The fork is not safe for use by several threads at once,
+ * and is used on the thread that changes its parent.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class PropertyFork implements Landlord {
+
+	/** the views of no leases */
+	private static final LeaseView[] NO_LEASE_VIEWS = new LeaseView[0];
+	/** the manager the fork was made from */
+	private final PropertyManager parent;
+	/** hands out the confirmation numbers of the leases made in the fork */
+	private final ConfirmationNumberAllocator numbering;
+	/** the parent's version when the fork was made or last committed */
+	private long baseVersion;
+	/** the views of the parent's rental units when the fork was made or last committed */
+	private PersistentList<UnitView> baseUnits;
+	/** the views of the leases of each of those rental units */
+	private PersistentList<PersistentList<LeaseView>> baseUnitLeases;
+	/** the views of the parent's clients when the fork was made or last committed */
+	private PersistentList<ClientView> baseClients;
+	/** the views of the leases of each of those clients */
+	private PersistentList<LeaseView[]> baseClientLeases;
+	/** the views of the fork's rental units, in order of location */
+	private PersistentList<UnitView> units;
+	/** the views of the leases of each of the fork's rental units, in order of start date */
+	private PersistentList<PersistentList<LeaseView>> unitLeases;
+	/** the views of the fork's clients, in the order they were added */
+	private PersistentList<ClientView> clients;
+	/** the views of the leases of each of the fork's clients, in the order they were made */
+	private PersistentList<LeaseView[]> clientLeases;
+	/** the rental units rebuilt from their views to be changed, keyed by location */
+	private HashMap<Integer, RentalUnit> unitsByLocation;
+	/** the clients of the leases on the rebuilt units, keyed by id */
+	private HashMap<String, Client> clientsById;
+	/** the position of each client added in the fork, keyed by id */
+	private HashMap<String, Integer> addedClients;
+	/** the location of each lease made in the fork, keyed by confirmation number */
+	private HashMap<Integer, Integer> createdLeases;
+	/** the locations of the rental units added, changed or closed in the fork */
+	private TreeSet<Integer> changedLocations;
+	/** the positions of the clients added or changed in the fork */
+	private TreeSet<Integer> changedClients;
+	/** the positions of the clients changed by the operation under way */
+	private TreeSet<Integer> pendingClients;
+	/** whether the fork's data has been flushed */
+	private boolean flushed;
+	/** the label of the kind of rental unit to consider, or an empty string for every kind */
+	private String kindFilter;
+	/** whether to consider only rental units in service */
+	private boolean inServiceFilter;
+	/** the listeners told about changes to the fork's data */
+	private ArrayList<RentalChangeListener> listeners;
+
+	/**
+	 * Constructs a fork of a manager
+	 *
+	 * @param parent the manager to fork
+	 * @param numbering the confirmation numbering of the manager's leases
+	 */
+	PropertyFork(PropertyManager parent, ConfirmationNumberAllocator numbering) {
+		this.parent = parent;
+		this.numbering = numbering;
+		this.unitsByLocation = new HashMap<Integer, RentalUnit>();
+		this.clientsById = new HashMap<String, Client>();
+		this.addedClients = new HashMap<String, Integer>();
+		this.createdLeases = new HashMap<Integer, Integer>();
+		this.changedLocations = new TreeSet<Integer>();
+		this.changedClients = new TreeSet<Integer>();
+		this.pendingClients = new TreeSet<Integer>();
+		this.listeners = new ArrayList<RentalChangeListener>();
+		this.kindFilter = "";
+		rebase();
+	}
+
+	/**
+	 * Returns an immutable copy of the fork's rental units, clients and
+	 * leases, with no filters applied. Views the fork has not changed are
+	 * the same objects as in the parent's snapshot.
+	 *
+	 * @return the snapshot of the fork's data
+	 */
+	public RentalSnapshot snapshot() {
+		return new RentalSnapshot(units, unitLeases, clients, clientLeases);
+	}
+
+	/**
+	 * Returns how the fork differs from its parent as it was when the fork
+	 * was made or last committed. Only the units and clients the fork has
+	 * changed are compared, unless its data has been flushed.
+	 *
+	 * @return the differences
+	 */
+	public PropertyDiff diff() {
+		if (flushed) {
+			return new PropertyDiff(new RentalSnapshot(baseUnits, baseUnitLeases, baseClients, baseClientLeases),
+					snapshot());
+		}
+		return new PropertyDiff(changedPart(baseUnits, baseUnitLeases, baseClients, baseClientLeases),
+				changedPart(units, unitLeases, clients, clientLeases));
+	}
+
+	/**
+	 * Applies the fork's differences to its parent as a single change,
+	 * after which the fork carries on from the parent's new state.
+	 *
+	 * @throws IllegalStateException if the parent has changed since the
+	 *         fork was made or last committed, if the fork's data was
+	 *         flushed and clients were lost, or if the changes do not fit
+	 *         the parent's data; the parent is then left as it was
+	 */
+	public void commit() {
+		if (parent.getVersion() != baseVersion) {
+			throw new IllegalStateException("The data has changed since the fork was made");
+		}
+		PropertyDiff diff = diff();
+		if (diff.getRemovedClients().length > 0) {
+			throw new IllegalStateException("Clients cannot be removed");
+		}
+		parent.apply(diff);
+		rebase();
+	}
+
+	/**
+	 * Throws away the fork's changes, giving back the confirmation numbers
+	 * of the leases made in it, and starts it again from its parent's
+	 * current data.
+	 */
+	public void discard() {
+		releaseCreated();
+		rebase();
+	}
+
+	/**
+	 * Adds a new client to the fork
+	 *
+	 * @param name Name of the new client
+	 * @param id Unique id of the new client
+	 * @return The new Client
+	 * @throws DuplicateClientException if a client with the same id already exists
+	 * @throws IllegalArgumentException if the name or id is not valid
+	 */
+	@Override
+	public Client addNewClient(String name, String id) throws DuplicateClientException {
+		Client client = new Client(name, id);
+		if (clientPosition(client.getId()) >= 0) {
+			throw new DuplicateClientException("Client with this ID already exists");
+		}
+		int position = clients.size();
+		clients = clients.add(new ClientView(client));
+		clientLeases = clientLeases.add(NO_LEASE_VIEWS);
+		addedClients.put(client.getId(), position);
+		clientsById.put(client.getId(), client);
+		changedClients.add(position);
+		pendingClients.add(position);
+		fire(Change.CLIENT_ADDED, new int[0], new int[0]);
+		return client;
+	}
+
+	/**
+	 * Adds a new rental unit to the fork
+	 *
+	 * @param kind Type of RentalUnit (starts with 'O' for office, 'C' for conference room,
+	 *        'H' for hotel suite)
+	 * @param location String of the form FF-RR, where FF is the floor, and RR is the room.
+	 * @param capacity Number of people the unit can accommodate on any single day
+	 * @return The new RentalUnit
+	 * @throws IllegalArgumentException if the parameters do not describe a valid location
+	 *         and type
+	 * @throws DuplicateRoomException if a unit already exists at the location
+	 */
+	@Override
+	public RentalUnit addNewUnit(String kind, String location, int capacity) throws DuplicateRoomException {
+		RentalUnit unit = newUnit(kind, location, capacity);
+		int key = unitKey(unit);
+		int position = position(key);
+		if (position >= 0) {
+			throw new DuplicateRoomException("Rental Unit at this location already exists");
+		}
+		position = -position - 1;
+		unit.setConfirmationNumbering(numbering);
+		units = units.add(position, new UnitView(unit));
+		unitLeases = unitLeases.add(position, PersistentList.<LeaseView>empty());
+		unitsByLocation.put(key, unit);
+		changedLocations.add(key);
+		fire(Change.UNIT_ADDED, unitIndexes(position), new int[0]);
+		return unit;
+	}
+
+	/**
+	 * Sets filters for rental units so that only those that match the filters are considered.
+	 *
+	 * @param kindFilter String type filter that rental units under consideration must meet
+	 * @param inServiceFilter boolean type filter that rental units under consideration must meet
+	 * @throws IllegalArgumentException if kindFilter is null
+	 */
+	@Override
+	public void filterRentalUnits(String kindFilter, boolean inServiceFilter) {
+		if (kindFilter == null) {
+			throw new IllegalArgumentException();
+		}
+		this.kindFilter = PropertyManager.kindLabel(kindFilter);
+		this.inServiceFilter = inServiceFilter;
+	}
+
+	/**
+	 * Creates a new lease in the fork
+	 *
+	 * @param clientIndex Index of the client
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @param start Start date for the lease
+	 * @param duration Duration of the lease (units depending on rental unit type)
+	 * @param people Number of occupants the lease is for
+	 * @return the created lease
+	 * @throws IllegalArgumentException if the parameters do not constitute valid lease data
+	 */
+	@Override
+	public Lease createLease(int clientIndex, int propertyIndex, LocalDate start, int duration, int people) {
+		if (clientIndex < 0 || clientIndex >= clients.size()) {
+			throw new IllegalArgumentException();
+		}
+		int position = unitPosition(propertyIndex);
+		RentalUnit unit = unitAt(position);
+		ClientView client = clients.get(clientIndex);
+		try {
+			Lease lease = unit.reserve(client(client.getName(), client.getId()), start, duration, people);
+			createdLeases.put(lease.getConfirmationNumber(), unitKey(unit));
+			unitChanged(position, unit);
+			fire(Change.LEASE_CREATED, unitIndexes(position), new int[0]);
+			return lease;
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * Extends the lease with the given confirmation number to a later end date
+	 *
+	 * @param confirmationNumber Confirmation number of the lease to be extended
+	 * @param newEnd New end date for the lease
+	 * @return the extended lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be extended to the new end date
+	 */
+	@Override
+	public Lease extendLease(int confirmationNumber, LocalDate newEnd) {
+		Lease lease = leaseAt(confirmationNumber);
+		try {
+			lease.getProperty().extendLease(lease, newEnd);
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			throw new IllegalArgumentException();
+		}
+		leaseChanged(lease, Change.LEASE_EXTENDED);
+		return lease;
+	}
+
+	/**
+	 * Cuts the lease with the given confirmation number back to an earlier end date
+	 *
+	 * @param confirmationNumber Confirmation number of the lease to be shortened
+	 * @param newEnd New end date for the lease
+	 * @return the shortened lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be shortened to the new end date
+	 */
+	@Override
+	public Lease shortenLease(int confirmationNumber, LocalDate newEnd) {
+		Lease lease = leaseAt(confirmationNumber);
+		try {
+			lease.getProperty().shortenLease(lease, newEnd);
+		} catch (RentalDateException e) {
+			throw new IllegalArgumentException();
+		}
+		leaseChanged(lease, Change.LEASE_TRUNCATED);
+		return lease;
+	}
+
+	/**
+	 * Cancels the lease in the given position on the client's list of leases.
+	 *
+	 * @param clientIndex Index of the client whose lease is to be cancelled
+	 * @param leaseIndex Position of the lease in the client's list
+	 * @throws IllegalArgumentException if clientIndex or leaseIndex are not valid
+	 */
+	@Override
+	public void cancelClientsLease(int clientIndex, int leaseIndex) {
+		if (clientIndex < 0 || clientIndex >= clients.size()) {
+			throw new IllegalArgumentException();
+		}
+		LeaseView[] leases = clientLeases.get(clientIndex);
+		if (leaseIndex < 0 || leaseIndex >= leases.length) {
+			throw new IllegalArgumentException();
+		}
+		int position = position(leases[leaseIndex].getUnitFloor() * 100 + leases[leaseIndex].getUnitRoom());
+		RentalUnit unit = unitAt(position);
+		unit.cancelLeaseByNumber(leases[leaseIndex].getConfirmationNumber());
+		unitChanged(position, unit);
+		fire(Change.LEASE_CANCELED, unitIndexes(position), new int[0]);
+	}
+
+	/**
+	 * Cancels all leases for a rental unit on or after a particular date,
+	 * cutting back those that run past it, and takes the unit out of service.
+	 *
+	 * @param propertyIndex Index for the rental unit (subject to filtering)
+	 * @param start Date for starting cancellations
+	 * @return the RentalUnit that was removed
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration, or start is out of range
+	 */
+	@Override
+	public RentalUnit removeFromService(int propertyIndex, LocalDate start) {
+		int position = unitPosition(propertyIndex);
+		if (start.isBefore(PropertyManager.EARLIEST_DATE) || start.isAfter(PropertyManager.LATEST_DATE)) {
+			throw new IllegalArgumentException();
+		}
+		RentalUnit unit = unitAt(position);
+		unit.removeFromServiceStarting(start);
+		unitChanged(position, unit);
+		fire(Change.UNIT_SERVICE_CHANGED, unitIndexes(position), new int[0]);
+		return unit;
+	}
+
+	/**
+	 * Removes the rental unit at the given index from the fork and cancels
+	 * all of its leases.
+	 *
+	 * @param propertyIndex Index for the rental unit to be closed (subject to filtering)
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public void closeRentalUnit(int propertyIndex) {
+		int position = unitPosition(propertyIndex);
+		UnitView unit = units.get(position);
+		for (LeaseView lease : unitLeases.get(position)) {
+			leaseRemoved(lease);
+		}
+		units = units.remove(position);
+		unitLeases = unitLeases.remove(position);
+		unitsByLocation.remove(unit.getFloor() * 100 + unit.getRoom());
+		changedLocations.add(unit.getFloor() * 100 + unit.getRoom());
+		fire(Change.UNIT_CLOSED, new int[0], new int[] {propertyIndex});
+	}
+
+	/**
+	 * Returns the rental unit at the given position to service. Does nothing
+	 * if the rental unit is already in service.
+	 *
+	 * @param propertyIndex Position/index of the rental unit (subject to filtering)
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public void returnToService(int propertyIndex) {
+		int position = unitPosition(propertyIndex);
+		if (!units.get(position).isInService()) {
+			RentalUnit unit = unitAt(position);
+			unit.returnToService();
+			unitChanged(position, unit);
+			fire(Change.UNIT_SERVICE_CHANGED, unitIndexes(position), new int[0]);
+		}
+	}
+
+	/**
+	 * Lists the fork's clients
+	 *
+	 * @return an array of strings, where each string describes a client
+	 */
+	@Override
+	public String[] listClients() {
+		String[] list = new String[clients.size()];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendClient(line, clients.get(i)).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the leases of a client, in the order they were made
+	 *
+	 * @param clientIndex Index of the client
+	 * @return an array of strings in which each string describes a lease of the client
+	 * @throws IllegalArgumentException if the clientIndex does not correspond to any client
+	 */
+	@Override
+	public String[] listClientLeases(int clientIndex) {
+		LeaseView[] leases = viewClientLeases(clientIndex);
+		String[] list = new String[leases.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendClientLease(line, leases[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the fork's rental units that meet the filters in place, in order of location
+	 *
+	 * @return an array of strings in which each string describes a rental unit
+	 */
+	@Override
+	public String[] listRentalUnits() {
+		UnitView[] views = viewRentalUnits();
+		String[] list = new String[views.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendUnit(line, views[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Lists the leases of a rental unit, in order of start date
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return an array of strings in which each string describes a lease of the unit
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public String[] listLeasesForRentalUnit(int propertyIndex) {
+		LeaseView[] leases = viewLeasesForRentalUnit(propertyIndex);
+		String[] list = new String[leases.length];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < list.length; i++) {
+			line.setLength(0);
+			list[i] = RentalRenderer.appendUnitLease(line, leases[i]).toString();
+		}
+		return list;
+	}
+
+	/**
+	 * Returns views of the fork's rental units that meet the filters in place
+	 *
+	 * @return a view of each rental unit that meets all filters in place
+	 */
+	@Override
+	public UnitView[] viewRentalUnits() {
+		ArrayList<UnitView> views = new ArrayList<UnitView>();
+		for (int i = 0; i < units.size(); i++) {
+			if (meetsFilters(units.get(i))) {
+				views.add(units.get(i));
+			}
+		}
+		return views.toArray(new UnitView[views.size()]);
+	}
+
+	/**
+	 * Returns views of the fork's clients
+	 *
+	 * @return a view of each client
+	 */
+	@Override
+	public ClientView[] viewClients() {
+		ClientView[] views = new ClientView[clients.size()];
+		for (int i = 0; i < views.length; i++) {
+			views[i] = clients.get(i);
+		}
+		return views;
+	}
+
+	/**
+	 * Returns views of the leases of a client, in the order they were made
+	 *
+	 * @param clientIndex Index of the client
+	 * @return a view of each lease of the client
+	 * @throws IllegalArgumentException if clientIndex is not a valid index
+	 */
+	@Override
+	public LeaseView[] viewClientLeases(int clientIndex) {
+		if (clientIndex < 0 || clientIndex >= clients.size()) {
+			throw new IllegalArgumentException();
+		}
+		return clientLeases.get(clientIndex).clone();
+	}
+
+	/**
+	 * Returns views of the leases of a rental unit, in order of start date
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return a view of each lease of the rental unit
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public LeaseView[] viewLeasesForRentalUnit(int propertyIndex) {
+		return unitLeases.get(unitPosition(propertyIndex)).toArray(NO_LEASE_VIEWS);
+	}
+
+	/**
+	 * Returns one page of the descriptions of the fork's rental units that
+	 * meet the filters in place. The page resumes right after the location
+	 * saved in the cursor.
+	 *
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most units on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageRentalUnits(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		int from = 0;
+		if (cursor != null) {
+			int position = position((int) cursor.getKey());
+			from = position >= 0 ? position + 1 : -position - 1;
+		}
+		ArrayList<String> items = new ArrayList<String>();
+		StringBuilder line = new StringBuilder();
+		int last = -1;
+		for (int i = from; i < units.size(); i++) {
+			UnitView unit = units.get(i);
+			if (meetsFilters(unit)) {
+				if (items.size() == limit) {
+					return new Page<String>(items.toArray(new String[limit]), new PageCursor(last, -1));
+				}
+				line.setLength(0);
+				items.add(RentalRenderer.appendUnit(line, unit).toString());
+				last = unit.getFloor() * 100 + unit.getRoom();
+			}
+		}
+		return new Page<String>(items.toArray(new String[items.size()]), null);
+	}
+
+	/**
+	 * Returns one page of the descriptions of the fork's clients, resuming
+	 * at the position saved in the cursor
+	 *
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most clients on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClients(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		int from = cursor == null ? 0 : cursor.getPosition() + 1;
+		int to = Math.min(clients.size(), from + limit);
+		String[] items = new String[Math.max(0, to - from)];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendClient(line, clients.get(from + i)).toString();
+		}
+		return new Page<String>(items, to < clients.size() ? new PageCursor(to - 1, to - 1) : null);
+	}
+
+	/**
+	 * Returns one page of the descriptions of the leases of a client. The
+	 * cursor saves the confirmation number of the last lease on the page,
+	 * and the next page resumes right after that lease, or at the lease
+	 * that took its position if it has been canceled.
+	 *
+	 * @param clientIndex Index of the client
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if clientIndex is not a valid index or
+	 *         limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClientLeases(int clientIndex, PageCursor cursor, int limit) {
+		if (clientIndex < 0 || clientIndex >= clients.size()) {
+			throw new IllegalArgumentException();
+		}
+		checkLimit(limit);
+		LeaseView[] leases = clientLeases.get(clientIndex);
+		int from = 0;
+		if (cursor != null) {
+			from = Math.min(cursor.getPosition(), leases.length);
+			for (int i = 0; i < leases.length; i++) {
+				if (leases[i].getConfirmationNumber() == cursor.getKey()) {
+					from = i + 1;
+					break;
+				}
+			}
+		}
+		int to = Math.min(leases.length, from + limit);
+		String[] items = new String[Math.max(0, to - from)];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendClientLease(line, leases[from + i]).toString();
+		}
+		PageCursor next = null;
+		if (to < leases.length) {
+			next = new PageCursor(leases[to - 1].getConfirmationNumber(), to - 1);
+		}
+		return new Page<String>(items, next);
+	}
+
+	/**
+	 * Returns one page of the descriptions of the leases of a rental unit.
+	 * The page resumes right after the start date and confirmation number
+	 * saved in the cursor.
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @param cursor the cursor returned with the previous page, or null
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration, or limit is less than 1
+	 */
+	@Override
+	public Page<String> pageLeasesForRentalUnit(int propertyIndex, PageCursor cursor, int limit) {
+		checkLimit(limit);
+		PersistentList<LeaseView> leases = unitLeases.get(unitPosition(propertyIndex));
+		int from = 0;
+		if (cursor != null) {
+			int position = leases.search(PropertyFork::leaseKey, cursor.getKey());
+			from = position >= 0 ? position + 1 : -position - 1;
+		}
+		int to = Math.min(leases.size(), from + limit);
+		String[] items = new String[to - from];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendUnitLease(line, leases.get(from + i)).toString();
+		}
+		return new Page<String>(items, to < leases.size() ? new PageCursor(leaseKey(leases.get(to - 1)), -1) : null);
+	}
+
+	/**
+	 * Removes all rental units, clients and leases from the fork, giving
+	 * back the confirmation numbers of the leases made in it. Committing
+	 * the fork afterwards closes the parent's units and cancels its leases,
+	 * but fails if the parent has any clients.
+	 */
+	@Override
+	public void flushAllData() {
+		releaseCreated();
+		units = PersistentList.empty();
+		unitLeases = PersistentList.empty();
+		clients = PersistentList.empty();
+		clientLeases = PersistentList.empty();
+		unitsByLocation.clear();
+		clientsById.clear();
+		addedClients.clear();
+		changedLocations.clear();
+		changedClients.clear();
+		pendingClients.clear();
+		flushed = true;
+		fire(Change.DATA_FLUSHED, new int[0], new int[0]);
+	}
+
+	/**
+	 * Registers a listener to be told about every change made to the fork
+	 *
+	 * @param listener the listener to register
+	 * @throws IllegalArgumentException if listener is null
+	 */
+	@Override
+	public void addRentalChangeListener(RentalChangeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stops telling a listener about changes. Does nothing if the listener
+	 * is not registered.
+	 *
+	 * @param listener the listener to remove
+	 */
+	@Override
+	public void removeRentalChangeListener(RentalChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts the fork over from the views of its parent's snapshot,
+	 * forgetting every change made to it
+	 */
+	private void rebase() {
+		baseVersion = parent.getVersion();
+		baseUnits = parent.getUnitViews();
+		baseUnitLeases = parent.getUnitLeaseViews();
+		baseClients = parent.getClientViews();
+		baseClientLeases = parent.getClientLeaseViews();
+		units = baseUnits;
+		unitLeases = baseUnitLeases;
+		clients = baseClients;
+		clientLeases = baseClientLeases;
+		unitsByLocation.clear();
+		clientsById.clear();
+		addedClients.clear();
+		createdLeases.clear();
+		changedLocations.clear();
+		changedClients.clear();
+		flushed = false;
+	}
+
+	/**
+	 * Gives back the confirmation numbers of the leases made in the fork
+	 */
+	private void releaseCreated() {
+		for (int confirmationNumber : createdLeases.keySet()) {
+			numbering.release(confirmationNumber);
+		}
+		createdLeases.clear();
+	}
+
+	/**
+	 * Makes a snapshot of just the rental units and clients the fork has
+	 * changed, as they are in the given views
+	 *
+	 * @param units the views of the rental units
+	 * @param unitLeases the views of the leases of each rental unit
+	 * @param clients the views of the clients
+	 * @param clientLeases the views of the leases of each client
+	 * @return the snapshot of the changed units and clients that are in the views
+	 */
+	private RentalSnapshot changedPart(PersistentList<UnitView> units, PersistentList<PersistentList<LeaseView>> unitLeases,
+			PersistentList<ClientView> clients, PersistentList<LeaseView[]> clientLeases) {
+		PersistentList<UnitView> partUnits = PersistentList.empty();
+		PersistentList<PersistentList<LeaseView>> partUnitLeases = PersistentList.empty();
+		for (int key : changedLocations) {
+			int position = units.search(PropertyFork::viewKey, key);
+			if (position >= 0) {
+				partUnits = partUnits.add(units.get(position));
+				partUnitLeases = partUnitLeases.add(unitLeases.get(position));
+			}
+		}
+		PersistentList<ClientView> partClients = PersistentList.empty();
+		PersistentList<LeaseView[]> partClientLeases = PersistentList.empty();
+		for (int position : changedClients) {
+			if (position < clients.size()) {
+				partClients = partClients.add(clients.get(position));
+				partClientLeases = partClientLeases.add(clientLeases.get(position));
+			}
+		}
+		return new RentalSnapshot(partUnits, partUnitLeases, partClients, partClientLeases);
+	}
+
+	/**
+	 * Gets the rebuilt rental unit at a position of the fork's views,
+	 * rebuilding it from its view and the views of its leases if the fork
+	 * has not changed it before. A rebuilt unit is given the maintenance
+	 * windows of the parent's unit, and is closed for the one it is.
+	 *
+	 * @param position the position of the unit
+	 * @return the rebuilt unit
+	 */
+	private RentalUnit unitAt(int position) {
+		UnitView view = units.get(position);
+		RentalUnit unit = unitsByLocation.get(viewKey(view));
+		if (unit == null) {
+			unit = newUnit(String.valueOf(view.getKind()), view.getFloor() + "-" + view.getRoom(), view.getCapacity());
+			unit.setConfirmationNumbering(numbering);
+			RentalUnit original = parent.findUnit(viewKey(view));
+			try {
+				if (original != null) {
+					for (MaintenanceWindow window : original.getMaintenanceWindows()) {
+						MaintenanceWindow copy = unit.scheduleMaintenance(window.getStart(), window.getEnd());
+						if (window == original.getActiveMaintenance()) {
+							unit.beginMaintenance(copy);
+						}
+					}
+				}
+				for (LeaseView lease : unitLeases.get(position)) {
+					unit.recordExistingLease(lease.getConfirmationNumber(), client(lease.getClientName(), lease.getClientId()),
+							lease.getStart(), lease.getEnd(), lease.getOccupants());
+				}
+			} catch (RentalDateException | RentalCapacityException | IllegalArgumentException e) {
+				throw new IllegalStateException("The leases do not fit the unit");
+			}
+			if (original == null ? !view.isInService() : !original.isBookable()) {
+				unit.takeOutOfService();
+			}
+			unitsByLocation.put(viewKey(view), unit);
+		}
+		return unit;
+	}
+
+	/**
+	 * Gets the client of the leases on the rebuilt units with the given id
+	 *
+	 * @param name the name of the client
+	 * @param id the id of the client
+	 * @return the client
+	 */
+	private Client client(String name, String id) {
+		Client client = clientsById.get(id);
+		if (client == null) {
+			client = new Client(name, id);
+			clientsById.put(id, client);
+		}
+		return client;
+	}
+
+	/**
+	 * Finds the lease with the given confirmation number on its rebuilt unit
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @return the lease
+	 * @throws IllegalArgumentException if the fork has no lease with that number
+	 */
+	private Lease leaseAt(int confirmationNumber) {
+		SimpleListIterator<Lease> it = unitAt(leasePosition(confirmationNumber)).leaseIterator();
+		while (true) {
+			Lease lease = it.next();
+			if (lease.getConfirmationNumber() == confirmationNumber) {
+				return lease;
+			}
+		}
+	}
+
+	/**
+	 * Finds the position of the rental unit holding the lease with the given
+	 * confirmation number. The unit is looked up where the fork made the
+	 * lease or, failing that, where the parent holds it, and the fork's
+	 * views are only searched in full if neither holds the lease.
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @return the position of the unit
+	 * @throws IllegalArgumentException if the fork has no lease with that number
+	 */
+	private int leasePosition(int confirmationNumber) {
+		Integer created = createdLeases.get(confirmationNumber);
+		int position = position(created == null ? parent.findLeaseLocation(confirmationNumber) : created);
+		if (position >= 0 && holds(unitLeases.get(position), confirmationNumber)) {
+			return position;
+		}
+		for (int i = 0; i < units.size(); i++) {
+			if (holds(unitLeases.get(i), confirmationNumber)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Returns whether some leases include the one with the given confirmation number
+	 *
+	 * @param leases the views of the leases
+	 * @param confirmationNumber the confirmation number
+	 * @return whether a lease has that number
+	 */
+	private static boolean holds(PersistentList<LeaseView> leases, int confirmationNumber) {
+		for (LeaseView lease : leases) {
+			if (lease.getConfirmationNumber() == confirmationNumber) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the position of the client with the given id among the fork's
+	 * views. The position is taken from the clients added in the fork or
+	 * from the parent, and checked against the fork's view at it; the views
+	 * are only searched in full if that check fails.
+	 *
+	 * @param id the id of the client
+	 * @return the position of the client, or -1 if there is none with that id
+	 */
+	private int clientPosition(String id) {
+		Integer added = addedClients.get(id);
+		int position = added == null ? parent.findClientPosition(id) : added;
+		if (position >= 0 && position < clients.size() && clients.get(position).getId().equals(id)) {
+			return position;
+		}
+		for (int i = 0; i < clients.size(); i++) {
+			if (clients.get(i).getId().equals(id)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Replaces the views of a changed rental unit and of its leases. The
+	 * views of leases that did not change are kept, and each lease that was
+	 * made, changed or canceled is passed on to its client's views.
+	 *
+	 * @param position the position of the unit
+	 * @param unit the rebuilt unit, after the change
+	 */
+	private void unitChanged(int position, RentalUnit unit) {
+		HashMap<Integer, LeaseView> before = new HashMap<Integer, LeaseView>();
+		for (LeaseView view : unitLeases.get(position)) {
+			before.put(view.getConfirmationNumber(), view);
+		}
+		ArrayList<LeaseView> after = new ArrayList<LeaseView>();
+		SimpleListIterator<Lease> it = unit.leaseIterator();
+		while (it.hasNext()) {
+			Lease lease = it.next();
+			LeaseView view = before.remove(lease.getConfirmationNumber());
+			if (view == null || view.getStartDay() != lease.getStartDay() || view.getEndDay() != lease.getEndDay()
+					|| view.getOccupants() != lease.getNumOccupants()) {
+				view = new LeaseView(lease);
+				setClientLease(view.getClientId(), view.getConfirmationNumber(), view);
+			}
+			after.add(view);
+		}
+		for (LeaseView view : before.values()) {
+			leaseRemoved(view);
+		}
+		units = units.set(position, new UnitView(unit));
+		unitLeases = unitLeases.set(position, PersistentList.of(after.toArray(new LeaseView[after.size()])));
+		changedLocations.add(unitKey(unit));
+	}
+
+	/**
+	 * Records a change a rebuilt unit made to one of its leases
+	 *
+	 * @param lease the lease that changed
+	 * @param change the kind of change
+	 */
+	private void leaseChanged(Lease lease, Change change) {
+		int position = position(unitKey(lease.getProperty()));
+		unitChanged(position, lease.getProperty());
+		fire(change, unitIndexes(position), new int[0]);
+	}
+
+	/**
+	 * Removes a canceled lease from its client's views, giving its
+	 * confirmation number back if the lease was made in the fork
+	 *
+	 * @param lease the view of the canceled lease
+	 */
+	private void leaseRemoved(LeaseView lease) {
+		setClientLease(lease.getClientId(), lease.getConfirmationNumber(), null);
+		if (createdLeases.remove(lease.getConfirmationNumber()) != null) {
+			numbering.release(lease.getConfirmationNumber());
+		}
+	}
+
+	/**
+	 * Replaces the view of one lease of a client, adding it to the end if
+	 * the client does not have the lease yet
+	 *
+	 * @param clientId the id of the client
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param view the new view of the lease, or null to remove it
+	 */
+	private void setClientLease(String clientId, int confirmationNumber, LeaseView view) {
+		int position = clientPosition(clientId);
+		LeaseView[] leases = clientLeases.get(position);
+		int index = 0;
+		while (index < leases.length && leases[index].getConfirmationNumber() != confirmationNumber) {
+			index++;
+		}
+		LeaseView[] changed;
+		if (view == null) {
+			changed = new LeaseView[leases.length - 1];
+			System.arraycopy(leases, 0, changed, 0, index);
+			System.arraycopy(leases, index + 1, changed, index, changed.length - index);
+		} else {
+			changed = Arrays.copyOf(leases, Math.max(leases.length, index + 1));
+			changed[index] = view;
+		}
+		ClientView client = clients.get(position);
+		clients = clients.set(position, new ClientView(client.getName(), client.getId(), changed.length));
+		clientLeases = clientLeases.set(position, changed);
+		changedClients.add(position);
+		pendingClients.add(position);
+	}
+
+	/**
+	 * Finds the position of the rental unit at a location among the fork's views
+	 *
+	 * @param key the floor of the unit times 100 plus its room
+	 * @return the position of the unit, or (-(insertion point) - 1) if the
+	 *         fork has no unit at that location
+	 */
+	private int position(int key) {
+		return units.search(PropertyFork::viewKey, key);
+	}
+
+	/**
+	 * Finds the position among the fork's views of the rental unit at the
+	 * given index in the filtered list of rental units
+	 *
+	 * @param propertyIndex Index of the rental unit (subject to filtering)
+	 * @return the position of the unit
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the
+	 *         rental units currently under consideration
+	 */
+	private int unitPosition(int propertyIndex) {
+		int index = 0;
+		for (int i = 0; i < units.size() && propertyIndex >= 0; i++) {
+			if (meetsFilters(units.get(i))) {
+				if (index == propertyIndex) {
+					return i;
+				}
+				index++;
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Gives the index in the filtered list of rental units of the unit at a
+	 * position of the fork's views, for telling the listeners about it
+	 *
+	 * @param position the position of the unit
+	 * @return the filtered index of the unit, or nothing if the unit does
+	 *         not meet the filters or there are no listeners
+	 */
+	private int[] unitIndexes(int position) {
+		if (listeners.isEmpty() || !meetsFilters(units.get(position))) {
+			return new int[0];
+		}
+		int index = 0;
+		for (int i = 0; i < position; i++) {
+			if (meetsFilters(units.get(i))) {
+				index++;
+			}
+		}
+		return new int[] {index};
+	}
+
+	/**
+	 * Returns whether a rental unit meets the filters currently in place
+	 *
+	 * @param unit the view of the rental unit
+	 * @return whether the unit meets the filters
+	 */
+	private boolean meetsFilters(UnitView unit) {
+		return (kindFilter.isEmpty() || unit.getKindLabel().equals(kindFilter))
+				&& (!inServiceFilter || unit.isInService());
+	}
+
+	/**
+	 * Tells every listener about a change made by an operation, with the
+	 * clients it changed
+	 *
+	 * @param change the kind of change
+	 * @param unitIndexes the filtered positions of the affected units
+	 * @param closedUnitIndexes the filtered positions of the closed units
+	 */
+	private void fire(Change change, int[] unitIndexes, int[] closedUnitIndexes) {
+		int[] clientIndexes = new int[pendingClients.size()];
+		int c = 0;
+		for (int position : pendingClients) {
+			clientIndexes[c++] = position;
+		}
+		pendingClients.clear();
+		if (listeners.isEmpty()) {
+			return;
+		}
+		EnumMap<Change, Integer> counts = new EnumMap<Change, Integer>(Change.class);
+		counts.put(change, 1);
+		RentalChangeEvent event = new RentalChangeEvent(counts, unitIndexes, closedUnitIndexes, clientIndexes);
+		for (RentalChangeListener listener : new ArrayList<RentalChangeListener>(listeners)) {
+			listener.rentalDataChanged(event);
+		}
+	}
+
+	/**
+	 * Makes a rental unit of the given kind
+	 *
+	 * @param kind Type of RentalUnit (starts with 'O' for office, 'C' for conference room,
+	 *        'H' for hotel suite)
+	 * @param location location of the unit in the form FF-RR
+	 * @param capacity Maximum capacity of the unit
+	 * @return the unit
+	 * @throws IllegalArgumentException if the parameters are invalid
+	 */
+	private static RentalUnit newUnit(String kind, String location, int capacity) {
+		if ("C".equals(kind)) {
+			return new ConferenceRoom(location, capacity);
+		} else if ("H".equals(kind)) {
+			return new HotelSuite(location, capacity);
+		} else if ("O".equals(kind)) {
+			return new Office(location, capacity);
+		}
+		throw new IllegalArgumentException("Invalid Rental Unit type");
+	}
+
+	/**
+	 * Returns the floor times 100 plus the room of a rental unit
+	 *
+	 * @param unit the rental unit
+	 * @return the key of the unit's location
+	 */
+	private static int unitKey(RentalUnit unit) {
+		return unit.getFloor() * 100 + unit.getRoom();
+	}
+
+	/**
+	 * Returns the floor times 100 plus the room of a viewed rental unit
+	 *
+	 * @param view the view of the rental unit
+	 * @return the key of the unit's location
+	 */
+	private static int viewKey(UnitView view) {
+		return view.getFloor() * 100 + view.getRoom();
+	}
+
+	/**
+	 * Gets the sort key of a lease: its start day and then its confirmation number
+	 *
+	 * @param lease the view of the lease
+	 * @return the key
+	 */
+	static long leaseKey(LeaseView lease) {
+		return ((long) lease.getStartDay() << 32) | (lease.getConfirmationNumber() & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Checks the size of a page
+	 *
+	 * @param limit the most entries on a page
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	private static void checkLimit(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException();
+		}
+	}
+}
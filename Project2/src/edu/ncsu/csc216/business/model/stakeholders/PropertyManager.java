@@ -4,24 +4,56 @@
 package edu.ncsu.csc216.business.model.stakeholders;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import edu.ncsu.csc216.business.list_utils.PersistentList;
 import edu.ncsu.csc216.business.list_utils.SimpleArrayList;
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
 import edu.ncsu.csc216.business.list_utils.SortedLinkedListWithIterator;
 import edu.ncsu.csc216.business.list_utils.SortedList;
+import edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator;
 import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.contracts.LeaseRequest;
+import edu.ncsu.csc216.business.model.diagnostics.ListingEvent;
+import edu.ncsu.csc216.business.model.diagnostics.RentalMetrics;
+import edu.ncsu.csc216.business.model.diagnostics.ReservationEvent;
+import edu.ncsu.csc216.business.model.io.RentalRenderer;
 import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
 import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.properties.MaintenanceWindow;
 import edu.ncsu.csc216.business.model.properties.Office;
 import edu.ncsu.csc216.business.model.properties.RentalCapacityException;
 import edu.ncsu.csc216.business.model.properties.RentalDateException;
 import edu.ncsu.csc216.business.model.properties.RentalOutOfServiceException;
 import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.scheduling.MaintenanceScheduler;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
 
 /**
- * The PropertyManager class represents the single property
- * manager for the entire system. PropertyManager implements 
- * the Singleton and Factory design patterns.
+ * The PropertyManager class represents the property manager for a
+ * building. PropertyManager implements the Singleton and Factory design
+ * patterns: getInstance returns the manager the user interface works 
+ * with, and further managers, one per building, can be constructed with
+ * confirmation numbering of their own.
  * 
  * @author Alex Raum, Walker Clem
  */
@@ -31,6 +63,8 @@ public class PropertyManager implements Landlord {
 	public static final LocalDate EARLIEST_DATE = LocalDate.of(2020, 1, 1);
 	/** the latest date a Lease may start on */
 	public static final LocalDate LATEST_DATE = LocalDate.of(2029, 12, 31);
+	/** the views of no leases */
+	private static final LeaseView[] NO_LEASE_VIEWS = new LeaseView[0];
 	/** String used to filter rental units by their kind  */
 	private String kindFilter;
 	/** Boolean used to filter rental units by their service status */
@@ -39,31 +73,141 @@ public class PropertyManager implements Landlord {
 	private static PropertyManager instance;
 	/** A SimpleArrayList of Client objects */
 	private SimpleArrayList<Client> customerBase;
+	/** every Client keyed by id */
+	private HashMap<String, Client> clientsById;
 	/** A sorted linked list of RentalUnit objects */
 	private SortedLinkedListWithIterator<RentalUnit> rooms;
+	/** The scheduler that runs the maintenance windows of the rental units */
+	private MaintenanceScheduler maintenance;
+	/** every active Lease keyed by its confirmation number */
+	private HashMap<Integer, Lease> leasesByNumber;
+	/** every rental unit keyed by its floor times 100 plus its room */
+	private TreeMap<Integer, RentalUnit> unitsByLocation;
+	/** the listeners told about changes to the data */
+	private ArrayList<RentalChangeListener> listeners;
+	/** the number of operations under way whose changes are being batched */
+	private int changeDepth;
+	/** the number of changes of each kind made by the operations under way */
+	private EnumMap<Change, Integer> pendingCounts;
+	/** the rental units affected by the operations under way */
+	private HashSet<RentalUnit> pendingUnits;
+	/** the clients affected by the operations under way */
+	private HashSet<Client> pendingClients;
+	/** the filtered positions of the rental units closed by the operations under way */
+	private TreeSet<Integer> pendingClosed;
+	/** the snapshot taken at the end of the last operation, which any thread may read */
+	private volatile RentalSnapshot snapshot;
+	/** the version of the data the snapshot was taken at */
+	private long snapshotVersion;
+	/** the views of the rental units in the snapshot, in order of location */
+	private PersistentList<UnitView> unitViews;
+	/** the views of the leases of each rental unit in the snapshot */
+	private PersistentList<PersistentList<LeaseView>> unitLeaseViews;
+	/** the views of the clients in the snapshot, in the order they were added */
+	private PersistentList<ClientView> clientViews;
+	/** the views of the leases of each client in the snapshot */
+	private PersistentList<LeaseView[]> clientLeaseViews;
+	/** the position of each client in the snapshot */
+	private HashMap<Client, Integer> clientPositions;
+	/** the locations of the rental units changed since the snapshot was taken */
+	private HashSet<Integer> staleLocations;
+	/** 
+	 * the leases made, changed or canceled since the snapshot was taken, 
+	 * keyed by the location of their unit, whose views are replaced one by 
+	 * one unless the whole unit is stale
+	 */
+	private HashMap<Integer, List<Lease>> staleLeases;
+	/** 
+	 * the units and clients each snapshot brought up to date since a 
+	 * replication feed last collected them, or null if no feed collects them
+	 */
+	private ChangedParts changedParts;
+	/** 
+	 * the clients changed since the snapshot was taken, in the order they 
+	 * first changed, each with whether any lease it already had changed 
+	 */
+	private LinkedHashMap<Client, Boolean> staleClients;
+	/** the number of changes made to the data */
+	private long version;
+	/** hands out the confirmation numbers of the manager's leases */
+	private ConfirmationNumberAllocator numbering;
+	/** the live counters of the manager, shown over JMX once registered */
+	private RentalMetrics metrics;
+	
+	/**
+	 * Constructs an empty PropertyManager for a building of its own, whose
+	 * leases are numbered independently of every other manager's.
+	 */
+	public PropertyManager() {
+		this(Lease.newNumbering());
+	}
 	
 	/**
-	 * The private constructor the the PropertyManager class,
-	 * it initializes the two fields to be empty lists.
+	 * Constructs an empty PropertyManager whose leases take their confirmation
+	 * numbers from the given numbering, such as one part of the numbers for
+	 * a manager that holds one part of a building.
+	 * 
+	 * @param numbering the confirmation numbering of the manager's leases
+	 * @throws IllegalArgumentException if numbering is null
 	 */
-	private PropertyManager() {
+	public PropertyManager(ConfirmationNumberAllocator numbering) {
+		if (numbering == null) {
+			throw new IllegalArgumentException();
+		}
+		this.numbering = numbering;
+		this.listeners = new ArrayList<RentalChangeListener>();
+		this.pendingCounts = new EnumMap<Change, Integer>(Change.class);
+		this.pendingUnits = new HashSet<RentalUnit>();
+		this.pendingClients = new HashSet<Client>();
+		this.pendingClosed = new TreeSet<Integer>();
+		this.unitViews = PersistentList.empty();
+		this.unitLeaseViews = PersistentList.empty();
+		this.clientViews = PersistentList.empty();
+		this.clientLeaseViews = PersistentList.empty();
+		this.clientPositions = new HashMap<Client, Integer>();
+		this.staleLocations = new HashSet<Integer>();
+		this.staleLeases = new HashMap<Integer, List<Lease>>();
+		this.staleClients = new LinkedHashMap<Client, Boolean>();
+		this.snapshot = new RentalSnapshot(unitViews, unitLeaseViews, clientViews, clientLeaseViews);
 		this.customerBase = new SimpleArrayList<Client>();
+		this.clientsById = new HashMap<String, Client>();
 		this.rooms = new SortedLinkedListWithIterator<RentalUnit>();
+		this.maintenance = new MaintenanceScheduler(EARLIEST_DATE.minusDays(1), this::maintenanceChanged);
+		this.leasesByNumber = new HashMap<Integer, Lease>();
+		this.unitsByLocation = new TreeMap<Integer, RentalUnit>();
+		this.metrics = new RentalMetrics(() -> unitsByLocation.size(), () -> customerBase.size(),
+				() -> leasesByNumber.size());
 		filterRentalUnits("", false);
 	}
 	
 	/**
-	 * Gets an instance of PropertyManager class
+	 * Gets an instance of PropertyManager class. The instance's metrics are
+	 * registered over JMX under the name "instance" when it is made.
 	 * 
 	 * @return the instance of PropertyManager
 	 */
 	public static PropertyManager getInstance() {
 		if (instance == null) {
-			instance = new PropertyManager();
+			instance = new PropertyManager(Lease.getSharedNumbering());
+			try {
+				instance.metrics.register("instance");
+			} catch (IllegalArgumentException e) {
+				// another copy of the classes holds the name; the metrics go unshown
+			}
 		} 
 		return instance;
 	}
 	
+	/**
+	 * Gets the live counters of the manager, which can be registered over
+	 * JMX with their register method
+	 * 
+	 * @return the metrics of the manager
+	 */
+	public RentalMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/**
 	 * Adds a new client with the given name and id to the client database. 
 	 *  
@@ -80,10 +224,12 @@ public class PropertyManager implements Landlord {
 	@Override
 	public Client addNewClient(String name, String id) throws DuplicateClientException {
 		Client client = new Client(name, id);
-		if (customerBase.contains(client)) {
+		if (clientsById.containsKey(client.getId())) {
 			throw new DuplicateClientException("Client with this ID already exists");
 		}
 		customerBase.add(client);
+		clientsById.put(client.getId(), client);
+		recordChange(Change.CLIENT_ADDED, null, client);
 		return client;
 	}
 	
@@ -102,25 +248,40 @@ public class PropertyManager implements Landlord {
 	 */
 	@Override
 	public RentalUnit addNewUnit(String kind, String location, int capacity) throws DuplicateRoomException {
-		RentalUnit unit;
-		if (kind.equals("C")) {
-			unit = new ConferenceRoom(location, capacity);
-		} else if (kind.equals("H")) {
-			unit = new HotelSuite(location, capacity);
-		} else if (kind.equals("O")) {
-			unit = new Office(location, capacity);
-		} else {
-			throw new IllegalArgumentException("Invalid Rental Unit type");
-		}
-		
+		RentalUnit unit = newUnit(kind, location, capacity);
 		try {
 			rooms.add(unit);
+			unit.setConfirmationNumbering(numbering);
+			unitsByLocation.put(unitKey(unit), unit);
+			recordChange(Change.UNIT_ADDED, unit, null);
 			return unit;
 		} catch (Exception e) {
 			throw new DuplicateRoomException("Rental Unit at this location already exists");
 		}
 	}
 	
+	/**
+	 * Makes a rental unit of the given kind
+	 * 
+	 * @param kind Type of RentalUnit (starts with 'O' for office, 'C' for conference room,
+	 *        'H' for hotel suite)
+	 * @param location String of the form FF-RR, where FF is the floor, and RR is the room.
+	 * @param capacity Number of people the unit can accommodate on any single day
+	 * @return the unit
+	 * @throws IllegalArgumentException if the parameters do not describe a valid location  
+	 *         and type
+	 */
+	private static RentalUnit newUnit(String kind, String location, int capacity) {
+		if (kind.equals("C")) {
+			return new ConferenceRoom(location, capacity);
+		} else if (kind.equals("H")) {
+			return new HotelSuite(location, capacity);
+		} else if (kind.equals("O")) {
+			return new Office(location, capacity);
+		}
+		throw new IllegalArgumentException("Invalid Rental Unit type");
+	}
+	
 	/**
 	 * Adds the lease with the given information to the system:
 	 * client for the lease, lease confirmation number, rental 
@@ -147,6 +308,8 @@ public class PropertyManager implements Landlord {
 		try {
 			Lease lease = unit.recordExistingLease(confirmationNumber, client, startDate, endDate, numOccupants);
 			client.addNewLease(lease);
+			leasesByNumber.put(lease.getConfirmationNumber(), lease);
+			recordLeaseChange(Change.LEASE_CREATED, lease);
 		} catch (RentalDateException | RentalCapacityException e) {
 			throw new IllegalArgumentException();
 		}
@@ -167,16 +330,113 @@ public class PropertyManager implements Landlord {
 		if (leaseIndex < 0 || leaseIndex >= customerBase.get(clientIndex).listLeases().length) {
 			throw new IllegalArgumentException();
 		}
-		Lease lease = customerBase.get(clientIndex).cancelLeaseAt(leaseIndex);
+		cancelLease(customerBase.get(clientIndex), leaseIndex);
+	}
+	
+	/**
+	 * Cancels the lease with the given confirmation number, wherever it is
+	 * on its client's list of leases.
+	 * 
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @throws IllegalArgumentException if no active lease has that number
+	 */
+	public void cancelLease(int confirmationNumber) {
+		Client client = getLease(confirmationNumber).getClient();
+		cancelLease(client, client.findLease(confirmationNumber, client.getLeaseCount() - 1));
+	}
+	
+	/**
+	 * Cancels the lease in the given position on a client's list of leases
+	 * 
+	 * @param client the client
+	 * @param leaseIndex the position of the lease in the client's list
+	 */
+	private void cancelLease(Client client, int leaseIndex) {
+		Lease lease = client.cancelLeaseAt(leaseIndex);
 		int num = lease.getConfirmationNumber();
 		RentalUnit unit = lease.getProperty();
 		unit.cancelLeaseByNumber(num);
+		leasesByNumber.remove(num);
+		numbering.release(num);
+		metrics.leaseCanceled();
+		recordLeaseChange(Change.LEASE_CANCELED, lease);
+	}
+	
+	/**
+	 * Reserves a rental unit for a client, recording in the metrics how long
+	 * the unit took and, if it rejected the lease, why. Only the unit and the
+	 * metrics are touched, so an AsyncLandlord may call this on the unit's
+	 * own thread.
+	 * 
+	 * @param unit the rental unit
+	 * @param client the client
+	 * @param start Start date for the lease
+	 * @param duration Duration of the lease (units depending on rental unit type)
+	 * @param people Number of occupants the lease is for
+	 * @return the Lease the unit took
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 * @throws RentalDateException if the dates are not valid for the unit
+	 * @throws RentalCapacityException if the unit cannot hold the occupants
+	 */
+	Lease reserve(RentalUnit unit, Client client, LocalDate start, int duration, int people)
+			throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
+		long began = System.nanoTime();
+		try {
+			return unit.reserve(client, start, duration, people);
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			metrics.rejected(unit.getKindLabel(), e);
+			throw e;
+		} finally {
+			metrics.reserved(System.nanoTime() - began);
+		}
+	}
+	
+	/**
+	 * Records a Lease that its rental unit has just taken: the Lease is added
+	 * to its client's list and becomes active. Together with leaseCanceled and
+	 * leaseChanged, this lets an AsyncLandlord change a unit on one thread and
+	 * bring the rest of the manager up to date under a lock of its own.
+	 * 
+	 * @param lease the Lease the unit took
+	 */
+	void leaseReserved(Lease lease) {
+		lease.getClient().addNewLease(lease);
+		leasesByNumber.put(lease.getConfirmationNumber(), lease);
+		metrics.leaseCreated();
+		recordLeaseChange(Change.LEASE_CREATED, lease);
+	}
+	
+	/**
+	 * Records a Lease that its rental unit has just canceled: the Lease is
+	 * removed from its client's list and its confirmation number released.
+	 * 
+	 * @param lease the Lease the unit canceled
+	 */
+	void leaseCanceled(Lease lease) {
+		int num = lease.getConfirmationNumber();
+		lease.getClient().cancelLeaseWithNumber(num);
+		leasesByNumber.remove(num);
+		numbering.release(num);
+		metrics.leaseCanceled();
+		recordLeaseChange(Change.LEASE_CANCELED, lease);
+	}
+	
+	/**
+	 * Records a change a rental unit has just made to one of its Leases,
+	 * such as extending or shortening it
+	 * 
+	 * @param lease the Lease that changed
+	 * @param change the kind of change
+	 */
+	void leaseChanged(Lease lease, Change change) {
+		recordLeaseChange(change, lease);
 	}
 	
 	/**
 	 * Returns the rental unit at the given position to service. Does nothing if the rental 
 	 * unit is already in service or if the position does not correspond to any rental unit 
-	 * (subject to filtering).
+	 * (subject to filtering). A unit closed for a maintenance window is reopened and the
+	 * window is canceled.
 	 * 
 	 * @param propertyIndex Position/index of the rental unit (subject to filtering)
 	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
@@ -184,12 +444,17 @@ public class PropertyManager implements Landlord {
 	 */
 	@Override
 	public void returnToService(int propertyIndex) {
-		if (propertyIndex < 0 || propertyIndex >= listRentalUnits().length) {
+		if (propertyIndex < 0 || propertyIndex >= filteredUnits().size()) {
 			throw new IllegalArgumentException();
 		}
 		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
 		if (!unit.isInService()) {
+			MaintenanceWindow window = unit.getActiveMaintenance();
+			if (window != null) {
+				maintenance.cancel(window);
+			}
 			unit.returnToService();
+			recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
 		}
 	}
 	
@@ -205,20 +470,206 @@ public class PropertyManager implements Landlord {
 	 */
 	@Override
 	public RentalUnit removeFromService(int propertyIndex, LocalDate start) {
-		if (propertyIndex < 0 || propertyIndex >= listRentalUnits().length) {
+		if (propertyIndex < 0 || propertyIndex >= filteredUnits().size()) {
 			throw new IllegalArgumentException();
 		}
 		if (start.isBefore(EARLIEST_DATE) || start.isAfter(LATEST_DATE)) {
 			throw new IllegalArgumentException();
 		}
 		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
-		SortedList<Lease> leases = unit.removeFromServiceStarting(start);
-		for (int i = 0; i < leases.size(); i++) {
-			Lease lease = leases.get(i);
-			int confNum = lease.getConfirmationNumber();
-			lease.getClient().cancelLeaseWithNumber(confNum);
+		beginChange();
+		try {
+			recordTruncations(unit, start);
+			HashMap<Client, Set<Integer>> canceled = new HashMap<Client, Set<Integer>>();
+			collectCanceled(unit.removeFromServiceStarting(start), canceled);
+			cancelForClients(canceled);
+			metrics.outage(1);
+			recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+			return unit;
+		} finally {
+			endChange();
+		}
+	}
+	
+	/**
+	 * Plans removing every rental unit on the floors from minFloor to maxFloor
+	 * (inclusive) of the given kind from service starting on the given date.
+	 * Nothing is changed; the returned plan reports the Leases that would be
+	 * canceled or cut back, the affected clients and the occupant-days lost, 
+	 * and can then be carried out with applyOutagePlan.
+	 * 
+	 * @param minFloor the lowest floor in the outage
+	 * @param maxFloor the highest floor in the outage
+	 * @param kind the kind of unit in the outage, starting with 'C', 'H' or 'O', 
+	 *        or an empty String for every kind
+	 * @param start date the outage starts
+	 * @return the plan for the outage
+	 * @throws IllegalArgumentException if kind or start are null, if start is outside
+	 *         of the earliest and latest dates, or if minFloor is greater than maxFloor
+	 */
+	public OutagePlan planOutage(int minFloor, int maxFloor, String kind, LocalDate start) {
+		if (kind == null || start == null || minFloor > maxFloor) {
+			throw new IllegalArgumentException();
+		}
+		if (start.isBefore(EARLIEST_DATE) || start.isAfter(LATEST_DATE)) {
+			throw new IllegalArgumentException();
+		}
+		SimpleArrayList<RentalUnit> units = new SimpleArrayList<RentalUnit>();
+		SimpleListIterator<RentalUnit> it = rooms.iterator();
+		while (it.hasNext()) {
+			RentalUnit unit = it.next();
+			if (unit.getFloor() > maxFloor) {
+				break;
+			}
+			if (unit.getFloor() >= minFloor && matchesKind(unit, kind)) {
+				units.add(unit);
+			}
+		}
+		RentalUnit[] planned = new RentalUnit[units.size()];
+		for (int i = 0; i < planned.length; i++) {
+			planned[i] = units.get(i);
+		}
+		return new OutagePlan(planned, start);
+	}
+	
+	/**
+	 * Carries out an outage plan in one batch: every unit in the plan is
+	 * removed from service starting on the plan's date, and each affected
+	 * client's canceled Leases are removed in a single pass over that 
+	 * client's Leases. The Leases are recomputed from the units as they 
+	 * are applied, so changes made since the plan was computed are honored.
+	 * 
+	 * @param plan the outage plan to carry out
+	 * @return the number of Leases canceled
+	 * @throws IllegalArgumentException if plan is null
+	 */
+	public int applyOutagePlan(OutagePlan plan) {
+		if (plan == null) {
+			throw new IllegalArgumentException();
+		}
+		beginChange();
+		try {
+			HashMap<Client, Set<Integer>> canceled = new HashMap<Client, Set<Integer>>();
+			int count = 0;
+			for (RentalUnit unit : plan.getUnits()) {
+				recordTruncations(unit, plan.getStart());
+				count += collectCanceled(unit.removeFromServiceStarting(plan.getStart()), canceled);
+				recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+			}
+			cancelForClients(canceled);
+			metrics.outage(plan.getUnits().length);
+			return count;
+		} finally {
+			endChange();
+		}
+	}
+	
+	/**
+	 * Groups the confirmation numbers of canceled Leases by their clients.
+	 * 
+	 * @param leases the canceled Leases
+	 * @param canceled the confirmation numbers grouped by client
+	 * @return the number of Leases added
+	 */
+	private int collectCanceled(SortedList<Lease> leases, HashMap<Client, Set<Integer>> canceled) {
+		int count = 0;
+		SimpleListIterator<Lease> it = ((SortedLinkedListWithIterator<Lease>) leases).iterator();
+		while (it.hasNext()) {
+			Lease lease = it.next();
+			canceled.computeIfAbsent(lease.getClient(), c -> new HashSet<Integer>()).add(lease.getConfirmationNumber());
+			leasesByNumber.remove(lease.getConfirmationNumber());
+			numbering.release(lease.getConfirmationNumber());
+			recordLeaseChange(Change.LEASE_CANCELED, lease);
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Cancels the grouped Leases on the clients' side.
+	 * 
+	 * @param canceled the confirmation numbers grouped by client
+	 */
+	private void cancelForClients(HashMap<Client, Set<Integer>> canceled) {
+		for (Map.Entry<Client, Set<Integer>> entry : canceled.entrySet()) {
+			entry.getKey().cancelLeasesWithNumbers(entry.getValue());
+		}
+	}
+	
+	/**
+	 * Returns whether a unit is of the given kind.
+	 * 
+	 * @param unit the unit to check
+	 * @param kind the kind, starting with 'C', 'H' or 'O', or an empty String 
+	 *        for every kind
+	 * @return whether the unit is of the kind
+	 */
+	private static boolean matchesKind(RentalUnit unit, String kind) {
+		String k = kind.trim().toLowerCase();
+		if (k.isEmpty()) {
+			return true;
+		}
+		char letter = k.charAt(0);
+		return letter == 'c' && unit instanceof ConferenceRoom 
+				|| letter == 'h' && unit instanceof HotelSuite
+				|| letter == 'o' && unit instanceof Office;
+	}
+	
+	/**
+	 * Schedules a maintenance window for the rental unit at the given index.
+	 * The unit cannot be reserved for any day in the window, and is taken out
+	 * of service and returned to service automatically as the calendar passes
+	 * the start and end of the window. Windows are kept in memory only: they
+	 * are not written to a rental file, so they are not loaded back, and
+	 * {@link #flushAllData()} drops them.
+	 * 
+	 * @param propertyIndex Index for the rental unit (subject to filtering)
+	 * @param start the first day of the window
+	 * @param end the last day of the window
+	 * @return the scheduled window
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration, or if the window is not
+	 *         valid for the unit
+	 */
+	public MaintenanceWindow scheduleMaintenance(int propertyIndex, LocalDate start, LocalDate end) {
+		if (propertyIndex < 0 || propertyIndex >= filteredUnits().size()) {
+			throw new IllegalArgumentException();
+		}
+		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
+		beginChange();
+		try {
+			MaintenanceWindow window = maintenance.schedule(unit, start, end);
+			recordChange(Change.MAINTENANCE_SCHEDULED, unit, null);
+			return window;
+		} finally {
+			endChange();
+		}
+	}
+	
+	/**
+	 * Cancels a scheduled maintenance window, returning its unit to service
+	 * if the window is under way.
+	 * 
+	 * @param window the window to cancel
+	 */
+	public void cancelMaintenance(MaintenanceWindow window) {
+		maintenance.cancel(window);
+	}
+	
+	/**
+	 * Advances the maintenance calendar to the given day, starting and ending
+	 * the maintenance windows that fall due along the way.
+	 * 
+	 * @param today the current day
+	 * @return the number of window starts and ends that happened
+	 */
+	public int advanceCalendar(LocalDate today) {
+		beginChange();
+		try {
+			return maintenance.advanceTo(today);
+		} finally {
+			endChange();
 		}
-		return unit;
 	}
 	
 	/** 
@@ -231,12 +682,23 @@ public class PropertyManager implements Landlord {
 	 */
 	@Override
 	public void closeRentalUnit(int propertyIndex) {
-		if (propertyIndex < 0 || propertyIndex >= listRentalUnits().length) {
+		if (propertyIndex < 0 || propertyIndex >= filteredUnits().size()) {
 			throw new IllegalArgumentException();
 		}
 		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
-		removeFromService(propertyIndex, EARLIEST_DATE);
-		rooms.remove(rooms.indexOf(unit));
+		beginChange();
+		try {
+			removeFromService(propertyIndex, EARLIEST_DATE);
+			rooms.remove(rooms.indexOf(unit));
+			unitsByLocation.remove(unitKey(unit));
+			forgetUnit(unit);
+			if (!listeners.isEmpty()) {
+				pendingClosed.add(propertyIndex);
+			}
+			recordChange(Change.UNIT_CLOSED, null, null);
+		} finally {
+			endChange();
+		}
 	}
 	
 	/**
@@ -255,8 +717,11 @@ public class PropertyManager implements Landlord {
 		try {
 			Client client = customerBase.get(clientIndex);
 			RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
-			Lease lease = unit.reserve(client, start, duration, people);
+			Lease lease = reserve(unit, client, start, duration, people);
 			client.addNewLease(lease);
+			leasesByNumber.put(lease.getConfirmationNumber(), lease);
+			metrics.leaseCreated();
+			recordLeaseChange(Change.LEASE_CREATED, lease);
 			return lease;
 		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException | IndexOutOfBoundsException e) {
 			throw new IllegalArgumentException();
@@ -264,181 +729,1622 @@ public class PropertyManager implements Landlord {
 	}
 	
 	/**
-	 * Returns an array of Clients for the Landlord's properties.
+	 * Creates a lease for the client with the given id on the rental unit at
+	 * the given location, regardless of the filters in place.
 	 * 
-	 * @return an array of strings, where each string describes a client
+	 * @param clientId the id of the client
+	 * @param location the location of the rental unit, of the form FF-RR
+	 * @param start Start date for the lease
+	 * @param duration Duration of the lease (units depending on rental unit type)
+	 * @param people Number of occupants the lease is for
+	 * @return the created lease
+	 * @throws IllegalArgumentException if there is no such client or unit, or 
+	 *         the parameters do not constitute valid lease data
 	 */
-	@Override
-	public String[] listClients() {
-		String[] clients = new String[customerBase.size()];
-		for (int i = 0; i < customerBase.size(); i++) {
-			Client client = customerBase.get(i);
-			clients[i] = client.getName() + " (" + client.getId() + ")";
+	public Lease createLease(String clientId, String location, LocalDate start, int duration, int people) {
+		Client client = getClientById(clientId);
+		RentalUnit unit = getUnitAtLocation(location);
+		try {
+			Lease lease = reserve(unit, client, start, duration, people);
+			leaseReserved(lease);
+			return lease;
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			throw new IllegalArgumentException(e.getMessage());
 		}
-		return clients;
 	}
 	
 	/**
-	 * Returns an array of all the leases for a particular client.
+	 * Creates a batch of leases all at once, or none of them. The clients are
+	 * looked up by id, and the requests 
+	 * for each rental unit are held on it in order of start date, so each
+	 * is checked by the unit's own rules against its existing leases and the
+	 * earlier requests of the batch. If any request is rejected, the held 
+	 * leases are taken back, their confirmation numbers are released for 
+	 * reuse, and the result holds the reason for each rejection. The metrics
+	 * and Flight Recorder events of a reservation are only recorded once its
+	 * lease is kept, or for the requests that were rejected, so a batch that
+	 * fails leaves no trace of the leases it took back.
 	 * 
-	 * @param clientIndex Index of the targeted client in the landlord's list of clients
-	 * @return an array of strings in which each string describes a lease for the
-	 *         targeted client
-	 * @throws IllegalArgumentException if the clientIndex does not correspond to any
-	 *         client.
+	 * @param requests the lease requests in the batch
+	 * @return the outcome of the batch
+	 * @throws IllegalArgumentException if requests is null
 	 */
-	@Override
-	public String[] listClientLeases(int clientIndex) {
-		if (clientIndex < 0 || clientIndex >= customerBase.size()) {
+	public LeaseBatchResult createLeases(List<LeaseRequest> requests) {
+		if (requests == null) {
 			throw new IllegalArgumentException();
 		}
-		return customerBase.get(clientIndex).listLeases();
-	}
-	
-	/**
-	 * Returns an array of the Landlords rental units, this list is subject to 
-	 * the filter that is currently in place. 
-	 * 
-	 * @return an array of strings in which each string describes a rental unit that
-	 *         meets all filters in place. There are exactly as many strings in the
-	 *         array as there are such rental units.
-	 */
-	@Override
-	public String[] listRentalUnits() {
-		int count = 0;
-		for (int i = 0; i < rooms.size(); i++) {
-			if (inServiceFilter) {
-				if (rooms.get(i).getDescription().contains(kindFilter)
-						&& rooms.get(i).isInService()) {
-					count++;
-				}
+		int n = requests.size();
+		Lease[] leases = new Lease[n];
+		String[] reasons = new String[n];
+		Client[] clients = new Client[n];
+		LinkedHashMap<RentalUnit, List<Integer>> groups = new LinkedHashMap<RentalUnit, List<Integer>>();
+		boolean rejected = false;
+		for (int i = 0; i < n; i++) {
+			LeaseRequest request = requests.get(i);
+			clients[i] = clientsById.get(request.getClientId());
+			RentalUnit unit = unitsByLocation.get(locationKey(request.getLocation()));
+			if (clients[i] == null) {
+				reasons[i] = "No such client";
+			} else if (unit == null) {
+				reasons[i] = "No such rental unit";
 			} else {
-				if (rooms.get(i).getDescription().contains(kindFilter)) {
-					count++;
-				}
-	        }
-		}
-		String[] rentalArray = new String[count];
-		int newCount = 0;
-		for (int i = 0; i < rooms.size(); i++) {
-			if (inServiceFilter) {
-				if (rooms.get(i).getDescription().contains(kindFilter)
-						&& rooms.get(i).isInService()) {
-					rentalArray[newCount] = rooms.get(i).getDescription();
-					newCount++;
+				groups.computeIfAbsent(unit, u -> new ArrayList<Integer>()).add(i);
+				continue;
+			}
+			rejected = true;
+		}
+		ReservationEvent[] events = new ReservationEvent[n];
+		int[] held = new int[n];
+		int[] examined = new int[n];
+		long[] took = new long[n];
+		for (Map.Entry<RentalUnit, List<Integer>> group : groups.entrySet()) {
+			RentalUnit unit = group.getKey();
+			List<Integer> indexes = group.getValue();
+			indexes.sort((a, b) -> requests.get(a).getStart().compareTo(requests.get(b).getStart()));
+			for (int i : indexes) {
+				LeaseRequest request = requests.get(i);
+				events[i] = new ReservationEvent();
+				events[i].begin();
+				held[i] = unit.getLeaseCount();
+				long looked = unit.getEntriesExamined();
+				long began = System.nanoTime();
+				try {
+					leases[i] = unit.holdLease(clients[i], request.getStart(), request.getDuration(), request.getPeople());
+					took[i] = System.nanoTime() - began;
+					examined[i] = (int) (unit.getEntriesExamined() - looked);
+					events[i].end();
+				} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException
+						| IllegalArgumentException e) {
+					metrics.reserved(System.nanoTime() - began);
+					if (!(e instanceof IllegalArgumentException)) {
+						metrics.rejected(unit.getKindLabel(), e);
+					}
+					unit.finishReservation(events[i], e.getClass().getSimpleName(), held[i], 
+							(int) (unit.getEntriesExamined() - looked));
+					reasons[i] = e.getMessage() == null ? "Invalid lease request" : e.getMessage();
+					rejected = true;
 				}
-			} else {
-				if (rooms.get(i).getDescription().contains(kindFilter)) {
-					rentalArray[newCount] = rooms.get(i).getDescription();
-					newCount++;
+			}
+		}
+		if (rejected) {
+			for (int i = 0; i < n; i++) {
+				if (leases[i] != null) {
+					leases[i].getProperty().releaseLease(leases[i]);
+					numbering.release(leases[i].getConfirmationNumber());
+					leases[i] = null;
 				}
 			}
+			return new LeaseBatchResult(false, leases, reasons);
 		}
-		return rentalArray;
+		for (int i = 0; i < n; i++) {
+			metrics.reserved(took[i]);
+			leases[i].getProperty().finishReservation(events[i], ReservationEvent.RESERVED, held[i], examined[i]);
+		}
+		beginChange();
+		try {
+			for (int i = 0; i < n; i++) {
+				clients[i].addNewLease(leases[i]);
+				leasesByNumber.put(leases[i].getConfirmationNumber(), leases[i]);
+				metrics.leaseCreated();
+				recordLeaseChange(Change.LEASE_CREATED, leases[i]);
+			}
+		} finally {
+			endChange();
+		}
+		return new LeaseBatchResult(true, leases, reasons);
 	}
 	
 	/**
-	 * Returns an array of Leases for a rental unit at a specified index in the 
-	 * filtered list of rental units.
+	 * Returns the floor times 100 plus the room of a rental unit, which
+	 * orders units the same way as their natural ordering
 	 * 
-	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
-	 * @return an array of strings in which each string describes a lease for the
-	 *         targeted rental unit.
-	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
-	 *         rental units currently under consideration
+	 * @param unit the rental unit
+	 * @return the key of the unit's location
 	 */
-	@Override
-	public String[] listLeasesForRentalUnit(int propertyIndex) {
-		if (propertyIndex < 0 || propertyIndex >= listRentalUnits().length) {
-			throw new IllegalArgumentException();
-		}
-		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
-		return unit.listLeases();
+	private static int unitKey(RentalUnit unit) {
+		return unit.getFloor() * 100 + unit.getRoom();
 	}
 	
 	/**
-	 * Returns the rental unit at given location
+	 * Returns the floor times 100 plus the room of a location of the form 
+	 * FF-RR, or -1 if the location is not of that form.
 	 * 
-	 * @param location the location of the unit to be returned
-	 * @return the unit with the specified location
-	 * @throws IllegalArgumentException if there is no such rental
-	 *         unit
+	 * @param location the location
+	 * @return the key of the location
 	 */
-	public RentalUnit getUnitAtLocation(String location) {
+	private static int locationKey(String location) {
 		Scanner read = new Scanner(location);
 		read.useDelimiter("-");
-		int floor = read.nextInt();
-		int room = read.nextInt();
-		read.close();
-		for (int i = 0; i < rooms.size(); i++) {
-			if (rooms.get(i).getFloor() == floor && rooms.get(i).getRoom() == room) {
-				return rooms.get(i);
-			}
+		try {
+			return read.nextInt() * 100 + read.nextInt();
+		} catch (NoSuchElementException e) {
+			return -1;
+		} finally {
+			read.close();
 		}
-		throw new IllegalArgumentException();
 	}
 	
 	/**
-	 * Sets filters for rental units so that only those that match the filters are considered.
+	 * Gets the active Lease with the given confirmation number.
 	 * 
-	 * @param kindFilter String type filter that rental units under consideration must meet
-	 * @param inServiceFilter boolean type filter that rental units under consideration must meet
+	 * @param confirmationNumber the confirmation number of the Lease
+	 * @return the Lease
+	 * @throws IllegalArgumentException if no active Lease has that number
 	 */
-	public void filterRentalUnits(String kindFilter, boolean inServiceFilter) {
-		if (kindFilter == null) {
+	public Lease getLease(int confirmationNumber) {
+		Lease lease = leasesByNumber.get(confirmationNumber);
+		if (lease == null) {
 			throw new IllegalArgumentException();
 		}
-		String kind = kindFilter.trim().toLowerCase();
-		if (kindFilter.equals("")) {
-			this.kindFilter = kindFilter;
-			return;
-		}
-		char letter = kind.charAt(0);
-		if (letter == 'c') {
-			kind = "Conference Room";
-		} else if (letter == 'h') {
-			kind = "Hotel Suite";
-		} else if (letter == 'o') {
-			kind = "Office";
-		} else {
-			kind = "";
+		return lease;
+	}
+	
+	/**
+	 * Extends the lease with the given confirmation number to a later end date.
+	 * Only the added days are checked against the rental unit's bookings and
+	 * capacity, and the Lease keeps its confirmation number.
+	 * 
+	 * @param confirmationNumber Confirmation number of the lease to be extended
+	 * @param newEnd New end date for the lease
+	 * @return the extended lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be extended to the new end date
+	 */
+	@Override
+	public Lease extendLease(int confirmationNumber, LocalDate newEnd) {
+		Lease lease = getLease(confirmationNumber);
+		try {
+			lease.getProperty().extendLease(lease, newEnd);
+			leaseChanged(lease, Change.LEASE_EXTENDED);
+			return lease;
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			throw new IllegalArgumentException();
 		}
-		this.kindFilter = kind;
-		this.inServiceFilter = inServiceFilter;
 	}
 	
 	/**
-	 * Removes all lease, client, and rental unit data from 
-	 * the property manager and resets the lease confirmation 
-	 * numbering back to 0.
+	 * Cuts the lease with the given confirmation number back to an earlier end
+	 * date, giving the days after it back to the rental unit.
+	 * 
+	 * @param confirmationNumber Confirmation number of the lease to be shortened
+	 * @param newEnd New end date for the lease
+	 * @return the shortened lease
+	 * @throws IllegalArgumentException if there is no such lease, or if the lease
+	 *         cannot be shortened to the new end date
 	 */
 	@Override
-	public void flushAllData() {
-		this.customerBase = new SimpleArrayList<Client>();
-		this.rooms = new SortedLinkedListWithIterator<RentalUnit>();
-		Lease.resetConfirmationNumbering(0);
+	public Lease shortenLease(int confirmationNumber, LocalDate newEnd) {
+		Lease lease = getLease(confirmationNumber);
+		try {
+			lease.getProperty().shortenLease(lease, newEnd);
+			leaseChanged(lease, Change.LEASE_TRUNCATED);
+			return lease;
+		} catch (RentalDateException e) {
+			throw new IllegalArgumentException();
+		}
 	}
 	
 	/**
-	 * A private helper method used to return the RentalUnit object
-	 * from the rooms list that matches the description of the rental 
-	 * unit at the propertyIndex.
+	 * Suggests alternatives for a reservation that the given unit rejected:
+	 * up to k of the earliest start dates on or after start for which the
+	 * unit could take the Lease, and up to k of the nearest in service units
+	 * of the same kind that could take the Lease on the requested dates.
+	 * Units are ordered by floor distance first and room distance second.
 	 * 
-	 * @param propertyIndex Index of the rental unit description in 
-	 * 		  the filtered rental units array
-	 * @return The RentalUnit object from the rooms list that matches
-	 *         the description of the unit at the propertyIndex
-	 * @throws IllegalArgumentException if the rooms field does not 
-	 *         contain a rental unit whose description matches that 
-	 *         of the rental unit at propertyIndex                 
+	 * @param unit the rental unit that rejected the reservation
+	 * @param start the requested start date
+	 * @param duration the requested duration (units depending on rental unit type)
+	 * @param occupants the requested number of occupants
+	 * @param k the maximum number of start dates and of units to suggest
+	 * @return the suggested start dates and units
+	 * @throws IllegalArgumentException if unit or start are null, or if the 
+	 *         duration, occupants or k parameters are less than 1
 	 */
-	private RentalUnit getUnitAtFilteredIndex(int propertyIndex) {
-		String description = listRentalUnits()[propertyIndex];
-		for (int i = 0; i < rooms.size(); i++) {
-			if (description.equals(rooms.get(i).getDescription())) {
-				return rooms.get(i);
+	public ReservationAlternatives suggestAlternatives(RentalUnit unit, LocalDate start, int duration, int occupants, int k) {
+		if (unit == null) {
+			throw new IllegalArgumentException();
+		}
+		LocalDate[] dates = unit.availableStarts(start, duration, occupants, k);
+		RentalUnit[] nearest = new RentalUnit[k];
+		int[] distances = new int[k];
+		int found = 0;
+		SimpleListIterator<RentalUnit> it = rooms.iterator();
+		while (it.hasNext()) {
+			RentalUnit other = it.next();
+			if (other.equals(unit) || other.getClass() != unit.getClass() || other.getCapacity() < occupants) {
+				continue;
+			}
+			LocalDate[] open = other.availableStarts(start, duration, occupants, 1);
+			if (open.length == 0 || !open[0].equals(start)) {
+				continue;
+			}
+			int distance = Math.abs(other.getFloor() - unit.getFloor()) * (RentalUnit.MAX_ROOM + 1)
+					+ Math.abs(other.getRoom() - unit.getRoom());
+			if (found == k && distance >= distances[k - 1]) {
+				continue;
+			}
+			int pos = found == k ? k - 1 : found;
+			while (pos > 0 && distances[pos - 1] > distance) {
+				nearest[pos] = nearest[pos - 1];
+				distances[pos] = distances[pos - 1];
+				pos--;
+			}
+			nearest[pos] = other;
+			distances[pos] = distance;
+			if (found < k) {
+				found++;
+			}
+		}
+		return new ReservationAlternatives(dates, Arrays.copyOf(nearest, found));
+	}
+	
+	/**
+	 * Returns an array of Clients for the Landlord's properties.
+	 * 
+	 * @return an array of strings, where each string describes a client
+	 */
+	@Override
+	public String[] listClients() {
+		long began = System.nanoTime();
+		ListingEvent event = new ListingEvent();
+		event.begin();
+		String[] clients = new String[customerBase.size()];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < customerBase.size(); i++) {
+			line.setLength(0);
+			clients[i] = RentalRenderer.appendClient(line, customerBase.get(i)).toString();
+		}
+		if (event.shouldCommit()) {
+			event.finish(ListingEvent.CLIENTS, clients.length);
+		}
+		metrics.listed(System.nanoTime() - began);
+		return clients;
+	}
+	
+	/**
+	 * Gets the number of clients in the customer base
+	 * 
+	 * @return the number of clients
+	 */
+	public int getClientCount() {
+		return customerBase.size();
+	}
+	
+	/**
+	 * Gets the client at the given position in the customer base
+	 * 
+	 * @param clientIndex the position of the client
+	 * @return the client
+	 * @throws IndexOutOfBoundsException if clientIndex is not a valid position
+	 */
+	public Client getClientAt(int clientIndex) {
+		return customerBase.get(clientIndex);
+	}
+	
+	/**
+	 * Gets the client with the given id
+	 * 
+	 * @param id the id of the client
+	 * @return the client
+	 * @throws IllegalArgumentException if no client has that id
+	 */
+	public Client getClientById(String id) {
+		Client client = clientsById.get(id);
+		if (client == null) {
+			throw new IllegalArgumentException();
+		}
+		return client;
+	}
+	
+	/**
+	 * Returns an iterator over every rental unit in order of location,
+	 * regardless of the current filters
+	 * 
+	 * @return an iterator over the rental units
+	 */
+	public SimpleListIterator<RentalUnit> rentalUnitIterator() {
+		return rooms.iterator();
+	}
+	
+	/**
+	 * Returns an array of all the leases for a particular client.
+	 * 
+	 * @param clientIndex Index of the targeted client in the landlord's list of clients
+	 * @return an array of strings in which each string describes a lease for the
+	 *         targeted client
+	 * @throws IllegalArgumentException if the clientIndex does not correspond to any
+	 *         client.
+	 */
+	@Override
+	public String[] listClientLeases(int clientIndex) {
+		if (clientIndex < 0 || clientIndex >= customerBase.size()) {
+			throw new IllegalArgumentException();
+		}
+		long began = System.nanoTime();
+		ListingEvent event = new ListingEvent();
+		event.begin();
+		String[] leases = customerBase.get(clientIndex).listLeases();
+		if (event.shouldCommit()) {
+			event.finish(ListingEvent.CLIENT_LEASES, leases.length);
+		}
+		metrics.listed(System.nanoTime() - began);
+		return leases;
+	}
+	
+	/**
+	 * Returns an array of the Landlords rental units, this list is subject to 
+	 * the filter that is currently in place. 
+	 * 
+	 * @return an array of strings in which each string describes a rental unit that
+	 *         meets all filters in place. There are exactly as many strings in the
+	 *         array as there are such rental units.
+	 */
+	@Override
+	public String[] listRentalUnits() {
+		long began = System.nanoTime();
+		ListingEvent event = new ListingEvent();
+		event.begin();
+		ArrayList<RentalUnit> units = filteredUnits();
+		String[] rentalArray = new String[units.size()];
+		for (int i = 0; i < rentalArray.length; i++) {
+			rentalArray[i] = units.get(i).getDescription();
+		}
+		if (event.shouldCommit()) {
+			event.finish(ListingEvent.RENTAL_UNITS, rentalArray.length);
+		}
+		metrics.listed(System.nanoTime() - began);
+		return rentalArray;
+	}
+	
+	/**
+	 * Returns views of the Landlord's rental units that meet the filters
+	 * currently in place, in the same order as listRentalUnits.
+	 * 
+	 * @return a view of each rental unit that meets all filters in place
+	 */
+	@Override
+	public UnitView[] viewRentalUnits() {
+		ArrayList<RentalUnit> units = filteredUnits();
+		UnitView[] views = new UnitView[units.size()];
+		for (int i = 0; i < views.length; i++) {
+			views[i] = new UnitView(units.get(i));
+		}
+		return views;
+	}
+	
+	/**
+	 * Returns views of the Landlord's clients, in the same order as listClients.
+	 * 
+	 * @return a view of each client
+	 */
+	@Override
+	public ClientView[] viewClients() {
+		ClientView[] views = new ClientView[customerBase.size()];
+		for (int i = 0; i < views.length; i++) {
+			views[i] = new ClientView(customerBase.get(i));
+		}
+		return views;
+	}
+	
+	/**
+	 * Returns views of the leases of the client at the given index, in the
+	 * same order as listClientLeases.
+	 * 
+	 * @param clientIndex Index of the client in the Landlord's customer base
+	 * @return a view of each lease of the client
+	 * @throws IllegalArgumentException if clientIndex is not a valid index
+	 */
+	@Override
+	public LeaseView[] viewClientLeases(int clientIndex) {
+		if (clientIndex < 0 || clientIndex >= customerBase.size()) {
+			throw new IllegalArgumentException();
+		}
+		return leaseViews(customerBase.get(clientIndex));
+	}
+	
+	/**
+	 * Returns views of the leases of the rental unit at the given index in
+	 * the filtered list of rental units, in the same order as 
+	 * listLeasesForRentalUnit.
+	 * 
+	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
+	 * @return a view of each lease of the rental unit
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public LeaseView[] viewLeasesForRentalUnit(int propertyIndex) {
+		return leaseViews(getUnitAtFilteredIndex(propertyIndex)).toArray(NO_LEASE_VIEWS);
+	}
+	
+	/**
+	 * Returns an immutable, internally consistent copy of all rental units,
+	 * clients and leases, with no filters applied, as of the end of the 
+	 * last operation. The snapshot is kept up to date by the thread making
+	 * the changes, which replaces only the views of the units and clients
+	 * each operation changed, and is handed over through a volatile field,
+	 * so any thread may call this while leases keep being created and 
+	 * canceled. Calling it when nothing has changed since returns the same
+	 * snapshot.
+	 * 
+	 * @return the snapshot of the data
+	 */
+	public RentalSnapshot snapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Brings the snapshot up to date with the units and clients changed 
+	 * since it was taken and publishes it. Each changed unit is found by 
+	 * its location and each changed client by its position, so the work 
+	 * grows with the number of changes and their leases rather than with 
+	 * the size of the data. A unit whose only changes were to single 
+	 * leases has just those views replaced, and a client that only made 
+	 * new leases keeps the views of its earlier ones.
+	 */
+	private void takeSnapshot() {
+		if (snapshotVersion == version) {
+			return;
+		}
+		for (int key : staleLocations) {
+			int position = snapshotPosition(key);
+			RentalUnit unit = unitsByLocation.get(key);
+			if (unit == null) {
+				if (position >= 0) {
+					unitViews = unitViews.remove(position);
+					unitLeaseViews = unitLeaseViews.remove(position);
+				}
+			} else if (position >= 0) {
+				unitViews = unitViews.set(position, new UnitView(unit));
+				unitLeaseViews = unitLeaseViews.set(position, leaseViews(unit));
+			} else {
+				unitViews = unitViews.add(-position - 1, new UnitView(unit));
+				unitLeaseViews = unitLeaseViews.add(-position - 1, leaseViews(unit));
+			}
+		}
+		for (Map.Entry<Integer, List<Lease>> entry : staleLeases.entrySet()) {
+			int position = staleLocations.contains(entry.getKey()) ? -1 : snapshotPosition(entry.getKey());
+			if (position >= 0) {
+				unitLeaseViews = unitLeaseViews.set(position, 
+						leaseViews(unitLeaseViews.get(position), entry.getValue()));
+			}
+		}
+		for (Map.Entry<Client, Boolean> entry : staleClients.entrySet()) {
+			Client client = entry.getKey();
+			Integer position = clientPositions.get(client);
+			if (position == null) {
+				clientPositions.put(client, clientViews.size());
+				clientViews = clientViews.add(new ClientView(client));
+				clientLeaseViews = clientLeaseViews.add(leaseViews(client));
+			} else {
+				LeaseView[] previous = clientLeaseViews.get(position);
+				boolean appended = !entry.getValue() && previous.length <= client.getLeaseCount();
+				clientViews = clientViews.set(position, new ClientView(client));
+				clientLeaseViews = clientLeaseViews.set(position, appended ? leaseViews(client, previous) : leaseViews(client));
+			}
+		}
+		if (changedParts != null) {
+			for (int key : staleLocations) {
+				changedParts.unitChanged(key);
+			}
+			for (int key : staleLeases.keySet()) {
+				changedParts.unitChanged(key);
+			}
+			for (Client client : staleClients.keySet()) {
+				changedParts.clientChanged(clientPositions.get(client));
+			}
+		}
+		staleLocations.clear();
+		staleLeases.clear();
+		staleClients.clear();
+		snapshotVersion = version;
+		snapshot = new RentalSnapshot(unitViews, unitLeaseViews, clientViews, clientLeaseViews);
+	}
+	
+	/**
+	 * Finds the position of the rental unit at a location among the views
+	 * of the snapshot
+	 * 
+	 * @param key the floor of the unit times 100 plus its room
+	 * @return the position of the unit, or (-(insertion point) - 1) if the
+	 *         snapshot has no unit at that location
+	 */
+	private int snapshotPosition(int key) {
+		return unitViews.search(view -> view.getFloor() * 100 + view.getRoom(), key);
+	}
+	
+	/**
+	 * Returns a fork of this manager for trying out changes. The fork 
+	 * accepts every Landlord operation without touching this manager, can
+	 * report how it differs from it with diff, and can then be committed 
+	 * back or discarded. Making a fork takes the same time however much 
+	 * data there is: it starts from the views of the current snapshot, 
+	 * which it shares rather than copies.
+	 * 
+	 * @return the fork
+	 */
+	public PropertyFork fork() {
+		return new PropertyFork(this, numbering);
+	}
+	
+	/**
+	 * Gets the number of changes made to the data, which a fork compares to
+	 * tell whether this manager has changed since it was made
+	 * 
+	 * @return the version of the data
+	 */
+	long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Gets the views of the rental units in the snapshot
+	 * 
+	 * @return the views, in order of location
+	 */
+	PersistentList<UnitView> getUnitViews() {
+		return unitViews;
+	}
+	
+	/**
+	 * Gets the views of the leases of each rental unit in the snapshot
+	 * 
+	 * @return the views, in the same order as the units
+	 */
+	PersistentList<PersistentList<LeaseView>> getUnitLeaseViews() {
+		return unitLeaseViews;
+	}
+	
+	/**
+	 * Gets the views of the clients in the snapshot
+	 * 
+	 * @return the views, in the order the clients were added
+	 */
+	PersistentList<ClientView> getClientViews() {
+		return clientViews;
+	}
+	
+	/**
+	 * Gets the views of the leases of each client in the snapshot
+	 * 
+	 * @return the views, in the same order as the clients
+	 */
+	PersistentList<LeaseView[]> getClientLeaseViews() {
+		return clientLeaseViews;
+	}
+	
+	/**
+	 * Finds the position in the snapshot of the client with the given id
+	 * 
+	 * @param id the id of the client
+	 * @return the position of the client, or -1 if there is none with that id
+	 */
+	int findClientPosition(String id) {
+		Client client = clientsById.get(id);
+		Integer position = client == null ? null : clientPositions.get(client);
+		return position == null ? -1 : position;
+	}
+	
+	/**
+	 * Finds the rental unit at a location, such as to copy its maintenance
+	 * windows
+	 * 
+	 * @param key the floor of the unit times 100 plus its room
+	 * @return the unit, or null if there is none at that location
+	 */
+	RentalUnit findUnit(int key) {
+		return unitsByLocation.get(key);
+	}
+	
+	/**
+	 * Finds the location of the rental unit holding the active lease with
+	 * the given confirmation number
+	 * 
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @return the floor of the unit times 100 plus its room, or -1 if no 
+	 *         active lease has that number
+	 */
+	int findLeaseLocation(int confirmationNumber) {
+		Lease lease = leasesByNumber.get(confirmationNumber);
+		return lease == null ? -1 : unitKey(lease.getProperty());
+	}
+	
+	/**
+	 * Applies a fork's differences to this manager, as a single change. The
+	 * leases that were canceled or cut back and the units that were closed 
+	 * are released first, so that the added units, extended leases and 
+	 * created leases find the room they had in the fork. The differences 
+	 * are checked against the data before anything is changed, so if they
+	 * do not fit, the data is left as it was.
+	 * 
+	 * @param diff the differences to apply
+	 * @throws IllegalStateException if the differences do not fit the data
+	 */
+	void apply(PropertyDiff diff) {
+		checkFits(diff);
+		beginChange();
+		try {
+			for (ClientView view : diff.getAddedClients()) {
+				Client client = new Client(view.getName(), view.getId());
+				customerBase.add(client);
+				clientsById.put(client.getId(), client);
+				recordChange(Change.CLIENT_ADDED, null, client);
+			}
+			HashMap<Client, Set<Integer>> canceled = new HashMap<Client, Set<Integer>>();
+			for (LeaseView view : diff.getCanceledLeases()) {
+				Lease lease = leasesByNumber.remove(view.getConfirmationNumber());
+				lease.getProperty().cancelLeaseByNumber(lease.getConfirmationNumber());
+				canceled.computeIfAbsent(lease.getClient(), c -> new HashSet<Integer>()).add(lease.getConfirmationNumber());
+				numbering.release(lease.getConfirmationNumber());
+				recordLeaseChange(Change.LEASE_CANCELED, lease);
+			}
+			cancelForClients(canceled);
+			for (LeaseView view : diff.getChangedLeases()) {
+				Lease lease = leasesByNumber.get(view.getConfirmationNumber());
+				if (view.getEndDay() < lease.getEndDay()) {
+					lease.getProperty().shortenLease(lease, view.getEnd());
+					recordLeaseChange(Change.LEASE_TRUNCATED, lease);
+				}
+			}
+			for (UnitView view : diff.getClosedUnits()) {
+				RentalUnit unit = unitsByLocation.remove(view.getFloor() * 100 + view.getRoom());
+				int index = listeners.isEmpty() ? -1 : filteredUnits().indexOf(unit);
+				if (index >= 0) {
+					pendingClosed.add(index);
+				}
+				rooms.remove(rooms.indexOf(unit));
+				forgetUnit(unit);
+				recordChange(Change.UNIT_CLOSED, null, null);
+			}
+			for (UnitView view : diff.getAddedUnits()) {
+				addUnitFromView(view);
+			}
+			for (UnitView view : diff.getServiceChangedUnits()) {
+				if (view.isInService()) {
+					RentalUnit unit = unitsByLocation.get(view.getFloor() * 100 + view.getRoom());
+					MaintenanceWindow window = unit.getActiveMaintenance();
+					if (window != null) {
+						maintenance.cancel(window);
+					}
+					unit.returnToService();
+					recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+				}
+			}
+			for (LeaseView view : diff.getChangedLeases()) {
+				Lease lease = leasesByNumber.get(view.getConfirmationNumber());
+				if (view.getEndDay() > lease.getEndDay()) {
+					lease.getProperty().extendLease(lease, view.getEnd());
+					recordLeaseChange(Change.LEASE_EXTENDED, lease);
+				}
+			}
+			for (LeaseView view : diff.getCreatedLeases()) {
+				Lease lease = addLeaseFromView(clientsById.get(view.getClientId()), view);
+				recordLeaseChange(Change.LEASE_CREATED, lease);
+			}
+			for (UnitView view : diff.getServiceChangedUnits()) {
+				if (!view.isInService()) {
+					RentalUnit unit = unitsByLocation.get(view.getFloor() * 100 + view.getRoom());
+					unit.takeOutOfService();
+					recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+				}
+			}
+			for (UnitView view : diff.getAddedUnits()) {
+				if (!view.isInService()) {
+					unitsByLocation.get(view.getFloor() * 100 + view.getRoom()).takeOutOfService();
+				}
+			}
+		} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException e) {
+			throw new IllegalStateException("The fork does not fit the data");
+		} finally {
+			endChange();
+		}
+	}
+	
+	/**
+	 * Checks that a fork's differences fit the data without changing it.
+	 * Every lease, client and rental unit the differences name must be 
+	 * there, or not there, as they expect. The leases to be extended or 
+	 * created are then tried on a scratch copy of each of their units, 
+	 * holding the maintenance windows and the leases the unit will have
+	 * once the canceled leases are gone and the shortened ones cut back, 
+	 * so they are judged by the same rules, in the same order, as when
+	 * the differences are applied. The copies take their confirmation 
+	 * numbers from a numbering of their own.
+	 * 
+	 * @param diff the differences to check
+	 * @throws IllegalStateException if the differences do not fit the data
+	 */
+	private void checkFits(PropertyDiff diff) {
+		HashSet<String> addedClients = new HashSet<String>();
+		for (ClientView view : diff.getAddedClients()) {
+			if (clientsById.containsKey(view.getId()) || !addedClients.add(view.getId())) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+		}
+		HashSet<Integer> canceled = new HashSet<Integer>();
+		for (LeaseView view : diff.getCanceledLeases()) {
+			if (!leasesByNumber.containsKey(view.getConfirmationNumber()) || !canceled.add(view.getConfirmationNumber())) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+		}
+		HashSet<Integer> closed = new HashSet<Integer>();
+		for (UnitView view : diff.getClosedUnits()) {
+			if (!unitsByLocation.containsKey(viewKey(view)) || !closed.add(viewKey(view))) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+		}
+		HashMap<Integer, UnitView> addedUnits = new HashMap<Integer, UnitView>();
+		for (UnitView view : diff.getAddedUnits()) {
+			int key = viewKey(view);
+			if (unitsByLocation.containsKey(key) && !closed.contains(key) || addedUnits.put(key, view) != null) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+		}
+		HashSet<Integer> returned = new HashSet<Integer>();
+		for (UnitView view : diff.getServiceChangedUnits()) {
+			int key = viewKey(view);
+			if (!addedUnits.containsKey(key) && (!unitsByLocation.containsKey(key) || closed.contains(key))) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+			if (view.isInService()) {
+				returned.add(key);
+			}
+		}
+		HashMap<Integer, LeaseView> changed = new HashMap<Integer, LeaseView>();
+		HashMap<Integer, List<LeaseView>> extended = new HashMap<Integer, List<LeaseView>>();
+		HashMap<Integer, List<LeaseView>> booked = new HashMap<Integer, List<LeaseView>>();
+		for (LeaseView view : diff.getChangedLeases()) {
+			int num = view.getConfirmationNumber();
+			Lease lease = leasesByNumber.get(num);
+			if (lease == null || canceled.contains(num) || closed.contains(unitKey(lease.getProperty()))
+					|| changed.put(num, view) != null) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+			if (view.getEndDay() > lease.getEndDay()) {
+				extended.computeIfAbsent(unitKey(lease.getProperty()), k -> new ArrayList<LeaseView>()).add(view);
+			} else if (view.getEndDay() < lease.getEndDay()) {
+				try {
+					lease.getProperty().checkDates(lease.getStart(), view.getEnd());
+				} catch (RentalDateException e) {
+					throw new IllegalStateException("The fork does not fit the data");
+				}
+			}
+		}
+		HashSet<Integer> created = new HashSet<Integer>();
+		for (LeaseView view : diff.getCreatedLeases()) {
+			int num = view.getConfirmationNumber();
+			int key = view.getUnitFloor() * 100 + view.getUnitRoom();
+			if (!clientsById.containsKey(view.getClientId()) && !addedClients.contains(view.getClientId())
+					|| !addedUnits.containsKey(key) && (!unitsByLocation.containsKey(key) || closed.contains(key))
+					|| leasesByNumber.containsKey(num) && !canceled.contains(num) || !created.add(num)) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+			booked.computeIfAbsent(key, k -> new ArrayList<LeaseView>()).add(view);
+		}
+		TreeSet<Integer> touched = new TreeSet<Integer>(extended.keySet());
+		touched.addAll(booked.keySet());
+		ConfirmationNumberAllocator scratchNumbering = touched.isEmpty() ? null 
+				: new ConfirmationNumberAllocator(numbering.getFirst(), numbering.getCapacity());
+		for (int key : touched) {
+			UnitView added = addedUnits.get(key);
+			RentalUnit unit = added == null ? unitsByLocation.get(key) : null;
+			UnitView view = added == null ? new UnitView(unit) : added;
+			RentalUnit scratch = newUnit(String.valueOf(view.getKind()), view.getFloor() + "-" + view.getRoom(), view.getCapacity());
+			scratch.setConfirmationNumbering(scratchNumbering);
+			boolean bookable = unit == null || unit.isBookable() || returned.contains(key);
+			try {
+				HashMap<Integer, Lease> leases = new HashMap<Integer, Lease>();
+				if (unit != null) {
+					for (MaintenanceWindow window : unit.getMaintenanceWindows()) {
+						if (window != unit.getActiveMaintenance() || !returned.contains(key)) {
+							scratch.scheduleMaintenance(window.getStart(), window.getEnd());
+						}
+					}
+					SimpleListIterator<Lease> it = unit.leaseIterator();
+					while (it.hasNext()) {
+						Lease lease = it.next();
+						if (!canceled.contains(lease.getConfirmationNumber())) {
+							LeaseView shortened = changed.get(lease.getConfirmationNumber());
+							LocalDate end = shortened != null && shortened.getEndDay() < lease.getEndDay() 
+									? shortened.getEnd() : lease.getEnd();
+							leases.put(lease.getConfirmationNumber(), scratch.recordExistingLease(lease.getConfirmationNumber(), 
+									lease.getClient(), lease.getStart(), end, lease.getNumOccupants()));
+						}
+					}
+				}
+				if (!bookable) {
+					scratch.takeOutOfService();
+				}
+				for (LeaseView lease : extended.getOrDefault(key, Collections.emptyList())) {
+					scratch.extendLease(leases.get(lease.getConfirmationNumber()), lease.getEnd());
+				}
+				for (LeaseView lease : booked.getOrDefault(key, Collections.emptyList())) {
+					if (!bookable) {
+						throw new RentalOutOfServiceException("Rental unit not in service");
+					}
+					scratch.recordExistingLease(lease.getConfirmationNumber(), new Client(lease.getClientName(), 
+							lease.getClientId()), lease.getStart(), lease.getEnd(), lease.getOccupants());
+				}
+			} catch (RentalOutOfServiceException | RentalDateException | RentalCapacityException 
+					| IllegalArgumentException e) {
+				throw new IllegalStateException("The fork does not fit the data");
+			}
+		}
+	}
+	
+	/**
+	 * Returns the floor times 100 plus the room of a viewed rental unit
+	 * 
+	 * @param view the view of the rental unit
+	 * @return the key of the unit's location
+	 */
+	private static int viewKey(UnitView view) {
+		return view.getFloor() * 100 + view.getRoom();
+	}
+	
+	/**
+	 * Applies differences streamed from a primary manager to this manager,
+	 * its replica, as a single change. Leases keep the confirmation numbers
+	 * they have in the primary. Each unit that was sent a schedule has its
+	 * maintenance windows replaced and is removed from or returned to 
+	 * service to match, and the calendar and the numbering are brought to
+	 * where the primary's are, so that once promoted this manager books 
+	 * units and hands out numbers as the primary would have.
+	 * 
+	 * @param diff the differences from the primary's last shipped data
+	 * @param reset whether the primary sent all of its data, so that this
+	 *        manager's data must be thrown away first
+	 * @param schedules the schedules of the changed units, or of every unit
+	 *        with windows or removed from service if the data was reset
+	 * @param today the day the primary's maintenance calendar has reached
+	 * @param nextNumber the next confirmation number the primary hands out
+	 * @throws IllegalStateException if the differences do not fit the data
+	 */
+	void applyReplicated(PropertyDiff diff, boolean reset, UnitSchedule[] schedules, LocalDate today, int nextNumber) {
+		beginChange();
+		try {
+			if (reset) {
+				flushAllData();
+			}
+			HashSet<Integer> scheduled = new HashSet<Integer>();
+			for (UnitSchedule schedule : schedules) {
+				scheduled.add(schedule.getLocation());
+				RentalUnit unit = unitsByLocation.get(schedule.getLocation());
+				if (unit != null) {
+					for (MaintenanceWindow window : unit.getMaintenanceWindows()) {
+						maintenance.cancel(window);
+					}
+					if (schedule.isBookable() && !unit.isBookable()) {
+						unit.returnToService();
+						recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+					}
+				}
+			}
+			maintenance.advanceTo(today);
+			apply(withoutServiceState(diff, scheduled));
+			for (UnitSchedule schedule : schedules) {
+				RentalUnit unit = unitsByLocation.get(schedule.getLocation());
+				if (unit == null) {
+					throw new IllegalStateException("The fork does not fit the data");
+				}
+				if (!schedule.isBookable() && unit.isBookable()) {
+					unit.takeOutOfService();
+					recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+				}
+				int[] days = schedule.getWindowDays();
+				for (int i = 0; i < days.length; i += 2) {
+					try {
+						maintenance.schedule(unit, LocalDate.ofEpochDay(days[i]), LocalDate.ofEpochDay(days[i + 1]));
+					} catch (IllegalArgumentException e) {
+						throw new IllegalStateException("The fork does not fit the data");
+					}
+				}
+			}
+			numbering.rewind(nextNumber);
+		} finally {
+			endChange();
+		}
+	}
+	
+	/**
+	 * Leaves the service state of the given rental units out of replicated
+	 * differences, since their schedules carry it in full: the view of a 
+	 * unit only says whether it is in service, not whether a maintenance 
+	 * window or a removal from service closed it. Added units are added in
+	 * service and changed units are dropped from the service changes.
+	 * 
+	 * @param diff the differences
+	 * @param scheduled the locations of the units whose schedules were sent
+	 * @return the differences without those units' service state
+	 */
+	private static PropertyDiff withoutServiceState(PropertyDiff diff, Set<Integer> scheduled) {
+		UnitView[] added = diff.getAddedUnits().clone();
+		for (int i = 0; i < added.length; i++) {
+			UnitView view = added[i];
+			if (!view.isInService() && scheduled.contains(viewKey(view))) {
+				added[i] = new UnitView(view.getKindLabel(), view.getFloor(), view.getRoom(), view.getCapacity(), true);
+			}
+		}
+		ArrayList<UnitView> changed = new ArrayList<UnitView>();
+		for (UnitView view : diff.getServiceChangedUnits()) {
+			if (!scheduled.contains(viewKey(view))) {
+				changed.add(view);
+			}
+		}
+		return new PropertyDiff(added, diff.getClosedUnits(), changed.toArray(new UnitView[changed.size()]),
+				diff.getAddedClients(), diff.getRemovedClients(), diff.getCreatedLeases(), 
+				diff.getCanceledLeases(), diff.getChangedLeases());
+	}
+	
+	/**
+	 * Starts collecting, or goes on collecting, the rental units and 
+	 * clients each snapshot brings up to date, for a replication feed. 
+	 * Called on the thread that changes the data.
+	 * 
+	 * @return the units and clients changed since the last call, or null
+	 *         if they were not being collected
+	 */
+	ChangedParts collectChanges() {
+		ChangedParts parts = changedParts;
+		changedParts = new ChangedParts();
+		return parts;
+	}
+	
+	/**
+	 * Stops collecting the rental units and clients each snapshot brings 
+	 * up to date
+	 */
+	void stopCollectingChanges() {
+		changedParts = null;
+	}
+	
+	/**
+	 * Gets whether the rental unit at a location takes leases and its 
+	 * maintenance windows, which its view leaves out
+	 * 
+	 * @param key the floor of the unit times 100 plus its room
+	 * @return the schedule of the unit, or null if there is no unit there
+	 */
+	UnitSchedule scheduleOf(int key) {
+		RentalUnit unit = unitsByLocation.get(key);
+		return unit == null ? null : UnitSchedule.of(unit);
+	}
+	
+	/**
+	 * Gets the day the maintenance calendar has reached
+	 * 
+	 * @return the calendar's current day
+	 */
+	LocalDate getCalendarDay() {
+		return maintenance.getToday();
+	}
+	
+	/**
+	 * Gets the confirmation number the calling thread would hand out next
+	 * 
+	 * @return the next confirmation number
+	 */
+	int peekConfirmationNumber() {
+		return numbering.peek();
+	}
+	
+	/**
+	 * Adds a rental unit described by a view, in service
+	 * 
+	 * @param view the view of the unit
+	 */
+	private void addUnitFromView(UnitView view) {
+		try {
+			addNewUnit(String.valueOf(view.getKind()), view.getFloor() + "-" + view.getRoom(), view.getCapacity());
+		} catch (DuplicateRoomException e) {
+			throw new IllegalStateException("The fork does not fit the data");
+		}
+	}
+	
+	/**
+	 * Adds a lease described by a view for the given client, keeping its
+	 * confirmation number
+	 * 
+	 * @param client the client for the lease
+	 * @param view the view of the lease
+	 * @return the added lease
+	 */
+	private Lease addLeaseFromView(Client client, LeaseView view) {
+		RentalUnit unit = unitsByLocation.get(view.getUnitFloor() * 100 + view.getUnitRoom());
+		try {
+			Lease lease = unit.recordExistingLease(view.getConfirmationNumber(), client, 
+					view.getStart(), view.getEnd(), view.getOccupants());
+			client.addNewLease(lease);
+			leasesByNumber.put(lease.getConfirmationNumber(), lease);
+			return lease;
+		} catch (RentalDateException | RentalCapacityException e) {
+			throw new IllegalStateException("The fork does not fit the data");
+		}
+	}
+	
+	/**
+	 * Returns views of the leases of a rental unit, in order of start date
+	 * 
+	 * @param unit the rental unit
+	 * @return a view of each lease of the unit
+	 */
+	private static PersistentList<LeaseView> leaseViews(RentalUnit unit) {
+		ArrayList<LeaseView> views = new ArrayList<LeaseView>();
+		SimpleListIterator<Lease> it = unit.leaseIterator();
+		while (it.hasNext()) {
+			views.add(new LeaseView(it.next()));
+		}
+		return PersistentList.of(views.toArray(new LeaseView[views.size()]));
+	}
+	
+	/**
+	 * Returns views of the leases of a rental unit given their views before
+	 * some of the leases were made, changed or canceled. Each lease is 
+	 * found by its start day and confirmation number, which never change, 
+	 * and its view is replaced, added or dropped depending on whether it 
+	 * still holds its number.
+	 * 
+	 * @param previous the views of the unit's leases before the changes
+	 * @param changed the leases made, changed or canceled since
+	 * @return a view of each lease of the unit
+	 */
+	private PersistentList<LeaseView> leaseViews(PersistentList<LeaseView> previous, List<Lease> changed) {
+		PersistentList<LeaseView> views = previous;
+		for (Lease lease : changed) {
+			long key = ((long) lease.getStartDay() << 32) | (lease.getConfirmationNumber() & 0xFFFFFFFFL);
+			int position = views.search(PropertyFork::leaseKey, key);
+			if (leasesByNumber.get(lease.getConfirmationNumber()) != lease) {
+				if (position >= 0) {
+					views = views.remove(position);
+				}
+			} else if (position >= 0) {
+				views = views.set(position, new LeaseView(lease));
+			} else {
+				views = views.add(-position - 1, new LeaseView(lease));
+			}
+		}
+		return views;
+	}
+	
+	/**
+	 * Returns views of the leases of a client, in the order they were made
+	 * 
+	 * @param client the client
+	 * @return a view of each lease of the client
+	 */
+	private static LeaseView[] leaseViews(Client client) {
+		return leaseViews(client, NO_LEASE_VIEWS);
+	}
+	
+	/**
+	 * Returns views of the leases of a client, in the order they were made,
+	 * given the views of its leases before some were added to the end
+	 * 
+	 * @param client the client
+	 * @param previous the views of the client's first leases, which have 
+	 *        not changed since they were made
+	 * @return a view of each lease of the client
+	 */
+	private static LeaseView[] leaseViews(Client client, LeaseView[] previous) {
+		LeaseView[] views = Arrays.copyOf(previous, client.getLeaseCount());
+		for (int i = previous.length; i < views.length; i++) {
+			views[i] = new LeaseView(client.getLeaseAt(i));
+		}
+		return views;
+	}
+	
+	/**
+	 * Returns one page of the descriptions of the Landlord's rental units
+	 * that meet the filters currently in place. The page resumes right 
+	 * after the location saved in the cursor, so units added or closed 
+	 * elsewhere in the list do not shift it.
+	 * 
+	 * @param cursor the cursor returned with the previous page, or null 
+	 *        for the first page
+	 * @param limit the most units on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageRentalUnits(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		Map<Integer, RentalUnit> units = cursor == null ? unitsByLocation 
+				: unitsByLocation.tailMap((int) cursor.getKey(), false);
+		ArrayList<String> items = new ArrayList<String>();
+		int last = -1;
+		for (RentalUnit unit : units.values()) {
+			if (meetsFilters(unit)) {
+				if (items.size() == limit) {
+					return new Page<String>(items.toArray(new String[limit]), new PageCursor(last, -1));
+				}
+				items.add(unit.getDescription());
+				last = unitKey(unit);
+			}
+		}
+		return new Page<String>(items.toArray(new String[items.size()]), null);
+	}
+	
+	/**
+	 * Returns one page of the descriptions of the Landlord's clients. Clients
+	 * are only ever added at the end of the customer base, so the page 
+	 * resumes at the position saved in the cursor.
+	 * 
+	 * @param cursor the cursor returned with the previous page, or null 
+	 *        for the first page
+	 * @param limit the most clients on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClients(PageCursor cursor, int limit) {
+		checkLimit(limit);
+		int from = cursor == null ? 0 : cursor.getPosition() + 1;
+		int to = Math.min(customerBase.size(), from + limit);
+		String[] items = new String[Math.max(0, to - from)];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendClient(line, customerBase.get(from + i)).toString();
+		}
+		return new Page<String>(items, to < customerBase.size() ? new PageCursor(to - 1, to - 1) : null);
+	}
+	
+	/**
+	 * Returns one page of the descriptions of the leases of the client at the
+	 * given index. The cursor saves the sequence number of the last lease on
+	 * the page, and the next page resumes with the first lease the client
+	 * took after it, even if that lease or earlier ones have been canceled.
+	 * 
+	 * @param clientIndex Index of the client in the Landlord's customer base
+	 * @param cursor the cursor returned with the previous page, or null 
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if clientIndex is not a valid index or
+	 *         limit is less than 1
+	 */
+	@Override
+	public Page<String> pageClientLeases(int clientIndex, PageCursor cursor, int limit) {
+		if (clientIndex < 0 || clientIndex >= customerBase.size()) {
+			throw new IllegalArgumentException();
+		}
+		checkLimit(limit);
+		Client client = customerBase.get(clientIndex);
+		int from = cursor == null ? 0 : client.findLeaseAfter((int) cursor.getKey());
+		int to = Math.min(client.getLeaseCount(), from + limit);
+		String[] items = new String[Math.max(0, to - from)];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendClientLease(line, client.getLeaseAt(from + i)).toString();
+		}
+		PageCursor next = null;
+		if (to < client.getLeaseCount()) {
+			next = new PageCursor(client.getLeaseAt(to - 1).getSequence(), to - 1);
+		}
+		return new Page<String>(items, next);
+	}
+	
+	/**
+	 * Returns one page of the descriptions of the leases of the rental unit at
+	 * the given index in the filtered list of rental units. The page resumes 
+	 * right after the start date and confirmation number saved in the cursor,
+	 * found by a binary search over the unit's lease index.
+	 * 
+	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
+	 * @param cursor the cursor returned with the previous page, or null 
+	 *        for the first page
+	 * @param limit the most leases on the page
+	 * @return the page of descriptions
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration, or limit is less than 1
+	 */
+	@Override
+	public Page<String> pageLeasesForRentalUnit(int propertyIndex, PageCursor cursor, int limit) {
+		checkLimit(limit);
+		RentalUnit unit = getUnitAtFilteredIndex(propertyIndex);
+		Lease[] leases = cursor == null ? unit.leasesAfter(Integer.MIN_VALUE, 0, limit + 1)
+				: unit.leasesAfter((int) (cursor.getKey() >> 32), (int) cursor.getKey(), limit + 1);
+		String[] items = new String[Math.min(limit, leases.length)];
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < items.length; i++) {
+			line.setLength(0);
+			items[i] = RentalRenderer.appendUnitLease(line, leases[i]).toString();
+		}
+		PageCursor next = null;
+		if (leases.length > limit) {
+			Lease last = leases[limit - 1];
+			next = new PageCursor(((long) last.getStartDay() << 32) | (last.getConfirmationNumber() & 0xFFFFFFFFL), -1);
+		}
+		return new Page<String>(items, next);
+	}
+	
+	/**
+	 * Checks the size of a page
+	 * 
+	 * @param limit the most entries on a page
+	 * @throws IllegalArgumentException if limit is less than 1
+	 */
+	private static void checkLimit(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	/**
+	 * Returns the rental units that meet the filters currently in place,
+	 * in order of location.
+	 * 
+	 * @return the filtered rental units
+	 */
+	private ArrayList<RentalUnit> filteredUnits() {
+		ArrayList<RentalUnit> units = new ArrayList<RentalUnit>();
+		SimpleListIterator<RentalUnit> it = rooms.iterator();
+		while (it.hasNext()) {
+			RentalUnit unit = it.next();
+			if (meetsFilters(unit)) {
+				units.add(unit);
+			}
+		}
+		return units;
+	}
+	
+	/**
+	 * Returns whether a rental unit meets the filters currently in place
+	 * 
+	 * @param unit the rental unit to check
+	 * @return whether the unit meets the filters
+	 */
+	private boolean meetsFilters(RentalUnit unit) {
+		return (kindFilter.isEmpty() || unit.getKindLabel().equals(kindFilter))
+				&& (!inServiceFilter || unit.isInService());
+	}
+
+	
+	/**
+	 * Returns an array of Leases for a rental unit at a specified index in the 
+	 * filtered list of rental units.
+	 * 
+	 * @param propertyIndex Index of the targeted rental unit (subject to filtering)
+	 * @return an array of strings in which each string describes a lease for the
+	 *         targeted rental unit.
+	 * @throws IllegalArgumentException if propertyIndex is not a valid index for the 
+	 *         rental units currently under consideration
+	 */
+	@Override
+	public String[] listLeasesForRentalUnit(int propertyIndex) {
+		if (propertyIndex < 0 || propertyIndex >= filteredUnits().size()) {
+			throw new IllegalArgumentException();
+		}
+		long began = System.nanoTime();
+		ListingEvent event = new ListingEvent();
+		event.begin();
+		String[] leases = getUnitAtFilteredIndex(propertyIndex).listLeases();
+		if (event.shouldCommit()) {
+			event.finish(ListingEvent.UNIT_LEASES, leases.length);
+		}
+		metrics.listed(System.nanoTime() - began);
+		return leases;
+	}
+	
+	/**
+	 * Returns the rental unit at given location
+	 * 
+	 * @param location the location of the unit to be returned
+	 * @return the unit with the specified location
+	 * @throws IllegalArgumentException if there is no such rental
+	 *         unit
+	 */
+	public RentalUnit getUnitAtLocation(String location) {
+		RentalUnit unit = unitsByLocation.get(locationKey(location));
+		if (unit == null) {
+			throw new IllegalArgumentException();
+		}
+		return unit;
+	}
+	
+	/**
+	 * Sets filters for rental units so that only those that match the filters are considered.
+	 * 
+	 * @param kindFilter String type filter that rental units under consideration must meet
+	 * @param inServiceFilter boolean type filter that rental units under consideration must meet
+	 */
+	public void filterRentalUnits(String kindFilter, boolean inServiceFilter) {
+		if (kindFilter == null) {
+			throw new IllegalArgumentException();
+		}
+		this.kindFilter = kindLabel(kindFilter);
+		this.inServiceFilter = inServiceFilter;
+	}
+	
+	/**
+	 * Turns a filter for the kind of rental unit into the label of that 
+	 * kind, going by its first letter
+	 * 
+	 * @param kindFilter the filter, such as "Office" or "h"
+	 * @return the label of the kind, or an empty string if the filter is
+	 *         empty or names no kind
+	 */
+	static String kindLabel(String kindFilter) {
+		if (kindFilter.equals("")) {
+			return kindFilter;
+		}
+		char letter = kindFilter.trim().toLowerCase().charAt(0);
+		if (letter == 'c') {
+			return "Conference Room";
+		} else if (letter == 'h') {
+			return "Hotel Suite";
+		} else if (letter == 'o') {
+			return "Office";
+		}
+		return "";
+	}
+	
+	/**
+	 * Removes all lease, client, and rental unit data from 
+	 * the property manager and resets the lease confirmation 
+	 * numbering back to its first number. The maintenance calendar
+	 * is started over, so every scheduled maintenance window is
+	 * dropped; rental files do not hold windows, so loading a file
+	 * does not bring them back.
+	 */
+	@Override
+	public void flushAllData() {
+		this.customerBase = new SimpleArrayList<Client>();
+		this.clientsById = new HashMap<String, Client>();
+		this.rooms = new SortedLinkedListWithIterator<RentalUnit>();
+		this.maintenance = new MaintenanceScheduler(EARLIEST_DATE.minusDays(1), this::maintenanceChanged);
+		numbering.reset(numbering.getFirst());
+		this.leasesByNumber = new HashMap<Integer, Lease>();
+		this.unitsByLocation = new TreeMap<Integer, RentalUnit>();
+		pendingUnits.clear();
+		pendingClients.clear();
+		pendingClosed.clear();
+		unitViews = PersistentList.empty();
+		unitLeaseViews = PersistentList.empty();
+		clientViews = PersistentList.empty();
+		clientLeaseViews = PersistentList.empty();
+		clientPositions.clear();
+		staleLocations.clear();
+		staleLeases.clear();
+		staleClients.clear();
+		if (changedParts != null) {
+			changedParts.flushed();
+		}
+		recordChange(Change.DATA_FLUSHED, null, null);
+	}
+	
+	/**
+	 * Registers a listener to be told about every change to the data. Each
+	 * operation tells the listener once, after it is done, with all of its
+	 * changes in a single event.
+	 * 
+	 * @param listener the listener to register
+	 * @throws IllegalArgumentException if listener is null
+	 */
+	@Override
+	public void addRentalChangeListener(RentalChangeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Stops telling a listener about changes to the data. Does nothing if
+	 * the listener is not registered.
+	 * 
+	 * @param listener the listener to remove
+	 */
+	@Override
+	public void removeRentalChangeListener(RentalChangeListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * Starts an operation whose changes are batched into a single event
+	 */
+	private void beginChange() {
+		changeDepth++;
+	}
+	
+	/**
+	 * Ends an operation whose changes are batched, and once the outermost
+	 * operation has ended brings the snapshot up to date and tells the 
+	 * listeners about the changes.
+	 */
+	private void endChange() {
+		changeDepth--;
+		if (changeDepth == 0) {
+			takeSnapshot();
+			if (!pendingCounts.isEmpty()) {
+				fireChange();
+			}
+		}
+	}
+	
+	/**
+	 * Records a change to the data, marking the affected unit and client as
+	 * changed since the snapshot, and bringing the snapshot up to date and
+	 * telling the listeners right away unless an operation that batches its
+	 * changes is under way.
+	 * 
+	 * @param change the kind of change
+	 * @param unit the affected rental unit, or null if there is none
+	 * @param client the affected client, or null if there is none
+	 */
+	private void recordChange(Change change, RentalUnit unit, Client client) {
+		if (unit != null) {
+			staleLocations.add(unitKey(unit));
+		}
+		publishChange(change, unit, client);
+	}
+	
+	/**
+	 * Records a change to a single lease, marking only that lease of its 
+	 * unit as changed since the snapshot, so that the next snapshot replaces
+	 * its one view rather than those of all the unit's leases.
+	 * 
+	 * @param change the kind of change
+	 * @param lease the lease made, changed or canceled
+	 */
+	private void recordLeaseChange(Change change, Lease lease) {
+		staleLeases.computeIfAbsent(unitKey(lease.getProperty()), k -> new ArrayList<Lease>()).add(lease);
+		publishChange(change, lease.getProperty(), lease.getClient());
+	}
+	
+	/**
+	 * Counts a change that has already been marked for the snapshot, 
+	 * bringing the snapshot up to date and telling the listeners right 
+	 * away unless an operation that batches its changes is under way.
+	 * 
+	 * @param change the kind of change
+	 * @param unit the affected rental unit, or null if there is none
+	 * @param client the affected client, or null if there is none
+	 */
+	private void publishChange(Change change, RentalUnit unit, Client client) {
+		version++;
+		if (client != null) {
+			staleClients.merge(client, change != Change.LEASE_CREATED, Boolean::logicalOr);
+		}
+		if (changeDepth == 0) {
+			takeSnapshot();
+		}
+		if (listeners.isEmpty()) {
+			return;
+		}
+		pendingCounts.merge(change, 1, Integer::sum);
+		if (unit != null) {
+			pendingUnits.add(unit);
+		}
+		if (client != null) {
+			pendingClients.add(client);
+		}
+		if (changeDepth == 0) {
+			fireChange();
+		}
+	}
+	
+	/**
+	 * Lets go of a rental unit that has been closed, so that no later event
+	 * holds on to it, and marks its location so that the next snapshot 
+	 * drops its view.
+	 * 
+	 * @param unit the closed unit
+	 */
+	private void forgetUnit(RentalUnit unit) {
+		pendingUnits.remove(unit);
+		staleLocations.add(unitKey(unit));
+	}
+	
+	/**
+	 * Records the leases of a unit that would be cut back by removing it 
+	 * from service on the given date.
+	 * 
+	 * @param unit the unit about to be removed from service
+	 * @param start the date the unit is removed from service
+	 */
+	private void recordTruncations(RentalUnit unit, LocalDate start) {
+		for (Lease lease : new OutagePlan(new RentalUnit[] {unit}, start).getTruncatedLeases()) {
+			recordLeaseChange(Change.LEASE_TRUNCATED, lease);
+		}
+	}
+	
+	/**
+	 * Records a unit that the maintenance calendar closed or reopened
+	 * 
+	 * @param unit the unit
+	 */
+	private void maintenanceChanged(RentalUnit unit) {
+		recordChange(Change.UNIT_SERVICE_CHANGED, unit, null);
+	}
+	
+	/**
+	 * Turns the recorded changes into an event, with the affected units and
+	 * clients given as their current positions, and tells every listener.
+	 */
+	private void fireChange() {
+		int[] unitIndexes = new int[pendingUnits.size()];
+		int units = 0;
+		int index = 0;
+		SimpleListIterator<RentalUnit> it = rooms.iterator();
+		while (it.hasNext() && units < unitIndexes.length) {
+			RentalUnit unit = it.next();
+			if (meetsFilters(unit)) {
+				if (pendingUnits.contains(unit)) {
+					unitIndexes[units++] = index;
+				}
+				index++;
+			}
+		}
+		int[] clientIndexes = new int[pendingClients.size()];
+		int clients = 0;
+		for (int i = 0; i < customerBase.size() && clients < clientIndexes.length; i++) {
+			if (pendingClients.contains(customerBase.get(i))) {
+				clientIndexes[clients++] = i;
+			}
+		}
+		int[] closed = new int[pendingClosed.size()];
+		int c = 0;
+		for (int i : pendingClosed) {
+			closed[c++] = i;
+		}
+		RentalChangeEvent event = new RentalChangeEvent(pendingCounts, Arrays.copyOf(unitIndexes, units), 
+				closed, Arrays.copyOf(clientIndexes, clients));
+		pendingCounts = new EnumMap<Change, Integer>(Change.class);
+		pendingUnits.clear();
+		pendingClients.clear();
+		pendingClosed.clear();
+		for (RentalChangeListener listener : new ArrayList<RentalChangeListener>(listeners)) {
+			listener.rentalDataChanged(event);
+		}
+	}
+	
+	/**
+	 * A private helper method used to return the RentalUnit object
+	 * from the rooms list that matches the description of the rental 
+	 * unit at the propertyIndex.
+	 * 
+	 * @param propertyIndex Index of the rental unit in the filtered 
+	 * 		  list of rental units
+	 * @return The RentalUnit object from the rooms list at the 
+	 *         propertyIndex among the units that meet the filters
+	 * @throws IllegalArgumentException if propertyIndex is not a valid
+	 *         index for the rental units currently under consideration
+	 */
+	private RentalUnit getUnitAtFilteredIndex(int propertyIndex) {
+		int index = 0;
+		SimpleListIterator<RentalUnit> it = rooms.iterator();
+		while (it.hasNext()) {
+			RentalUnit unit = it.next();
+			if (meetsFilters(unit)) {
+				if (index == propertyIndex) {
+					return unit;
+				}
+				index++;
 			}
 		}
 		throw new IllegalArgumentException();
 	}
+
 }
@@ -0,0 +1,135 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Set;
+
+/**
+ * The RentalChangeEvent class describes every change made to the data by
+ * one PropertyManager operation. Changes of the same kind are coalesced 
+ * into a count, so an operation that cancels hundreds of Leases still 
+ * produces a single event, and the affected rental units and clients are
+ * given as their positions in the lists the PropertyManager reports.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalChangeEvent {
+
+	/**
+	 * The Change enumeration lists the kinds of change an event can carry.
+	 * 
+	 * @author Alex Raum, Walker Clem
+	 */
+	public enum Change {
+		/** a rental unit was added */
+		UNIT_ADDED,
+		/** a rental unit was closed and removed */
+		UNIT_CLOSED,
+		/** a rental unit was taken out of service or returned to service */
+		UNIT_SERVICE_CHANGED,
+		/** a maintenance window was scheduled for a rental unit */
+		MAINTENANCE_SCHEDULED,
+		/** a client was added */
+		CLIENT_ADDED,
+		/** a lease was created */
+		LEASE_CREATED,
+		/** a lease was canceled */
+		LEASE_CANCELED,
+		/** a lease was cut back to an earlier end date */
+		LEASE_TRUNCATED,
+		/** a lease was extended to a later end date */
+		LEASE_EXTENDED,
+		/** all data was removed */
+		DATA_FLUSHED
+	}
+	
+	/** the number of changes of each kind */
+	private EnumMap<Change, Integer> counts;
+	/** the filtered positions of the affected rental units after the change */
+	private int[] unitIndexes;
+	/** the filtered positions the closed rental units had before they were removed */
+	private int[] closedUnitIndexes;
+	/** the positions of the affected clients */
+	private int[] clientIndexes;
+	
+	/**
+	 * Constructs a RentalChangeEvent. Landlords that do not know where the
+	 * affected units or clients are may leave the positions empty.
+	 * 
+	 * @param counts the number of changes of each kind
+	 * @param unitIndexes the filtered positions of the affected rental units, in
+	 *        ascending order
+	 * @param closedUnitIndexes the filtered positions of the closed rental units
+	 *        before they were removed, in ascending order
+	 * @param clientIndexes the positions of the affected clients, in ascending order
+	 */
+	public RentalChangeEvent(EnumMap<Change, Integer> counts, int[] unitIndexes, int[] closedUnitIndexes, int[] clientIndexes) {
+		this.counts = counts;
+		this.unitIndexes = unitIndexes;
+		this.closedUnitIndexes = closedUnitIndexes;
+		this.clientIndexes = clientIndexes;
+	}
+	
+	/**
+	 * Gets the kinds of change in the event
+	 * 
+	 * @return the kinds of change
+	 */
+	public Set<Change> getChanges() {
+		return Collections.unmodifiableSet(counts.keySet());
+	}
+	
+	/**
+	 * Returns whether the event has any change of the given kind
+	 * 
+	 * @param change the kind of change
+	 * @return whether the event has that kind of change
+	 */
+	public boolean contains(Change change) {
+		return counts.containsKey(change);
+	}
+	
+	/**
+	 * Gets the number of changes of the given kind
+	 * 
+	 * @param change the kind of change
+	 * @return the number of changes of that kind
+	 */
+	public int getCount(Change change) {
+		Integer count = counts.get(change);
+		return count == null ? 0 : count;
+	}
+	
+	/**
+	 * Gets the positions, in the filtered list of rental units as it is after
+	 * the change, of the rental units that were added or changed or whose
+	 * leases changed. Units that do not meet the filters are left out.
+	 * 
+	 * @return the positions of the affected rental units, in ascending order
+	 */
+	public int[] getUnitIndexes() {
+		return unitIndexes.clone();
+	}
+	
+	/**
+	 * Gets the positions that the closed rental units had in the filtered 
+	 * list of rental units before they were removed
+	 * 
+	 * @return the positions of the closed rental units, in ascending order
+	 */
+	public int[] getClosedUnitIndexes() {
+		return closedUnitIndexes.clone();
+	}
+	
+	/**
+	 * Gets the positions of the clients that were added or whose leases changed
+	 * 
+	 * @return the positions of the affected clients, in ascending order
+	 */
+	public int[] getClientIndexes() {
+		return clientIndexes.clone();
+	}
+}
@@ -0,0 +1,22 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+/**
+ * The RentalChangeListener interface is implemented by anything that keeps
+ * its own copy of the PropertyManager's data, such as a user interface or
+ * a cache, and wants to update only the parts affected by each change.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public interface RentalChangeListener {
+
+	/**
+	 * Called once at the end of each operation that changed the data, with
+	 * every change the operation made coalesced into a single event.
+	 * 
+	 * @param event the changes made by the operation
+	 */
+	void rentalDataChanged(RentalChangeEvent event);
+}
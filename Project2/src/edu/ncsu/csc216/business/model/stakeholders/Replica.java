@@ -0,0 +1,258 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+
+/**
+ * The Replica class keeps a PropertyManager of its own up to date with a
+ * primary manager by applying the changes its ReplicationFeed streams.
+ * Each message is applied as a single change, so the replica's data is
+ * always as the primary's was at some moment, and leases keep their
+ * confirmation numbers. The units' maintenance windows, the calendar and
+ * the next confirmation number come along with the data. While it follows the primary, the replica only
+ * answers reads. If the primary goes away, promote() hands over the
+ * manager, already holding all of the data that arrived, so it can take
+ * over right away without reloading anything. How far the replica is
+ * behind is measured as the time from a change on the primary to when the
+ * replica applied it.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class Replica implements Closeable {
+
+	/** the replica's own manager */
+	private PropertyManager manager;
+	/** the connection to the primary's feed */
+	private Socket socket;
+	/** the thread applying changes */
+	private Thread follower;
+	/** whether the replica is still receiving changes */
+	private boolean following;
+	/** whether the manager has been handed over */
+	private boolean promoted;
+	/** the sequence number of the last change applied, or -1 before the first */
+	private long appliedSequence = -1;
+	/** the lag of the last change applied, in nanoseconds */
+	private long lag;
+	/** the largest lag of any change applied, in nanoseconds */
+	private long maxLag;
+
+	/**
+	 * Connects to the feed of a primary manager and starts following it
+	 *
+	 * @param host the host of the primary
+	 * @param port the port of the primary's feed
+	 * @throws IOException if the feed cannot be reached
+	 */
+	public Replica(String host, int port) throws IOException {
+		this.manager = new PropertyManager();
+		this.socket = new Socket(host, port);
+		this.following = true;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		follower = new Thread(() -> follow(in), "replica");
+		follower.setDaemon(true);
+		follower.start();
+	}
+
+	/**
+	 * Applies the primary's changes until the connection ends
+	 *
+	 * @param in the stream from the primary
+	 */
+	private void follow(DataInputStream in) {
+		try {
+			while (true) {
+				long sequence = in.readLong();
+				long changedAt = in.readLong();
+				boolean reset = in.readBoolean();
+				PropertyDiff diff = ReplicationProtocol.readDiff(in);
+				UnitSchedule[] schedules = ReplicationProtocol.readSchedules(in);
+				LocalDate today = LocalDate.ofEpochDay(in.readLong());
+				int nextNumber = in.readInt();
+				synchronized (this) {
+					manager.applyReplicated(diff, reset, schedules, today, nextNumber);
+					appliedSequence = sequence;
+					lag = Math.max(0, ReplicationProtocol.now() - changedAt);
+					maxLag = Math.max(maxLag, lag);
+					notifyAll();
+				}
+			}
+		} catch (IOException | IllegalStateException e) {
+			// the primary went away, the replica was closed or the changes did not fit
+		} finally {
+			synchronized (this) {
+				following = false;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the replica's data
+	 *
+	 * @return the snapshot
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	public synchronized RentalSnapshot snapshot() {
+		checkNotPromoted();
+		return manager.snapshot();
+	}
+
+	/**
+	 * Lists the replica's rental units, as PropertyManager.listRentalUnits()
+	 *
+	 * @return the descriptions of the units
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	public synchronized String[] listRentalUnits() {
+		checkNotPromoted();
+		return manager.listRentalUnits();
+	}
+
+	/**
+	 * Lists the replica's clients, as PropertyManager.listClients()
+	 *
+	 * @return the descriptions of the clients
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	public synchronized String[] listClients() {
+		checkNotPromoted();
+		return manager.listClients();
+	}
+
+	/**
+	 * Lists the leases of a client of the replica, as
+	 * PropertyManager.listClientLeases(int)
+	 *
+	 * @param clientIndex the position of the client
+	 * @return the descriptions of the client's leases
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	public synchronized String[] listClientLeases(int clientIndex) {
+		checkNotPromoted();
+		return manager.listClientLeases(clientIndex);
+	}
+
+	/**
+	 * Lists the leases of a rental unit of the replica, as
+	 * PropertyManager.listLeasesForRentalUnit(int)
+	 *
+	 * @param propertyIndex the position of the unit
+	 * @return the descriptions of the unit's leases
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	public synchronized String[] listLeasesForRentalUnit(int propertyIndex) {
+		checkNotPromoted();
+		return manager.listLeasesForRentalUnit(propertyIndex);
+	}
+
+	/**
+	 * Gets the sequence number of the last change applied, which can be
+	 * compared with the primary feed's getSequence()
+	 *
+	 * @return the sequence number, or -1 if no data has arrived yet
+	 */
+	public synchronized long getAppliedSequence() {
+		return appliedSequence;
+	}
+
+	/**
+	 * Gets the time from the last change applied being made on the primary
+	 * to it being applied here
+	 *
+	 * @return the lag in nanoseconds
+	 */
+	public synchronized long getLagNanos() {
+		return lag;
+	}
+
+	/**
+	 * Gets the largest lag of any change applied
+	 *
+	 * @return the largest lag in nanoseconds
+	 */
+	public synchronized long getMaxLagNanos() {
+		return maxLag;
+	}
+
+	/**
+	 * Returns whether the replica is still receiving the primary's changes
+	 *
+	 * @return whether the connection to the primary is open
+	 */
+	public synchronized boolean isFollowing() {
+		return following;
+	}
+
+	/**
+	 * Waits until the change with the given sequence number has been
+	 * applied, or the primary has gone away
+	 *
+	 * @param sequence the sequence number to wait for
+	 * @param timeoutMillis the longest time to wait, in milliseconds
+	 * @return whether the change was applied in time
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public synchronized boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long left = timeoutMillis;
+		while (appliedSequence < sequence && following && left > 0) {
+			wait(left);
+			left = deadline - System.currentTimeMillis();
+		}
+		return appliedSequence >= sequence;
+	}
+
+	/**
+	 * Stops following the primary and hands over the manager, which holds
+	 * every change that was fully received. The replica answers no more
+	 * reads afterwards, as the manager is now the caller's to change.
+	 *
+	 * @return the manager
+	 * @throws IllegalStateException if the replica has already been promoted
+	 */
+	public PropertyManager promote() {
+		synchronized (this) {
+			checkNotPromoted();
+			promoted = true;
+		}
+		close();
+		return manager;
+	}
+
+	/**
+	 * Stops following the primary, waiting for the thread applying changes
+	 * to finish
+	 */
+	@Override
+	public void close() {
+		try {
+			socket.close();
+			follower.join();
+		} catch (IOException e) {
+			// nothing more can be done
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Throws if the manager has been handed over
+	 *
+	 * @throws IllegalStateException if the replica has been promoted
+	 */
+	private void checkNotPromoted() {
+		if (promoted) {
+			throw new IllegalStateException("The replica has been promoted");
+		}
+	}
+}
@@ -0,0 +1,418 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ReplicationFeed class streams every change made to a primary
+ * PropertyManager to the Replicas that connect to it over a socket on the
+ * local host. It listens for the manager's change events and takes a
+ * snapshot after each one, which is cheap since a snapshot only copies the
+ * units and clients that changed, along with which units and clients those
+ * were. A thread of its own then compares just those units and clients in
+ * the latest snapshot and the last one it sent, and sends the difference
+ * to every replica, so the operations on the manager never wait for the
+ * network and the work per change does not grow with the size of the data.
+ * Each changed unit's maintenance windows and whether it takes leases go
+ * along with the difference, as do the maintenance calendar's day and the
+ * next confirmation number, so a promoted replica books as the primary 
+ * would. When changes come faster than they can be sent, the ones that
+ * piled up are sent together as one difference. A replica that connects
+ * is first sent all of the data the others have been sent, then follows
+ * along with them.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class ReplicationFeed implements Closeable, RentalChangeListener {
+
+	/** the snapshot of no data, that the first message to a replica is made from */
+	private static final RentalSnapshot EMPTY = new RentalSnapshot(new UnitView[0], new LeaseView[0][],
+			new ClientView[0], new LeaseView[0][]);
+	/** the manager whose changes are sent */
+	private PropertyManager manager;
+	/** guards the fields below it and is waited on by the sending thread */
+	private final Object lock = new Object();
+	/** the snapshot taken after the latest change */
+	private RentalSnapshot latest;
+	/** the units and clients changed since the last snapshot sent */
+	private ChangedParts pending = new ChangedParts();
+	/** the latest schedules of the units changed since the last snapshot sent, keyed by location */
+	private TreeMap<Integer, UnitSchedule> changedSchedules = new TreeMap<Integer, UnitSchedule>();
+	/** the latest schedule of every unit with windows or removed from service, keyed by location */
+	private TreeMap<Integer, UnitSchedule> schedules = new TreeMap<Integer, UnitSchedule>();
+	/** the day the manager's maintenance calendar had reached at the latest change */
+	private LocalDate today;
+	/** the next confirmation number the manager handed out at the latest change */
+	private int nextNumber;
+	/** the number of changes made since the feed started */
+	private long sequence;
+	/** the time of the latest change, in nanoseconds from the epoch */
+	private long changedAt;
+	/** the sequence number of the last change sent to the replicas */
+	private long shipped;
+	/** the replicas that connected and have not been sent any data yet */
+	private ArrayList<Socket> joining = new ArrayList<Socket>();
+	/** the number of replicas being sent changes */
+	private int replicaCount;
+	/** whether the feed is stopping */
+	private boolean closed;
+	/** the listening socket, or null if the feed is not started */
+	private ServerSocket listener;
+	/** the thread accepting replicas */
+	private Thread acceptor;
+	/** the thread sending changes */
+	private Thread sender;
+
+	/**
+	 * Constructs a feed for the given manager
+	 *
+	 * @param manager the primary manager
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public ReplicationFeed(PropertyManager manager) {
+		if (manager == null) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+	}
+
+	/**
+	 * Starts listening for replicas on the given port of the local host and
+	 * sending them the manager's changes. The manager must not be changed
+	 * while the feed starts.
+	 *
+	 * @param port the port, or 0 for any free port
+	 * @return the port the feed listens on
+	 * @throws IOException if the port cannot be bound
+	 * @throws IllegalStateException if the feed is already started
+	 */
+	public int start(int port) throws IOException {
+		if (listener != null) {
+			throw new IllegalStateException();
+		}
+		listener = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+		manager.collectChanges();
+		synchronized (lock) {
+			latest = manager.snapshot();
+			for (int i = 0; i < latest.getUnitCount(); i++) {
+				UnitView unit = latest.getUnit(i);
+				UnitSchedule schedule = manager.scheduleOf(unit.getFloor() * 100 + unit.getRoom());
+				if (!schedule.isPlain()) {
+					schedules.put(schedule.getLocation(), schedule);
+				}
+			}
+			today = manager.getCalendarDay();
+			nextNumber = manager.peekConfirmationNumber();
+			changedAt = ReplicationProtocol.now();
+		}
+		manager.addRentalChangeListener(this);
+		acceptor = new Thread(this::accept, "replication-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		sender = new Thread(this::send, "replication-send");
+		sender.setDaemon(true);
+		sender.start();
+		return listener.getLocalPort();
+	}
+
+	/**
+	 * Stops sending changes and disconnects every replica, waiting for the
+	 * feed's threads to finish. Changes not yet sent are not sent. Does
+	 * nothing if the feed is not started.
+	 */
+	@Override
+	public void close() {
+		if (listener == null) {
+			return;
+		}
+		manager.removeRentalChangeListener(this);
+		manager.stopCollectingChanges();
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			listener.close();
+			acceptor.join();
+			sender.join();
+		} catch (IOException e) {
+			// nothing more can be done
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		listener = null;
+	}
+
+	/**
+	 * Takes a snapshot of the manager after a change, along with the units
+	 * and clients it changed and the schedules of those units, and wakes 
+	 * the sending thread. Called on the thread that changed the manager.
+	 *
+	 * @param event the changes
+	 */
+	@Override
+	public void rentalDataChanged(RentalChangeEvent event) {
+		RentalSnapshot snapshot = manager.snapshot();
+		ChangedParts parts = manager.collectChanges();
+		ArrayList<UnitSchedule> changed = new ArrayList<UnitSchedule>();
+		for (int location : parts.getLocations()) {
+			UnitSchedule schedule = manager.scheduleOf(location);
+			if (schedule != null) {
+				changed.add(schedule);
+			}
+		}
+		LocalDate day = manager.getCalendarDay();
+		int next = manager.peekConfirmationNumber();
+		long now = ReplicationProtocol.now();
+		synchronized (lock) {
+			latest = snapshot;
+			pending.addAll(parts);
+			if (parts.isFlushed()) {
+				changedSchedules.clear();
+				schedules.clear();
+			}
+			for (int location : parts.getLocations()) {
+				// a closed unit has no schedule left to send
+				changedSchedules.remove(location);
+				schedules.remove(location);
+			}
+			for (UnitSchedule schedule : changed) {
+				changedSchedules.put(schedule.getLocation(), schedule);
+				if (!schedule.isPlain()) {
+					schedules.put(schedule.getLocation(), schedule);
+				}
+			}
+			today = day;
+			nextNumber = next;
+			changedAt = now;
+			sequence++;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Gets the number of changes made to the manager since the feed started
+	 *
+	 * @return the sequence number of the latest change
+	 */
+	public long getSequence() {
+		synchronized (lock) {
+			return sequence;
+		}
+	}
+
+	/**
+	 * Gets the sequence number of the last change sent to the replicas. The
+	 * difference from getSequence() is how many changes the replicas are
+	 * behind by at least.
+	 *
+	 * @return the sequence number of the last change sent
+	 */
+	public long getShippedSequence() {
+		synchronized (lock) {
+			return shipped;
+		}
+	}
+
+	/**
+	 * Gets the number of replicas connected to the feed
+	 *
+	 * @return the number of replicas
+	 */
+	public int getReplicaCount() {
+		synchronized (lock) {
+			return replicaCount + joining.size();
+		}
+	}
+
+	/**
+	 * Accepts replicas until the listening socket is closed
+	 */
+	private void accept() {
+		try {
+			while (true) {
+				Socket socket = listener.accept();
+				socket.setTcpNoDelay(true);
+				synchronized (lock) {
+					if (closed) {
+						disconnect(socket);
+					} else {
+						joining.add(socket);
+						lock.notifyAll();
+					}
+				}
+			}
+		} catch (IOException e) {
+			// the feed is stopping
+		}
+	}
+
+	/**
+	 * Sends changes to the replicas until the feed is closed. Each pass
+	 * sends whatever changed since the last pass as one message, then sends
+	 * all the data sent so far to any replicas that have joined. All the
+	 * data is also sent to every replica after the manager's data was 
+	 * flushed, as the changes cannot be told apart from what went before.
+	 */
+	private void send() {
+		ArrayList<DataOutputStream> replicas = new ArrayList<DataOutputStream>();
+		RentalSnapshot sent;
+		synchronized (lock) {
+			sent = latest;
+		}
+		try {
+			while (true) {
+				RentalSnapshot current;
+				ChangedParts parts;
+				UnitSchedule[] changed;
+				UnitSchedule[] every = null;
+				LocalDate day;
+				int next;
+				long number;
+				long time;
+				ArrayList<Socket> joined;
+				synchronized (lock) {
+					while (!closed && sequence == shipped && joining.isEmpty()) {
+						lock.wait();
+					}
+					if (closed) {
+						break;
+					}
+					current = latest;
+					parts = pending;
+					pending = new ChangedParts();
+					changed = changedSchedules.values().toArray(new UnitSchedule[changedSchedules.size()]);
+					changedSchedules.clear();
+					if (parts.isFlushed() || !joining.isEmpty()) {
+						every = schedules.values().toArray(new UnitSchedule[schedules.size()]);
+					}
+					day = today;
+					next = nextNumber;
+					number = sequence;
+					time = changedAt;
+					joined = joining;
+					joining = new ArrayList<Socket>();
+				}
+				if (current != sent || changed.length > 0) {
+					boolean reset = parts.isFlushed();
+					PropertyDiff diff = reset ? new PropertyDiff(EMPTY, current) : parts.diff(sent, current);
+					Iterator<DataOutputStream> it = replicas.iterator();
+					while (it.hasNext()) {
+						if (!deliver(it.next(), number, time, reset, diff, reset ? every : changed, day, next)) {
+							it.remove();
+						}
+					}
+					sent = current;
+				}
+				if (!joined.isEmpty()) {
+					ArrayList<DataOutputStream> added = new ArrayList<DataOutputStream>();
+					for (Socket socket : joined) {
+						DataOutputStream out = connect(socket);
+						if (out != null) {
+							added.add(out);
+						}
+					}
+					replicas.addAll(added);
+					synchronized (lock) {
+						// counted before the data goes out, so a replica that has caught up is counted
+						replicaCount = replicas.size();
+					}
+					PropertyDiff all = new PropertyDiff(EMPTY, sent);
+					for (DataOutputStream out : added) {
+						if (!deliver(out, number, ReplicationProtocol.now(), true, all, every, day, next)) {
+							replicas.remove(out);
+						}
+					}
+				}
+				synchronized (lock) {
+					shipped = number;
+					replicaCount = replicas.size();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			for (DataOutputStream out : replicas) {
+				disconnect(out);
+			}
+			synchronized (lock) {
+				for (Socket socket : joining) {
+					disconnect(socket);
+				}
+				joining.clear();
+				replicaCount = 0;
+			}
+		}
+	}
+
+	/**
+	 * Opens the stream to a replica that has joined, disconnecting it if
+	 * the stream cannot be opened
+	 *
+	 * @param socket the replica's socket
+	 * @return the stream, or null if the replica was disconnected
+	 */
+	private static DataOutputStream connect(Socket socket) {
+		try {
+			return new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		} catch (IOException e) {
+			disconnect(socket);
+			return null;
+		}
+	}
+
+	/**
+	 * Sends a message to a replica, disconnecting it if it cannot be sent
+	 *
+	 * @param out the stream to the replica
+	 * @param number the sequence number of the last change in the message
+	 * @param time the time of the last change in the message
+	 * @param reset whether the message holds all the data
+	 * @param diff the changes
+	 * @param schedules the schedules of the changed units
+	 * @param today the day the maintenance calendar had reached
+	 * @param nextNumber the next confirmation number
+	 * @return whether the message was sent
+	 */
+	private static boolean deliver(DataOutputStream out, long number, long time, boolean reset, PropertyDiff diff,
+			UnitSchedule[] schedules, LocalDate today, int nextNumber) {
+		try {
+			ReplicationProtocol.write(out, number, time, reset, diff, schedules, today, nextNumber);
+			out.flush();
+			return true;
+		} catch (IOException e) {
+			disconnect(out);
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the connection to a replica
+	 *
+	 * @param out the replica's stream or socket
+	 */
+	private static void disconnect(Closeable out) {
+		try {
+			out.close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+}
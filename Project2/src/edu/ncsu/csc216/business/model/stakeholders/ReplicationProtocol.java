@@ -0,0 +1,223 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The ReplicationProtocol class holds the messages a ReplicationFeed sends
+ * to its Replicas. Each message is one PropertyDiff in binary, after the
+ * sequence number of the last change it covers, the time that change was
+ * made in nanoseconds from the epoch, and whether the replica must throw
+ * its data away first. Each part of the diff is a count followed by that
+ * many views, each a fixed series of fields. The diff is followed by the
+ * schedules of the changed units, the day the maintenance calendar has 
+ * reached and the next confirmation number, which the views leave out.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+class ReplicationProtocol {
+
+	/**
+	 * Not used, the class only has static members
+	 */
+	private ReplicationProtocol() {
+		// no instances
+	}
+
+	/**
+	 * Gets the current time as a count of nanoseconds from the epoch, which
+	 * unlike System.nanoTime() is the same for every process on a machine
+	 *
+	 * @return the current time
+	 */
+	static long now() {
+		Instant now = Instant.now();
+		return now.getEpochSecond() * 1000000000L + now.getNano();
+	}
+
+	/**
+	 * Writes a message
+	 *
+	 * @param out the stream to write to
+	 * @param sequence the sequence number of the last change in the message
+	 * @param changedAt the time of the last change in the message
+	 * @param reset whether the message holds all the data rather than changes
+	 * @param diff the changes
+	 * @param schedules the schedules of the changed units
+	 * @param today the day the maintenance calendar has reached
+	 * @param nextNumber the next confirmation number to be handed out
+	 * @throws IOException if the message cannot be written
+	 */
+	static void write(DataOutputStream out, long sequence, long changedAt, boolean reset, PropertyDiff diff,
+			UnitSchedule[] schedules, LocalDate today, int nextNumber) throws IOException {
+		out.writeLong(sequence);
+		out.writeLong(changedAt);
+		out.writeBoolean(reset);
+		writeUnits(out, diff.getAddedUnits());
+		writeUnits(out, diff.getClosedUnits());
+		writeUnits(out, diff.getServiceChangedUnits());
+		writeClients(out, diff.getAddedClients());
+		writeClients(out, diff.getRemovedClients());
+		writeLeases(out, diff.getCreatedLeases());
+		writeLeases(out, diff.getCanceledLeases());
+		writeLeases(out, diff.getChangedLeases());
+		out.writeInt(schedules.length);
+		for (UnitSchedule schedule : schedules) {
+			out.writeInt(schedule.getLocation());
+			out.writeBoolean(schedule.isBookable());
+			int[] days = schedule.getWindowDays();
+			out.writeInt(days.length);
+			for (int day : days) {
+				out.writeInt(day);
+			}
+		}
+		out.writeLong(today.toEpochDay());
+		out.writeInt(nextNumber);
+	}
+
+	/**
+	 * Reads the changes of a message whose sequence number, time and reset
+	 * flag have been read
+	 *
+	 * @param in the stream to read from
+	 * @return the changes
+	 * @throws IOException if the message cannot be read
+	 */
+	static PropertyDiff readDiff(DataInputStream in) throws IOException {
+		return new PropertyDiff(readUnits(in), readUnits(in), readUnits(in), readClients(in), readClients(in),
+				readLeases(in), readLeases(in), readLeases(in));
+	}
+
+	/**
+	 * Reads the schedules of the changed units, which follow the diff
+	 *
+	 * @param in the stream to read from
+	 * @return the schedules
+	 * @throws IOException if the schedules cannot be read
+	 */
+	static UnitSchedule[] readSchedules(DataInputStream in) throws IOException {
+		UnitSchedule[] schedules = new UnitSchedule[in.readInt()];
+		for (int i = 0; i < schedules.length; i++) {
+			int location = in.readInt();
+			boolean bookable = in.readBoolean();
+			int[] days = new int[in.readInt()];
+			for (int j = 0; j < days.length; j++) {
+				days[j] = in.readInt();
+			}
+			schedules[i] = new UnitSchedule(location, bookable, days);
+		}
+		return schedules;
+	}
+
+	/**
+	 * Writes rental units
+	 *
+	 * @param out the stream to write to
+	 * @param units the units
+	 * @throws IOException if the units cannot be written
+	 */
+	private static void writeUnits(DataOutputStream out, UnitView[] units) throws IOException {
+		out.writeInt(units.length);
+		for (UnitView unit : units) {
+			out.writeUTF(unit.getKindLabel());
+			out.writeByte(unit.getFloor());
+			out.writeByte(unit.getRoom());
+			out.writeInt(unit.getCapacity());
+			out.writeBoolean(unit.isInService());
+		}
+	}
+
+	/**
+	 * Reads rental units
+	 *
+	 * @param in the stream to read from
+	 * @return the units
+	 * @throws IOException if the units cannot be read
+	 */
+	private static UnitView[] readUnits(DataInputStream in) throws IOException {
+		UnitView[] units = new UnitView[in.readInt()];
+		for (int i = 0; i < units.length; i++) {
+			units[i] = new UnitView(in.readUTF(), in.readByte(), in.readByte(), in.readInt(), in.readBoolean());
+		}
+		return units;
+	}
+
+	/**
+	 * Writes clients
+	 *
+	 * @param out the stream to write to
+	 * @param clients the clients
+	 * @throws IOException if the clients cannot be written
+	 */
+	private static void writeClients(DataOutputStream out, ClientView[] clients) throws IOException {
+		out.writeInt(clients.length);
+		for (ClientView client : clients) {
+			out.writeUTF(client.getName());
+			out.writeUTF(client.getId());
+			out.writeInt(client.getLeaseCount());
+		}
+	}
+
+	/**
+	 * Reads clients
+	 *
+	 * @param in the stream to read from
+	 * @return the clients
+	 * @throws IOException if the clients cannot be read
+	 */
+	private static ClientView[] readClients(DataInputStream in) throws IOException {
+		ClientView[] clients = new ClientView[in.readInt()];
+		for (int i = 0; i < clients.length; i++) {
+			clients[i] = new ClientView(in.readUTF(), in.readUTF(), in.readInt());
+		}
+		return clients;
+	}
+
+	/**
+	 * Writes leases
+	 *
+	 * @param out the stream to write to
+	 * @param leases the leases
+	 * @throws IOException if the leases cannot be written
+	 */
+	private static void writeLeases(DataOutputStream out, LeaseView[] leases) throws IOException {
+		out.writeInt(leases.length);
+		for (LeaseView lease : leases) {
+			out.writeInt(lease.getConfirmationNumber());
+			out.writeInt(lease.getStartDay());
+			out.writeInt(lease.getEndDay());
+			out.writeInt(lease.getOccupants());
+			out.writeUTF(lease.getUnitKindLabel());
+			out.writeByte(lease.getUnitFloor());
+			out.writeByte(lease.getUnitRoom());
+			out.writeUTF(lease.getClientName());
+			out.writeUTF(lease.getClientId());
+		}
+	}
+
+	/**
+	 * Reads leases
+	 *
+	 * @param in the stream to read from
+	 * @return the leases
+	 * @throws IOException if the leases cannot be read
+	 */
+	private static LeaseView[] readLeases(DataInputStream in) throws IOException {
+		LeaseView[] leases = new LeaseView[in.readInt()];
+		for (int i = 0; i < leases.length; i++) {
+			leases[i] = new LeaseView(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readUTF(),
+					in.readByte(), in.readByte(), in.readUTF(), in.readUTF());
+		}
+		return leases;
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The ReservationAlternatives class holds the suggestions offered to a
+ * Client whose reservation was rejected: the earliest start dates that
+ * are still open on the requested RentalUnit, and the nearest equivalent
+ * RentalUnits that are open on the requested dates.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ReservationAlternatives {
+
+	/** the feasible start dates on the requested unit */
+	private LocalDate[] startDates;
+	/** the nearest equivalent units that are open on the requested dates */
+	private RentalUnit[] units;
+	
+	/**
+	 * Constructor for ReservationAlternatives
+	 * 
+	 * @param startDates the feasible start dates on the requested unit
+	 * @param units the nearest equivalent units, closest first
+	 */
+	public ReservationAlternatives(LocalDate[] startDates, RentalUnit[] units) {
+		this.startDates = startDates;
+		this.units = units;
+	}
+	
+	/**
+	 * Gets the feasible start dates on the requested unit
+	 * 
+	 * @return the start dates in ascending order
+	 */
+	public LocalDate[] getStartDates() {
+		return this.startDates;
+	}
+	
+	/**
+	 * Gets the nearest equivalent units that are open on the
+	 * requested dates
+	 * 
+	 * @return the units, closest first
+	 */
+	public RentalUnit[] getUnits() {
+		return this.units;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import edu.ncsu.csc216.business.model.properties.MaintenanceWindow;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The UnitSchedule class holds what a UnitView leaves out of a rental
+ * unit's state: whether the unit takes new leases at all and the
+ * maintenance windows it has scheduled. A replica needs both to book the
+ * unit the way its primary would once it is promoted.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+class UnitSchedule {
+
+	/** the floor of the unit times 100 plus its room */
+	private final int location;
+	/** whether the unit has not been removed from service */
+	private final boolean bookable;
+	/** the first and last day of each window, in order of start, as days from the epoch */
+	private final int[] windowDays;
+
+	/**
+	 * Constructs the schedule of a unit
+	 *
+	 * @param location the floor of the unit times 100 plus its room
+	 * @param bookable whether the unit has not been removed from service
+	 * @param windowDays the first and last day of each window, in order
+	 *        of start, as days from the epoch
+	 */
+	UnitSchedule(int location, boolean bookable, int[] windowDays) {
+		this.location = location;
+		this.bookable = bookable;
+		this.windowDays = windowDays;
+	}
+
+	/**
+	 * Gets the schedule of a unit as it is now
+	 *
+	 * @param unit the unit
+	 * @return the schedule
+	 */
+	static UnitSchedule of(RentalUnit unit) {
+		MaintenanceWindow[] windows = unit.getMaintenanceWindows();
+		int[] days = new int[windows.length * 2];
+		for (int i = 0; i < windows.length; i++) {
+			days[2 * i] = (int) windows[i].getStart().toEpochDay();
+			days[2 * i + 1] = (int) windows[i].getEnd().toEpochDay();
+		}
+		return new UnitSchedule(unit.getFloor() * 100 + unit.getRoom(), unit.isBookable(), days);
+	}
+
+	/**
+	 * Gets the location of the unit
+	 *
+	 * @return the floor of the unit times 100 plus its room
+	 */
+	int getLocation() {
+		return location;
+	}
+
+	/**
+	 * Returns whether the unit has not been removed from service
+	 *
+	 * @return whether the unit takes new leases
+	 */
+	boolean isBookable() {
+		return bookable;
+	}
+
+	/**
+	 * Gets the first and last day of each of the unit's windows
+	 *
+	 * @return the days, two for each window in order of start, as days
+	 *         from the epoch
+	 */
+	int[] getWindowDays() {
+		return windowDays;
+	}
+
+	/**
+	 * Returns whether the schedule is that of a newly added unit, which
+	 * takes leases and has no windows
+	 *
+	 * @return whether there is nothing to the schedule
+	 */
+	boolean isPlain() {
+		return bookable && windowDays.length == 0;
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+
+/**
+ * The ClientView class is an immutable copy of the state of a Client
+ * at the moment it was taken.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ClientView {
+
+	/** the name of the client */
+	private final String name;
+	/** the id of the client */
+	private final String id;
+	/** the number of leases the client held */
+	private final int leaseCount;
+	
+	/**
+	 * Constructs a view of the given client
+	 * 
+	 * @param client the client to view
+	 */
+	public ClientView(Client client) {
+		this.name = client.getName();
+		this.id = client.getId();
+		this.leaseCount = client.getLeaseCount();
+	}
+	
+	/**
+	 * Constructs a view from the state of a client, such as one that was
+	 * sent from another process
+	 * 
+	 * @param name the name of the client
+	 * @param id the id of the client
+	 * @param leaseCount the number of leases the client held
+	 */
+	public ClientView(String name, String id, int leaseCount) {
+		this.name = name;
+		this.id = id;
+		this.leaseCount = leaseCount;
+	}
+	
+	/**
+	 * Gets the name of the client
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Gets the id of the client
+	 * 
+	 * @return the id
+	 */
+	public String getId() {
+		return this.id;
+	}
+	
+	/**
+	 * Gets the number of leases the client held
+	 * 
+	 * @return the number of leases
+	 */
+	public int getLeaseCount() {
+		return this.leaseCount;
+	}
+}
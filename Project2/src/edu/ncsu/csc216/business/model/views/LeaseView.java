@@ -0,0 +1,192 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The LeaseView class is an immutable copy of the state of a Lease at
+ * the moment it was taken. Dates are kept as counts of days from the 
+ * epoch, and the unit and client are identified by their locations and
+ * ids rather than by descriptions.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class LeaseView {
+
+	/** the confirmation number of the lease */
+	private final int confirmationNumber;
+	/** the start date of the lease as a count of days from the epoch */
+	private final int startDay;
+	/** the end date of the lease as a count of days from the epoch */
+	private final int endDay;
+	/** the number of occupants of the lease */
+	private final int occupants;
+	/** the label for the kind of the leased unit */
+	private final String unitKindLabel;
+	/** the floor of the leased unit */
+	private final int unitFloor;
+	/** the room of the leased unit */
+	private final int unitRoom;
+	/** the name of the client holding the lease */
+	private final String clientName;
+	/** the id of the client holding the lease */
+	private final String clientId;
+	
+	/**
+	 * Constructs a view of the given lease
+	 * 
+	 * @param lease the lease to view
+	 */
+	public LeaseView(Lease lease) {
+		RentalUnit unit = lease.getProperty();
+		this.confirmationNumber = lease.getConfirmationNumber();
+		this.startDay = lease.getStartDay();
+		this.endDay = lease.getEndDay();
+		this.occupants = lease.getNumOccupants();
+		this.unitKindLabel = unit.getKindLabel();
+		this.unitFloor = unit.getFloor();
+		this.unitRoom = unit.getRoom();
+		this.clientName = lease.getClient().getName();
+		this.clientId = lease.getClient().getId();
+	}
+	
+	/**
+	 * Constructs a view from the state of a lease, such as one that was
+	 * sent from another process
+	 * 
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param startDay the start date of the lease as a count of days from the epoch
+	 * @param endDay the end date of the lease as a count of days from the epoch
+	 * @param occupants the number of occupants of the lease
+	 * @param unitKindLabel the label for the kind of the leased unit
+	 * @param unitFloor the floor of the leased unit
+	 * @param unitRoom the room of the leased unit
+	 * @param clientName the name of the client holding the lease
+	 * @param clientId the id of the client holding the lease
+	 */
+	public LeaseView(int confirmationNumber, int startDay, int endDay, int occupants, 
+			String unitKindLabel, int unitFloor, int unitRoom, String clientName, String clientId) {
+		this.confirmationNumber = confirmationNumber;
+		this.startDay = startDay;
+		this.endDay = endDay;
+		this.occupants = occupants;
+		this.unitKindLabel = unitKindLabel;
+		this.unitFloor = unitFloor;
+		this.unitRoom = unitRoom;
+		this.clientName = clientName;
+		this.clientId = clientId;
+	}
+	
+	/**
+	 * Gets the confirmation number of the lease
+	 * 
+	 * @return the confirmation number
+	 */
+	public int getConfirmationNumber() {
+		return this.confirmationNumber;
+	}
+	
+	/**
+	 * Gets the start date of the lease as a count of days from the epoch
+	 * 
+	 * @return the start day
+	 */
+	public int getStartDay() {
+		return this.startDay;
+	}
+	
+	/**
+	 * Gets the end date of the lease as a count of days from the epoch
+	 * 
+	 * @return the end day
+	 */
+	public int getEndDay() {
+		return this.endDay;
+	}
+	
+	/**
+	 * Gets the start date of the lease
+	 * 
+	 * @return the start date
+	 */
+	public LocalDate getStart() {
+		return LocalDate.ofEpochDay(startDay);
+	}
+	
+	/**
+	 * Gets the end date of the lease
+	 * 
+	 * @return the end date
+	 */
+	public LocalDate getEnd() {
+		return LocalDate.ofEpochDay(endDay);
+	}
+	
+	/**
+	 * Gets the number of occupants of the lease
+	 * 
+	 * @return the number of occupants
+	 */
+	public int getOccupants() {
+		return this.occupants;
+	}
+	
+	/**
+	 * Gets the kind of the leased unit: 'C', 'H' or 'O'
+	 * 
+	 * @return the unit kind
+	 */
+	public char getUnitKind() {
+		return unitKindLabel.charAt(0);
+	}
+	
+	/**
+	 * Gets the label for the kind of the leased unit, such as "Office"
+	 * 
+	 * @return the kind label
+	 */
+	public String getUnitKindLabel() {
+		return this.unitKindLabel;
+	}
+	
+	/**
+	 * Gets the floor of the leased unit
+	 * 
+	 * @return the unit floor
+	 */
+	public int getUnitFloor() {
+		return this.unitFloor;
+	}
+	
+	/**
+	 * Gets the room of the leased unit
+	 * 
+	 * @return the unit room
+	 */
+	public int getUnitRoom() {
+		return this.unitRoom;
+	}
+	
+	/**
+	 * Gets the name of the client holding the lease
+	 * 
+	 * @return the client name
+	 */
+	public String getClientName() {
+		return this.clientName;
+	}
+	
+	/**
+	 * Gets the id of the client holding the lease
+	 * 
+	 * @return the client id
+	 */
+	public String getClientId() {
+		return this.clientId;
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+/**
+ * The Page class holds one page of a paged listing and the cursor from 
+ * which the next page can be requested.
+ * 
+ * @param <T> the type of entry in the listing
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class Page<T> {
+
+	/** the entries on the page */
+	private final T[] items;
+	/** the cursor for the next page, or null if this is the last page */
+	private final PageCursor next;
+	
+	/**
+	 * Constructs a Page
+	 * 
+	 * @param items the entries on the page
+	 * @param next the cursor for the next page, or null if this is the last page
+	 */
+	public Page(T[] items, PageCursor next) {
+		this.items = items;
+		this.next = next;
+	}
+	
+	/**
+	 * Gets the entries on the page
+	 * 
+	 * @return the entries
+	 */
+	public T[] getItems() {
+		return this.items;
+	}
+	
+	/**
+	 * Gets the cursor for the next page
+	 * 
+	 * @return the cursor, or null if this is the last page
+	 */
+	public PageCursor getNext() {
+		return this.next;
+	}
+	
+	/**
+	 * Returns whether there may be another page after this one
+	 * 
+	 * @return whether there is a cursor for the next page
+	 */
+	public boolean hasNext() {
+		return this.next != null;
+	}
+}
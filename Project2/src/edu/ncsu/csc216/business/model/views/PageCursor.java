@@ -0,0 +1,51 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+/**
+ * The PageCursor class marks where a paged listing left off. It holds the
+ * sort key of the last entry returned, rather than its index, so the next
+ * page resumes right after that entry even if entries were inserted ahead
+ * of it in the meantime. A position is kept as well for listings that are
+ * kept in insertion order, where it serves as a hint for finding the key.
+ * Cursors are immutable and are only made by the listings themselves.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class PageCursor {
+
+	/** the sort key of the last entry returned */
+	private final long key;
+	/** the position of the last entry returned */
+	private final int position;
+	
+	/**
+	 * Constructs a PageCursor
+	 * 
+	 * @param key the sort key of the last entry returned
+	 * @param position the position of the last entry returned
+	 */
+	public PageCursor(long key, int position) {
+		this.key = key;
+		this.position = position;
+	}
+	
+	/**
+	 * Gets the sort key of the last entry returned
+	 * 
+	 * @return the key
+	 */
+	public long getKey() {
+		return this.key;
+	}
+	
+	/**
+	 * Gets the position of the last entry returned
+	 * 
+	 * @return the position
+	 */
+	public int getPosition() {
+		return this.position;
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.business.list_utils.PersistentList;
+
+/**
+ * The RentalSnapshot class is an immutable, internally consistent copy of
+ * all rental units, clients and leases at the moment it was taken. Units
+ * are in order of location and clients in the order they were added, with
+ * no filters applied. A snapshot never changes once taken, so it can be 
+ * read by any thread while the live data keeps changing. Its views are 
+ * held in persistent lists, so a snapshot made from an earlier one by 
+ * replacing a few views shares everything else with it.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalSnapshot {
+
+	/** the rental units, in order of location */
+	private final PersistentList<UnitView> units;
+	/** the leases of each rental unit, in order of start date */
+	private final PersistentList<PersistentList<LeaseView>> unitLeases;
+	/** the clients, in the order they were added */
+	private final PersistentList<ClientView> clients;
+	/** the leases of each client, in the order they were made */
+	private final PersistentList<LeaseView[]> clientLeases;
+	
+	/**
+	 * Constructs a snapshot from views that are never changed afterwards
+	 * 
+	 * @param units the rental units, in order of location
+	 * @param unitLeases the leases of each rental unit, in order of start date
+	 * @param clients the clients, in the order they were added
+	 * @param clientLeases the leases of each client, in the order they were made
+	 */
+	public RentalSnapshot(UnitView[] units, LeaseView[][] unitLeases, ClientView[] clients, LeaseView[][] clientLeases) {
+		this(PersistentList.of(units), lists(unitLeases), PersistentList.of(clients), PersistentList.of(clientLeases));
+	}
+	
+	/**
+	 * Constructs a snapshot from lists of views whose arrays are never 
+	 * changed afterwards. Each unit's leases are a list of their own, so
+	 * a lease can be replaced without copying the unit's other leases.
+	 * 
+	 * @param units the rental units, in order of location
+	 * @param unitLeases the leases of each rental unit, in order of start date
+	 * @param clients the clients, in the order they were added
+	 * @param clientLeases the leases of each client, in the order they were made
+	 */
+	public RentalSnapshot(PersistentList<UnitView> units, PersistentList<PersistentList<LeaseView>> unitLeases, 
+			PersistentList<ClientView> clients, PersistentList<LeaseView[]> clientLeases) {
+		this.units = units;
+		this.unitLeases = unitLeases;
+		this.clients = clients;
+		this.clientLeases = clientLeases;
+	}
+	
+	/**
+	 * Gets the number of rental units
+	 * 
+	 * @return the number of units
+	 */
+	public int getUnitCount() {
+		return units.size();
+	}
+	
+	/**
+	 * Gets the rental unit at the given position
+	 * 
+	 * @param unitIndex the position of the unit, in order of location
+	 * @return the view of the unit
+	 * @throws IndexOutOfBoundsException if unitIndex is not a valid position
+	 */
+	public UnitView getUnit(int unitIndex) {
+		return units.get(unitIndex);
+	}
+	
+	/**
+	 * Finds the position of the rental unit at a location
+	 * 
+	 * @param floor the floor of the unit
+	 * @param room the room of the unit
+	 * @return the position of the unit, or -1 if there is none there
+	 */
+	public int indexOfUnit(int floor, int room) {
+		int position = units.search(unit -> unit.getFloor() * 100 + unit.getRoom(), floor * 100 + room);
+		return position >= 0 ? position : -1;
+	}
+	
+	/**
+	 * Gets the leases of the rental unit at the given position
+	 * 
+	 * @param unitIndex the position of the unit, in order of location
+	 * @return the views of the unit's leases, in order of start date
+	 * @throws IndexOutOfBoundsException if unitIndex is not a valid position
+	 */
+	public List<LeaseView> getLeasesForUnit(int unitIndex) {
+		return unitLeases.get(unitIndex).asList();
+	}
+	
+	/**
+	 * Gets the number of clients
+	 * 
+	 * @return the number of clients
+	 */
+	public int getClientCount() {
+		return clients.size();
+	}
+	
+	/**
+	 * Gets the client at the given position
+	 * 
+	 * @param clientIndex the position of the client
+	 * @return the view of the client
+	 * @throws IndexOutOfBoundsException if clientIndex is not a valid position
+	 */
+	public ClientView getClient(int clientIndex) {
+		return clients.get(clientIndex);
+	}
+	
+	/**
+	 * Gets the leases of the client at the given position
+	 * 
+	 * @param clientIndex the position of the client
+	 * @return the views of the client's leases, in the order they were made
+	 * @throws IndexOutOfBoundsException if clientIndex is not a valid position
+	 */
+	public List<LeaseView> getLeasesForClient(int clientIndex) {
+		return Collections.unmodifiableList(Arrays.asList(clientLeases.get(clientIndex)));
+	}
+	
+	/**
+	 * Turns each row of views into a list of its own
+	 * 
+	 * @param rows the rows of views
+	 * @return the list of the lists of each row
+	 */
+	private static PersistentList<PersistentList<LeaseView>> lists(LeaseView[][] rows) {
+		@SuppressWarnings("unchecked")
+		PersistentList<LeaseView>[] lists = new PersistentList[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			lists[i] = PersistentList.of(rows[i]);
+		}
+		return PersistentList.of(lists);
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.views;
+
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+
+/**
+ * The UnitView class is an immutable copy of the state of a RentalUnit
+ * at the moment it was taken. It holds plain fields, so callers can 
+ * filter and sort units without formatting or parsing descriptions.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class UnitView {
+
+	/** the label for the kind of the unit */
+	private final String kindLabel;
+	/** the floor of the unit */
+	private final int floor;
+	/** the room of the unit */
+	private final int room;
+	/** the capacity of the unit */
+	private final int capacity;
+	/** whether the unit was in service */
+	private final boolean inService;
+	
+	/**
+	 * Constructs a view of the given unit
+	 * 
+	 * @param unit the unit to view
+	 */
+	public UnitView(RentalUnit unit) {
+		this.kindLabel = unit.getKindLabel();
+		this.floor = unit.getFloor();
+		this.room = unit.getRoom();
+		this.capacity = unit.getCapacity();
+		this.inService = unit.isInService();
+	}
+	
+	/**
+	 * Constructs a view from the state of a unit, such as one that was
+	 * sent from another process
+	 * 
+	 * @param kindLabel the label for the kind of the unit
+	 * @param floor the floor of the unit
+	 * @param room the room of the unit
+	 * @param capacity the capacity of the unit
+	 * @param inService whether the unit was in service
+	 */
+	public UnitView(String kindLabel, int floor, int room, int capacity, boolean inService) {
+		this.kindLabel = kindLabel;
+		this.floor = floor;
+		this.room = room;
+		this.capacity = capacity;
+		this.inService = inService;
+	}
+	
+	/**
+	 * Gets the kind of the unit: 'C' for a conference room, 'H' for a 
+	 * hotel suite or 'O' for an office
+	 * 
+	 * @return the kind
+	 */
+	public char getKind() {
+		return kindLabel.charAt(0);
+	}
+	
+	/**
+	 * Gets the label for the kind of the unit, such as "Office"
+	 * 
+	 * @return the kind label
+	 */
+	public String getKindLabel() {
+		return this.kindLabel;
+	}
+	
+	/**
+	 * Gets the floor of the unit
+	 * 
+	 * @return the floor
+	 */
+	public int getFloor() {
+		return this.floor;
+	}
+	
+	/**
+	 * Gets the room of the unit
+	 * 
+	 * @return the room
+	 */
+	public int getRoom() {
+		return this.room;
+	}
+	
+	/**
+	 * Gets the capacity of the unit
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	/**
+	 * Returns whether the unit was in service
+	 * 
+	 * @return whether the unit was in service
+	 */
+	public boolean isInService() {
+		return this.inService;
+	}
+}
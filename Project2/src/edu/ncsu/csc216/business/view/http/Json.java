@@ -0,0 +1,375 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.view.http;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport;
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Holder;
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Row;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The Json class writes the views of units, clients and leases, and heap
+ * censuses, as JSON, and reads the flat JSON objects that the HTTP API
+ * takes as request bodies. Locations are written in the FF-RR form that new units are added with,
+ * and dates in the ISO form yyyy-mm-dd.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+class Json {
+
+	/**
+	 * Appends a string as a JSON string, escaping quotes, backslashes and 
+	 * control characters
+	 * 
+	 * @param out the builder to append to
+	 * @param value the string
+	 * @return the builder
+	 */
+	static StringBuilder appendString(StringBuilder out, String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c == '\n') {
+				out.append("\\n");
+			} else if (c == '\t') {
+				out.append("\\t");
+			} else if (c < ' ') {
+				out.append(String.format("\\u%04x", (int) c));
+			} else {
+				out.append(c);
+			}
+		}
+		return out.append('"');
+	}
+	
+	/**
+	 * Appends a location in the form FF-RR
+	 * 
+	 * @param out the builder to append to
+	 * @param floor the floor
+	 * @param room the room
+	 * @return the builder
+	 */
+	static StringBuilder appendLocation(StringBuilder out, int floor, int room) {
+		out.append('"');
+		if (floor < 10) {
+			out.append('0');
+		}
+		return out.append(floor).append('-').append(room).append('"');
+	}
+	
+	/**
+	 * Appends a viewed rental unit as a JSON object
+	 * 
+	 * @param out the builder to append to
+	 * @param unit the view of the unit
+	 * @return the builder
+	 */
+	static StringBuilder appendUnit(StringBuilder out, UnitView unit) {
+		out.append("{\"location\":");
+		appendLocation(out, unit.getFloor(), unit.getRoom());
+		out.append(",\"kind\":");
+		appendString(out, unit.getKindLabel());
+		return out.append(",\"capacity\":").append(unit.getCapacity())
+				.append(",\"inService\":").append(unit.isInService()).append('}');
+	}
+	
+	/**
+	 * Appends a viewed client as a JSON object
+	 * 
+	 * @param out the builder to append to
+	 * @param client the view of the client
+	 * @return the builder
+	 */
+	static StringBuilder appendClient(StringBuilder out, ClientView client) {
+		out.append("{\"id\":");
+		appendString(out, client.getId());
+		out.append(",\"name\":");
+		appendString(out, client.getName());
+		return out.append(",\"leases\":").append(client.getLeaseCount()).append('}');
+	}
+	
+	/**
+	 * Appends a viewed lease as a JSON object
+	 * 
+	 * @param out the builder to append to
+	 * @param lease the view of the lease
+	 * @return the builder
+	 */
+	static StringBuilder appendLease(StringBuilder out, LeaseView lease) {
+		out.append("{\"confirmationNumber\":").append(lease.getConfirmationNumber());
+		out.append(",\"start\":\"").append(lease.getStart()).append('"');
+		out.append(",\"end\":\"").append(lease.getEnd()).append('"');
+		out.append(",\"occupants\":").append(lease.getOccupants());
+		out.append(",\"unit\":");
+		appendLocation(out, lease.getUnitFloor(), lease.getUnitRoom());
+		out.append(",\"kind\":");
+		appendString(out, lease.getUnitKindLabel());
+		out.append(",\"clientId\":");
+		appendString(out, lease.getClientId());
+		out.append(",\"clientName\":");
+		appendString(out, lease.getClientName());
+		return out.append('}');
+	}
+	
+	/**
+	 * Appends a heap census as a JSON object, with its totals, the rows of
+	 * its owners and types, and the units and clients with the most leases
+	 * 
+	 * @param out the builder to append to
+	 * @param report the report of the census
+	 * @return the builder
+	 */
+	static StringBuilder appendHeapReport(StringBuilder out, HeapReport report) {
+		out.append("{\"objects\":").append(report.getObjects());
+		out.append(",\"bytes\":").append(report.getBytes());
+		out.append(",\"owners\":");
+		appendArray(out, report.getOwners().toArray(new Row[0]), Json::appendRow);
+		out.append(",\"types\":");
+		appendArray(out, report.getTypes().toArray(new Row[0]), Json::appendRow);
+		out.append(",\"largestUnits\":");
+		appendArray(out, report.getLargestUnits().toArray(new Holder[0]), Json::appendHolder);
+		out.append(",\"largestClients\":");
+		appendArray(out, report.getLargestClients().toArray(new Holder[0]), Json::appendHolder);
+		return out.append('}');
+	}
+	
+	/**
+	 * Appends a row of a heap census as a JSON object
+	 * 
+	 * @param out the builder to append to
+	 * @param row the row
+	 * @return the builder
+	 */
+	private static StringBuilder appendRow(StringBuilder out, Row row) {
+		out.append("{\"label\":");
+		appendString(out, row.getLabel());
+		return out.append(",\"objects\":").append(row.getObjects())
+				.append(",\"bytes\":").append(row.getBytes()).append('}');
+	}
+	
+	/**
+	 * Appends a unit or client with the most leases in a heap census as a
+	 * JSON object, with a location and kind for a unit or an id for a client
+	 * 
+	 * @param out the builder to append to
+	 * @param holder the unit or client
+	 * @return the builder
+	 */
+	private static StringBuilder appendHolder(StringBuilder out, Holder holder) {
+		if (holder.getKind() == null) {
+			out.append("{\"id\":");
+			appendString(out, holder.getName());
+		} else {
+			out.append("{\"location\":");
+			appendString(out, holder.getName());
+			out.append(",\"kind\":");
+			appendString(out, holder.getKind());
+		}
+		return out.append(",\"leases\":").append(holder.getLeases())
+				.append(",\"bytes\":").append(holder.getBytes()).append('}');
+	}
+	
+	/**
+	 * Appends items as a JSON array
+	 * 
+	 * @param <T> the type of the items
+	 * @param out the builder to append to
+	 * @param items the items
+	 * @param appender appends one item
+	 * @return the builder
+	 */
+	static <T> StringBuilder appendArray(StringBuilder out, T[] items, BiFunction<StringBuilder, T, StringBuilder> appender) {
+		out.append('[');
+		for (int i = 0; i < items.length; i++) {
+			if (i > 0) {
+				out.append(',');
+			}
+			appender.apply(out, items[i]);
+		}
+		return out.append(']');
+	}
+	
+	/**
+	 * Reads a flat JSON object whose values are strings, numbers, booleans 
+	 * or null. Every value is returned as its text, without quotes.
+	 * 
+	 * @param text the JSON text
+	 * @return the members of the object, in order
+	 * @throws IllegalArgumentException if the text is not such an object
+	 */
+	static Map<String, String> parseObject(String text) {
+		LinkedHashMap<String, String> members = new LinkedHashMap<String, String>();
+		int[] at = {skip(text, 0)};
+		expect(text, at, '{');
+		if (peek(text, at) == '}') {
+			at[0]++;
+		} else {
+			while (true) {
+				String name = readString(text, at);
+				expect(text, at, ':');
+				members.put(name, peek(text, at) == '"' ? readString(text, at) : readLiteral(text, at));
+				if (peek(text, at) == ',') {
+					at[0]++;
+					continue;
+				}
+				expect(text, at, '}');
+				break;
+			}
+		}
+		if (skip(text, at[0]) != text.length()) {
+			throw new IllegalArgumentException("Unexpected text after JSON object");
+		}
+		return members;
+	}
+	
+	/**
+	 * Gets a member of a parsed object
+	 * 
+	 * @param members the members of the object
+	 * @param name the name of the member
+	 * @return the value of the member
+	 * @throws IllegalArgumentException if the member is missing
+	 */
+	static String get(Map<String, String> members, String name) {
+		String value = members.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing " + name);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gets a whole number member of a parsed object
+	 * 
+	 * @param members the members of the object
+	 * @param name the name of the member
+	 * @return the value of the member
+	 * @throws IllegalArgumentException if the member is missing or not a whole number
+	 */
+	static int getInt(Map<String, String> members, String name) {
+		return Integer.parseInt(get(members, name));
+	}
+	
+	/**
+	 * Gets a date member of a parsed object, in the form yyyy-mm-dd
+	 * 
+	 * @param members the members of the object
+	 * @param name the name of the member
+	 * @return the value of the member
+	 * @throws IllegalArgumentException if the member is missing or not a date
+	 */
+	static LocalDate getDate(Map<String, String> members, String name) {
+		try {
+			return LocalDate.parse(get(members, name));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid " + name);
+		}
+	}
+	
+	/**
+	 * Reads a JSON string
+	 * 
+	 * @param text the JSON text
+	 * @param at the position to read from, moved past the string
+	 * @return the string
+	 * @throws IllegalArgumentException if there is no string at the position
+	 */
+	private static String readString(String text, int[] at) {
+		expect(text, at, '"');
+		StringBuilder value = new StringBuilder();
+		for (int i = at[0]; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '"') {
+				at[0] = i + 1;
+				return value.toString();
+			}
+			if (c == '\\' && i + 1 < text.length()) {
+				char e = text.charAt(++i);
+				if (e == 'u' && i + 4 < text.length()) {
+					value.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+					i += 4;
+				} else {
+					value.append(e == 'n' ? '\n' : e == 't' ? '\t' : e == 'r' ? '\r' : e == 'b' ? '\b' : e == 'f' ? '\f' : e);
+				}
+			} else {
+				value.append(c);
+			}
+		}
+		throw new IllegalArgumentException("Unterminated JSON string");
+	}
+	
+	/**
+	 * Reads a JSON number, boolean or null
+	 * 
+	 * @param text the JSON text
+	 * @param at the position to read from, moved past the literal
+	 * @return the text of the literal
+	 * @throws IllegalArgumentException if there is no literal at the position
+	 */
+	private static String readLiteral(String text, int[] at) {
+		int start = at[0];
+		int end = start;
+		while (end < text.length() && ",}] \t\r\n".indexOf(text.charAt(end)) < 0) {
+			end++;
+		}
+		if (end == start) {
+			throw new IllegalArgumentException("Missing JSON value");
+		}
+		at[0] = end;
+		return text.substring(start, end);
+	}
+	
+	/**
+	 * Skips whitespace and then checks for the given character
+	 * 
+	 * @param text the JSON text
+	 * @param at the position to read from, moved past the character
+	 * @param c the character
+	 * @throws IllegalArgumentException if the character is not there
+	 */
+	private static void expect(String text, int[] at, char c) {
+		if (peek(text, at) != c) {
+			throw new IllegalArgumentException("Expected " + c);
+		}
+		at[0]++;
+	}
+	
+	/**
+	 * Skips whitespace and returns the next character
+	 * 
+	 * @param text the JSON text
+	 * @param at the position to read from, moved past the whitespace
+	 * @return the next character, or 0 at the end of the text
+	 */
+	private static char peek(String text, int[] at) {
+		at[0] = skip(text, at[0]);
+		return at[0] < text.length() ? text.charAt(at[0]) : 0;
+	}
+	
+	/**
+	 * Returns the position of the first character at or after the given
+	 * position that is not whitespace
+	 * 
+	 * @param text the JSON text
+	 * @param at the position to start from
+	 * @return the position after the whitespace
+	 */
+	private static int skip(String text, int at) {
+		int i = at;
+		while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.view.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The LoadTest class is a client that drives an HTTP API with a fixed 
+ * number of threads, each sending requests one after another, and reports
+ * the throughput and the median and 99th percentile latencies. A request
+ * that fails or gets an error status counts against the errors but its
+ * latency is still recorded.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class LoadTest {
+
+	/** the client that sends the requests */
+	private HttpClient client;
+	/** the requests sent in turn by every thread */
+	private HttpRequest[] requests;
+	
+	/**
+	 * Constructs a load test that sends GET requests for the given URIs, each
+	 * thread cycling through them in order
+	 * 
+	 * @param targets the URIs to request
+	 * @throws IllegalArgumentException if there are no targets
+	 */
+	public LoadTest(URI... targets) {
+		if (targets == null || targets.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		this.client = HttpClient.newHttpClient();
+		this.requests = new HttpRequest[targets.length];
+		for (int i = 0; i < targets.length; i++) {
+			requests[i] = HttpRequest.newBuilder(targets[i]).GET().build();
+		}
+	}
+	
+	/**
+	 * Runs the test
+	 * 
+	 * @param threads the number of threads sending requests
+	 * @param requestsPerThread the number of requests each thread sends
+	 * @return the report of the run
+	 * @throws IllegalArgumentException if threads or requestsPerThread is less than 1
+	 * @throws InterruptedException if the run is interrupted
+	 */
+	public Report run(int threads, int requestsPerThread) throws InterruptedException {
+		if (threads < 1 || requestsPerThread < 1) {
+			throw new IllegalArgumentException();
+		}
+		long[] latencies = new long[threads * requestsPerThread];
+		AtomicInteger errors = new AtomicInteger();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int first = t * requestsPerThread;
+			workers[t] = new Thread(() -> {
+				for (int i = 0; i < requestsPerThread; i++) {
+					long began = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(requests[i % requests.length], HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 400) {
+							errors.incrementAndGet();
+						}
+					} catch (IOException e) {
+						errors.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					latencies[first + i] = System.nanoTime() - began;
+				}
+			}, "load-" + t);
+		}
+		long began = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return new Report(latencies, errors.get(), System.nanoTime() - began);
+	}
+	
+	/**
+	 * Runs a load test from the command line. The arguments are the number 
+	 * of threads, the number of requests for each thread, and one or more
+	 * URIs to request.
+	 * 
+	 * @param args the threads, the requests and the URIs
+	 * @throws InterruptedException if the run is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		URI[] targets = new URI[args.length - 2];
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = URI.create(args[i + 2]);
+		}
+		System.out.println(new LoadTest(targets).run(Integer.parseInt(args[0]), Integer.parseInt(args[1])));
+	}
+	
+	/**
+	 * The Report class holds the results of a load test run.
+	 * 
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Report {
+		
+		/** the nanoseconds per millisecond */
+		private static final double NANOS_PER_MILLI = 1e6;
+		/** the latency of each request in nanoseconds, in ascending order */
+		private long[] latencies;
+		/** the number of requests that failed */
+		private int errors;
+		/** the length of the run in nanoseconds */
+		private long elapsed;
+		
+		/**
+		 * Constructs a Report
+		 * 
+		 * @param latencies the latency of each request in nanoseconds
+		 * @param errors the number of requests that failed
+		 * @param elapsed the length of the run in nanoseconds
+		 */
+		Report(long[] latencies, int errors, long elapsed) {
+			this.latencies = latencies.clone();
+			Arrays.sort(this.latencies);
+			this.errors = errors;
+			this.elapsed = elapsed;
+		}
+		
+		/**
+		 * Gets the number of requests sent
+		 * 
+		 * @return the number of requests
+		 */
+		public int getRequests() {
+			return latencies.length;
+		}
+		
+		/**
+		 * Gets the number of requests that failed
+		 * 
+		 * @return the number of errors
+		 */
+		public int getErrors() {
+			return this.errors;
+		}
+		
+		/**
+		 * Gets the number of requests answered per second over the run
+		 * 
+		 * @return the throughput
+		 */
+		public double getThroughput() {
+			return latencies.length / (elapsed / 1e9);
+		}
+		
+		/**
+		 * Gets the latency that the given fraction of requests were answered
+		 * within, in milliseconds
+		 * 
+		 * @param fraction the fraction of requests, such as 0.99
+		 * @return the latency at that percentile
+		 * @throws IllegalArgumentException if fraction is not above 0 and at most 1
+		 */
+		public double getPercentile(double fraction) {
+			if (fraction <= 0 || fraction > 1) {
+				throw new IllegalArgumentException();
+			}
+			int rank = (int) Math.ceil(fraction * latencies.length) - 1;
+			return latencies[Math.max(0, rank)] / NANOS_PER_MILLI;
+		}
+		
+		/**
+		 * Returns the report as a line of text
+		 * 
+		 * @return the report
+		 */
+		@Override
+		public String toString() {
+			return String.format("%d requests, %d errors, %.1f req/s, p50 %.3f ms, p99 %.3f ms", 
+					getRequests(), getErrors(), getThroughput(), getPercentile(0.5), getPercentile(0.99));
+		}
+	}
+}
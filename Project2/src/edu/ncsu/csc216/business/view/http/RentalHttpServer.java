@@ -0,0 +1,633 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.diagnostics.HeapCensus;
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateRoomException;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The RentalHttpServer class serves a PropertyManager as an HTTP API that
+ * speaks JSON. Clients are named by id, rental units by location and leases
+ * by confirmation number, never by their positions in a list, so requests
+ * do not depend on any filter. The API is:
+ *
+ * <pre>
+ * GET    /clients                 every client
+ * POST   /clients                 add a client: {"name", "id"}
+ * GET    /clients/{id}            one client
+ * GET    /clients/{id}/leases     the client's leases
+ * GET    /units[?kind=&amp;inService=] every unit, optionally filtered
+ * POST   /units                   add a unit: {"kind", "location", "capacity"}
+ * GET    /units/{location}        one unit
+ * GET    /units/{location}/leases the unit's leases
+ * GET    /leases/{number}         one lease
+ * POST   /leases                  reserve: {"clientId", "location", "start", "duration", "occupants"}
+ * DELETE /leases/{number}         cancel a lease
+ * GET    /availability?start=&amp;duration=&amp;occupants=[&amp;kind=]
+ *                                 the units that could take such a lease
+ * GET    /diagnostics/heap        a census of the objects the model keeps
+ * </pre>
+ *
+ * Each request runs on a thread of its own, a virtual thread when the JDK
+ * has them. The manager is not safe for use by several threads at once, so
+ * requests take turns using it, and only for as long as it takes to copy
+ * out views of the data; the JSON is written after the manager is let go.
+ * A heap census takes the manager a unit or client at a time, letting other
+ * requests in between.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalHttpServer {
+
+	/** the status of a successful request */
+	private static final int OK = 200;
+	/** the status of a request that added something */
+	private static final int CREATED = 201;
+	/** the status of a successful request with no body */
+	private static final int NO_CONTENT = 204;
+	/** the status of a request that is not valid */
+	private static final int BAD_REQUEST = 400;
+	/** the status of a request for something that does not exist */
+	private static final int NOT_FOUND = 404;
+	/** the status of a request with a method the path does not take */
+	private static final int METHOD_NOT_ALLOWED = 405;
+	/** the status of a request to add something that already exists */
+	private static final int CONFLICT = 409;
+	/** the status of a request that failed in the server */
+	private static final int SERVER_ERROR = 500;
+	/** the manager the API serves */
+	private PropertyManager manager;
+	/** lets one request at a time use the manager */
+	private ReentrantLock lock;
+	/** the HTTP server, or null if it is not started */
+	private HttpServer server;
+	/** runs the requests */
+	private ExecutorService executor;
+
+	/**
+	 * Constructs a server for the given manager
+	 *
+	 * @param manager the manager the API serves
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public RentalHttpServer(PropertyManager manager) {
+		if (manager == null) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+		this.lock = new ReentrantLock();
+	}
+
+	/**
+	 * Starts serving on the given port
+	 *
+	 * @param port the port, or 0 for any free port
+	 * @return the port the server listens on
+	 * @throws IOException if the port cannot be bound
+	 * @throws IllegalStateException if the server is already started
+	 */
+	public int start(int port) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException();
+		}
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		executor = newExecutor();
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops serving, without waiting for requests under way. Does nothing
+	 * if the server is not started.
+	 */
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdown();
+			server = null;
+		}
+	}
+
+	/**
+	 * Makes an executor that runs each request on a new virtual thread, or
+	 * on a pooled thread if the JDK does not have virtual threads. The
+	 * virtual thread executor is found by reflection so that the server
+	 * still builds and runs on JDKs without it.
+	 *
+	 * @return the executor
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Answers a request, turning the exceptions it throws into error statuses
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		int status;
+		String body;
+		try {
+			Response response = route(exchange);
+			status = response.status;
+			body = response.body;
+		} catch (HttpError e) {
+			status = e.status;
+			body = error(e.getMessage());
+		} catch (DuplicateClientException | DuplicateRoomException e) {
+			status = CONFLICT;
+			body = error(e.getMessage());
+		} catch (IllegalArgumentException e) {
+			status = BAD_REQUEST;
+			body = error(e.getMessage());
+		} catch (Exception e) {
+			status = SERVER_ERROR;
+			body = error(e.getClass().getSimpleName());
+		}
+		try (OutputStream out = exchange.getResponseBody()) {
+			if (body == null) {
+				exchange.sendResponseHeaders(status, -1);
+			} else {
+				byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+				exchange.sendResponseHeaders(status, bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Sends a request to the handler for its path
+	 *
+	 * @param exchange the request
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private Response route(HttpExchange exchange) throws Exception {
+		String method = exchange.getRequestMethod();
+		URI uri = exchange.getRequestURI();
+		String[] path = uri.getPath().replaceAll("^/+|/+$", "").split("/+");
+		Map<String, String> query = query(uri.getRawQuery());
+		if (path[0].equals("clients")) {
+			return clients(method, path, exchange);
+		} else if (path[0].equals("units")) {
+			return units(method, path, query, exchange);
+		} else if (path[0].equals("leases")) {
+			return leases(method, path, exchange);
+		} else if (path[0].equals("availability") && path.length == 1) {
+			allow(method, "GET");
+			return availability(query);
+		} else if (path[0].equals("diagnostics") && path.length == 2 && path[1].equals("heap")) {
+			allow(method, "GET");
+			return ok(Json.appendHeapReport(new StringBuilder(), HeapCensus.take(manager, this::turn)));
+		}
+		throw new HttpError(NOT_FOUND, "No such resource");
+	}
+
+	/**
+	 * Answers the requests under /clients
+	 *
+	 * @param method the method of the request
+	 * @param path the segments of the path
+	 * @param exchange the request
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private Response clients(String method, String[] path, HttpExchange exchange) throws Exception {
+		if (path.length == 1 && method.equals("POST")) {
+			Map<String, String> body = Json.parseObject(readBody(exchange));
+			String name = Json.get(body, "name");
+			String id = Json.get(body, "id");
+			ClientView client = locked(() -> new ClientView(manager.addNewClient(name, id)));
+			return new Response(CREATED, Json.appendClient(new StringBuilder(), client).toString());
+		}
+		allow(method, "GET");
+		if (path.length == 1) {
+			RentalSnapshot snapshot = locked(manager::snapshot);
+			ClientView[] clients = new ClientView[snapshot.getClientCount()];
+			for (int i = 0; i < clients.length; i++) {
+				clients[i] = snapshot.getClient(i);
+			}
+			return ok(Json.appendArray(new StringBuilder(), clients, Json::appendClient));
+		} else if (path.length == 2) {
+			return ok(Json.appendClient(new StringBuilder(), locked(() -> new ClientView(client(path[1])))));
+		} else if (path.length == 3 && path[2].equals("leases")) {
+			LeaseView[] leases = locked(() -> {
+				Client client = client(path[1]);
+				LeaseView[] views = new LeaseView[client.getLeaseCount()];
+				for (int i = 0; i < views.length; i++) {
+					views[i] = new LeaseView(client.getLeaseAt(i));
+				}
+				return views;
+			});
+			return ok(Json.appendArray(new StringBuilder(), leases, Json::appendLease));
+		}
+		throw new HttpError(NOT_FOUND, "No such resource");
+	}
+
+	/**
+	 * Answers the requests under /units
+	 *
+	 * @param method the method of the request
+	 * @param path the segments of the path
+	 * @param query the parameters of the query
+	 * @param exchange the request
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private Response units(String method, String[] path, Map<String, String> query, HttpExchange exchange) throws Exception {
+		if (path.length == 1 && method.equals("POST")) {
+			Map<String, String> body = Json.parseObject(readBody(exchange));
+			String kind = Json.get(body, "kind");
+			String location = Json.get(body, "location");
+			int capacity = Json.getInt(body, "capacity");
+			UnitView unit = locked(() -> new UnitView(manager.addNewUnit(kind, location, capacity)));
+			return new Response(CREATED, Json.appendUnit(new StringBuilder(), unit).toString());
+		}
+		allow(method, "GET");
+		if (path.length == 1) {
+			String kind = query.getOrDefault("kind", "");
+			boolean inService = Boolean.parseBoolean(query.get("inService"));
+			RentalSnapshot snapshot = locked(manager::snapshot);
+			ArrayList<UnitView> units = new ArrayList<UnitView>();
+			for (int i = 0; i < snapshot.getUnitCount(); i++) {
+				UnitView unit = snapshot.getUnit(i);
+				if (isKind(unit, kind) && (!inService || unit.isInService())) {
+					units.add(unit);
+				}
+			}
+			return ok(Json.appendArray(new StringBuilder(), units.toArray(new UnitView[units.size()]), Json::appendUnit));
+		} else if (path.length == 2) {
+			return ok(Json.appendUnit(new StringBuilder(), locked(() -> new UnitView(unit(path[1])))));
+		} else if (path.length == 3 && path[2].equals("leases")) {
+			LeaseView[] leases = locked(() -> {
+				ArrayList<LeaseView> views = new ArrayList<LeaseView>();
+				SimpleListIterator<Lease> it = unit(path[1]).leaseIterator();
+				while (it.hasNext()) {
+					views.add(new LeaseView(it.next()));
+				}
+				return views.toArray(new LeaseView[views.size()]);
+			});
+			return ok(Json.appendArray(new StringBuilder(), leases, Json::appendLease));
+		}
+		throw new HttpError(NOT_FOUND, "No such resource");
+	}
+
+	/**
+	 * Answers the requests under /leases: looking up, reserving and canceling
+	 *
+	 * @param method the method of the request
+	 * @param path the segments of the path
+	 * @param exchange the request
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private Response leases(String method, String[] path, HttpExchange exchange) throws Exception {
+		if (path.length == 1) {
+			allow(method, "POST");
+			Map<String, String> body = Json.parseObject(readBody(exchange));
+			String clientId = Json.get(body, "clientId");
+			String location = Json.get(body, "location");
+			LocalDate start = Json.getDate(body, "start");
+			int duration = Json.getInt(body, "duration");
+			int occupants = Json.getInt(body, "occupants");
+			LeaseView lease = locked(() -> {
+				client(clientId);
+				unit(location);
+				return new LeaseView(manager.createLease(clientId, location, start, duration, occupants));
+			});
+			return new Response(CREATED, Json.appendLease(new StringBuilder(), lease).toString());
+		} else if (path.length == 2) {
+			int number = confirmationNumber(path[1]);
+			if (method.equals("DELETE")) {
+				locked(() -> {
+					lease(number);
+					manager.cancelLease(number);
+					return null;
+				});
+				return new Response(NO_CONTENT, null);
+			}
+			allow(method, "GET");
+			return ok(Json.appendLease(new StringBuilder(), locked(() -> new LeaseView(lease(number)))));
+		}
+		throw new HttpError(NOT_FOUND, "No such resource");
+	}
+
+	/**
+	 * Answers a request for the units that could take a lease starting on
+	 * the given date for the given duration and number of occupants
+	 *
+	 * @param query the parameters of the query
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private Response availability(Map<String, String> query) throws Exception {
+		LocalDate start = Json.getDate(query, "start");
+		int duration = Json.getInt(query, "duration");
+		int occupants = Json.getInt(query, "occupants");
+		String kind = query.getOrDefault("kind", "");
+		if (duration < 1 || occupants < 1) {
+			throw new IllegalArgumentException("Duration and occupants must be positive");
+		}
+		UnitView[] units = locked(() -> {
+			ArrayList<UnitView> open = new ArrayList<UnitView>();
+			SimpleListIterator<RentalUnit> it = manager.rentalUnitIterator();
+			while (it.hasNext()) {
+				RentalUnit unit = it.next();
+				if (isKind(unit.getKindLabel(), kind)) {
+					LocalDate[] starts = unit.availableStarts(start, duration, occupants, 1);
+					if (starts.length > 0 && starts[0].equals(start)) {
+						open.add(new UnitView(unit));
+					}
+				}
+			}
+			return open.toArray(new UnitView[open.size()]);
+		});
+		return ok(Json.appendArray(new StringBuilder(), units, Json::appendUnit));
+	}
+
+	/**
+	 * Does some work while holding the manager
+	 *
+	 * @param <T> the type of the work's result
+	 * @param work the work
+	 * @return the result of the work
+	 * @throws Exception if the work fails
+	 */
+	private <T> T locked(Callable<T> work) throws Exception {
+		lock.lock();
+		try {
+			return work.call();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Does one turn of some longer work while holding the manager, so that
+	 * other requests can use it between turns
+	 *
+	 * @param work the turn of work
+	 */
+	private void turn(Runnable work) {
+		lock.lock();
+		try {
+			work.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the client with the given id
+	 *
+	 * @param id the id
+	 * @return the client
+	 * @throws HttpError if there is no such client
+	 */
+	private Client client(String id) {
+		try {
+			return manager.getClientById(id);
+		} catch (IllegalArgumentException e) {
+			throw new HttpError(NOT_FOUND, "No such client");
+		}
+	}
+
+	/**
+	 * Gets the rental unit at the given location
+	 *
+	 * @param location the location
+	 * @return the unit
+	 * @throws HttpError if there is no such unit
+	 */
+	private RentalUnit unit(String location) {
+		try {
+			return manager.getUnitAtLocation(location);
+		} catch (IllegalArgumentException e) {
+			throw new HttpError(NOT_FOUND, "No such rental unit");
+		}
+	}
+
+	/**
+	 * Gets the active lease with the given confirmation number
+	 *
+	 * @param number the confirmation number
+	 * @return the lease
+	 * @throws HttpError if there is no such lease
+	 */
+	private Lease lease(int number) {
+		try {
+			return manager.getLease(number);
+		} catch (IllegalArgumentException e) {
+			throw new HttpError(NOT_FOUND, "No such lease");
+		}
+	}
+
+	/**
+	 * Reads a confirmation number from a path
+	 *
+	 * @param segment the segment of the path
+	 * @return the confirmation number
+	 * @throws HttpError if the segment is not a number
+	 */
+	private static int confirmationNumber(String segment) {
+		try {
+			return Integer.parseInt(segment);
+		} catch (NumberFormatException e) {
+			throw new HttpError(NOT_FOUND, "No such lease");
+		}
+	}
+
+	/**
+	 * Returns whether a unit is of the kind asked for
+	 *
+	 * @param unit the view of the unit
+	 * @param kind the kind asked for, by its first letter, or an empty String for any kind
+	 * @return whether the unit is of that kind
+	 */
+	private static boolean isKind(UnitView unit, String kind) {
+		return isKind(unit.getKindLabel(), kind);
+	}
+
+	/**
+	 * Returns whether a kind label is of the kind asked for
+	 *
+	 * @param label the kind label, such as "Office"
+	 * @param kind the kind asked for, by its first letter, or an empty String for any kind
+	 * @return whether the label is of that kind
+	 */
+	private static boolean isKind(String label, String kind) {
+		return kind.isEmpty() || Character.toUpperCase(kind.charAt(0)) == label.charAt(0);
+	}
+
+	/**
+	 * Checks the method of a request
+	 *
+	 * @param method the method of the request
+	 * @param allowed the method the path takes
+	 * @throws HttpError if the methods differ
+	 */
+	private static void allow(String method, String allowed) {
+		if (!method.equals(allowed)) {
+			throw new HttpError(METHOD_NOT_ALLOWED, "Method not allowed");
+		}
+	}
+
+	/**
+	 * Reads the body of a request
+	 *
+	 * @param exchange the request
+	 * @return the body
+	 * @throws IOException if the body cannot be read
+	 */
+	private static String readBody(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Reads the parameters of a query
+	 *
+	 * @param raw the query, still encoded, or null
+	 * @return the parameters
+	 */
+	private static Map<String, String> query(String raw) {
+		HashMap<String, String> params = new HashMap<String, String>();
+		if (raw == null) {
+			return params;
+		}
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0) {
+				params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+						URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * Makes a successful response
+	 *
+	 * @param body the JSON body
+	 * @return the response
+	 */
+	private static Response ok(StringBuilder body) {
+		return new Response(OK, body.toString());
+	}
+
+	/**
+	 * Makes the JSON body of an error
+	 *
+	 * @param message the message of the error, or null
+	 * @return the body
+	 */
+	private static String error(String message) {
+		return Json.appendString(new StringBuilder("{\"error\":"), message == null ? "Invalid request" : message)
+				.append('}').toString();
+	}
+
+	/**
+	 * Serves the shared PropertyManager. The arguments are the port and,
+	 * optionally, a rental data file to load first.
+	 *
+	 * @param args the port and the data file
+	 * @throws IOException if the port cannot be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		PropertyManager manager = PropertyManager.getInstance();
+		if (args.length > 1) {
+			RentalReader.readRentalData(args[1], manager);
+		}
+		int port = new RentalHttpServer(manager).start(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+		System.out.println("Listening on port " + port);
+	}
+
+	/**
+	 * The Response class is the status and body of an answer to a request.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Response {
+
+		/** the status */
+		private int status;
+		/** the JSON body, or null for no body */
+		private String body;
+
+		/**
+		 * Constructs a Response
+		 *
+		 * @param status the status
+		 * @param body the JSON body, or null for no body
+		 */
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * The HttpError class is thrown to answer a request with an error status.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class HttpError extends RuntimeException {
+
+		/** the ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** the status */
+		private final int status;
+
+		/**
+		 * Constructs an HttpError
+		 *
+		 * @param status the status
+		 * @param message the message
+		 */
+		HttpError(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+}
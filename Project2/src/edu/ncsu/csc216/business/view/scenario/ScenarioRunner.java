@@ -0,0 +1,656 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.scenario;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.ncsu.csc216.business.model.diagnostics.LatencyHistogram;
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.io.RentalWriter;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.UnitView;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * The ScenarioRunner class replays a business day against a manager
+ * without a user interface: a random mix of bookings, cancellations,
+ * outages, listings and saves, made through the Landlord interface at a
+ * target rate, while Java Flight Recorder records the run. The report
+ * gives a latency histogram for each kind of operation, the bytes the run
+ * allocated and the garbage collection pauses, so that two releases can
+ * be compared by running the same scenario, with the same seed, on each.
+ * <p>
+ * With a target rate, each operation is due at a fixed time from the start
+ * and its latency is measured from when it was due, not from when it
+ * began, so an operation held up by a slow one before it counts the wait.
+ * Without a rate, operations run back to back and the latency is the time
+ * each takes. Operations the manager refuses, such as a booking that
+ * clashes with another lease, are counted as rejected and timed as well.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class ScenarioRunner {
+
+	/** the mix used unless another is set, in the order of Operation */
+	private static final int[] DEFAULT_MIX = {60, 20, 2, 15, 3};
+	/** the number of days leases can be made on */
+	private static final int DAYS = (int) ChronoUnit.DAYS.between(PropertyManager.EARLIEST_DATE,
+			PropertyManager.LATEST_DATE) + 1;
+	/** the first Sunday a hotel suite lease can start on */
+	private static final LocalDate FIRST_SUNDAY = PropertyManager.EARLIEST_DATE.with(
+			TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+	/** the number of Sundays a hotel suite lease can start on */
+	private static final int WEEKS = DAYS / 7;
+	/** the number of months leases can be made in */
+	private static final int MONTHS = (int) ChronoUnit.MONTHS.between(PropertyManager.EARLIEST_DATE,
+			PropertyManager.LATEST_DATE) + 1;
+	/** the longest hotel suite lease booked, in weeks */
+	private static final int MAX_WEEKS = 4;
+	/** the longest office lease booked, in months */
+	private static final int MAX_MONTHS = 12;
+	/** the Flight Recorder settings the run is recorded with */
+	private static final String SETTINGS = "profile";
+
+	/**
+	 * The Operation enumeration lists the kinds of operation a scenario
+	 * is made of.
+	 */
+	public enum Operation {
+		/** creates a lease on a random unit for a random client */
+		BOOK,
+		/** cancels a random lease of a random client */
+		CANCEL,
+		/** takes a random unit out of service from a random date and returns it */
+		OUTAGE,
+		/** lists the units, the leases of a random client and of a random unit */
+		LIST,
+		/** writes all of the data to a file */
+		SAVE
+	}
+
+	/** the manager the scenario runs against */
+	private PropertyManager manager;
+	/** the share of each operation, in the order of Operation */
+	private int[] mix = DEFAULT_MIX.clone();
+	/** the operations to start each second, or 0 to run them back to back */
+	private double rate;
+	/** the seed the operations are picked from */
+	private long seed;
+	/** the number of operations run before the measured ones */
+	private int warmup;
+	/** the file the recording is kept in, or null to discard it */
+	private String recording;
+
+	/**
+	 * Constructs a runner for the given manager
+	 *
+	 * @param manager the manager the scenario runs against
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public ScenarioRunner(PropertyManager manager) {
+		if (manager == null) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+	}
+
+	/**
+	 * Constructs a runner for a new manager holding the data of a file
+	 *
+	 * @param filename the name of the file, read by RentalReader
+	 * @return the runner
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	public static ScenarioRunner load(String filename) {
+		PropertyManager manager = new PropertyManager();
+		RentalReader.readRentalData(filename, manager);
+		return new ScenarioRunner(manager);
+	}
+
+	/**
+	 * Sets the share of each kind of operation
+	 *
+	 * @param book the share of bookings
+	 * @param cancel the share of cancellations
+	 * @param outage the share of outages
+	 * @param list the share of listings
+	 * @param save the share of saves
+	 * @throws IllegalArgumentException if a share is negative or all are 0
+	 */
+	public void setMix(int book, int cancel, int outage, int list, int save) {
+		int[] shares = {book, cancel, outage, list, save};
+		long total = 0;
+		for (int share : shares) {
+			if (share < 0) {
+				throw new IllegalArgumentException();
+			}
+			total += share;
+		}
+		if (total == 0 || total > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException();
+		}
+		this.mix = shares;
+	}
+
+	/**
+	 * Sets the share of each kind of operation from a list of the form
+	 * book=60,cancel=20,outage=2,list=15,save=3. An operation left out has
+	 * no share.
+	 *
+	 * @param script the shares
+	 * @throws IllegalArgumentException if the list cannot be read, or the
+	 *         shares are not valid
+	 */
+	public void setMix(String script) {
+		int[] shares = new int[Operation.values().length];
+		try {
+			for (String entry : script.split(",")) {
+				String[] pair = entry.split("=");
+				if (pair.length != 2) {
+					throw new IllegalArgumentException("Invalid mix: " + script);
+				}
+				shares[Operation.valueOf(pair[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(pair[1].trim());
+			}
+		} catch (NullPointerException e) {
+			throw new IllegalArgumentException("Invalid mix: " + script);
+		}
+		setMix(shares[0], shares[1], shares[2], shares[3], shares[4]);
+	}
+
+	/**
+	 * Sets the rate operations are started at
+	 *
+	 * @param operationsPerSecond the operations to start each second, or 0
+	 *        to run them back to back
+	 * @throws IllegalArgumentException if the rate is negative or not a number
+	 */
+	public void setRate(double operationsPerSecond) {
+		if (!(operationsPerSecond >= 0) || Double.isInfinite(operationsPerSecond)) {
+			throw new IllegalArgumentException();
+		}
+		this.rate = operationsPerSecond;
+	}
+
+	/**
+	 * Sets the seed the operations are picked from
+	 *
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the number of operations run back to back, and neither measured
+	 * nor recorded, before the measured ones, so that the code they run is
+	 * compiled first
+	 *
+	 * @param operations the number of operations
+	 * @throws IllegalArgumentException if operations is negative
+	 */
+	public void setWarmup(int operations) {
+		if (operations < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.warmup = operations;
+	}
+
+	/**
+	 * Sets the file the Flight Recorder recording of the run is kept in
+	 *
+	 * @param filename the name of the file, or null to discard the recording
+	 */
+	public void setRecording(String filename) {
+		this.recording = filename;
+	}
+
+	/**
+	 * Runs the scenario. The manager must have a rental unit and a client;
+	 * its unit filters are cleared first.
+	 *
+	 * @param operations the number of operations to measure
+	 * @return the report of the run
+	 * @throws IllegalArgumentException if operations is less than 1, or the
+	 *         manager has no rental unit or no client
+	 * @throws IllegalStateException if Flight Recorder is not available
+	 * @throws IOException if the recording or the saves cannot be written
+	 */
+	public Report run(int operations) throws IOException {
+		manager.filterRentalUnits("", false);
+		UnitView[] units = manager.viewRentalUnits();
+		if (operations < 1 || units.length == 0 || manager.getClientCount() == 0) {
+			throw new IllegalArgumentException();
+		}
+		if (!FlightRecorder.isAvailable()) {
+			throw new IllegalStateException("Flight Recorder is not available");
+		}
+		File saves = File.createTempFile("scenario", ".md");
+		Path file = recording == null ? File.createTempFile("scenario", ".jfr").toPath() : Paths.get(recording);
+		try {
+			Day day = new Day(units, saves.getPath());
+			for (int i = 0; i < warmup; i++) {
+				day.perform(day.next());
+			}
+			Map<Operation, LatencyHistogram> histograms = new EnumMap<Operation, LatencyHistogram>(Operation.class);
+			Map<Operation, Integer> rejected = new EnumMap<Operation, Integer>(Operation.class);
+			for (Operation operation : Operation.values()) {
+				histograms.put(operation, new LatencyHistogram());
+				rejected.put(operation, 0);
+			}
+			long allocated;
+			long elapsed;
+			try (Recording jfr = new Recording(Configuration.getConfiguration(SETTINGS))) {
+				jfr.start();
+				allocated = allocatedBytes();
+				long began = System.nanoTime();
+				for (int i = 0; i < operations; i++) {
+					long due = rate == 0 ? System.nanoTime() : began + (long) (i * 1e9 / rate);
+					for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+						LockSupport.parkNanos(wait);
+					}
+					Operation operation = day.next();
+					if (!day.perform(operation)) {
+						rejected.merge(operation, 1, Integer::sum);
+					}
+					histograms.get(operation).record(System.nanoTime() - due);
+				}
+				elapsed = System.nanoTime() - began;
+				allocated = allocatedBytes() - allocated;
+				jfr.stop();
+				jfr.dump(file);
+			} catch (ParseException e) {
+				throw new IllegalStateException(e);
+			}
+			Report report = new Report(histograms, rejected, elapsed, allocated, recording);
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				if ("jdk.GarbageCollection".equals(event.getEventType().getName())) {
+					report.addCollection(event.getDuration("sumOfPauses").toNanos(),
+							event.getDuration("longestPause").toNanos());
+				}
+			}
+			return report;
+		} finally {
+			saves.delete();
+			if (recording == null) {
+				file.toFile().delete();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of bytes the current thread has allocated so far
+	 *
+	 * @return the bytes, or 0 if the JVM does not count them
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return Math.max(0, ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+					Thread.currentThread().getId()));
+		}
+		return 0;
+	}
+
+	/**
+	 * Runs a scenario from the command line. The arguments are the data
+	 * file, the number of operations, the rate in operations per second (0
+	 * for back to back) and, optionally, the mix, the seed, the number of
+	 * warmup operations and the file to keep the recording in.
+	 *
+	 * @param args the file, the operations, the rate and the options
+	 * @throws IOException if the recording or the saves cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: ScenarioRunner file operations rate [book=60,cancel=20,outage=2,list=15,save=3]"
+					+ " [seed] [warmup] [recording.jfr]");
+			return;
+		}
+		ScenarioRunner runner = load(args[0]);
+		runner.setRate(Double.parseDouble(args[2]));
+		if (args.length > 3) {
+			runner.setMix(args[3]);
+		}
+		if (args.length > 4) {
+			runner.setSeed(Long.parseLong(args[4]));
+		}
+		if (args.length > 5) {
+			runner.setWarmup(Integer.parseInt(args[5]));
+		}
+		if (args.length > 6) {
+			runner.setRecording(args[6]);
+		}
+		System.out.print(runner.run(Integer.parseInt(args[1])));
+	}
+
+	/**
+	 * The Day class picks and performs the operations of one run, all from
+	 * the runner's seed, so that two runs of a scenario on the same data
+	 * make the same requests.
+	 */
+	private class Day {
+
+		/** the source of randomness */
+		private Random random = new Random(seed);
+		/** the rental units, as they were when the run started */
+		private UnitView[] units;
+		/** the file saves are written to */
+		private String saves;
+		/** the sum of the shares of the mix */
+		private int total;
+
+		/**
+		 * Constructs a day for the given units
+		 *
+		 * @param units the rental units of the manager
+		 * @param saves the file saves are written to
+		 */
+		Day(UnitView[] units, String saves) {
+			this.units = units;
+			this.saves = saves;
+			for (int share : mix) {
+				total += share;
+			}
+		}
+
+		/**
+		 * Picks the next operation by its share of the mix
+		 *
+		 * @return the operation
+		 */
+		Operation next() {
+			int pick = random.nextInt(total);
+			int o = 0;
+			while (pick >= mix[o]) {
+				pick -= mix[o++];
+			}
+			return Operation.values()[o];
+		}
+
+		/**
+		 * Performs an operation through the Landlord interface
+		 *
+		 * @param operation the operation
+		 * @return whether the manager carried it out, rather than refusing it
+		 * @throws IOException if a save cannot be written
+		 */
+		boolean perform(Operation operation) throws IOException {
+			int client = random.nextInt(manager.getClientCount());
+			int unit = random.nextInt(units.length);
+			try {
+				switch (operation) {
+				case BOOK:
+					book(client, unit);
+					break;
+				case CANCEL:
+					int leases = manager.getClientAt(client).getLeaseCount();
+					if (leases == 0) {
+						return false;
+					}
+					manager.cancelClientsLease(client, random.nextInt(leases));
+					break;
+				case OUTAGE:
+					manager.removeFromService(unit, PropertyManager.EARLIEST_DATE.plusDays(random.nextInt(DAYS)));
+					manager.returnToService(unit);
+					break;
+				case LIST:
+					manager.listRentalUnits();
+					manager.listClientLeases(client);
+					manager.listLeasesForRentalUnit(unit);
+					break;
+				default:
+					try {
+						RentalWriter.writeRentalFile(saves, manager);
+					} catch (IllegalArgumentException e) {
+						throw new IOException("Unable to save file.", e);
+					}
+					break;
+				}
+				return true;
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Books a lease of random dates and occupants that suit the unit
+		 *
+		 * @param client the position of the client
+		 * @param unit the position of the unit
+		 * @throws IllegalArgumentException if the manager refuses the lease
+		 */
+		private void book(int client, int unit) {
+			UnitView view = units[unit];
+			int people = 1 + random.nextInt(view.getCapacity());
+			switch (view.getKind()) {
+			case 'C':
+				manager.createLease(client, unit, PropertyManager.EARLIEST_DATE.plusDays(random.nextInt(DAYS)),
+						1 + random.nextInt(ConferenceRoom.MAX_DURATION), people);
+				break;
+			case 'H':
+				manager.createLease(client, unit, FIRST_SUNDAY.plusWeeks(random.nextInt(WEEKS)),
+						1 + random.nextInt(MAX_WEEKS), people);
+				break;
+			default:
+				manager.createLease(client, unit, PropertyManager.EARLIEST_DATE.plusMonths(random.nextInt(MONTHS)),
+						1 + random.nextInt(MAX_MONTHS), 1 + random.nextInt(Math.max(1, view.getCapacity() / 10)));
+				break;
+			}
+		}
+	}
+
+	/**
+	 * The Report class holds the results of a scenario run.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Report {
+
+		/** the nanoseconds per microsecond */
+		private static final double NANOS_PER_MICRO = 1e3;
+		/** the nanoseconds per millisecond */
+		private static final double NANOS_PER_MILLI = 1e6;
+		/** the bytes per megabyte */
+		private static final double BYTES_PER_MB = 1024 * 1024;
+		/** the latencies of each kind of operation */
+		private Map<Operation, LatencyHistogram> histograms;
+		/** the number of each kind of operation the manager refused */
+		private Map<Operation, Integer> rejected;
+		/** the length of the run in nanoseconds */
+		private long elapsed;
+		/** the bytes allocated by the run */
+		private long allocated;
+		/** the number of garbage collections during the run */
+		private int collections;
+		/** the total time the application was paused for collections, in nanoseconds */
+		private long pauses;
+		/** the longest pause for a collection, in nanoseconds */
+		private long longestPause;
+		/** the file the recording was kept in, or null if it was discarded */
+		private String recording;
+
+		/**
+		 * Constructs a Report with no garbage collections
+		 *
+		 * @param histograms the latencies of each kind of operation
+		 * @param rejected the number of each kind of operation the manager refused
+		 * @param elapsed the length of the run in nanoseconds
+		 * @param allocated the bytes allocated by the run
+		 * @param recording the file the recording was kept in, or null
+		 */
+		Report(Map<Operation, LatencyHistogram> histograms, Map<Operation, Integer> rejected,
+				long elapsed, long allocated, String recording) {
+			this.histograms = histograms;
+			this.rejected = rejected;
+			this.elapsed = elapsed;
+			this.allocated = allocated;
+			this.recording = recording;
+		}
+
+		/**
+		 * Adds a garbage collection that happened during the run
+		 *
+		 * @param pause the total time the collection paused the application, in nanoseconds
+		 * @param longest the longest of its pauses, in nanoseconds
+		 */
+		void addCollection(long pause, long longest) {
+			collections++;
+			pauses += pause;
+			longestPause = Math.max(longestPause, longest);
+		}
+
+		/**
+		 * Gets the latencies of a kind of operation
+		 *
+		 * @param operation the kind of operation
+		 * @return the histogram of its latencies
+		 */
+		public LatencyHistogram getHistogram(Operation operation) {
+			return histograms.get(operation);
+		}
+
+		/**
+		 * Gets the number of operations of a kind that the manager refused
+		 *
+		 * @param operation the kind of operation
+		 * @return the number refused
+		 */
+		public int getRejected(Operation operation) {
+			return rejected.get(operation);
+		}
+
+		/**
+		 * Gets the number of operations measured
+		 *
+		 * @return the number of operations
+		 */
+		public long getOperations() {
+			long operations = 0;
+			for (LatencyHistogram histogram : histograms.values()) {
+				operations += histogram.getCount();
+			}
+			return operations;
+		}
+
+		/**
+		 * Gets the number of operations carried out per second over the run
+		 *
+		 * @return the throughput
+		 */
+		public double getThroughput() {
+			return getOperations() / (elapsed / 1e9);
+		}
+
+		/**
+		 * Gets the bytes the run allocated
+		 *
+		 * @return the bytes
+		 */
+		public long getAllocatedBytes() {
+			return allocated;
+		}
+
+		/**
+		 * Gets the rate the run allocated at
+		 *
+		 * @return the megabytes allocated per second
+		 */
+		public double getAllocationRate() {
+			return allocated / BYTES_PER_MB / (elapsed / 1e9);
+		}
+
+		/**
+		 * Gets the number of garbage collections during the run
+		 *
+		 * @return the number of collections
+		 */
+		public int getCollections() {
+			return collections;
+		}
+
+		/**
+		 * Gets the total time the application was paused for garbage
+		 * collections during the run
+		 *
+		 * @return the time in nanoseconds
+		 */
+		public long getPauseNanos() {
+			return pauses;
+		}
+
+		/**
+		 * Gets the longest pause for a garbage collection during the run
+		 *
+		 * @return the pause in nanoseconds
+		 */
+		public long getLongestPauseNanos() {
+			return longestPause;
+		}
+
+		/**
+		 * Gets the file the Flight Recorder recording was kept in
+		 *
+		 * @return the name of the file, or null if it was discarded
+		 */
+		public String getRecording() {
+			return recording;
+		}
+
+		/**
+		 * Returns the report as text: a summary of the run, a line of
+		 * percentiles for each kind of operation, then the histogram of
+		 * each kind of operation that ran
+		 *
+		 * @return the report
+		 */
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("%d operations in %.3f s, %.1f ops/s%n", getOperations(), elapsed / 1e9, getThroughput()));
+			sb.append(String.format("allocated %.1f MB, %.1f MB/s%n", allocated / BYTES_PER_MB, getAllocationRate()));
+			sb.append(String.format("%d GCs, paused %.3f ms, longest %.3f ms%n", collections,
+					pauses / NANOS_PER_MILLI, longestPause / NANOS_PER_MILLI));
+			if (recording != null) {
+				sb.append("recording ").append(recording).append('\n');
+			}
+			sb.append(String.format("%n%-8s %9s %9s %10s %10s %10s %10s %10s%n",
+					"op", "count", "rejected", "mean us", "p50 us", "p99 us", "p99.9 us", "max us"));
+			for (Operation operation : Operation.values()) {
+				LatencyHistogram histogram = histograms.get(operation);
+				if (histogram.getCount() > 0) {
+					sb.append(String.format("%-8s %9d %9d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+							operation.name().toLowerCase(), histogram.getCount(), rejected.get(operation),
+							histogram.getMean() / NANOS_PER_MICRO, histogram.getPercentile(0.5) / NANOS_PER_MICRO,
+							histogram.getPercentile(0.99) / NANOS_PER_MICRO, histogram.getPercentile(0.999) / NANOS_PER_MICRO,
+							histogram.getMax() / NANOS_PER_MICRO));
+				}
+			}
+			for (Operation operation : Operation.values()) {
+				LatencyHistogram histogram = histograms.get(operation);
+				if (histogram.getCount() > 0) {
+					sb.append('\n').append(operation.name().toLowerCase()).append('\n').append(histogram);
+				}
+			}
+			return sb.toString();
+		}
+	}
+}
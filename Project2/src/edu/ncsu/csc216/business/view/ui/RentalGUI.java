@@ -37,6 +37,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SpringLayout;
+import javax.swing.Timer;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -218,6 +219,8 @@ public class RentalGUI extends JFrame implements ActionListener {
 	private String displaySpecificKindOnly = "A";
 	
 	// Backend and file I/O
+	/** How often to check for maintenance windows starting or ending */
+	private static final int CALENDAR_CHECK_MILLIS = 60 * 60 * 1000;
 	/** Back end manager (gets data from the GUI and provides resulting data to the GUI) */
 	private Landlord mgr = PropertyManager.getInstance();
 	/** Name of the file with rental data most recently used during the current run */
@@ -249,6 +252,14 @@ public class RentalGUI extends JFrame implements ActionListener {
 		});
 		// Dress the GUI with components
 		initializeGUI();
+		// Start and end maintenance windows as the days go by
+		Timer calendarTimer = new Timer(CALENDAR_CHECK_MILLIS, e -> {
+			if (PropertyManager.getInstance().advanceCalendar(LocalDate.now()) > 0) {
+				refreshAllRentalUnits();
+			}
+		});
+		calendarTimer.setInitialDelay(0);
+		calendarTimer.start();
 		setVisible(true);
 	}
 
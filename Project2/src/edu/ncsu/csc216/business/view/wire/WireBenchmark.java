@@ -0,0 +1,119 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.wire;
+
+import java.io.IOException;
+
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The WireBenchmark class measures how many leases a WireServer on the
+ * local host can create per second, with the requests either pipelined in
+ * one Batch or sent one at a time. Each run starts a server for a new
+ * manager and adds conference rooms, enough that each holds only a few
+ * dozen leases, and a client for each room, so the cost of the protocol
+ * rather than of long lease lists is what is measured. It then creates one
+ * day leases, going round the rooms a day at a time.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class WireBenchmark {
+
+	/** the number of days leases can be made on */
+	private static final int DAYS = (int) (PropertyManager.LATEST_DATE.toEpochDay()
+			- PropertyManager.EARLIEST_DATE.toEpochDay() + 1);
+	/** the number of rooms on a floor */
+	private static final int ROOMS = RentalUnit.MAX_ROOM - RentalUnit.MIN_ROOM + 1;
+	/** the number of leases to put in each room, if there are rooms enough */
+	private static final int LEASES_PER_ROOM = 32;
+	/** the start of the id of each client */
+	private static final String CLIENT = "bench";
+
+	/**
+	 * Not used, the class only has static members
+	 */
+	private WireBenchmark() {
+		// no instances
+	}
+
+	/**
+	 * Creates the given number of leases through a new local server
+	 *
+	 * @param leases the number of leases to create
+	 * @param pipelined whether to send the requests in one Batch, rather than one at a time
+	 * @return the number of leases created per second
+	 * @throws IOException if the server cannot be started or reached
+	 * @throws IllegalArgumentException if leases is less than 1 or more than the rooms can hold
+	 * @throws IllegalStateException if the server refuses a request
+	 */
+	public static double run(int leases, boolean pipelined) throws IOException {
+		int units = Math.min(ROOMS * RentalUnit.MAX_FLOOR, (leases + LEASES_PER_ROOM - 1) / LEASES_PER_ROOM);
+		if (leases < 1 || leases > (long) units * DAYS) {
+			throw new IllegalArgumentException();
+		}
+		try (WireServer server = new WireServer(new PropertyManager());
+				WireClient client = new WireClient("localhost", server.start(0))) {
+			WireClient.Batch setup = client.batch();
+			for (int i = 0; i < units; i++) {
+				setup.addNewClient("Benchmark " + i, CLIENT + i);
+				setup.addNewUnit("C", location(i), ConferenceRoom.MAX_CAPACITY);
+			}
+			check(setup.execute());
+			long began = System.nanoTime();
+			if (pipelined) {
+				WireClient.Batch batch = client.batch();
+				for (int i = 0; i < leases; i++) {
+					batch.createLease(CLIENT + i % units, location(i % units), PropertyManager.EARLIEST_DATE.plusDays(i / units), 1, 1);
+				}
+				check(batch.execute());
+			} else {
+				for (int i = 0; i < leases; i++) {
+					client.createLease(CLIENT + i % units, location(i % units), PropertyManager.EARLIEST_DATE.plusDays(i / units), 1, 1);
+				}
+			}
+			return leases / ((System.nanoTime() - began) / 1e9);
+		}
+	}
+
+	/**
+	 * Gets the location of the room with the given number
+	 *
+	 * @param unit the number of the room, from 0
+	 * @return the location, of the form FF-RR
+	 */
+	private static String location(int unit) {
+		return (RentalUnit.MIN_FLOOR + unit / ROOMS) + "-" + (RentalUnit.MIN_ROOM + unit % ROOMS);
+	}
+
+	/**
+	 * Checks that every request of a Batch was carried out
+	 *
+	 * @param replies the replies to the requests
+	 * @throws IllegalStateException if any request failed
+	 */
+	private static void check(WireClient.Reply[] replies) {
+		for (WireClient.Reply reply : replies) {
+			if (!reply.isOk()) {
+				throw new IllegalStateException(reply.toString());
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark from the command line. The arguments are the number
+	 * of leases to create pipelined, 100000 by default, and the number to
+	 * create one at a time, 10000 by default.
+	 *
+	 * @param args the numbers of leases
+	 * @throws IOException if the server cannot be started or reached
+	 */
+	public static void main(String[] args) throws IOException {
+		int pipelined = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int single = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		System.out.printf("pipelined: %d leases, %.0f leases/s%n", pipelined, run(pipelined, true));
+		System.out.printf("one at a time: %d leases, %.0f leases/s%n", single, run(single, false));
+	}
+}
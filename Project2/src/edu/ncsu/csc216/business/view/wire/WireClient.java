@@ -0,0 +1,558 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.wire;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+import edu.ncsu.csc216.business.view.wire.WireProtocol.Op;
+import edu.ncsu.csc216.business.view.wire.WireServer.Status;
+
+/**
+ * The WireClient class is a connection to a WireServer. Each single
+ * operation sends one request and waits for its response. For bulk work,
+ * a Batch gathers any number of requests and sends them pipelined: many
+ * requests are written before their responses are read, so the cost of a
+ * round trip is paid once per window of requests rather than once per
+ * request. The responses come back in the order the requests were added.
+ * A WireClient is not safe for use by several threads at once.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class WireClient implements Closeable {
+
+	/** the largest number of requests sent ahead of their responses */
+	private static final int WINDOW = 4096;
+	/** the size of the buffers */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** the connection to the server */
+	private SocketChannel channel;
+	/** the bytes received and not yet read, ready to be read */
+	private ByteBuffer in;
+	/** the frames waiting to be sent, being filled */
+	private ByteBuffer out;
+
+	/**
+	 * Connects to a WireServer
+	 *
+	 * @param host the host of the server
+	 * @param port the port of the server
+	 * @throws IOException if the server cannot be reached
+	 */
+	public WireClient(String host, int port) throws IOException {
+		this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+		this.channel.socket().setTcpNoDelay(true);
+		this.in = ByteBuffer.allocate(BUFFER_SIZE);
+		this.in.flip();
+		this.out = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	/**
+	 * Starts a new Batch of requests
+	 *
+	 * @return the empty Batch
+	 */
+	public Batch batch() {
+		return new Batch();
+	}
+
+	/**
+	 * Adds a client
+	 *
+	 * @param name the name of the client
+	 * @param id the id of the client
+	 * @return the new client
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server refuses the request
+	 */
+	public ClientView addNewClient(String name, String id) throws IOException {
+		return batch().addNewClient(name, id).execute()[0].getClient();
+	}
+
+	/**
+	 * Adds a rental unit
+	 *
+	 * @param kind the kind of the unit, by its first letter
+	 * @param location the location of the unit, of the form FF-RR
+	 * @param capacity the capacity of the unit
+	 * @return the new unit
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server refuses the request
+	 */
+	public UnitView addNewUnit(String kind, String location, int capacity) throws IOException {
+		return batch().addNewUnit(kind, location, capacity).execute()[0].getUnit();
+	}
+
+	/**
+	 * Creates a lease
+	 *
+	 * @param clientId the id of the client
+	 * @param location the location of the unit, of the form FF-RR
+	 * @param start the start date
+	 * @param duration the duration, in the units of the kind of unit
+	 * @param occupants the number of occupants
+	 * @return the new lease
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server refuses the request
+	 */
+	public LeaseView createLease(String clientId, String location, LocalDate start, int duration, int occupants)
+			throws IOException {
+		return batch().createLease(clientId, location, start, duration, occupants).execute()[0].getLease();
+	}
+
+	/**
+	 * Gets an active lease
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @return the lease
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if there is no such lease
+	 */
+	public LeaseView getLease(int confirmationNumber) throws IOException {
+		return batch().getLease(confirmationNumber).execute()[0].getLease();
+	}
+
+	/**
+	 * Extends a lease
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return the extended lease
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server refuses the request
+	 */
+	public LeaseView extendLease(int confirmationNumber, LocalDate newEnd) throws IOException {
+		return batch().extendLease(confirmationNumber, newEnd).execute()[0].getLease();
+	}
+
+	/**
+	 * Shortens a lease
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @param newEnd the new end date
+	 * @return the shortened lease
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server refuses the request
+	 */
+	public LeaseView shortenLease(int confirmationNumber, LocalDate newEnd) throws IOException {
+		return batch().shortenLease(confirmationNumber, newEnd).execute()[0].getLease();
+	}
+
+	/**
+	 * Cancels a lease
+	 *
+	 * @param confirmationNumber the confirmation number of the lease
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if there is no such lease
+	 */
+	public void cancelLease(int confirmationNumber) throws IOException {
+		batch().cancelLease(confirmationNumber).execute()[0].check();
+	}
+
+	/**
+	 * Sends a request that does nothing and waits for its response
+	 *
+	 * @throws IOException if the connection fails
+	 */
+	public void ping() throws IOException {
+		batch().ping().execute()[0].check();
+	}
+
+	/**
+	 * Closes the connection
+	 *
+	 * @throws IOException if the connection cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Sends everything waiting to be sent
+	 *
+	 * @throws IOException if the connection fails
+	 */
+	private void flush() throws IOException {
+		out.flip();
+		while (out.hasRemaining()) {
+			channel.write(out);
+		}
+		out.clear();
+	}
+
+	/**
+	 * Reads the body of the next response, waiting for it to arrive
+	 *
+	 * @return the body, ready to be read
+	 * @throws IOException if the connection fails or closes
+	 */
+	private ByteBuffer receive() throws IOException {
+		fill(WireProtocol.HEADER);
+		int length = in.getInt();
+		if (length < 1 || length > WireProtocol.MAX_FRAME) {
+			throw new IOException("Bad frame length " + length);
+		}
+		fill(length);
+		ByteBuffer body = in.slice();
+		body.limit(length);
+		in.position(in.position() + length);
+		return body;
+	}
+
+	/**
+	 * Waits until the given number of bytes have been received and not read
+	 *
+	 * @param needed the number of bytes
+	 * @throws IOException if the connection fails or closes
+	 */
+	private void fill(int needed) throws IOException {
+		if (in.remaining() >= needed) {
+			return;
+		}
+		in.compact();
+		in = WireProtocol.ensure(in, needed);
+		while (in.position() < needed) {
+			if (channel.read(in) < 0) {
+				throw new EOFException("Server closed the connection");
+			}
+		}
+		in.flip();
+	}
+
+	/**
+	 * The Batch class gathers requests to be sent pipelined. Each method
+	 * adds a request and returns the Batch, so calls can be chained.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public class Batch {
+
+		/** the frames of the requests, being filled */
+		private ByteBuffer frames;
+		/** the operation of each request */
+		private Op[] ops;
+		/** the number of requests */
+		private int size;
+		/** holds the body of each request as it is written */
+		private ByteBuffer body;
+
+		/**
+		 * Constructs an empty Batch
+		 */
+		Batch() {
+			this.frames = ByteBuffer.allocate(BUFFER_SIZE);
+			this.ops = new Op[16];
+			this.body = ByteBuffer.allocate(WireProtocol.MAX_FRAME);
+		}
+
+		/**
+		 * Gets the number of requests in the Batch
+		 *
+		 * @return the number of requests
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Adds a request that does nothing
+		 *
+		 * @return this Batch
+		 */
+		public Batch ping() {
+			start(Op.PING);
+			return end();
+		}
+
+		/**
+		 * Adds a request to add a client
+		 *
+		 * @param name the name of the client
+		 * @param id the id of the client
+		 * @return this Batch
+		 */
+		public Batch addNewClient(String name, String id) {
+			start(Op.ADD_CLIENT);
+			WireProtocol.putString(body, name);
+			WireProtocol.putString(body, id);
+			return end();
+		}
+
+		/**
+		 * Adds a request to add a rental unit
+		 *
+		 * @param kind the kind of the unit, by its first letter
+		 * @param location the location of the unit, of the form FF-RR
+		 * @param capacity the capacity of the unit
+		 * @return this Batch
+		 */
+		public Batch addNewUnit(String kind, String location, int capacity) {
+			start(Op.ADD_UNIT);
+			WireProtocol.putString(body, kind);
+			WireProtocol.putString(body, location);
+			body.putInt(capacity);
+			return end();
+		}
+
+		/**
+		 * Adds a request to create a lease
+		 *
+		 * @param clientId the id of the client
+		 * @param location the location of the unit, of the form FF-RR
+		 * @param start the start date
+		 * @param duration the duration, in the units of the kind of unit
+		 * @param occupants the number of occupants
+		 * @return this Batch
+		 */
+		public Batch createLease(String clientId, String location, LocalDate start, int duration, int occupants) {
+			start(Op.CREATE_LEASE);
+			WireProtocol.putString(body, clientId);
+			WireProtocol.putString(body, location);
+			body.putInt((int) start.toEpochDay());
+			body.putInt(duration);
+			body.putInt(occupants);
+			return end();
+		}
+
+		/**
+		 * Adds a request to get an active lease
+		 *
+		 * @param confirmationNumber the confirmation number of the lease
+		 * @return this Batch
+		 */
+		public Batch getLease(int confirmationNumber) {
+			start(Op.GET_LEASE);
+			body.putInt(confirmationNumber);
+			return end();
+		}
+
+		/**
+		 * Adds a request to extend a lease
+		 *
+		 * @param confirmationNumber the confirmation number of the lease
+		 * @param newEnd the new end date
+		 * @return this Batch
+		 */
+		public Batch extendLease(int confirmationNumber, LocalDate newEnd) {
+			start(Op.EXTEND_LEASE);
+			body.putInt(confirmationNumber);
+			body.putInt((int) newEnd.toEpochDay());
+			return end();
+		}
+
+		/**
+		 * Adds a request to shorten a lease
+		 *
+		 * @param confirmationNumber the confirmation number of the lease
+		 * @param newEnd the new end date
+		 * @return this Batch
+		 */
+		public Batch shortenLease(int confirmationNumber, LocalDate newEnd) {
+			start(Op.SHORTEN_LEASE);
+			body.putInt(confirmationNumber);
+			body.putInt((int) newEnd.toEpochDay());
+			return end();
+		}
+
+		/**
+		 * Adds a request to cancel a lease
+		 *
+		 * @param confirmationNumber the confirmation number of the lease
+		 * @return this Batch
+		 */
+		public Batch cancelLease(int confirmationNumber) {
+			start(Op.CANCEL_LEASE);
+			body.putInt(confirmationNumber);
+			return end();
+		}
+
+		/**
+		 * Sends every request and reads their responses, keeping no more
+		 * than a window of requests ahead of the responses so neither side
+		 * has to buffer the whole Batch. The Batch is empty afterwards.
+		 *
+		 * @return the responses, in the order the requests were added
+		 * @throws IOException if the connection fails
+		 */
+		public Reply[] execute() throws IOException {
+			Reply[] replies = new Reply[size];
+			frames.flip();
+			int sent = 0;
+			int received = 0;
+			while (received < size) {
+				int ahead = Math.min(size, received + WINDOW);
+				while (sent < ahead) {
+					int length = frames.getInt(frames.position());
+					ByteBuffer frame = frames.slice();
+					frame.limit(WireProtocol.HEADER + length);
+					frames.position(frames.position() + WireProtocol.HEADER + length);
+					out = WireProtocol.ensure(out, frame.remaining());
+					out.put(frame);
+					sent++;
+				}
+				flush();
+				int caughtUp = sent == size ? size : sent - WINDOW / 2;
+				while (received < caughtUp) {
+					replies[received] = new Reply(ops[received], receive());
+					received++;
+				}
+			}
+			frames.clear();
+			size = 0;
+			return replies;
+		}
+
+		/**
+		 * Starts writing a request
+		 *
+		 * @param op the operation of the request
+		 */
+		private void start(Op op) {
+			body.clear();
+			body.put((byte) op.ordinal());
+			if (size == ops.length) {
+				ops = Arrays.copyOf(ops, size * 2);
+			}
+			ops[size] = op;
+		}
+
+		/**
+		 * Finishes writing a request, adding its frame to the Batch
+		 *
+		 * @return this Batch
+		 */
+		private Batch end() {
+			body.flip();
+			frames = WireProtocol.putFrame(frames, body);
+			size++;
+			return this;
+		}
+	}
+
+	/**
+	 * The Reply class is the response to one request of a Batch.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	public static class Reply {
+
+		/** the status of the response */
+		private Status status;
+		/** the error message, or null if the request was carried out */
+		private String message;
+		/** the client, unit or lease the request returned, or null */
+		private Object value;
+
+		/**
+		 * Reads a Reply from the body of a response
+		 *
+		 * @param op the operation of the request
+		 * @param body the body of the response
+		 */
+		Reply(Op op, ByteBuffer body) {
+			this.status = Status.values()[body.get()];
+			if (status != Status.OK) {
+				this.message = WireProtocol.getString(body);
+			} else if (op == Op.ADD_CLIENT) {
+				this.value = WireProtocol.getClient(body);
+			} else if (op == Op.ADD_UNIT) {
+				this.value = WireProtocol.getUnit(body);
+			} else if (op != Op.PING && op != Op.CANCEL_LEASE) {
+				this.value = WireProtocol.getLease(body);
+			}
+		}
+
+		/**
+		 * Gets the status of the response
+		 *
+		 * @return the status
+		 */
+		public Status getStatus() {
+			return this.status;
+		}
+
+		/**
+		 * Returns whether the request was carried out
+		 *
+		 * @return whether the status is OK
+		 */
+		public boolean isOk() {
+			return status == Status.OK;
+		}
+
+		/**
+		 * Gets the message of a failed request
+		 *
+		 * @return the message, or null if the request was carried out
+		 */
+		public String getMessage() {
+			return this.message;
+		}
+
+		/**
+		 * Gets the client a request to add a client returned
+		 *
+		 * @return the client
+		 * @throws IllegalArgumentException if the request failed
+		 */
+		public ClientView getClient() {
+			check();
+			return (ClientView) value;
+		}
+
+		/**
+		 * Gets the unit a request to add a unit returned
+		 *
+		 * @return the unit
+		 * @throws IllegalArgumentException if the request failed
+		 */
+		public UnitView getUnit() {
+			check();
+			return (UnitView) value;
+		}
+
+		/**
+		 * Gets the lease a request to create, get, extend or shorten a lease
+		 * returned
+		 *
+		 * @return the lease
+		 * @throws IllegalArgumentException if the request failed
+		 */
+		public LeaseView getLease() {
+			check();
+			return (LeaseView) value;
+		}
+
+		/**
+		 * Checks that the request was carried out
+		 *
+		 * @throws IllegalArgumentException with the server's message if the request failed
+		 */
+		void check() {
+			if (status != Status.OK) {
+				throw new IllegalArgumentException(message);
+			}
+		}
+
+		/**
+		 * Returns the status, with the message of a failed request
+		 *
+		 * @return the Reply as a String
+		 */
+		@Override
+		public String toString() {
+			return message == null ? status.toString() : status + ": " + message;
+		}
+	}
+}
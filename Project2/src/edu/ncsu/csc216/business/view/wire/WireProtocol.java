@@ -0,0 +1,228 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.wire;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The WireProtocol class holds the binary frames a WireClient and a
+ * WireServer exchange. Every frame is a four byte length followed by that
+ * many bytes of body. The body of a request is the byte of its operation
+ * and its arguments, and the body of a response is the byte of its status
+ * followed by its result, or by a message if the request failed. Numbers
+ * are big-endian ints, dates are ints counting days from the epoch, and
+ * Strings are a two byte length followed by that many bytes of UTF-8.
+ * Responses carry no tag: they are sent in the order the requests came in,
+ * so a client that pipelines its requests matches them up by position.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+class WireProtocol {
+
+	/** the number of bytes in the length of a frame */
+	static final int HEADER = 4;
+	/** the largest body of a frame */
+	static final int MAX_FRAME = 1 << 16;
+	/** the longest String, in bytes */
+	static final int MAX_STRING = 0xFFFF;
+
+	/**
+	 * The operations a WireServer carries out, sent as their ordinals
+	 */
+	enum Op {
+		/** does nothing, to measure the round trip */
+		PING,
+		/** adds a client: name and id */
+		ADD_CLIENT,
+		/** adds a rental unit: kind, location and capacity */
+		ADD_UNIT,
+		/** creates a lease: client id, location, start day, duration and occupants */
+		CREATE_LEASE,
+		/** gets a lease: confirmation number */
+		GET_LEASE,
+		/** extends a lease: confirmation number and new end day */
+		EXTEND_LEASE,
+		/** shortens a lease: confirmation number and new end day */
+		SHORTEN_LEASE,
+		/** cancels a lease: confirmation number */
+		CANCEL_LEASE;
+
+		/** the operations by ordinal */
+		private static final Op[] VALUES = values();
+
+		/**
+		 * Gets the operation with the given ordinal
+		 *
+		 * @param code the ordinal
+		 * @return the operation
+		 * @throws IllegalArgumentException if there is no such operation
+		 */
+		static Op of(int code) {
+			if (code < 0 || code >= VALUES.length) {
+				throw new IllegalArgumentException("Unknown operation " + code);
+			}
+			return VALUES[code];
+		}
+	}
+
+	/**
+	 * Not used, the class only has static members
+	 */
+	private WireProtocol() {
+		// no instances
+	}
+
+	/**
+	 * Makes room for more bytes in a buffer that is being filled
+	 *
+	 * @param buffer the buffer
+	 * @param needed the number of bytes to make room for
+	 * @return the buffer, or a larger copy of it
+	 */
+	static ByteBuffer ensure(ByteBuffer buffer, int needed) {
+		if (buffer.remaining() >= needed) {
+			return buffer;
+		}
+		int capacity = buffer.capacity();
+		while (capacity - buffer.position() < needed) {
+			capacity *= 2;
+		}
+		ByteBuffer larger = ByteBuffer.allocate(capacity);
+		buffer.flip();
+		larger.put(buffer);
+		return larger;
+	}
+
+	/**
+	 * Appends a frame to a buffer that is being filled, copying its body
+	 * from another buffer that is ready to be read
+	 *
+	 * @param buffer the buffer to append to
+	 * @param body the body of the frame
+	 * @return the buffer, or a larger copy of it
+	 */
+	static ByteBuffer putFrame(ByteBuffer buffer, ByteBuffer body) {
+		buffer = ensure(buffer, HEADER + body.remaining());
+		buffer.putInt(body.remaining());
+		buffer.put(body);
+		return buffer;
+	}
+
+	/**
+	 * Writes a String
+	 *
+	 * @param buffer the buffer
+	 * @param s the String
+	 * @throws IllegalArgumentException if the String is null or too long
+	 */
+	static void putString(ByteBuffer buffer, String s) {
+		if (s == null) {
+			throw new IllegalArgumentException();
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > MAX_STRING) {
+			throw new IllegalArgumentException("String too long");
+		}
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Reads a String
+	 *
+	 * @param buffer the buffer
+	 * @return the String
+	 * @throws BufferUnderflowException if the buffer ends first
+	 */
+	static String getString(ByteBuffer buffer) {
+		int length = buffer.getShort() & MAX_STRING;
+		if (buffer.remaining() < length) {
+			throw new BufferUnderflowException();
+		}
+		String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return s;
+	}
+
+	/**
+	 * Writes a client
+	 *
+	 * @param buffer the buffer
+	 * @param client the view of the client
+	 */
+	static void putClient(ByteBuffer buffer, ClientView client) {
+		putString(buffer, client.getName());
+		putString(buffer, client.getId());
+		buffer.putInt(client.getLeaseCount());
+	}
+
+	/**
+	 * Reads a client
+	 *
+	 * @param buffer the buffer
+	 * @return the view of the client
+	 */
+	static ClientView getClient(ByteBuffer buffer) {
+		return new ClientView(getString(buffer), getString(buffer), buffer.getInt());
+	}
+
+	/**
+	 * Writes a rental unit
+	 *
+	 * @param buffer the buffer
+	 * @param unit the view of the unit
+	 */
+	static void putUnit(ByteBuffer buffer, UnitView unit) {
+		putString(buffer, unit.getKindLabel());
+		buffer.put((byte) unit.getFloor());
+		buffer.put((byte) unit.getRoom());
+		buffer.putInt(unit.getCapacity());
+		buffer.put((byte) (unit.isInService() ? 1 : 0));
+	}
+
+	/**
+	 * Reads a rental unit
+	 *
+	 * @param buffer the buffer
+	 * @return the view of the unit
+	 */
+	static UnitView getUnit(ByteBuffer buffer) {
+		return new UnitView(getString(buffer), buffer.get(), buffer.get(), buffer.getInt(), buffer.get() != 0);
+	}
+
+	/**
+	 * Writes a lease
+	 *
+	 * @param buffer the buffer
+	 * @param lease the view of the lease
+	 */
+	static void putLease(ByteBuffer buffer, LeaseView lease) {
+		buffer.putInt(lease.getConfirmationNumber());
+		buffer.putInt(lease.getStartDay());
+		buffer.putInt(lease.getEndDay());
+		buffer.putInt(lease.getOccupants());
+		putString(buffer, lease.getUnitKindLabel());
+		buffer.put((byte) lease.getUnitFloor());
+		buffer.put((byte) lease.getUnitRoom());
+		putString(buffer, lease.getClientName());
+		putString(buffer, lease.getClientId());
+	}
+
+	/**
+	 * Reads a lease
+	 *
+	 * @param buffer the buffer
+	 * @return the view of the lease
+	 */
+	static LeaseView getLease(ByteBuffer buffer) {
+		return new LeaseView(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+				getString(buffer), buffer.get(), buffer.get(), getString(buffer), getString(buffer));
+	}
+}
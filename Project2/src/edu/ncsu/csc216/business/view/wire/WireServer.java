@@ -0,0 +1,483 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.wire;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateRoomException;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.stakeholders.Replica;
+import edu.ncsu.csc216.business.model.stakeholders.ReplicationFeed;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+import edu.ncsu.csc216.business.view.wire.WireProtocol.Op;
+
+/**
+ * The WireServer class serves a PropertyManager over the binary frames of
+ * WireProtocol, for bulk traffic that would be too heavy as one HTTP request
+ * per reservation. A single thread runs a Selector over every connection
+ * and is the only thread that uses the manager, so no locking is needed.
+ * Each time a connection becomes readable, every complete request that has
+ * arrived is carried out in order and the responses are gathered into one
+ * buffer that is written back in as few writes as the socket allows. A
+ * client can therefore pipeline as many requests as it likes. If a client
+ * sends faster than it reads, the server stops reading from it until its
+ * pending responses drain.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class WireServer implements Closeable {
+
+	/** the size of the buffers of a new connection */
+	private static final int BUFFER_SIZE = 1 << 14;
+	/** the number of pending response bytes after which a connection is not read */
+	private static final int HIGH_WATER = 1 << 20;
+	/** the manager the server serves */
+	private PropertyManager manager;
+	/** the selector over the listening socket and the connections */
+	private Selector selector;
+	/** the listening socket, or null if the server is not started */
+	private ServerSocketChannel listener;
+	/** the thread running the selector */
+	private Thread loop;
+	/** holds the body of each response as it is written */
+	private ByteBuffer scratch;
+
+	/**
+	 * The Status enumeration is the outcome of a request, sent as its ordinal
+	 * as the first byte of the response.
+	 */
+	public enum Status {
+		/** the request was carried out */
+		OK,
+		/** the request was not valid */
+		BAD_REQUEST,
+		/** the request named a client, unit or lease that does not exist */
+		NOT_FOUND,
+		/** the request would add a client or unit that already exists */
+		CONFLICT,
+		/** the request failed in the server */
+		SERVER_ERROR
+	}
+
+	/**
+	 * Constructs a server for the given manager
+	 *
+	 * @param manager the manager the server serves
+	 * @throws IllegalArgumentException if manager is null
+	 */
+	public WireServer(PropertyManager manager) {
+		if (manager == null) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+		this.scratch = ByteBuffer.allocate(WireProtocol.MAX_FRAME);
+	}
+
+	/**
+	 * Starts serving on the given port. While the server runs, the manager
+	 * must not be used by any other thread.
+	 *
+	 * @param port the port, or 0 for any free port
+	 * @return the port the server listens on
+	 * @throws IOException if the port cannot be bound
+	 * @throws IllegalStateException if the server is already started
+	 */
+	public int start(int port) throws IOException {
+		if (listener != null) {
+			throw new IllegalStateException();
+		}
+		selector = Selector.open();
+		listener = ServerSocketChannel.open();
+		listener.bind(new InetSocketAddress(port));
+		listener.configureBlocking(false);
+		listener.register(selector, SelectionKey.OP_ACCEPT);
+		loop = new Thread(this::run, "wire-server");
+		loop.setDaemon(true);
+		loop.start();
+		return listener.socket().getLocalPort();
+	}
+
+	/**
+	 * Stops serving and closes every connection, waiting for the thread
+	 * running the selector to finish. Does nothing if the server is not
+	 * started.
+	 */
+	@Override
+	public void close() {
+		if (listener == null) {
+			return;
+		}
+		try {
+			selector.close();
+			loop.join();
+			listener.close();
+		} catch (IOException e) {
+			// nothing more can be done
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		listener = null;
+	}
+
+	/**
+	 * Runs the selector until it is closed
+	 */
+	private void run() {
+		try {
+			while (true) {
+				selector.select();
+				for (SelectionKey key : selector.selectedKeys()) {
+					try {
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							accept();
+						}
+						if (key.isValid() && key.isReadable()) {
+							read(key);
+						}
+						if (key.isValid() && key.isWritable()) {
+							write(key);
+						}
+					} catch (IOException | CancelledKeyException e) {
+						drop(key);
+					}
+				}
+				selector.selectedKeys().clear();
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			// the server is stopping
+		} finally {
+			closeConnections();
+		}
+	}
+
+	/**
+	 * Accepts a new connection
+	 *
+	 * @throws IOException if the connection cannot be set up
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel = listener.accept();
+		if (channel != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			channel.register(selector, SelectionKey.OP_READ, new Connection());
+		}
+	}
+
+	/**
+	 * Reads what a connection has sent and carries out every complete
+	 * request in it, then writes back as much of the responses as the
+	 * socket will take
+	 *
+	 * @param key the key of the connection
+	 * @throws IOException if the connection fails or sends a frame that is too large
+	 */
+	private void read(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		Connection connection = (Connection) key.attachment();
+		if (channel.read(connection.in) < 0) {
+			drop(key);
+			return;
+		}
+		ByteBuffer in = connection.in;
+		in.flip();
+		while (in.remaining() >= WireProtocol.HEADER) {
+			int length = in.getInt(in.position());
+			if (length < 1 || length > WireProtocol.MAX_FRAME) {
+				throw new IOException("Bad frame length " + length);
+			}
+			if (in.remaining() < WireProtocol.HEADER + length) {
+				break;
+			}
+			int end = in.position() + WireProtocol.HEADER + length;
+			ByteBuffer body = in.duplicate();
+			body.position(in.position() + WireProtocol.HEADER).limit(end);
+			in.position(end);
+			connection.out = WireProtocol.putFrame(connection.out, execute(body));
+		}
+		in.compact();
+		if (!in.hasRemaining()) {
+			connection.in = WireProtocol.ensure(in, WireProtocol.HEADER + WireProtocol.MAX_FRAME);
+		}
+		write(key);
+	}
+
+	/**
+	 * Writes as much of the pending responses of a connection as the socket
+	 * will take, and watches for the socket to take more if some are left.
+	 * Stops reading from the connection while too many responses are pending.
+	 *
+	 * @param key the key of the connection
+	 * @throws IOException if the connection fails
+	 */
+	private void write(SelectionKey key) throws IOException {
+		Connection connection = (Connection) key.attachment();
+		ByteBuffer out = connection.out;
+		out.flip();
+		((SocketChannel) key.channel()).write(out);
+		out.compact();
+		int interest = out.position() < HIGH_WATER ? SelectionKey.OP_READ : 0;
+		if (out.position() > 0) {
+			interest |= SelectionKey.OP_WRITE;
+		}
+		key.interestOps(interest);
+	}
+
+	/**
+	 * Closes a connection
+	 *
+	 * @param key the key of the connection
+	 */
+	private static void drop(SelectionKey key) {
+		key.cancel();
+		try {
+			key.channel().close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+
+	/**
+	 * Closes every connection still open
+	 */
+	private void closeConnections() {
+		try {
+			for (SelectionKey key : selector.keys()) {
+				if (key.channel() instanceof SocketChannel) {
+					drop(key);
+				}
+			}
+		} catch (ClosedSelectorException e) {
+			// the connections were closed with the selector
+		}
+	}
+
+	/**
+	 * Carries out a request, turning the exceptions it throws into error
+	 * statuses
+	 *
+	 * @param request the body of the request
+	 * @return the body of the response, ready to be read
+	 */
+	private ByteBuffer execute(ByteBuffer request) {
+		scratch.clear();
+		try {
+			scratch.put((byte) Status.OK.ordinal());
+			answer(request, scratch);
+		} catch (WireError e) {
+			fail(e.status, e.getMessage());
+		} catch (DuplicateClientException | DuplicateRoomException e) {
+			fail(Status.CONFLICT, e.getMessage());
+		} catch (IllegalArgumentException | BufferUnderflowException | DateTimeException e) {
+			fail(Status.BAD_REQUEST, e.getMessage());
+		} catch (RuntimeException e) {
+			fail(Status.SERVER_ERROR, e.getClass().getSimpleName());
+		}
+		return scratch.flip();
+	}
+
+	/**
+	 * Replaces the response being written with an error
+	 *
+	 * @param status the status of the error
+	 * @param message the message of the error, or null
+	 */
+	private void fail(Status status, String message) {
+		scratch.clear();
+		scratch.put((byte) status.ordinal());
+		WireProtocol.putString(scratch, message == null ? "Invalid request" : message);
+	}
+
+	/**
+	 * Carries out a request and writes its result
+	 *
+	 * @param request the body of the request
+	 * @param response the buffer the result is written to
+	 * @throws DuplicateClientException if the request adds a client that already exists
+	 * @throws DuplicateRoomException if the request adds a unit that already exists
+	 */
+	private void answer(ByteBuffer request, ByteBuffer response) throws DuplicateClientException, DuplicateRoomException {
+		switch (Op.of(request.get())) {
+		case PING:
+			break;
+		case ADD_CLIENT:
+			WireProtocol.putClient(response, new ClientView(manager.addNewClient(WireProtocol.getString(request),
+					WireProtocol.getString(request))));
+			break;
+		case ADD_UNIT:
+			WireProtocol.putUnit(response, new UnitView(manager.addNewUnit(WireProtocol.getString(request),
+					WireProtocol.getString(request), request.getInt())));
+			break;
+		case CREATE_LEASE:
+			String clientId = WireProtocol.getString(request);
+			String location = WireProtocol.getString(request);
+			LocalDate start = LocalDate.ofEpochDay(request.getInt());
+			int duration = request.getInt();
+			int occupants = request.getInt();
+			client(clientId);
+			unit(location);
+			WireProtocol.putLease(response, new LeaseView(manager.createLease(clientId, location, start, duration, occupants)));
+			break;
+		case GET_LEASE:
+			WireProtocol.putLease(response, new LeaseView(manager.getLease(lease(request.getInt()))));
+			break;
+		case EXTEND_LEASE:
+			int extended = lease(request.getInt());
+			WireProtocol.putLease(response, new LeaseView(manager.extendLease(extended, LocalDate.ofEpochDay(request.getInt()))));
+			break;
+		case SHORTEN_LEASE:
+			int shortened = lease(request.getInt());
+			WireProtocol.putLease(response, new LeaseView(manager.shortenLease(shortened, LocalDate.ofEpochDay(request.getInt()))));
+			break;
+		case CANCEL_LEASE:
+			manager.cancelLease(lease(request.getInt()));
+			break;
+		default:
+			throw new IllegalArgumentException();
+		}
+		if (request.hasRemaining()) {
+			throw new IllegalArgumentException("Unexpected bytes after request");
+		}
+	}
+
+	/**
+	 * Checks that there is a client with the given id
+	 *
+	 * @param id the id
+	 * @throws WireError if there is no such client
+	 */
+	private void client(String id) {
+		try {
+			manager.getClientById(id);
+		} catch (IllegalArgumentException e) {
+			throw new WireError(Status.NOT_FOUND, "No such client");
+		}
+	}
+
+	/**
+	 * Checks that there is a rental unit at the given location
+	 *
+	 * @param location the location
+	 * @throws WireError if there is no such unit
+	 */
+	private void unit(String location) {
+		try {
+			manager.getUnitAtLocation(location);
+		} catch (IllegalArgumentException e) {
+			throw new WireError(Status.NOT_FOUND, "No such rental unit");
+		}
+	}
+
+	/**
+	 * Checks that there is an active lease with the given confirmation number
+	 *
+	 * @param number the confirmation number
+	 * @return the confirmation number
+	 * @throws WireError if there is no such lease
+	 */
+	private int lease(int number) {
+		try {
+			manager.getLease(number);
+			return number;
+		} catch (IllegalArgumentException e) {
+			throw new WireError(Status.NOT_FOUND, "No such lease");
+		}
+	}
+
+	/**
+	 * Serves the shared PropertyManager. The arguments are the port and,
+	 * optionally, a rental data file to load first and a port to stream
+	 * every change on to replicas. Given --replica, a feed port and a port
+	 * instead, the server follows the primary with that feed, reporting how
+	 * far behind it is each second, and takes over on the port as soon as
+	 * the primary goes away.
+	 *
+	 * @param args the port, the data file and the feed port, or --replica,
+	 *        the primary's feed port and the port
+	 * @throws IOException if a port cannot be bound or the primary reached
+	 * @throws InterruptedException if the server is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		PropertyManager manager;
+		int port;
+		if (args.length > 0 && "--replica".equals(args[0])) {
+			Replica replica = new Replica("localhost", Integer.parseInt(args[1]));
+			while (replica.isFollowing()) {
+				System.out.printf("Replica at change %d, %.3f ms behind%n", replica.getAppliedSequence(),
+						replica.getLagNanos() / 1e6);
+				replica.awaitSequence(Long.MAX_VALUE, 1000);
+			}
+			manager = replica.promote();
+			port = args.length > 2 ? Integer.parseInt(args[2]) : 7070;
+		} else {
+			manager = PropertyManager.getInstance();
+			if (args.length > 1) {
+				RentalReader.readRentalData(args[1], manager);
+			}
+			if (args.length > 2) {
+				new ReplicationFeed(manager).start(Integer.parseInt(args[2]));
+			}
+			port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+		}
+		WireServer server = new WireServer(manager);
+		System.out.println("Listening on port " + server.start(port));
+		server.loop.join();
+	}
+
+	/**
+	 * The Connection class is the buffers of one client's connection.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class Connection {
+
+		/** the bytes received and not yet carried out, being filled */
+		private ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+		/** the response frames not yet sent, being filled */
+		private ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+
+	/**
+	 * The WireError class is thrown to answer a request with an error status.
+	 *
+	 * @author Alex Raum, Walker Clem
+	 */
+	private static class WireError extends RuntimeException {
+
+		/** the ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** the status */
+		private final Status status;
+
+		/**
+		 * Constructs a WireError
+		 *
+		 * @param status the status
+		 * @param message the message
+		 */
+		WireError(Status status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+}
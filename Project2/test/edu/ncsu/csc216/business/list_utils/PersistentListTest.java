@@ -0,0 +1,127 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.list_utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The PersistentListTest class checks the functionality of methods in the
+ * PersistentList class.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class PersistentListTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.list_utils.PersistentList#of(Object[])}
+	 * and {@link edu.ncsu.csc216.business.list_utils.PersistentList#get(int)}.
+	 */
+	@Test
+	public void testOf() {
+		PersistentList<String> list = PersistentList.of(new String[] {"papaya", "kiwi", "mango"});
+		assertEquals(3, list.size());
+		assertEquals("papaya", list.get(0));
+		assertEquals("mango", list.get(2));
+		assertTrue(PersistentList.of(new String[0]).isEmpty());
+		assertSame(PersistentList.empty(), PersistentList.<Integer>empty());
+		try {
+			list.get(3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals(3, list.size());
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.list_utils.PersistentList#set(int, Object)},
+	 * {@link edu.ncsu.csc216.business.list_utils.PersistentList#add(int, Object)} and
+	 * {@link edu.ncsu.csc216.business.list_utils.PersistentList#remove(int)},
+	 * leaving the lists they were made from as they were.
+	 */
+	@Test
+	public void testChanges() {
+		PersistentList<String> list = PersistentList.<String>empty().add("kiwi").add(0, "papaya").add("mango");
+		PersistentList<String> changed = list.set(1, "peach").remove(0).add(1, "plum");
+		assertEquals("papaya", list.get(0));
+		assertEquals("kiwi", list.get(1));
+		assertEquals(3, list.size());
+		assertEquals("peach", changed.get(0));
+		assertEquals("plum", changed.get(1));
+		assertEquals("mango", changed.get(2));
+		try {
+			list.add(4, "lime");
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals(3, list.size());
+		}
+		try {
+			list.remove(-1);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals(3, list.size());
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.list_utils.PersistentList#search(java.util.function.ToIntFunction, int)}.
+	 */
+	@Test
+	public void testSearch() {
+		PersistentList<Integer> list = PersistentList.empty();
+		for (int i = 0; i < 100; i++) {
+			list = list.add(i * 2);
+		}
+		assertEquals(0, list.search(e -> e, 0));
+		assertEquals(37, list.search(e -> e, 74));
+		assertEquals(-38, list.search(e -> e, 73));
+		assertEquals(-101, list.search(e -> e, 500));
+		assertEquals(-1, PersistentList.<Integer>empty().search(e -> e, 3));
+	}
+
+	/**
+	 * Test method for many random changes, checked against an ArrayList
+	 * making the same changes.
+	 */
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(216);
+		ArrayList<Integer> expected = new ArrayList<Integer>();
+		PersistentList<Integer> list = PersistentList.empty();
+		PersistentList<Integer> kept = null;
+		ArrayList<Integer> keptExpected = null;
+		for (int i = 0; i < 5000; i++) {
+			int choice = random.nextInt(4);
+			if (choice == 0 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				expected.remove(index);
+				list = list.remove(index);
+			} else if (choice == 1 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				expected.set(index, i);
+				list = list.set(index, i);
+			} else {
+				int index = random.nextInt(expected.size() + 1);
+				expected.add(index, i);
+				list = list.add(index, i);
+			}
+			if (i == 2500) {
+				kept = list;
+				keptExpected = new ArrayList<Integer>(expected);
+			}
+		}
+		assertEquals(expected.size(), list.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), list.get(i));
+		}
+		assertEquals(keptExpected.size(), kept.size());
+		for (int i = 0; i < keptExpected.size(); i++) {
+			assertEquals(keptExpected.get(i), kept.get(i));
+		}
+	}
+}
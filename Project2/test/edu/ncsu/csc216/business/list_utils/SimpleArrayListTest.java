@@ -164,4 +164,24 @@ public class SimpleArrayListTest {
 		list.add("apricot");
 		assertEquals(2, list.indexOf("apricot"));
 	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.list_utils.SimpleArrayList#removeMatching(java.util.function.Predicate)}.
+	 */
+	@Test
+	public void testRemoveMatching() {
+		SimpleArrayList<String> list = new SimpleArrayList<String>(2);
+		list.add("apple");
+		list.add("banana");
+		list.add("avocado");
+		list.add("cherry");
+		
+		assertEquals(2, list.removeMatching(s -> s.startsWith("a")));
+		assertEquals(2, list.size());
+		assertEquals("banana", list.get(0));
+		assertEquals("cherry", list.get(1));
+		assertEquals(0, list.removeMatching(s -> s.startsWith("z")));
+		list.add("date");
+		assertEquals("date", list.get(2));
+	}
 }
@@ -227,4 +227,25 @@ public class SortedLinkedListWithIteratorTest {
 			assertEquals(4, list.size());
 		}
 	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.list_utils.SortedLinkedListWithIterator#getVisits()}.
+	 */
+	@Test
+	public void testGetVisits() {
+		SortedLinkedListWithIterator<String> list = new SortedLinkedListWithIterator<String>();
+		assertEquals(0, list.getVisits());
+		assertTrue(list.add("blueberry"));
+		assertEquals(0, list.getVisits());
+		assertTrue(list.add("apple"));
+		assertEquals(2, list.getVisits());
+		assertTrue(list.add("cherry"));
+		assertEquals(6, list.getVisits());
+		assertEquals(3, list.size());
+		assertEquals(9, list.getVisits());
+		assertEquals("cherry", list.get(2));
+		assertEquals(15, list.getVisits());
+		assertEquals("apple", list.iterator().next());
+		assertEquals(16, list.getVisits());
+	}
 }
@@ -0,0 +1,127 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.contracts;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+/**
+ * The ConfirmationNumberAllocatorTest class checks that the 
+ * ConfirmationNumberAllocator hands out unique numbers in order,
+ * skips numbers in use after wrapping, and is safe across threads.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ConfirmationNumberAllocatorTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator#allocate()}.
+	 */
+	@Test
+	public void testAllocate() {
+		ConfirmationNumberAllocator numbers = new ConfirmationNumberAllocator(100);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, numbers.allocate());
+		}
+		try {
+			numbers.allocate();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(numbers.isInUse(99));
+		}
+		
+		numbers.release(5);
+		numbers.release(70);
+		assertFalse(numbers.isInUse(5));
+		assertEquals(5, numbers.allocate());
+		assertEquals(70, numbers.allocate());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator#markInUse(int)},
+	 * {@link edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator#reset(int)} and
+	 * {@link edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator#rewind(int)}.
+	 */
+	@Test
+	public void testMarkInUse() {
+		ConfirmationNumberAllocator numbers = new ConfirmationNumberAllocator(1000);
+		assertEquals(0, numbers.allocate());
+		numbers.markInUse(500);
+		assertEquals(501, numbers.peek());
+		assertEquals(501, numbers.allocate());
+		
+		numbers.rewind(499);
+		assertEquals(499, numbers.allocate());
+		assertEquals(502, numbers.allocate());
+		
+		numbers.reset(0);
+		assertFalse(numbers.isInUse(500));
+		assertEquals(0, numbers.allocate());
+		assertEquals(1, numbers.allocate());
+		try {
+			numbers.markInUse(1000);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, numbers.peek());
+		}
+	}
+
+	/**
+	 * Checks that threads allocating at the same time never receive the same number.
+	 * 
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	public void testConcurrentAllocate() throws InterruptedException {
+		ConfirmationNumberAllocator numbers = new ConfirmationNumberAllocator(50000);
+		AtomicIntegerArray seen = new AtomicIntegerArray(50000);
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 5000; i++) {
+					seen.incrementAndGet(numbers.allocate());
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		int total = 0;
+		for (int i = 0; i < seen.length(); i++) {
+			assertTrue(seen.get(i) <= 1);
+			total += seen.get(i);
+		}
+		assertEquals(40000, total);
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.contracts.ConfirmationNumberAllocator#ConfirmationNumberAllocator(int, int)}.
+	 */
+	@Test
+	public void testRange() {
+		ConfirmationNumberAllocator numbers = new ConfirmationNumberAllocator(500, 100);
+		assertEquals(500, numbers.getFirst());
+		assertEquals(500, numbers.peek());
+		assertEquals(500, numbers.allocate());
+		numbers.markInUse(580);
+		assertEquals(581, numbers.allocate());
+		try {
+			numbers.release(499);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertFalse(numbers.isInUse(599));
+		}
+		numbers.reset(numbers.getFirst());
+		assertFalse(numbers.isInUse(500));
+		assertEquals(500, numbers.allocate());
+		
+		ConfirmationNumberAllocator last = Lease.newNumbering(2, 3);
+		assertEquals(666666, last.getFirst());
+		assertEquals(333334, last.getCapacity());
+	}
+}
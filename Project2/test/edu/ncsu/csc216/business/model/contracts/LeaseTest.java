@@ -7,6 +7,7 @@ import static org.junit.Assert.*;
 
 import java.time.LocalDate;
 
+import org.junit.Before;
 import org.junit.Test;
 
 import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
@@ -19,6 +20,15 @@ import edu.ncsu.csc216.business.model.stakeholders.Client;
  */
 public class LeaseTest {
 
+	/**
+	 * Starts each test with the confirmation numbering at 0, as other
+	 * tests in the same JVM may have taken numbers
+	 */
+	@Before
+	public void setUp() {
+		Lease.resetConfirmationNumbering(0);
+	}
+
 	/**
 	 * Test method for {@link edu.ncsu.csc216.business.model.contracts.Lease#setEndDateEarlier(java.time.LocalDate)}.
 	 */
@@ -119,4 +129,21 @@ public class LeaseTest {
 		assertTrue(lease.compareTo(lease2) != 0);
 		assertTrue(lease.compareTo(lease3) != 0);
 	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.contracts.Lease#getStartDay()}
+	 * and {@link edu.ncsu.csc216.business.model.contracts.Lease#getEndDay()}.
+	 */
+	@Test
+	public void testGetStartDay() {
+		Client client = new Client("Alex Raum", "maraum");
+		ConferenceRoom room = new ConferenceRoom("12-11", 20);
+		Lease lease = new Lease(client, room, LocalDate.of(2020, 4, 8), LocalDate.of(2020, 4, 15), 18);
+		assertEquals(LocalDate.of(2020, 4, 8).toEpochDay(), lease.getStartDay());
+		assertEquals(lease.getStartDay() + 7, lease.getEndDay());
+		
+		lease.setEndDateEarlier(LocalDate.of(2020, 4, 10));
+		assertEquals(lease.getStartDay() + 2, lease.getEndDay());
+		assertEquals(LocalDate.of(2020, 4, 10), lease.getEnd());
+	}
 }
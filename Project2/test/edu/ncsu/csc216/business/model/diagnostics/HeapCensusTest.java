@@ -0,0 +1,127 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Holder;
+import edu.ncsu.csc216.business.model.diagnostics.HeapReport.Row;
+import edu.ncsu.csc216.business.model.io.RentalDataGenerator;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The HeapCensusTest class checks for the correct functionality of the
+ * methods in HeapCensus and the HeapReport it makes
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class HeapCensusTest {
+
+	/**
+	 * Finds a row by its label
+	 *
+	 * @param rows the rows
+	 * @param label the label
+	 * @return the row, or null if there is none with that label
+	 */
+	private static Row row(Iterable<Row> rows, String label) {
+		for (Row row : rows) {
+			if (row.getLabel().equals(label)) {
+				return row;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.diagnostics.HeapCensus#take(PropertyManager)}.
+	 *
+	 * @throws Exception if a client or unit cannot be added
+	 */
+	@Test
+	public void testTake() throws Exception {
+		PropertyManager manager = new PropertyManager();
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewClient("Alex Raum", "araum");
+		manager.addNewUnit("C", "5-10", 20);
+		manager.addNewUnit("H", "7-10", 2);
+		manager.addNewUnit("O", "9-10", 100);
+		manager.createLease(0, 0, LocalDate.of(2022, 3, 7), 3, 10);
+		manager.createLease(0, 0, LocalDate.of(2022, 3, 14), 3, 10);
+		manager.createLease(1, 0, LocalDate.of(2022, 3, 21), 3, 10);
+		manager.createLease(1, 1, LocalDate.of(2022, 3, 6), 1, 2);
+		manager.createLease(1, 2, LocalDate.of(2022, 3, 1), 2, 50);
+
+		HeapReport report = HeapCensus.take(manager);
+		assertEquals(5, row(report.getTypes(), "Lease").getObjects());
+		assertEquals(5 + 3, row(report.getTypes(), "SortedLinkedListWithIterator.Node").getObjects());
+		assertEquals(1, row(report.getTypes(), "Office").getObjects());
+		assertEquals(1, row(report.getTypes(), "int[][] in Office.calendar").getObjects());
+		assertEquals(2, row(report.getTypes(), "String in Client.id").getObjects());
+		assertNotNull(row(report.getTypes(), "Integer in PropertyManager.leasesByNumber"));
+
+		assertEquals(5, report.getOwners().size());
+		assertEquals("Conference Room", report.getOwners().get(0).getLabel());
+		assertEquals("Clients", report.getOwners().get(3).getLabel());
+		assertEquals("Manager", report.getOwners().get(4).getLabel());
+		long objects = 0;
+		long bytes = 0;
+		for (Row type : report.getTypes()) {
+			assertTrue(type.getBytes() % 8 == 0);
+			objects += type.getObjects();
+			bytes += type.getBytes();
+		}
+		assertEquals(report.getObjects(), objects);
+		assertEquals(report.getBytes(), bytes);
+		assertTrue(report.getTypes().get(0).getBytes() >= report.getTypes().get(1).getBytes());
+
+		Holder unit = report.getLargestUnits().get(0);
+		assertEquals("05-10", unit.getName());
+		assertEquals("Conference Room", unit.getKind());
+		assertEquals(3, unit.getLeases());
+		assertEquals(3, report.getLargestUnits().size());
+		Holder client = report.getLargestClients().get(0);
+		assertEquals("araum", client.getName());
+		assertNull(client.getKind());
+		assertEquals(3, client.getLeases());
+		assertTrue(report.toString().contains("largest clients"));
+
+		try {
+			HeapCensus.take(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there is no manager to count
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.diagnostics.HeapCensus#take(PropertyManager, java.util.function.Consumer)}
+	 * taking its turns while the manager is used between them.
+	 */
+	@Test
+	public void testTurns() {
+		PropertyManager manager = new PropertyManager();
+		new RentalDataGenerator(3, 40, 12, 600).fill(manager);
+		AtomicInteger turns = new AtomicInteger();
+		HeapReport report = HeapCensus.take(manager, work -> {
+			turns.incrementAndGet();
+			work.run();
+			manager.listRentalUnits();
+		});
+		assertEquals(1 + 40 + 12 + 1, turns.get());
+		assertEquals(600, row(report.getTypes(), "Lease").getObjects());
+		assertEquals(10, report.getLargestUnits().size());
+		int leases = Integer.MAX_VALUE;
+		for (Holder unit : report.getLargestUnits()) {
+			assertTrue(unit.getLeases() <= leases);
+			leases = unit.getLeases();
+		}
+		assertEquals(HeapCensus.take(manager).getBytes(), report.getBytes());
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.io.RentalWriter;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * The RentalEventsTest class checks for the correct functionality of the
+ * Flight Recorder events recorded by the rental units, the manager and the
+ * rental files
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalEventsTest {
+
+	/** the first day leases are made on */
+	private static final LocalDate START = LocalDate.of(2022, 3, 6);
+
+	/**
+	 * Gets the recorded events of the given name
+	 *
+	 * @param events the recorded events
+	 * @param name the name of the event type, after edu.ncsu.csc216.business.
+	 * @return the events of that type, in the order they were committed
+	 */
+	private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> found = new ArrayList<RecordedEvent>();
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals("edu.ncsu.csc216.business." + name)) {
+				found.add(event);
+			}
+		}
+		found.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+		return found;
+	}
+
+	/**
+	 * Test method for the events of reservations, cancellations, listings
+	 * and rental files.
+	 *
+	 * @throws Exception if the recording cannot be made
+	 */
+	@Test
+	public void testEvents() throws Exception {
+		File data = File.createTempFile("events", ".md");
+		Path file = File.createTempFile("events", ".jfr").toPath();
+		PropertyManager manager = new PropertyManager();
+		try (Recording recording = new Recording()) {
+			for (String name : new String[] {"Reservation", "Cancellation", "Listing", "RentalFile"}) {
+				recording.enable("edu.ncsu.csc216.business." + name);
+			}
+			recording.start();
+			manager.addNewClient("Walker Clem", "waclem");
+			manager.addNewUnit("C", "5-10", 20);
+			manager.addNewUnit("H", "7-10", 2);
+			manager.createLease(0, 0, START, 3, 10);
+			manager.createLease(0, 0, START.plusDays(7), 3, 10);
+			manager.createLease(0, 0, START.plusDays(3), 3, 10);
+			try {
+				manager.createLease(0, 0, START, 1, 10);
+				fail();
+			} catch (IllegalArgumentException e) {
+				// the room is taken
+			}
+			try {
+				manager.createLease(0, 1, START, 1, 5);
+				fail();
+			} catch (IllegalArgumentException e) {
+				// the suite is too small
+			}
+			manager.cancelLease(1);
+			manager.listRentalUnits();
+			manager.listClientLeases(0);
+			RentalWriter.writeRentalFile(data.getPath(), manager);
+			RentalReader.readRentalData(data.getPath(), new PropertyManager());
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			List<RecordedEvent> reservations = named(events, "Reservation");
+			assertEquals(5, reservations.size());
+			assertEquals("Conference Room", reservations.get(0).getString("kind"));
+			assertEquals(5, reservations.get(0).getInt("floor"));
+			assertEquals("reserved", reservations.get(0).getString("outcome"));
+			assertEquals(0, reservations.get(0).getInt("leases"));
+			assertEquals(0, reservations.get(0).getInt("leasesScanned"));
+			assertEquals(1, reservations.get(1).getInt("leases"));
+			assertEquals(4, reservations.get(1).getInt("leasesScanned"));
+			assertEquals(2, reservations.get(2).getInt("leases"));
+			assertEquals(8, reservations.get(2).getInt("leasesScanned"));
+			assertEquals("RentalDateException", reservations.get(3).getString("outcome"));
+			assertEquals(2, reservations.get(3).getInt("leasesScanned"));
+			assertEquals("Hotel Suite", reservations.get(4).getString("kind"));
+			assertEquals("RentalCapacityException", reservations.get(4).getString("outcome"));
+
+			List<RecordedEvent> cancellations = named(events, "Cancellation");
+			assertEquals(1, cancellations.size());
+			assertEquals(1, cancellations.get(0).getInt("confirmationNumber"));
+			assertTrue(cancellations.get(0).getBoolean("found"));
+			assertEquals(12, cancellations.get(0).getInt("leasesScanned"));
+
+			List<RecordedEvent> listings = named(events, "Listing");
+			assertEquals(2, listings.size());
+			assertEquals("rental units", listings.get(0).getString("listing"));
+			assertEquals(2, listings.get(0).getInt("rows"));
+			assertEquals("client leases", listings.get(1).getString("listing"));
+			assertEquals(2, listings.get(1).getInt("rows"));
+
+			List<RecordedEvent> phases = named(events, "RentalFile");
+			assertEquals(6, phases.size());
+			String[] expected = {"save prepare 0", "save units 3", "save clients 3",
+				"load prepare 0", "load units 3", "load clients 3"};
+			for (int i = 0; i < expected.length; i++) {
+				RecordedEvent phase = phases.get(i);
+				assertEquals(expected[i], phase.getString("action") + " " + phase.getString("phase") + " " + phase.getInt("lines"));
+			}
+		} finally {
+			data.delete();
+			file.toFile().delete();
+		}
+	}
+
+	/**
+	 * Test method for the events being left out when they are not enabled.
+	 *
+	 * @throws Exception if the recording cannot be made
+	 */
+	@Test
+	public void testDisabled() throws Exception {
+		Path file = File.createTempFile("events", ".jfr").toPath();
+		PropertyManager manager = new PropertyManager();
+		try (Recording recording = new Recording()) {
+			recording.disable("edu.ncsu.csc216.business.Reservation");
+			recording.start();
+			manager.addNewClient("Walker Clem", "waclem");
+			manager.addNewUnit("C", "5-10", 20);
+			manager.createLease(0, 0, START, 3, 10);
+			recording.stop();
+			recording.dump(file);
+			assertTrue(named(RecordingFile.readAllEvents(file), "Reservation").isEmpty());
+		} finally {
+			file.toFile().delete();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.diagnostics;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.io.RentalReader;
+import edu.ncsu.csc216.business.model.io.RentalWriter;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The RentalMetricsTest class checks for the correct functionality of the
+ * metrics a manager keeps and shows over JMX
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalMetricsTest {
+
+	/** a Sunday leases are made on */
+	private static final LocalDate START = LocalDate.of(2022, 3, 6);
+
+	/**
+	 * Test method for the counters the manager records into its
+	 * {@link edu.ncsu.csc216.business.model.diagnostics.RentalMetrics}.
+	 *
+	 * @throws Exception if the data cannot be saved or loaded
+	 */
+	@Test
+	public void testMetrics() throws Exception {
+		PropertyManager manager = new PropertyManager();
+		RentalMetrics metrics = manager.getMetrics();
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewUnit("C", "5-10", 20);
+		manager.addNewUnit("H", "7-10", 2);
+		assertEquals(2, metrics.getUnitCount());
+		assertEquals(1, metrics.getClientCount());
+
+		manager.createLease(0, 0, START, 3, 10);
+		manager.createLease("waclem", "7-10", START, 1, 2);
+		assertEquals(2, metrics.getLeasesCreated());
+		assertEquals(2, metrics.getLeaseCount());
+		try {
+			manager.createLease(0, 1, START.plusDays(14), 1, 3);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// a hotel suite holds two
+		}
+		try {
+			manager.createLease(0, 1, START.plusDays(1), 1, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// a hotel suite is leased from Sunday
+		}
+		try {
+			manager.createLease(0, 0, START.plusDays(14), 1, 25);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// the room holds twenty
+		}
+		manager.cancelClientsLease(0, 0);
+		assertEquals(1, metrics.getLeasesCanceled());
+		assertEquals(1, metrics.getLeaseCount());
+		manager.removeFromService(1, START);
+		assertEquals(1, metrics.getOutages());
+		try {
+			manager.createLease(0, 1, START.plusDays(7), 1, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// the suite is out of service
+		}
+		Map<String, Long> rejections = metrics.getRejections();
+		assertEquals(4, rejections.size());
+		assertEquals(Long.valueOf(1), rejections.get("Hotel Suite: RentalCapacityException"));
+		assertEquals(Long.valueOf(1), rejections.get("Hotel Suite: RentalDateException"));
+		assertEquals(Long.valueOf(1), rejections.get("Hotel Suite: RentalOutOfServiceException"));
+		assertEquals(Long.valueOf(1), rejections.get("Conference Room: RentalCapacityException"));
+		assertEquals(6, metrics.getReserveLatency().getCount());
+		assertTrue(metrics.getLeaseCreateRate() >= 0);
+
+		manager.listRentalUnits();
+		manager.listClients();
+		manager.listClientLeases(0);
+		manager.listLeasesForRentalUnit(0);
+		LatencySummary listings = metrics.getListLatency();
+		assertEquals(4, listings.getCount());
+		assertTrue(listings.getP50() <= listings.getP99());
+		assertTrue(listings.getP99() <= listings.getMax());
+
+		assertEquals(0, metrics.getLastSaveMillis(), 0);
+		File data = File.createTempFile("metrics", ".md");
+		try {
+			RentalWriter.writeRentalFile(data.getPath(), manager);
+			assertTrue(metrics.getLastSaveMillis() > 0);
+			PropertyManager loaded = new PropertyManager();
+			RentalReader.readRentalData(data.getPath(), loaded);
+			assertTrue(loaded.getMetrics().getLastLoadMillis() > 0);
+			assertEquals(0, loaded.getMetrics().getLeasesCreated());
+			assertEquals(metrics.getLeaseCount(), loaded.getMetrics().getLeaseCount());
+			assertEquals(2, loaded.getMetrics().getUnitCount());
+		} finally {
+			data.delete();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.diagnostics.RentalMetrics#register(java.lang.String)}.
+	 *
+	 * @throws Exception if the metrics cannot be read over JMX
+	 */
+	@Test
+	public void testRegister() throws Exception {
+		PropertyManager manager = new PropertyManager();
+		RentalMetrics metrics = manager.getMetrics();
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewUnit("O", "9-10", 100);
+		manager.createLease(0, 0, LocalDate.of(2022, 3, 1), 2, 40);
+		ObjectName name = metrics.register("test \"tower\"");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			assertEquals(name, metrics.getObjectName());
+			assertEquals(1L, server.getAttribute(name, "LeasesCreated"));
+			assertEquals(1, server.getAttribute(name, "UnitCount"));
+			CompositeData latency = (CompositeData) server.getAttribute(name, "ReserveLatency");
+			assertEquals(1L, latency.get("count"));
+			assertTrue(server.getAttribute(name, "Rejections") instanceof TabularData);
+
+			RentalMetricsMXBean proxy = JMX.newMXBeanProxy(server, name, RentalMetricsMXBean.class);
+			assertEquals(1, proxy.getLeaseCount());
+			assertEquals(1, proxy.getReserveLatency().getCount());
+			assertTrue(proxy.getRejections().isEmpty());
+
+			try {
+				metrics.register("another");
+				fail();
+			} catch (IllegalArgumentException e) {
+				// the metrics are registered already
+			}
+			try {
+				new PropertyManager().getMetrics().register("test \"tower\"");
+				fail();
+			} catch (IllegalArgumentException e) {
+				// the name is taken
+			}
+		} finally {
+			metrics.unregister();
+		}
+		assertNull(metrics.getObjectName());
+		assertFalse(server.isRegistered(name));
+		metrics.unregister();
+	}
+
+	/**
+	 * Test method for recording into a
+	 * {@link edu.ncsu.csc216.business.model.diagnostics.LatencyHistogram}
+	 * from several threads at once.
+	 *
+	 * @throws Exception if a thread is interrupted
+	 */
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (long nanos = 1; nanos <= 10000; nanos++) {
+					histogram.record(nanos);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40000, histogram.getCount());
+		assertEquals(10000, histogram.getMax());
+		assertEquals(5000.5, histogram.getMean(), 0.001);
+		assertEquals(10000, histogram.getPercentile(1));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.diagnostics.RentalMetrics#getLeaseCreateRate()}
+	 * moving on a fixed tick, so that reading the rate changes nothing and
+	 * metrics read every second agree with metrics read once.
+	 */
+	@Test
+	public void testRates() {
+		AtomicLong now = new AtomicLong();
+		RentalMetrics polled = new RentalMetrics(() -> 0, () -> 0, () -> 0, now::get);
+		RentalMetrics unread = new RentalMetrics(() -> 0, () -> 0, () -> 0, now::get);
+		for (int second = 0; second < 120; second++) {
+			now.set(second * 1000000000L);
+			if (second < 30) {
+				for (int i = 0; i < 10; i++) {
+					polled.leaseCreated();
+					unread.leaseCreated();
+				}
+			}
+			double rate = polled.getLeaseCreateRate();
+			assertEquals(rate, polled.getLeaseCreateRate(), 0);
+			if (second == 4) {
+				assertEquals(0, rate, 0);
+			}
+		}
+		assertEquals(polled.getLeaseCreateRate(), unread.getLeaseCreateRate(), 1e-12);
+
+		now.set(0);
+		RentalMetrics steady = new RentalMetrics(() -> 0, () -> 0, () -> 0, now::get);
+		for (int second = 0; second < 600; second++) {
+			now.set(second * 1000000000L);
+			for (int i = 0; i < 10; i++) {
+				steady.leaseCreated();
+			}
+		}
+		assertEquals(10, steady.getLeaseCreateRate(), 0.01);
+		now.addAndGet(3600 * 1000000000L);
+		assertEquals(0, steady.getLeaseCreateRate(), 0.01);
+		assertEquals(6000, steady.getLeasesCreated());
+	}
+}
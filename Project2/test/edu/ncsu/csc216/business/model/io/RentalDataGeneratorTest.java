@@ -0,0 +1,139 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+
+/**
+ * The RentalDataGeneratorTest class checks for the correct functionality
+ * of the methods in the RentalDataGenerator class
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalDataGeneratorTest {
+
+	/**
+	 * Writes the data of a generator to a string
+	 *
+	 * @param generator the generator
+	 * @return the data
+	 * @throws Exception if the data cannot be written
+	 */
+	private static String text(RentalDataGenerator generator) throws Exception {
+		StringWriter out = new StringWriter();
+		generator.write(out);
+		return out.toString();
+	}
+
+	/**
+	 * Writes the data of a manager to a string as RentalWriter does
+	 *
+	 * @param manager the manager
+	 * @return the data
+	 * @throws Exception if the data cannot be written
+	 */
+	private static String text(PropertyManager manager) throws Exception {
+		StringWriter out = new StringWriter();
+		RentalWriter.writeRentalData(manager, out);
+		return out.toString();
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalDataGenerator#write(java.lang.String)}
+	 * read back by RentalReader.
+	 *
+	 * @throws Exception if the file cannot be written
+	 */
+	@Test
+	public void testReadBack() throws Exception {
+		RentalDataGenerator generator = new RentalDataGenerator(7, 300, 40, 20000);
+		File file = File.createTempFile("generated", ".md");
+		try {
+			generator.write(file.getPath());
+			PropertyManager manager = new PropertyManager();
+			RentalReader.readRentalData(file.getPath(), manager);
+			RentalSnapshot snapshot = manager.snapshot();
+			assertEquals(300, snapshot.getUnitCount());
+			assertEquals(40, snapshot.getClientCount());
+			int leases = 0;
+			for (int i = 0; i < snapshot.getClientCount(); i++) {
+				leases += snapshot.getLeasesForClient(i).size();
+			}
+			assertEquals(20000, leases);
+			assertEquals(text(generator), text(manager));
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test method for the same seed making the same data in
+	 * {@link edu.ncsu.csc216.business.model.io.RentalDataGenerator}.
+	 *
+	 * @throws Exception if the data cannot be written
+	 */
+	@Test
+	public void testSeed() throws Exception {
+		String data = text(new RentalDataGenerator(42, 50, 10, 2000));
+		assertEquals(data, text(new RentalDataGenerator(42, 50, 10, 2000)));
+		assertNotEquals(data, text(new RentalDataGenerator(43, 50, 10, 2000)));
+
+		RentalDataGenerator generator = new RentalDataGenerator(42, 50, 10, 2000);
+		PropertyManager manager = new PropertyManager();
+		generator.fill(manager);
+		assertEquals(data, text(manager));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalDataGenerator#setKindMix(int, int, int)}.
+	 *
+	 * @throws Exception if the data cannot be written
+	 */
+	@Test
+	public void testKindMix() throws Exception {
+		RentalDataGenerator generator = new RentalDataGenerator(1, RentalDataGenerator.LOCATIONS, 1, 0);
+		generator.setKindMix(1, 0, 0);
+		PropertyManager manager = new PropertyManager();
+		generator.fill(manager);
+		RentalSnapshot snapshot = manager.snapshot();
+		assertEquals(4050, snapshot.getUnitCount());
+		for (int i = 0; i < snapshot.getUnitCount(); i++) {
+			assertEquals('C', snapshot.getUnit(i).getKind());
+		}
+		assertEquals("1-10", snapshot.getUnit(0).getFloor() + "-" + snapshot.getUnit(0).getRoom());
+
+		generator = new RentalDataGenerator(1, 1, 3, 521);
+		generator.setKindMix(0, 1, 0);
+		generator.fill(manager);
+		assertEquals(521, manager.viewLeasesForRentalUnit(0).length);
+		try {
+			generator = new RentalDataGenerator(1, 1, 3, 522);
+			generator.setKindMix(0, 1, 0);
+			generator.fill(manager);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// a hotel suite cannot hold that many leases
+		}
+		try {
+			new RentalDataGenerator(1, 4051, 1, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there are not that many locations
+		}
+		try {
+			generator.setKindMix(0, 0, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there must be some kind of unit
+		}
+	}
+}
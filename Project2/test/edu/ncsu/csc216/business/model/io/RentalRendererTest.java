@@ -0,0 +1,80 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.io;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.properties.ConferenceRoom;
+import edu.ncsu.csc216.business.model.properties.HotelSuite;
+import edu.ncsu.csc216.business.model.stakeholders.Client;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.UnitView;
+
+/**
+ * The RentalRendererTest class checks that the RentalRenderer class
+ * renders the same lines the rest of the system lists and saves.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalRendererTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalRenderer#appendDate(StringBuilder, long)}.
+	 */
+	@Test
+	public void testAppendDate() {
+		StringBuilder out = new StringBuilder();
+		for (LocalDate date = LocalDate.of(1999, 12, 25); date.getYear() < 2031; date = date.plusDays(13)) {
+			out.setLength(0);
+			assertEquals(date.toString(), RentalRenderer.appendDate(out, date.toEpochDay()).toString());
+		}
+		out.setLength(0);
+		assertEquals("2024-02-29", RentalRenderer.appendDate(out, LocalDate.of(2024, 2, 29).toEpochDay()).toString());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalRenderer#appendPadded(StringBuilder, int, int, char)}.
+	 */
+	@Test
+	public void testAppendPadded() {
+		assertEquals("000042", RentalRenderer.appendPadded(new StringBuilder(), 42, 6, '0').toString());
+		assertEquals("  0", RentalRenderer.appendPadded(new StringBuilder(), 0, 3, ' ').toString());
+		assertEquals("1234", RentalRenderer.appendPadded(new StringBuilder(), 1234, 3, ' ').toString());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalRenderer#appendUnit(StringBuilder, edu.ncsu.csc216.business.model.properties.RentalUnit)}
+	 * and the lease lines.
+	 */
+	@Test
+	public void testAppendUnit() {
+		HotelSuite suite = new HotelSuite("1-99", 1);
+		assertEquals("Hotel Suite:      1-99 |   1", RentalRenderer.appendUnit(new StringBuilder(), suite).toString());
+		suite.takeOutOfService();
+		assertEquals("Hotel Suite:      1-99 |   1 Unavailable", suite.getDescription());
+		suite.returnToService();
+		assertEquals("Hotel Suite:      1-99 |   1", suite.getDescription());
+		
+		ConferenceRoom room = new ConferenceRoom("12-11", 20);
+		Client client = new Client("Alex Raum", "maraum");
+		Lease lease = new Lease(7, client, room, LocalDate.of(2020, 4, 8), LocalDate.of(2020, 4, 15), 8);
+		assertEquals("000007 | 2020-04-08 to 2020-04-15 | 8 | Alex Raum (maraum)", 
+				RentalRenderer.appendUnitLease(new StringBuilder(), lease).toString());
+		assertEquals("000007 | 2020-04-08 to 2020-04-15 |   8 | Conference Room: 12-11", 
+				RentalRenderer.appendClientLease(new StringBuilder(), lease).toString());
+		
+		suite.takeOutOfService();
+		assertEquals(suite.getDescription(), RentalRenderer.appendUnit(new StringBuilder(), new UnitView(suite)).toString());
+		LeaseView view = new LeaseView(lease);
+		assertEquals("000007 | 2020-04-08 to 2020-04-15 | 8 | Alex Raum (maraum)", 
+				RentalRenderer.appendUnitLease(new StringBuilder(), view).toString());
+		assertEquals("000007 | 2020-04-08 to 2020-04-15 |   8 | Conference Room: 12-11", 
+				RentalRenderer.appendClientLease(new StringBuilder(), view).toString());
+	}
+}
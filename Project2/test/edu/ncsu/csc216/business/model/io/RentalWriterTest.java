@@ -5,6 +5,9 @@ package edu.ncsu.csc216.business.model.io;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.junit.Test;
 
 import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
@@ -19,11 +22,19 @@ public class RentalWriterTest {
 
 	/**
 	 * Test method for {@link edu.ncsu.csc216.business.model.io.RentalWriter#writeRentalFile(java.lang.String)}.
+	 * 
+	 * @throws IOException if the output file cannot be made
 	 */
 	@Test
-	public void testWriteRentalFile() {
+	public void testWriteRentalFile() throws IOException {
 		RentalReader.readRentalData("test-files/test.md");
-		RentalWriter.writeRentalFile("test-files/output.md");
+		File output = File.createTempFile("output", ".md");
+		try {
+			RentalWriter.writeRentalFile(output.getPath());
+			assertTrue(output.length() > 0);
+		} finally {
+			output.delete();
+		}
 		PropertyManager a = PropertyManager.getInstance();
 		assertEquals(a.listClients()[0], "Amanda Smith (a12#smL)");
 	}
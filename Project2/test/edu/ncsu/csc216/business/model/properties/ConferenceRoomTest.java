@@ -82,5 +82,93 @@ public class ConferenceRoomTest {
 		assertEquals(start, lease.getStart());
 		assertEquals(end, lease.getEnd());
 		assertEquals(18, lease.getNumOccupants());
+		
+		room.scheduleMaintenance(LocalDate.of(2020, 5, 4), LocalDate.of(2020, 5, 6));
+		try {
+			room.recordExistingLease(1, client, LocalDate.of(2020, 5, 5), LocalDate.of(2020, 5, 8), 10);
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(1, room.listLeases().length);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.ConferenceRoom#availableStarts(java.time.LocalDate, int, int, int)}.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testAvailableStarts() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		ConferenceRoom room = new ConferenceRoom("22-11", 24);
+		Client client = new Client("Alex Raum", "maraum");
+		room.reserve(client, LocalDate.of(2020, 4, 8), 3, 20);
+		room.reserve(client, LocalDate.of(2020, 4, 13), 2, 20);
+		
+		LocalDate[] starts = room.availableStarts(LocalDate.of(2020, 4, 6), 2, 10, 3);
+		assertEquals(3, starts.length);
+		assertEquals(LocalDate.of(2020, 4, 6), starts[0]);
+		assertEquals(LocalDate.of(2020, 4, 11), starts[1]);
+		assertEquals(LocalDate.of(2020, 4, 15), starts[2]);
+		
+		assertEquals(0, room.availableStarts(LocalDate.of(2020, 4, 6), 2, 30, 3).length);
+		assertEquals(0, room.availableStarts(LocalDate.of(2020, 4, 6), 8, 10, 3).length);
+		assertEquals(1, room.availableStarts(LocalDate.of(2029, 12, 30), 2, 10, 3).length);
+		
+		room.takeOutOfService();
+		assertEquals(0, room.availableStarts(LocalDate.of(2020, 4, 6), 2, 10, 3).length);
+		
+		try {
+			room.availableStarts(LocalDate.of(2020, 4, 6), 2, 10, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertFalse(room.isInService());
+		}
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.ConferenceRoom#extendLease(Lease, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.properties.RentalUnit#shortenLease(Lease, LocalDate)}.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testExtendLease() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		ConferenceRoom room = new ConferenceRoom("22-11", 24);
+		Client client = new Client("Alex Raum", "maraum");
+		Lease lease = room.reserve(client, LocalDate.of(2020, 4, 8), 3, 20);
+		room.reserve(client, LocalDate.of(2020, 4, 13), 1, 20);
+		
+		room.extendLease(lease, LocalDate.of(2020, 4, 12));
+		assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		try {
+			room.extendLease(lease, LocalDate.of(2020, 4, 13));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		}
+		try {
+			room.extendLease(lease, LocalDate.of(2020, 4, 11));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		}
+		
+		room.shortenLease(lease, LocalDate.of(2020, 4, 9));
+		assertEquals(LocalDate.of(2020, 4, 9), lease.getEnd());
+		try {
+			room.reserve(client, LocalDate.of(2020, 4, 10), 3, 20);
+		} catch (RentalDateException e) {
+			fail();
+		}
+		
+		Lease other = room.reserve(client, LocalDate.of(2020, 5, 1), 7, 20);
+		try {
+			room.extendLease(other, LocalDate.of(2020, 5, 8));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2020, 5, 7), other.getEnd());
+		}
 	}
 }
@@ -171,4 +171,100 @@ public class HotelSuiteTest {
 		assertEquals(1, tail.size());
 		assertEquals(2, suite1.listLeases().length);
 	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.HotelSuite#availableStarts(java.time.LocalDate, int, int, int)}.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testAvailableStarts() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		HotelSuite suite = new HotelSuite("22-11", 2);
+		Client client = new Client("Alex Raum", "maraum");
+		suite.reserve(client, LocalDate.of(2020, 4, 12), 1, 1);
+		suite.reserve(client, LocalDate.of(2020, 4, 26), 2, 1);
+		
+		LocalDate[] starts = suite.availableStarts(LocalDate.of(2020, 4, 8), 1, 2, 3);
+		assertEquals(3, starts.length);
+		assertEquals(LocalDate.of(2020, 4, 19), starts[0]);
+		assertEquals(LocalDate.of(2020, 5, 10), starts[1]);
+		assertEquals(LocalDate.of(2020, 5, 17), starts[2]);
+		
+		starts = suite.availableStarts(LocalDate.of(2020, 4, 5), 2, 2, 1);
+		assertEquals(LocalDate.of(2020, 5, 10), starts[0]);
+		assertEquals(0, suite.availableStarts(LocalDate.of(2020, 4, 5), 1, 3, 1).length);
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.HotelSuite#reserve(edu.ncsu.csc216.business.model.stakeholders.Client, java.time.LocalDate, int, int)}
+	 * with a maintenance window scheduled.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testReserveAroundMaintenance() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		HotelSuite suite = new HotelSuite("22-11", 2);
+		Client client = new Client("Alex Raum", "maraum");
+		MaintenanceWindow window = suite.scheduleMaintenance(LocalDate.of(2020, 4, 14), LocalDate.of(2020, 4, 16));
+		suite.beginMaintenance(window);
+		assertFalse(suite.isInService());
+		
+		suite.reserve(client, LocalDate.of(2020, 4, 5), 1, 1);
+		suite.reserve(client, LocalDate.of(2020, 4, 19), 1, 1);
+		try {
+			suite.reserve(client, LocalDate.of(2020, 4, 12), 1, 1);
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals("Rental unit is closed for maintenance", e.getMessage());
+		}
+		assertEquals(LocalDate.of(2020, 4, 26), suite.availableStarts(LocalDate.of(2020, 4, 12), 1, 1, 1)[0]);
+		
+		suite.endMaintenance(window);
+		assertTrue(suite.isInService());
+		suite.reserve(client, LocalDate.of(2020, 4, 12), 1, 1);
+		assertEquals(3, suite.listLeases().length);
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.HotelSuite#extendLease(Lease, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.properties.RentalUnit#shortenLease(Lease, LocalDate)}.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testExtendLease() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		HotelSuite suite = new HotelSuite("22-11", 2);
+		Client client = new Client("Alex Raum", "maraum");
+		Lease lease = suite.reserve(client, LocalDate.of(2020, 4, 5), 1, 1);
+		suite.reserve(client, LocalDate.of(2020, 4, 26), 1, 1);
+		
+		try {
+			suite.extendLease(lease, LocalDate.of(2020, 4, 15));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		}
+		suite.extendLease(lease, LocalDate.of(2020, 4, 26));
+		assertEquals(LocalDate.of(2020, 4, 26), lease.getEnd());
+		try {
+			suite.extendLease(lease, LocalDate.of(2020, 5, 3));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2020, 4, 26), lease.getEnd());
+		}
+		
+		suite.shortenLease(lease, LocalDate.of(2020, 4, 12));
+		assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		suite.reserve(client, LocalDate.of(2020, 4, 12), 1, 1);
+		assertEquals(3, suite.listLeases().length);
+		try {
+			suite.shortenLease(lease, LocalDate.of(2020, 4, 5));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2020, 4, 12), lease.getEnd());
+		}
+	}
 }
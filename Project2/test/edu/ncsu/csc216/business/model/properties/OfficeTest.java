@@ -10,6 +10,7 @@ import java.time.LocalDate;
 import org.junit.Test;
 
 //import edu.ncsu.csc216.business.list_utils.SimpleListIterator;
+import edu.ncsu.csc216.business.list_utils.SortedList;
 import edu.ncsu.csc216.business.model.contracts.Lease;
 import edu.ncsu.csc216.business.model.stakeholders.Client;
 
@@ -234,4 +235,90 @@ public class OfficeTest {
 		assertEquals(1, Office.getMonthsDuration(start, end1));
 		assertEquals(13, Office.getMonthsDuration(start, end2));
 	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.Office#availableStarts(java.time.LocalDate, int, int, int)}.
+	 * @throws RentalCapacityException if the office cannot hold the number of 
+	 *         occupants over the dates of the proposed lease
+	 * @throws RentalDateException if the start date or computed end dates are not valid
+	 * @throws RentalOutOfServiceException if the office is currently out of service
+	 */
+	@Test
+	public void testAvailableStarts() throws RentalOutOfServiceException, RentalDateException, RentalCapacityException {
+		Office office = new Office("15-15", 50);
+		Client client = new Client("Walker Clem", "waclem");
+		office.reserve(client, LocalDate.of(2022, 3, 1), 2, 40);
+		
+		LocalDate[] starts = office.availableStarts(LocalDate.of(2022, 1, 15), 2, 20, 3);
+		assertEquals(3, starts.length);
+		assertEquals(LocalDate.of(2022, 5, 1), starts[0]);
+		assertEquals(LocalDate.of(2022, 6, 1), starts[1]);
+		assertEquals(LocalDate.of(2022, 7, 1), starts[2]);
+		
+		starts = office.availableStarts(LocalDate.of(2022, 1, 1), 2, 10, 2);
+		assertEquals(LocalDate.of(2022, 1, 1), starts[0]);
+		assertEquals(LocalDate.of(2022, 2, 1), starts[1]);
+		assertEquals(0, office.availableStarts(LocalDate.of(2022, 1, 1), 1, 51, 1).length);
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.Office#removeFromServiceStarting(java.time.LocalDate)}.
+	 * @throws RentalCapacityException if the office cannot hold the number of 
+	 *         occupants over the dates of the proposed lease
+	 * @throws RentalDateException if the start date or computed end dates are not valid
+	 */
+	@Test
+	public void testRemoveFromServiceStarting() throws RentalCapacityException, RentalDateException {
+		Office office = new Office("15-15", 50);
+		Client client = new Client("Walker Clem", "waclem");
+		office.recordExistingLease(1, client, LocalDate.of(2022, 1, 1), LocalDate.of(2022, 6, 30), 10);
+		office.recordExistingLease(2, client, LocalDate.of(2022, 5, 1), LocalDate.of(2022, 5, 31), 10);
+		office.recordExistingLease(3, client, LocalDate.of(2022, 5, 1), LocalDate.of(2022, 7, 31), 10);
+		office.recordExistingLease(4, client, LocalDate.of(2022, 8, 1), LocalDate.of(2022, 8, 31), 10);
+		
+		SortedList<Lease> removed = office.removeFromServiceStarting(LocalDate.of(2022, 5, 15));
+		assertEquals(3, removed.size());
+		assertEquals(1, office.listLeases().length);
+		assertFalse(office.isInService());
+		assertTrue(office.listLeases()[0].startsWith("000001 | 2022-01-01 to 2022-04-30"));
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.properties.Office#extendLease(Lease, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.properties.RentalUnit#shortenLease(Lease, LocalDate)}.
+	 * @throws RentalCapacityException if the maximum capacity is exceeded
+	 * @throws RentalDateException if the date is invalid
+	 * @throws RentalOutOfServiceException if the unit is out of service
+	 */
+	@Test
+	public void testExtendLease() throws RentalCapacityException, RentalDateException, RentalOutOfServiceException {
+		Office office = new Office("15-15", 50);
+		Client client = new Client("Walker Clem", "waclem");
+		Lease lease = office.reserve(client, LocalDate.of(2022, 11, 1), 2, 30);
+		office.reserve(client, LocalDate.of(2023, 3, 1), 1, 30);
+		assertEquals(20, office.remainingCapacityFor(LocalDate.of(2022, 12, 1)));
+		assertEquals(50, office.remainingCapacityFor(LocalDate.of(2023, 1, 1)));
+		
+		office.extendLease(lease, LocalDate.of(2023, 2, 28));
+		assertEquals(LocalDate.of(2023, 2, 28), lease.getEnd());
+		assertEquals(20, office.remainingCapacityFor(LocalDate.of(2023, 1, 1)));
+		assertEquals(20, office.remainingCapacityFor(LocalDate.of(2023, 2, 1)));
+		try {
+			office.extendLease(lease, LocalDate.of(2023, 3, 31));
+			fail();
+		} catch (RentalCapacityException e) {
+			assertEquals(20, office.remainingCapacityFor(LocalDate.of(2023, 3, 1)));
+		}
+		try {
+			office.extendLease(lease, LocalDate.of(2023, 3, 15));
+			fail();
+		} catch (RentalDateException e) {
+			assertEquals(LocalDate.of(2023, 2, 28), lease.getEnd());
+		}
+		
+		office.shortenLease(lease, LocalDate.of(2022, 12, 31));
+		assertEquals(50, office.remainingCapacityFor(LocalDate.of(2023, 1, 1)));
+		assertEquals(50, office.remainingCapacityFor(LocalDate.of(2023, 2, 1)));
+		assertEquals(20, office.remainingCapacityFor(LocalDate.of(2022, 11, 1)));
+	}
 }
@@ -0,0 +1,81 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.scheduling;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+/**
+ * The TimingWheelTest class checks the functionality of the methods
+ * in the TimingWheel class.
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class TimingWheelTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.scheduling.TimingWheel#advanceTo(long, java.util.function.Consumer)}.
+	 */
+	@Test
+	public void testAdvanceTo() {
+		TimingWheel<Long> wheel = new TimingWheel<Long>(100);
+		long[] dues = {101, 164, 165, 4200, 300000, 100, 17000000, 5000, 4196};
+		for (long due : dues) {
+			wheel.schedule(due, due);
+		}
+		assertEquals(dues.length, wheel.pending());
+		
+		ArrayList<Long> fired = new ArrayList<Long>();
+		wheel.advanceTo(164, e -> {
+			assertEquals(wheel.getNow(), Math.max(e, 101));
+			fired.add(e);
+		});
+		assertEquals(3, fired.size());
+		assertEquals(164, wheel.getNow());
+		
+		fired.clear();
+		wheel.advanceTo(17000000, e -> {
+			assertEquals(wheel.getNow(), e.longValue());
+			fired.add(e);
+		});
+		assertEquals(6, fired.size());
+		assertEquals(Long.valueOf(165), fired.get(0));
+		assertEquals(Long.valueOf(4196), fired.get(1));
+		assertEquals(Long.valueOf(4200), fired.get(2));
+		assertEquals(Long.valueOf(5000), fired.get(3));
+		assertEquals(Long.valueOf(300000), fired.get(4));
+		assertEquals(Long.valueOf(17000000), fired.get(5));
+		assertEquals(0, wheel.pending());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.scheduling.TimingWheel.Timeout#cancel()}.
+	 */
+	@Test
+	public void testCancel() {
+		TimingWheel<String> wheel = new TimingWheel<String>(0);
+		TimingWheel.Timeout<String> first = wheel.schedule(10, "first");
+		TimingWheel.Timeout<String> second = wheel.schedule(5000, "second");
+		assertTrue(second.cancel());
+		assertFalse(second.cancel());
+		assertEquals(1, wheel.pending());
+		
+		ArrayList<String> fired = new ArrayList<String>();
+		wheel.advanceTo(10000, fired::add);
+		assertEquals(1, fired.size());
+		assertEquals("first", fired.get(0));
+		assertFalse(first.cancel());
+		assertEquals(0, wheel.pending());
+		
+		try {
+			wheel.schedule(5, null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(0, wheel.pending());
+		}
+	}
+}
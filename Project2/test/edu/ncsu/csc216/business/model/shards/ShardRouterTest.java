@@ -0,0 +1,197 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.shards;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateClientException;
+import edu.ncsu.csc216.business.model.stakeholders.DuplicateRoomException;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.views.Page;
+
+/**
+ * The ShardRouterTest class checks for the correct functionality of 
+ * the methods in ShardRouter and ShardWorker
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class ShardRouterTest {
+
+	/** the workers, one for each third of the floors */
+	private ShardWorker[] workers;
+	/** the router in front of the workers */
+	private ShardRouter router;
+	/** a manager holding the same units and clients in one piece */
+	private PropertyManager whole;
+	
+	/**
+	 * Starts three workers in this process and connects a router to them
+	 * 
+	 * @throws Exception if a worker cannot be started
+	 */
+	@Before
+	public void setUp() throws Exception {
+		workers = new ShardWorker[3];
+		router = new ShardRouter();
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new ShardWorker(1 + 15 * i, 15 + 15 * i, i, workers.length);
+			int port = workers[i].bind(0);
+			Thread serve = new Thread(workers[i]::serve);
+			serve.setDaemon(true);
+			serve.start();
+			router.connect(port);
+		}
+		whole = new PropertyManager();
+		for (String[] unit : new String[][] {{"C", "40-10", "20"}, {"O", "05-12", "100"}, {"C", "20-11", "20"}, 
+				{"C", "05-10", "20"}, {"H", "31-15", "2"}, {"O", "16-99", "50"}}) {
+			router.addNewUnit(unit[0], unit[1], Integer.parseInt(unit[2]));
+			whole.addNewUnit(unit[0], unit[1], Integer.parseInt(unit[2]));
+		}
+		router.addNewClient("Walker Clem", "waclem");
+		router.addNewClient("Alex Raum", "araum");
+		whole.addNewClient("Walker Clem", "waclem");
+		whole.addNewClient("Alex Raum", "araum");
+	}
+	
+	/**
+	 * Disconnects the router and stops the workers
+	 */
+	@After
+	public void tearDown() {
+		router.close();
+		for (ShardWorker worker : workers) {
+			worker.close();
+		}
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.shards.ShardRouter#listRentalUnits()}.
+	 */
+	@Test
+	public void testListRentalUnits() {
+		assertEquals(3, router.getShardCount());
+		assertArrayEquals(whole.listRentalUnits(), router.listRentalUnits());
+		assertArrayEquals(whole.listClients(), router.listClients());
+		assertEquals(2, workers[0].getManager().listRentalUnits().length);
+		assertEquals(2, workers[1].getManager().listRentalUnits().length);
+		assertEquals(2, workers[2].getManager().listClients().length);
+		
+		router.filterRentalUnits("C", false);
+		whole.filterRentalUnits("C", false);
+		assertArrayEquals(whole.listRentalUnits(), router.listRentalUnits());
+		router.filterRentalUnits("", false);
+		whole.filterRentalUnits("", false);
+		
+		ArrayList<String> paged = new ArrayList<String>();
+		Page<String> page = router.pageRentalUnits(null, 2);
+		paged.addAll(List.of(page.getItems()));
+		while (page.hasNext()) {
+			page = router.pageRentalUnits(page.getNext(), 2);
+			paged.addAll(List.of(page.getItems()));
+		}
+		assertEquals(List.of(whole.listRentalUnits()), paged);
+		assertEquals(2, router.pageClients(null, 5).getItems().length);
+		
+		try {
+			router.addNewUnit("C", "20-11", 10);
+			fail();
+		} catch (DuplicateRoomException e) {
+			assertEquals(6, router.listRentalUnits().length);
+		}
+		try {
+			router.addNewClient("Walker Again", "waclem");
+			fail();
+		} catch (DuplicateClientException e) {
+			assertEquals(2, router.listClients().length);
+		}
+		try {
+			router.listLeasesForRentalUnit(6);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(6, router.viewRentalUnits().length);
+		}
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.shards.ShardRouter#createLease(int, int, java.time.LocalDate, int, int)}.
+	 */
+	@Test
+	public void testLeases() {
+		ArrayList<RentalChangeEvent> events = new ArrayList<RentalChangeEvent>();
+		router.addRentalChangeListener(events::add);
+		
+		Lease low = router.createLease(0, 0, LocalDate.of(2022, 3, 9), 2, 10);
+		Lease high = router.createLease(0, 5, LocalDate.of(2022, 3, 2), 3, 10);
+		Lease mid = router.createLease(0, 3, LocalDate.of(2022, 3, 5), 1, 10);
+		router.createLease(1, 0, LocalDate.of(2022, 3, 2), 1, 5);
+		assertEquals(0, low.getConfirmationNumber());
+		assertEquals(333333, mid.getConfirmationNumber());
+		assertEquals(666666, high.getConfirmationNumber());
+		assertEquals("40-10", high.getProperty().getFloor() + "-" + high.getProperty().getRoom());
+		assertEquals("waclem", high.getClient().getId());
+		assertEquals(4, events.size());
+		assertTrue(events.get(0).contains(Change.LEASE_CREATED));
+		
+		String[] leases = router.listClientLeases(0);
+		assertEquals(3, leases.length);
+		assertTrue(leases[0].startsWith("666666"));
+		assertTrue(leases[1].startsWith("333333"));
+		assertTrue(leases[2].startsWith("000000"));
+		assertEquals(3, router.viewClients()[0].getLeaseCount());
+		assertEquals(2, router.listLeasesForRentalUnit(0).length);
+		
+		Page<String> page = router.pageClientLeases(0, null, 2);
+		assertArrayEquals(new String[] {leases[0], leases[1]}, page.getItems());
+		page = router.pageClientLeases(0, page.getNext(), 2);
+		assertArrayEquals(new String[] {leases[2]}, page.getItems());
+		assertNull(page.getNext());
+		
+		assertEquals(LocalDate.of(2022, 3, 6), router.extendLease(666666, LocalDate.of(2022, 3, 6)).getEnd());
+		assertEquals(LocalDate.of(2022, 3, 6), 
+				workers[2].getManager().getLease(666666).getEnd());
+		
+		router.cancelClientsLease(0, 1);
+		assertEquals(2, router.listClientLeases(0).length);
+		try {
+			workers[1].getManager().getLease(333333);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(0, workers[1].getManager().getClientAt(0).getLeaseCount());
+		}
+		assertEquals(Change.LEASE_CANCELED, events.get(events.size() - 1).getChanges().iterator().next());
+		
+		router.flushAllData();
+		assertEquals(0, router.listRentalUnits().length);
+		assertEquals(0, router.listClients().length);
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.shards.ShardRouter#launch(int)}.
+	 * 
+	 * @throws Exception if the workers cannot be started
+	 */
+	@Test
+	public void testLaunch() throws Exception {
+		try (ShardRouter launched = ShardRouter.launch(2)) {
+			assertEquals(2, launched.getShardCount());
+			launched.addNewUnit("C", "44-10", 20);
+			launched.addNewUnit("C", "02-10", 20);
+			launched.addNewClient("Walker Clem", "waclem");
+			assertEquals(" 2-10", launched.listRentalUnits()[0].substring(17, 22));
+			assertEquals(500000, launched.createLease(0, 1, LocalDate.of(2022, 3, 2), 2, 10).getConfirmationNumber());
+			assertEquals(1, launched.listClientLeases(0).length);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+
+/**
+ * The AsyncLandlordTest class checks for the correct functionality of
+ * the methods in AsyncLandlord
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class AsyncLandlordTest {
+
+	/** the first day leases are made on */
+	private static final LocalDate START = LocalDate.of(2022, 3, 1);
+	/** the manager under the landlord */
+	private PropertyManager manager;
+
+	/**
+	 * Sets up a manager with two clients and eight conference rooms
+	 *
+	 * @throws Exception if the manager cannot be set up
+	 */
+	@Before
+	public void setUp() throws Exception {
+		manager = new PropertyManager();
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewClient("Alex Raum", "araum");
+		for (int room = 10; room < 18; room++) {
+			manager.addNewUnit("C", "5-" + room, 20);
+		}
+	}
+
+	/**
+	 * Gets the exception a future failed with
+	 *
+	 * @param future the future
+	 * @return the exception
+	 */
+	private static Throwable failure(CompletableFuture<?> future) {
+		try {
+			future.join();
+			fail();
+			return null;
+		} catch (CompletionException e) {
+			return e.getCause();
+		}
+	}
+
+	/**
+	 * Test method for operations on one unit running in order through
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.AsyncLandlord}.
+	 */
+	@Test
+	public void testUnitOrder() {
+		AsyncLandlord landlord = new AsyncLandlord(manager);
+		CompletableFuture<LeaseView> first = landlord.createLease("waclem", "05-10", START, 2, 10);
+		CompletableFuture<LeaseView> clash = landlord.createLease("araum", "05-10", START.plusDays(1), 1, 10);
+		CompletableFuture<LeaseView> second = landlord.createLease("araum", "05-10", START.plusDays(2), 1, 10);
+		CompletableFuture<LeaseView[]> before = landlord.viewLeases("05-10");
+		int number = first.join().getConfirmationNumber();
+		CompletableFuture<LeaseView> extended = landlord.extendLease(number, START.plusDays(4));
+		CompletableFuture<LeaseView> canceled = landlord.cancelLease(second.join().getConfirmationNumber());
+		CompletableFuture<LeaseView> retried = landlord.extendLease(number, START.plusDays(4));
+
+		assertTrue(failure(clash) instanceof IllegalArgumentException);
+		assertEquals(2, before.join().length);
+		assertTrue(failure(extended) instanceof IllegalArgumentException);
+		assertEquals(START.plusDays(2), canceled.join().getStart());
+		assertEquals(START.plusDays(4), retried.join().getEnd());
+		assertEquals(1, landlord.viewLeases("05-10").join().length);
+		assertEquals(1, manager.getClientById("waclem").getLeaseCount());
+		assertEquals(0, manager.getClientById("araum").getLeaseCount());
+		assertEquals(START.plusDays(1), landlord.shortenLease(number, START.plusDays(1)).join().getEnd());
+
+		assertTrue(failure(landlord.createLease("nobody", "05-10", START, 1, 1)) instanceof IllegalArgumentException);
+		assertTrue(failure(landlord.cancelLease(number + 100)) instanceof IllegalArgumentException);
+		assertTrue(failure(landlord.addNewClient("Walker", "waclem")) instanceof DuplicateClientException);
+		assertEquals(18, landlord.addNewUnit("C", "05-18", 20).join().getRoom());
+		assertEquals(0, landlord.getQueued("05-18"));
+	}
+
+	/**
+	 * Test method for operations on many units at once through
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.AsyncLandlord}.
+	 */
+	@Test
+	public void testParallelUnits() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		AsyncLandlord landlord = new AsyncLandlord(manager, pool, 1000);
+		ArrayList<CompletableFuture<LeaseView>> leases = new ArrayList<CompletableFuture<LeaseView>>();
+		for (int day = 0; day < 400; day++) {
+			for (int room = 10; room < 18; room++) {
+				String client = day % 2 == 0 ? "waclem" : "araum";
+				leases.add(landlord.createLease(client, "05-" + room, START.plusDays(day), 1, 5));
+			}
+		}
+		ArrayList<CompletableFuture<LeaseView>> canceled = new ArrayList<CompletableFuture<LeaseView>>();
+		for (int i = 0; i < leases.size(); i += 3) {
+			canceled.add(landlord.cancelLease(leases.get(i).join().getConfirmationNumber()));
+		}
+		CompletableFuture.allOf(canceled.toArray(new CompletableFuture<?>[0])).join();
+		RentalSnapshot snapshot = landlord.snapshot().join();
+		pool.shutdown();
+
+		int active = leases.size() - canceled.size();
+		assertEquals(active, manager.getClientById("waclem").getLeaseCount() + manager.getClientById("araum").getLeaseCount());
+		int held = 0;
+		for (int i = 0; i < snapshot.getUnitCount(); i++) {
+			held += snapshot.getLeasesForUnit(i).size();
+		}
+		assertEquals(active, held);
+		for (int i = 1; i < leases.size(); i += 3) {
+			assertEquals(10 + i % 8, manager.getLease(leases.get(i).join().getConfirmationNumber()).getProperty().getRoom());
+		}
+	}
+
+	/**
+	 * Test method for full mailboxes in {@link edu.ncsu.csc216.business.model.stakeholders.AsyncLandlord}.
+	 */
+	@Test
+	public void testOverload() {
+		ArrayList<Runnable> held = new ArrayList<Runnable>();
+		AsyncLandlord landlord = new AsyncLandlord(manager, held::add, 2);
+		CompletableFuture<LeaseView> first = landlord.createLease("waclem", "05-10", START, 1, 5);
+		landlord.createLease("waclem", "05-10", START.plusDays(1), 1, 5);
+		CompletableFuture<LeaseView> refused = landlord.createLease("waclem", "05-10", START.plusDays(2), 1, 5);
+		CompletableFuture<LeaseView> elsewhere = landlord.createLease("waclem", "05-11", START, 1, 5);
+		assertTrue(failure(refused) instanceof RejectedExecutionException);
+		assertEquals(2, landlord.getQueued("05-10"));
+		assertEquals(2, held.size());
+		assertFalse(first.isDone());
+
+		held.remove(0).run();
+		assertEquals(START, first.join().getStart());
+		assertFalse(elsewhere.isDone());
+		held.remove(0).run();
+		assertEquals(START, elsewhere.join().getStart());
+		assertEquals(3, manager.getClientById("waclem").getLeaseCount());
+		assertFalse(landlord.createLease("waclem", "05-10", START.plusDays(2), 1, 5).isDone());
+
+		try {
+			new AsyncLandlord(manager, held::add, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(1, held.size());
+		}
+	}
+}
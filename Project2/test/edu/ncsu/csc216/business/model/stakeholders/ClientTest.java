@@ -6,6 +6,8 @@ package edu.ncsu.csc216.business.model.stakeholders;
 import static org.junit.Assert.*;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import org.junit.Test;
 
@@ -104,4 +106,20 @@ public class ClientTest {
 			assertEquals("000050 | 2020-04-08 to 2020-04-15 |  18 | Conference Room: 14-11", client1.listLeases()[0]);
 		}
 	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.Client#cancelLeasesWithNumbers(java.util.Set)}.
+	 */
+	@Test
+	public void testCancelLeasesWithNumbers() {
+		Client client1 = new Client("Alex Raum", "maraum");
+		ConferenceRoom room = new ConferenceRoom("14-11", 20);
+		client1.addNewLease(new Lease(50, client1, room, LocalDate.of(2020, 4, 8), LocalDate.of(2020, 4, 9), 5));
+		client1.addNewLease(new Lease(51, client1, room, LocalDate.of(2020, 4, 10), LocalDate.of(2020, 4, 11), 5));
+		client1.addNewLease(new Lease(52, client1, room, LocalDate.of(2020, 4, 12), LocalDate.of(2020, 4, 13), 5));
+		
+		assertEquals(2, client1.cancelLeasesWithNumbers(new HashSet<Integer>(Arrays.asList(50, 52, 99))));
+		assertEquals(1, client1.listLeases().length);
+		assertTrue(client1.listLeases()[0].startsWith("000051"));
+	}
 }
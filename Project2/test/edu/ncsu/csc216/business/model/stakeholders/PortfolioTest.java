@@ -0,0 +1,112 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+
+/**
+ * The PortfolioTest class checks for the correct functionality of 
+ * the methods in Portfolio
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class PortfolioTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.Portfolio#addBuilding(java.lang.String)}.
+	 */
+	@Test
+	public void testAddBuilding() {
+		Portfolio portfolio = new Portfolio();
+		PropertyManager north = portfolio.addBuilding("North");
+		PropertyManager south = portfolio.addBuilding("South");
+		assertNotSame(north, south);
+		assertNotSame(PropertyManager.getInstance(), north);
+		assertSame(north, portfolio.getBuilding("North"));
+		assertArrayEquals(new String[] {"North", "South"}, portfolio.getBuildingNames());
+		try {
+			portfolio.addBuilding("North");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, portfolio.getBuildingNames().length);
+		}
+		try {
+			portfolio.getBuilding("East");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertSame(south, portfolio.getBuilding("South"));
+		}
+		
+		try {
+			north.addNewClient("Walker Clem", "waclem");
+			north.addNewUnit("C", "12-14", 10);
+			south.addNewClient("Alex Raum", "araum");
+			south.addNewUnit("C", "12-14", 10);
+			Lease first = north.createLease(0, 0, LocalDate.of(2022, 3, 2), 3, 5);
+			Lease second = south.createLease(0, 0, LocalDate.of(2022, 3, 2), 3, 5);
+			assertEquals(first.getConfirmationNumber(), second.getConfirmationNumber());
+			assertEquals(first.getConfirmationNumber() + 1, 
+					north.createLease(0, 0, LocalDate.of(2022, 3, 6), 1, 5).getConfirmationNumber());
+		} catch (Exception e) {
+			fail();
+		}
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.Portfolio#findAvailable(java.lang.String, java.time.LocalDate, int, int)}.
+	 */
+	@Test
+	public void testFanOut() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		Portfolio portfolio = new Portfolio(pool);
+		assertEquals(0, portfolio.listRentalUnits().length);
+		try {
+			for (int i = 0; i < 5; i++) {
+				PropertyManager building = portfolio.addBuilding("B" + i);
+				building.addNewClient("Walker Clem", "waclem");
+				building.addNewUnit("C", "12-14", 10);
+				building.addNewUnit("O", "12-15", 50);
+				if (i % 2 == 0) {
+					building.createLease(0, 0, LocalDate.of(2022, 3, 2), 3, 5);
+				}
+			}
+		} catch (Exception e) {
+			fail();
+		}
+		
+		String[] units = portfolio.listRentalUnits();
+		assertEquals(10, units.length);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(units[2 * i].startsWith("B" + i + ": "));
+			assertTrue(units[2 * i + 1].startsWith("B" + i + ": "));
+		}
+		
+		String[] open = portfolio.findAvailable("C", LocalDate.of(2022, 3, 3), 1, 5);
+		assertEquals(2, open.length);
+		assertTrue(open[0].startsWith("B1: "));
+		assertTrue(open[1].startsWith("B3: "));
+		assertEquals(5, portfolio.findAvailable("", LocalDate.of(2022, 3, 10), 1, 5).length);
+		assertEquals(5, portfolio.findAvailable("o", LocalDate.of(2022, 3, 1), 1, 5).length);
+		
+		String[] report = portfolio.occupancyReport(LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 3));
+		assertEquals(5, report.length);
+		assertEquals("B0: 2 units, 1 clients, 1 leases, 10 occupant-days", report[0]);
+		assertEquals("B1: 2 units, 1 clients, 0 leases, 0 occupant-days", report[1]);
+		
+		try {
+			portfolio.findAvailable("C", LocalDate.of(2022, 3, 3), 0, 5);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(5, portfolio.getBuildingNames().length);
+		}
+		pool.shutdown();
+	}
+}
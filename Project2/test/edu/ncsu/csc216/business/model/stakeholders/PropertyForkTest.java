@@ -0,0 +1,228 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+
+/**
+ * The PropertyForkTest class checks for the correct functionality of the
+ * methods in PropertyFork, and that a fork shares what it has not changed
+ * with its parent.
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class PropertyForkTest {
+
+	/** the parent of the forks */
+	private PropertyManager manager;
+
+	/**
+	 * Sets up a manager with 30 offices and 10 clients, each client with a
+	 * lease on three of the offices
+	 *
+	 * @throws Exception if a client or unit cannot be added
+	 */
+	@Before
+	public void setUp() throws Exception {
+		manager = new PropertyManager();
+		for (int i = 0; i < 30; i++) {
+			manager.addNewUnit("O", (10 + i / 5) + "-" + (10 + i % 5), 100);
+		}
+		for (int i = 0; i < 10; i++) {
+			manager.addNewClient("Client " + (char) ('A' + i), "client" + i);
+			for (int j = 0; j < 3; j++) {
+				manager.createLease(i, (i * 3 + j) % 30, LocalDate.of(2022, 3, 1), 2, 10);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#snapshot()}
+	 * showing that a fork reads through to its parent's views and replaces
+	 * only those it changed.
+	 */
+	@Test
+	public void testSharesViews() {
+		RentalSnapshot parent = manager.snapshot();
+		PropertyFork fork = manager.fork();
+		RentalSnapshot same = fork.snapshot();
+		for (int i = 0; i < parent.getUnitCount(); i++) {
+			assertSame(parent.getUnit(i), same.getUnit(i));
+		}
+		assertSame(parent.getLeasesForClient(4).get(0), same.getLeasesForClient(4).get(0));
+
+		fork.createLease(2, 20, LocalDate.of(2022, 6, 1), 1, 5);
+		RentalSnapshot changed = fork.snapshot();
+		assertNotSame(parent.getUnit(20), changed.getUnit(20));
+		assertNotSame(parent.getClient(2), changed.getClient(2));
+		assertEquals(4, changed.getClient(2).getLeaseCount());
+		assertEquals(3, manager.snapshot().getClient(2).getLeaseCount());
+		for (int i = 0; i < parent.getUnitCount(); i++) {
+			if (i != 20) {
+				assertSame(parent.getUnit(i), changed.getUnit(i));
+			}
+		}
+		for (int i = 0; i < parent.getClientCount(); i++) {
+			if (i != 2) {
+				assertSame(parent.getClient(i), changed.getClient(i));
+			}
+		}
+		assertSame(parent.getLeasesForClient(2).get(2), changed.getLeasesForClient(2).get(2));
+		assertEquals(1, fork.diff().getCreatedLeases().length);
+		assertEquals(0, fork.diff().getCanceledLeases().length);
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#extendLease(int, LocalDate)},
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#shortenLease(int, LocalDate)} and
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#commit()}
+	 * on leases the fork took from its parent.
+	 */
+	@Test
+	public void testChangeParentLeases() {
+		Lease first = manager.getClientAt(0).getLeaseAt(0);
+		Lease last = manager.getClientAt(9).getLeaseAt(2);
+		PropertyFork fork = manager.fork();
+		assertEquals(LocalDate.of(2022, 7, 31), fork.extendLease(first.getConfirmationNumber(), LocalDate.of(2022, 7, 31)).getEnd());
+		assertEquals(LocalDate.of(2022, 3, 31), fork.shortenLease(last.getConfirmationNumber(), LocalDate.of(2022, 3, 31)).getEnd());
+		try {
+			fork.extendLease(999999, LocalDate.of(2022, 7, 31));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, fork.diff().getChangedLeases().length);
+		}
+		assertEquals(LocalDate.of(2022, 4, 30), first.getEnd());
+		assertTrue(fork.listClientLeases(0)[0].contains("2022-07-31"));
+
+		fork.commit();
+		assertEquals(LocalDate.of(2022, 7, 31), first.getEnd());
+		assertEquals(LocalDate.of(2022, 3, 31), last.getEnd());
+		assertTrue(fork.diff().isEmpty());
+		assertArrayEquals(manager.listClientLeases(9), fork.listClientLeases(9));
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#commit()}
+	 * with changes that no longer fit the parent, which leaves the parent
+	 * as it was.
+	 */
+	@Test
+	public void testFailedCommit() {
+		Lease first = manager.getClientAt(0).getLeaseAt(0);
+		String[] units = manager.listRentalUnits();
+		String[] leases = manager.listClientLeases(1);
+		PropertyFork fork = manager.fork();
+		fork.cancelClientsLease(1, 0);
+		fork.extendLease(first.getConfirmationNumber(), LocalDate.of(2022, 7, 31));
+		manager.scheduleMaintenance(0, LocalDate.of(2022, 6, 10), LocalDate.of(2022, 6, 12));
+		try {
+			fork.commit();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals(LocalDate.of(2022, 4, 30), first.getEnd());
+			assertArrayEquals(leases, manager.listClientLeases(1));
+			assertArrayEquals(units, manager.listRentalUnits());
+			assertEquals(30, manager.snapshot().getUnitCount());
+			assertEquals(3, manager.snapshot().getClient(1).getLeaseCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#createLease(int, int, LocalDate, int, int)}
+	 * and {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#commit()}
+	 * with leases that fall in the parent's maintenance windows, whether
+	 * they were scheduled before or after the fork was made.
+	 */
+	@Test
+	public void testMaintenanceWindows() {
+		manager.scheduleMaintenance(0, LocalDate.of(2024, 6, 10), LocalDate.of(2024, 6, 12));
+		PropertyFork fork = manager.fork();
+		try {
+			fork.createLease(0, 0, LocalDate.of(2024, 6, 1), 1, 5);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(1, fork.listLeasesForRentalUnit(0).length);
+		}
+		fork.createLease(0, 0, LocalDate.of(2024, 7, 1), 1, 5);
+		fork.createLease(0, 1, LocalDate.of(2024, 6, 1), 1, 5);
+		manager.scheduleMaintenance(1, LocalDate.of(2024, 6, 10), LocalDate.of(2024, 6, 12));
+		try {
+			fork.commit();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals(1, manager.listLeasesForRentalUnit(0).length);
+			assertEquals(1, manager.listLeasesForRentalUnit(1).length);
+			assertEquals(3, manager.getClientAt(0).getLeaseCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork#discard()},
+	 * which gives back the numbers of the leases made in the fork.
+	 */
+	@Test
+	public void testDiscard() {
+		PropertyFork fork = manager.fork();
+		Lease created = fork.createLease(0, 5, LocalDate.of(2022, 6, 1), 1, 5);
+		fork.cancelClientsLease(1, 0);
+		assertTrue(created.getProperty().getConfirmationNumbering().isInUse(created.getConfirmationNumber()));
+		assertEquals(2, fork.listClientLeases(1).length);
+		fork.discard();
+		assertFalse(created.getProperty().getConfirmationNumbering().isInUse(created.getConfirmationNumber()));
+		assertTrue(fork.diff().isEmpty());
+		assertEquals(3, fork.listClientLeases(1).length);
+		assertSame(manager.snapshot().getUnit(5), fork.snapshot().getUnit(5));
+	}
+
+	/**
+	 * Test method for the listing and paging methods of
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.PropertyFork},
+	 * which match the parent's until the fork changes.
+	 *
+	 * @throws DuplicateRoomException if a unit is added twice
+	 */
+	@Test
+	public void testListings() throws DuplicateRoomException {
+		PropertyFork fork = manager.fork();
+		assertArrayEquals(manager.listRentalUnits(), fork.listRentalUnits());
+		assertArrayEquals(manager.listClients(), fork.listClients());
+		assertArrayEquals(manager.listLeasesForRentalUnit(7), fork.listLeasesForRentalUnit(7));
+
+		fork.addNewUnit("H", "12-99", 2);
+		fork.filterRentalUnits("Hotel", false);
+		assertEquals(1, fork.listRentalUnits().length);
+		fork.filterRentalUnits("", false);
+		fork.removeFromService(0, PropertyManager.EARLIEST_DATE);
+		fork.filterRentalUnits("", true);
+		assertEquals(30, fork.listRentalUnits().length);
+		fork.filterRentalUnits("", false);
+
+		ArrayList<String> paged = new ArrayList<String>();
+		Page<String> page = fork.pageRentalUnits(null, 7);
+		while (true) {
+			for (String item : page.getItems()) {
+				paged.add(item);
+			}
+			if (page.getNext() == null) {
+				break;
+			}
+			page = fork.pageRentalUnits(page.getNext(), 7);
+		}
+		assertArrayEquals(fork.listRentalUnits(), paged.toArray(new String[paged.size()]));
+		assertEquals(31, paged.size());
+		assertEquals(0, fork.viewLeasesForRentalUnit(0).length);
+		assertEquals(2, fork.viewClientLeases(0).length);
+		assertEquals(30, manager.listRentalUnits().length);
+	}
+}
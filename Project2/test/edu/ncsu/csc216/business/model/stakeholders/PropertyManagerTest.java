@@ -6,12 +6,26 @@ package edu.ncsu.csc216.business.model.stakeholders;
 import static org.junit.Assert.*;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
+import edu.ncsu.csc216.business.model.contracts.Lease;
+import edu.ncsu.csc216.business.model.contracts.LeaseRequest;
+import edu.ncsu.csc216.business.model.properties.MaintenanceWindow;
 import edu.ncsu.csc216.business.model.properties.Office;
 
 import edu.ncsu.csc216.business.model.properties.RentalUnit;
+import edu.ncsu.csc216.business.model.stakeholders.RentalChangeEvent.Change;
+import edu.ncsu.csc216.business.model.views.ClientView;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+import edu.ncsu.csc216.business.model.views.Page;
+import edu.ncsu.csc216.business.model.views.PageCursor;
+import edu.ncsu.csc216.business.model.views.RentalSnapshot;
+import edu.ncsu.csc216.business.model.views.UnitView;
 
 /**
  * The PropertyManagerTest class checks for the correct functionality of 
@@ -345,4 +359,646 @@ public class PropertyManagerTest {
 		singleton.filterRentalUnits("", false);
 	}
 
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#suggestAlternatives(RentalUnit, LocalDate, int, int, int)}.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testSuggestAlternatives() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		RentalUnit room = singleton.addNewUnit("C", "12-14", 10);
+		singleton.addNewUnit("C", "12-20", 10);
+		singleton.addNewUnit("C", "14-14", 10);
+		singleton.addNewUnit("C", "12-17", 5);
+		singleton.addNewUnit("H", "12-15", 2);
+		LocalDate start = LocalDate.of(2022, 1, 3);
+		singleton.createLease(0, 0, start, 3, 8);
+		
+		ReservationAlternatives alternatives = singleton.suggestAlternatives(room, start, 2, 8, 2);
+		assertEquals(2, alternatives.getStartDates().length);
+		assertEquals(LocalDate.of(2022, 1, 6), alternatives.getStartDates()[0]);
+		assertEquals(LocalDate.of(2022, 1, 7), alternatives.getStartDates()[1]);
+		assertEquals(2, alternatives.getUnits().length);
+		assertEquals(12, alternatives.getUnits()[0].getFloor());
+		assertEquals(20, alternatives.getUnits()[0].getRoom());
+		assertEquals(14, alternatives.getUnits()[1].getFloor());
+		
+		try {
+			singleton.suggestAlternatives(null, start, 2, 8, 2);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(5, singleton.listRentalUnits().length);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#planOutage(int, int, String, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#applyOutagePlan(OutagePlan)}.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testPlanOutage() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewClient("Alex Raum", "maraum");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("C", "4-20", 10);
+		singleton.addNewUnit("H", "4-15", 2);
+		singleton.addNewUnit("C", "6-17", 5);
+		singleton.createLease(0, 0, LocalDate.of(2022, 1, 3), 3, 8);
+		singleton.createLease(0, 2, LocalDate.of(2022, 1, 3), 7, 8);
+		singleton.createLease(1, 2, LocalDate.of(2022, 1, 12), 2, 4);
+		singleton.createLease(1, 3, LocalDate.of(2022, 1, 12), 2, 4);
+		
+		OutagePlan plan = singleton.planOutage(3, 5, "c", LocalDate.of(2022, 1, 7));
+		assertEquals(2, plan.getUnits().length);
+		assertEquals(1, plan.getCanceledLeases().length);
+		assertEquals(1, plan.getTruncatedLeases().length);
+		assertEquals(LocalDate.of(2022, 1, 6), plan.getTruncatedEnds()[0]);
+		assertEquals(2, plan.getAffectedClients().length);
+		assertEquals(3 * 8 + 2 * 4, plan.getOccupantDays());
+		assertEquals(2, singleton.listClientLeases(1).length);
+		assertTrue(singleton.listRentalUnits()[2].endsWith(" 10"));
+		
+		assertEquals(1, singleton.applyOutagePlan(plan));
+		assertEquals(2, singleton.listClientLeases(0).length);
+		assertEquals(1, singleton.listClientLeases(1).length);
+		assertTrue(singleton.listClientLeases(0)[1].contains("2022-01-03 to 2022-01-06"));
+		assertTrue(singleton.listRentalUnits()[0].endsWith("Unavailable"));
+		assertFalse(singleton.listRentalUnits()[1].endsWith("Unavailable"));
+		assertTrue(singleton.listRentalUnits()[2].endsWith("Unavailable"));
+		assertFalse(singleton.listRentalUnits()[3].endsWith("Unavailable"));
+		
+		try {
+			singleton.planOutage(5, 3, "", LocalDate.of(2022, 1, 7));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(4, singleton.listRentalUnits().length);
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#scheduleMaintenance(int, LocalDate, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#advanceCalendar(LocalDate)}.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testScheduleMaintenance() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("O", "4-20", 100);
+		MaintenanceWindow window = singleton.scheduleMaintenance(0, LocalDate.of(2022, 2, 10), LocalDate.of(2022, 2, 20));
+		singleton.scheduleMaintenance(1, LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 5));
+		
+		singleton.createLease(0, 0, LocalDate.of(2022, 2, 3), 7, 8);
+		singleton.createLease(0, 0, LocalDate.of(2022, 2, 21), 7, 8);
+		try {
+			singleton.createLease(0, 0, LocalDate.of(2022, 2, 15), 2, 8);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, singleton.listClientLeases(0).length);
+		}
+		try {
+			singleton.createLease(0, 1, LocalDate.of(2022, 1, 1), 3, 8);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, singleton.listClientLeases(0).length);
+		}
+		
+		assertEquals(0, singleton.advanceCalendar(LocalDate.of(2022, 2, 9)));
+		assertFalse(singleton.listRentalUnits()[0].endsWith("Unavailable"));
+		assertEquals(1, singleton.advanceCalendar(LocalDate.of(2022, 2, 10)));
+		assertTrue(singleton.listRentalUnits()[0].endsWith("Unavailable"));
+		singleton.createLease(0, 0, LocalDate.of(2022, 3, 1), 2, 8);
+		assertEquals(2, singleton.advanceCalendar(LocalDate.of(2022, 3, 1)));
+		assertFalse(singleton.listRentalUnits()[0].endsWith("Unavailable"));
+		assertTrue(singleton.listRentalUnits()[1].endsWith("Unavailable"));
+		assertEquals(1, singleton.advanceCalendar(LocalDate.of(2022, 4, 1)));
+		assertFalse(singleton.listRentalUnits()[1].endsWith("Unavailable"));
+		assertEquals(0, window.getUnit().getMaintenanceWindows().length);
+		
+		MaintenanceWindow later = singleton.scheduleMaintenance(0, LocalDate.of(2022, 5, 1), LocalDate.of(2022, 5, 2));
+		singleton.cancelMaintenance(later);
+		assertEquals(0, singleton.advanceCalendar(LocalDate.of(2022, 5, 1)));
+		assertFalse(singleton.listRentalUnits()[0].endsWith("Unavailable"));
+		
+		try {
+			singleton.scheduleMaintenance(0, LocalDate.of(2022, 3, 2), LocalDate.of(2022, 3, 4));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Maintenance window overlaps a lease", e.getMessage());
+		}
+		
+		singleton.scheduleMaintenance(1, LocalDate.of(2022, 6, 1), LocalDate.of(2022, 6, 30));
+		assertEquals(1, singleton.advanceCalendar(LocalDate.of(2022, 6, 2)));
+		assertTrue(singleton.listRentalUnits()[1].endsWith("Unavailable"));
+		singleton.returnToService(1);
+		assertFalse(singleton.listRentalUnits()[1].endsWith("Unavailable"));
+		assertEquals(0, singleton.getUnitAtLocation("4-20").getMaintenanceWindows().length);
+		singleton.createLease(0, 1, LocalDate.of(2022, 6, 1), 1, 8);
+		assertEquals(0, singleton.advanceCalendar(LocalDate.of(2022, 7, 1)));
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#extendLease(int, LocalDate)}
+	 * and {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#shortenLease(int, LocalDate)}.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testExtendLease() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewUnit("C", "3-14", 10);
+		Lease lease = singleton.createLease(0, 0, LocalDate.of(2022, 2, 3), 2, 8);
+		int number = lease.getConfirmationNumber();
+		
+		assertSame(lease, singleton.extendLease(number, LocalDate.of(2022, 2, 7)));
+		assertEquals(LocalDate.of(2022, 2, 7), lease.getEnd());
+		assertEquals(number, singleton.getLease(number).getConfirmationNumber());
+		assertTrue(singleton.listClientLeases(0)[0].contains("2022-02-03 to 2022-02-07"));
+		try {
+			singleton.extendLease(number, LocalDate.of(2022, 2, 12));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(LocalDate.of(2022, 2, 7), lease.getEnd());
+		}
+		
+		singleton.shortenLease(number, LocalDate.of(2022, 2, 5));
+		assertEquals(LocalDate.of(2022, 2, 5), lease.getEnd());
+		singleton.createLease(0, 0, LocalDate.of(2022, 2, 6), 2, 8);
+		
+		singleton.cancelClientsLease(0, 0);
+		try {
+			singleton.extendLease(number, LocalDate.of(2022, 2, 6));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(1, singleton.listClientLeases(0).length);
+		}
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#createLeases(List)}.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testCreateLeases() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewClient("Alex Raum", "maraum");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("O", "4-20", 100);
+		singleton.createLease(0, 0, LocalDate.of(2022, 2, 3), 2, 8);
+		int counter = Lease.getConfirmationCounter();
+		
+		List<LeaseRequest> batch = new ArrayList<LeaseRequest>();
+		batch.add(new LeaseRequest("maraum", "3-14", LocalDate.of(2022, 2, 10), 3, 8));
+		batch.add(new LeaseRequest("waclem", "03-14", LocalDate.of(2022, 2, 6), 3, 8));
+		batch.add(new LeaseRequest("maraum", "3-14", LocalDate.of(2022, 2, 8), 3, 8));
+		batch.add(new LeaseRequest("nobody", "3-14", LocalDate.of(2022, 3, 1), 1, 1));
+		batch.add(new LeaseRequest("waclem", "5-55", LocalDate.of(2022, 3, 1), 1, 1));
+		batch.add(new LeaseRequest("waclem", "4-20", LocalDate.of(2022, 3, 1), 1, 101));
+		long reserved = singleton.getMetrics().getReserveLatency().getCount();
+		long created = singleton.getMetrics().getLeasesCreated();
+		LeaseBatchResult result = singleton.createLeases(batch);
+		assertFalse(result.isCommitted());
+		// only the two requests a unit refused were recorded, not the two it held and gave back
+		assertEquals(reserved + 2, singleton.getMetrics().getReserveLatency().getCount());
+		assertEquals(created, singleton.getMetrics().getLeasesCreated());
+		assertEquals(4, result.getRejectedCount());
+		assertNull(result.getReasons()[0]);
+		assertNull(result.getReasons()[1]);
+		assertEquals("Invalid date", result.getReasons()[2]);
+		assertEquals("No such client", result.getReasons()[3]);
+		assertEquals("No such rental unit", result.getReasons()[4]);
+		assertEquals("Too many occupants", result.getReasons()[5]);
+		assertNull(result.getLeases()[0]);
+		assertEquals(1, singleton.listLeasesForRentalUnit(0).length);
+		assertEquals(1, singleton.listClientLeases(0).length);
+		assertEquals(0, singleton.listClientLeases(1).length);
+		for (int num = counter; num < Lease.getConfirmationCounter(); num++) {
+			assertFalse(Lease.isConfirmationNumberInUse(num));
+		}
+		
+		batch.remove(5);
+		batch.remove(4);
+		batch.remove(3);
+		batch.remove(2);
+		batch.add(new LeaseRequest("maraum", "4-20", LocalDate.of(2022, 3, 1), 2, 100));
+		result = singleton.createLeases(batch);
+		assertTrue(result.isCommitted());
+		assertEquals(reserved + 5, singleton.getMetrics().getReserveLatency().getCount());
+		assertEquals(created + 3, singleton.getMetrics().getLeasesCreated());
+		assertEquals(0, result.getRejectedCount());
+		assertEquals(LocalDate.of(2022, 2, 12), result.getLeases()[0].getEnd());
+		assertEquals(3, singleton.listLeasesForRentalUnit(0).length);
+		assertEquals(2, singleton.listClientLeases(0).length);
+		assertEquals(2, singleton.listClientLeases(1).length);
+		assertSame(result.getLeases()[2], singleton.getLease(result.getLeases()[2].getConfirmationNumber()));
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#viewRentalUnits()},
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#viewClients()} and the lease views.
+	 * @throws DuplicateRoomException if a rental unit already exists
+	 * @throws DuplicateClientException if a client already exists
+	 */
+	@Test
+	public void testViewRentalUnits() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("O", "4-20", 100);
+		singleton.addNewUnit("H", "6-17", 2);
+		singleton.createLease(0, 0, LocalDate.of(2022, 2, 3), 2, 8);
+		singleton.createLease(0, 1, LocalDate.of(2022, 3, 1), 1, 40);
+		singleton.removeFromService(2, LocalDate.of(2022, 1, 1));
+		
+		UnitView[] units = singleton.viewRentalUnits();
+		assertEquals(3, units.length);
+		assertEquals('O', units[1].getKind());
+		assertEquals(4, units[1].getFloor());
+		assertEquals(20, units[1].getRoom());
+		assertEquals(100, units[1].getCapacity());
+		assertFalse(units[2].isInService());
+		
+		singleton.filterRentalUnits("Office", false);
+		assertEquals(1, singleton.viewRentalUnits().length);
+		LeaseView[] leases = singleton.viewLeasesForRentalUnit(0);
+		assertEquals(1, leases.length);
+		assertEquals(40, leases[0].getOccupants());
+		assertEquals(LocalDate.of(2022, 3, 31), leases[0].getEnd());
+		assertEquals("waclem", leases[0].getClientId());
+		singleton.filterRentalUnits("", true);
+		assertEquals(2, singleton.viewRentalUnits().length);
+		try {
+			singleton.viewLeasesForRentalUnit(2);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, singleton.listRentalUnits().length);
+		}
+		
+		ClientView[] clients = singleton.viewClients();
+		assertEquals("Walker Clem", clients[0].getName());
+		assertEquals(2, clients[0].getLeaseCount());
+		leases = singleton.viewClientLeases(0);
+		assertEquals('C', leases[0].getUnitKind());
+		assertEquals(3, leases[0].getUnitFloor());
+		assertEquals(LocalDate.of(2022, 2, 3).toEpochDay(), leases[0].getStartDay());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#pageRentalUnits(PageCursor, int)}.
+	 * @throws DuplicateRoomException if a room is added twice
+	 * @throws DuplicateClientException if a client is added twice
+	 */
+	@Test
+	public void testPageRentalUnits() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("O", "4-20", 100);
+		singleton.addNewUnit("H", "6-17", 2);
+		
+		Page<String> page = singleton.pageRentalUnits(null, 2);
+		assertEquals(2, page.getItems().length);
+		assertTrue(page.getItems()[0].contains(" 3-14"));
+		assertTrue(page.hasNext());
+		singleton.addNewUnit("C", "1-10", 10);
+		singleton.addNewUnit("O", "5-10", 100);
+		page = singleton.pageRentalUnits(page.getNext(), 2);
+		assertEquals(2, page.getItems().length);
+		assertTrue(page.getItems()[0].contains(" 5-10"));
+		assertTrue(page.getItems()[1].contains(" 6-17"));
+		assertFalse(page.hasNext());
+		try {
+			singleton.pageRentalUnits(null, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(5, singleton.listRentalUnits().length);
+		}
+		
+		page = singleton.pageClients(null, 1);
+		assertEquals(1, page.getItems().length);
+		assertFalse(page.hasNext());
+		
+		for (int i = 1; i <= 5; i++) {
+			singleton.createLease(0, 0, LocalDate.of(2022, 1, i * 3), 1, 2);
+		}
+		page = singleton.pageClientLeases(0, null, 2);
+		assertEquals(2, page.getItems().length);
+		Lease second = singleton.getClientAt(0).getLeaseAt(1);
+		singleton.cancelClientsLease(0, 0);
+		page = singleton.pageClientLeases(0, page.getNext(), 2);
+		assertEquals(2, page.getItems().length);
+		assertTrue(page.getItems()[0].contains("2022-01-09"));
+		assertNotEquals(second.getConfirmationNumber(), singleton.getClientAt(0).getLeaseAt(1).getConfirmationNumber());
+		
+		page = singleton.pageLeasesForRentalUnit(0, null, 3);
+		assertEquals(3, page.getItems().length);
+		singleton.createLease(0, 0, LocalDate.of(2022, 1, 1), 1, 2);
+		page = singleton.pageLeasesForRentalUnit(0, page.getNext(), 3);
+		assertEquals(1, page.getItems().length);
+		assertFalse(page.hasNext());
+		
+		page = singleton.pageClientLeases(0, null, 2);
+		assertTrue(page.getItems()[0].contains("2022-01-06"));
+		assertTrue(page.getItems()[1].contains("2022-01-09"));
+		singleton.cancelClientsLease(0, 1);
+		singleton.cancelClientsLease(0, 0);
+		page = singleton.pageClientLeases(0, page.getNext(), 2);
+		assertEquals(2, page.getItems().length);
+		assertTrue(page.getItems()[0].contains("2022-01-12"));
+		assertTrue(page.getItems()[1].contains("2022-01-15"));
+		page = singleton.pageClientLeases(0, page.getNext(), 2);
+		assertEquals(1, page.getItems().length);
+		assertTrue(page.getItems()[0].contains("2022-01-01"));
+		assertFalse(page.hasNext());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#addRentalChangeListener(RentalChangeListener)}.
+	 * @throws DuplicateRoomException if a room is added twice
+	 * @throws DuplicateClientException if a client is added twice
+	 */
+	@Test
+	public void testRentalChangeListener() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		ArrayList<RentalChangeEvent> events = new ArrayList<RentalChangeEvent>();
+		RentalChangeListener listener = events::add;
+		singleton.addRentalChangeListener(listener);
+		try {
+			singleton.addNewClient("Walker Clem", "waclem");
+			singleton.addNewClient("Alex Raum", "araum");
+			singleton.addNewUnit("C", "3-14", 10);
+			singleton.addNewUnit("H", "6-17", 2);
+			assertEquals(4, events.size());
+			assertTrue(events.get(3).contains(Change.UNIT_ADDED));
+			assertArrayEquals(new int[] {1}, events.get(3).getUnitIndexes());
+			
+			for (int i = 1; i <= 5; i++) {
+				singleton.createLease(i % 2, 0, LocalDate.of(2022, 1, i * 3), 1, 2);
+			}
+			singleton.createLease(1, 0, LocalDate.of(2021, 12, 31), 2, 2);
+			events.clear();
+			singleton.removeFromService(0, LocalDate.of(2022, 1, 1));
+			assertEquals(1, events.size());
+			RentalChangeEvent event = events.get(0);
+			assertEquals(5, event.getCount(Change.LEASE_CANCELED));
+			assertEquals(1, event.getCount(Change.LEASE_TRUNCATED));
+			assertEquals(1, event.getCount(Change.UNIT_SERVICE_CHANGED));
+			assertFalse(event.contains(Change.LEASE_CREATED));
+			assertArrayEquals(new int[] {0}, event.getUnitIndexes());
+			assertArrayEquals(new int[] {0, 1}, event.getClientIndexes());
+			
+			events.clear();
+			singleton.closeRentalUnit(1);
+			assertEquals(1, events.size());
+			assertArrayEquals(new int[] {1}, events.get(0).getClosedUnitIndexes());
+			assertEquals(0, events.get(0).getUnitIndexes().length);
+		} finally {
+			singleton.removeRentalChangeListener(listener);
+		}
+		events.clear();
+		singleton.flushAllData();
+		assertTrue(events.isEmpty());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#snapshot()}.
+	 * @throws DuplicateRoomException if a room is added twice
+	 * @throws DuplicateClientException if a client is added twice
+	 */
+	@Test
+	public void testSnapshot() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewClient("Alex Raum", "araum");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("H", "6-17", 2);
+		singleton.createLease(0, 0, LocalDate.of(2022, 1, 3), 1, 2);
+		
+		singleton.filterRentalUnits("Hotel", false);
+		RentalSnapshot before = singleton.snapshot();
+		assertSame(before, singleton.snapshot());
+		assertEquals(2, before.getUnitCount());
+		assertEquals(1, before.getLeasesForUnit(0).size());
+		
+		Lease lease = singleton.createLease(1, 0, LocalDate.of(2022, 2, 6), 2, 1);
+		RentalSnapshot after = singleton.snapshot();
+		assertNotSame(before, after);
+		assertEquals(0, before.getLeasesForUnit(1).size());
+		assertEquals(0, before.getClient(1).getLeaseCount());
+		assertEquals(1, after.getLeasesForUnit(1).size());
+		assertEquals(1, after.getClient(1).getLeaseCount());
+		assertSame(before.getUnit(0), after.getUnit(0));
+		assertSame(before.getClient(0), after.getClient(0));
+		
+		singleton.shortenLease(lease.getConfirmationNumber(), LocalDate.of(2022, 2, 13));
+		assertEquals(LocalDate.of(2022, 2, 20), after.getLeasesForClient(1).get(0).getEnd());
+		assertEquals(LocalDate.of(2022, 2, 13), singleton.snapshot().getLeasesForClient(1).get(0).getEnd());
+		try {
+			after.getLeasesForUnit(1).clear();
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertEquals(1, after.getLeasesForUnit(1).size());
+		}
+
+		LeaseView shortened = singleton.snapshot().getLeasesForUnit(1).get(0);
+		Lease earlier = singleton.createLease(0, 0, LocalDate.of(2022, 1, 9), 1, 1);
+		List<LeaseView> leases = singleton.snapshot().getLeasesForUnit(1);
+		assertEquals(2, leases.size());
+		assertEquals(earlier.getConfirmationNumber(), leases.get(0).getConfirmationNumber());
+		assertSame(shortened, leases.get(1));
+		singleton.cancelLease(lease.getConfirmationNumber());
+		leases = singleton.snapshot().getLeasesForUnit(1);
+		assertEquals(1, leases.size());
+		assertEquals(earlier.getConfirmationNumber(), leases.get(0).getConfirmationNumber());
+		assertEquals(singleton.viewLeasesForRentalUnit(0)[0].getEnd(), leases.get(0).getEnd());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#snapshot()}
+	 * taken by another thread while units are added and leases are created.
+	 * 
+	 * @throws Exception if a unit or client cannot be added or the reader is interrupted
+	 */
+	@Test
+	public void testSnapshotWhileWriting() throws Exception {
+		PropertyManager manager = new PropertyManager();
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewClient("Alex Raum", "araum");
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<String> problem = new AtomicReference<String>();
+		Thread reader = new Thread(() -> {
+			while (!done.get() && problem.get() == null) {
+				RentalSnapshot snapshot = manager.snapshot();
+				int unitLeases = 0;
+				for (int i = 0; i < snapshot.getUnitCount(); i++) {
+					unitLeases += snapshot.getLeasesForUnit(i).size();
+					if (i > 0 && snapshot.getUnit(i - 1).getFloor() >= snapshot.getUnit(i).getFloor()) {
+						problem.set("units out of order");
+					}
+				}
+				int clientLeases = 0;
+				for (int i = 0; i < snapshot.getClientCount(); i++) {
+					clientLeases += snapshot.getLeasesForClient(i).size();
+				}
+				if (unitLeases != clientLeases) {
+					problem.set(unitLeases + " unit leases but " + clientLeases + " client leases");
+				}
+			}
+		});
+		reader.start();
+		for (int floor = 40; floor >= 1; floor--) {
+			manager.addNewUnit("H", floor + "-10", 2);
+			for (int week = 0; week < 20; week++) {
+				manager.createLease(week % 2, 0, LocalDate.of(2022, 1, 2).plusWeeks(week), 1, 2);
+			}
+		}
+		done.set(true);
+		reader.join();
+		assertNull(problem.get());
+		RentalSnapshot snapshot = manager.snapshot();
+		assertEquals(40, snapshot.getUnitCount());
+		assertEquals(1, snapshot.getUnit(0).getFloor());
+		assertEquals(400, snapshot.getLeasesForClient(1).size());
+		assertEquals(20, snapshot.getLeasesForUnit(39).size());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#fork()}.
+	 * @throws DuplicateRoomException if a room is added twice
+	 * @throws DuplicateClientException if a client is added twice
+	 */
+	@Test
+	public void testFork() throws DuplicateRoomException, DuplicateClientException {
+		PropertyManager singleton = PropertyManager.getInstance();
+		singleton.flushAllData();
+		singleton.filterRentalUnits("", false);
+		singleton.addNewClient("Walker Clem", "waclem");
+		singleton.addNewUnit("C", "3-14", 10);
+		singleton.addNewUnit("O", "4-20", 100);
+		Lease kept = singleton.createLease(0, 0, LocalDate.of(2022, 1, 3), 1, 2);
+		Lease dropped = singleton.createLease(0, 0, LocalDate.of(2022, 1, 10), 1, 2);
+		
+		PropertyFork fork = singleton.fork();
+		assertTrue(fork.diff().isEmpty());
+		assertArrayEquals(singleton.listRentalUnits(), fork.listRentalUnits());
+		assertArrayEquals(singleton.listClientLeases(0), fork.listClientLeases(0));
+		fork.addNewClient("Alex Raum", "araum");
+		fork.addNewUnit("H", "6-17", 2);
+		fork.cancelClientsLease(0, 1);
+		fork.extendLease(kept.getConfirmationNumber(), LocalDate.of(2022, 1, 8));
+		Lease created = fork.createLease(1, 1, LocalDate.of(2022, 3, 1), 1, 40);
+		fork.removeFromService(2, LocalDate.of(2022, 1, 1));
+		assertEquals(2, singleton.listRentalUnits().length);
+		assertEquals(2, singleton.listClientLeases(0).length);
+		assertTrue(Lease.isConfirmationNumberInUse(dropped.getConfirmationNumber()));
+		
+		PropertyDiff diff = fork.diff();
+		assertEquals(1, diff.getAddedClients().length);
+		assertEquals(1, diff.getAddedUnits().length);
+		assertFalse(diff.getAddedUnits()[0].isInService());
+		assertEquals(dropped.getConfirmationNumber(), diff.getCanceledLeases()[0].getConfirmationNumber());
+		assertEquals(LocalDate.of(2022, 1, 8), diff.getChangedLeases()[0].getEnd());
+		assertEquals(created.getConfirmationNumber(), diff.getCreatedLeases()[0].getConfirmationNumber());
+		
+		fork.commit();
+		assertTrue(fork.diff().isEmpty());
+		assertArrayEquals(fork.listRentalUnits(), singleton.listRentalUnits());
+		assertArrayEquals(fork.listClients(), singleton.listClients());
+		assertArrayEquals(fork.listClientLeases(0), singleton.listClientLeases(0));
+		assertArrayEquals(fork.listClientLeases(1), singleton.listClientLeases(1));
+		assertEquals(LocalDate.of(2022, 1, 8), singleton.getLease(kept.getConfirmationNumber()).getEnd());
+		
+		fork.closeRentalUnit(0);
+		singleton.cancelClientsLease(0, 0);
+		try {
+			fork.commit();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals(3, singleton.listRentalUnits().length);
+		}
+		fork.discard();
+		assertTrue(fork.diff().isEmpty());
+		assertEquals(3, fork.listRentalUnits().length);
+		
+		fork.closeRentalUnit(0);
+		ArrayList<RentalChangeEvent> events = new ArrayList<RentalChangeEvent>();
+		RentalChangeListener listener = events::add;
+		singleton.filterRentalUnits("O", false);
+		singleton.addRentalChangeListener(listener);
+		try {
+			fork.commit();
+		} finally {
+			singleton.removeRentalChangeListener(listener);
+			singleton.filterRentalUnits("", false);
+		}
+		assertEquals(1, events.size());
+		assertEquals(0, events.get(0).getClosedUnitIndexes().length);
+		assertEquals(2, singleton.snapshot().getUnitCount());
+		assertEquals(4, singleton.snapshot().getUnit(0).getFloor());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#createLease(java.lang.String, java.lang.String, java.time.LocalDate, int, int)}
+	 * and {@link edu.ncsu.csc216.business.model.stakeholders.PropertyManager#cancelLease(int)}.
+	 */
+	@Test
+	public void testLeaseById() {
+		PropertyManager manager = new PropertyManager();
+		try {
+			manager.addNewClient("Walker Clem", "waclem");
+			manager.addNewUnit("C", "05-10", 20);
+			manager.addNewUnit("C", "05-11", 20);
+		} catch (Exception e) {
+			fail();
+		}
+		manager.filterRentalUnits("Office", false);
+		Lease first = manager.createLease("waclem", "05-11", LocalDate.of(2022, 3, 2), 2, 10);
+		Lease second = manager.createLease("waclem", "5-10", LocalDate.of(2022, 3, 2), 2, 10);
+		assertEquals(11, first.getProperty().getRoom());
+		assertSame(manager.getClientById("waclem"), second.getClient());
+		try {
+			manager.createLease("nobody", "05-10", LocalDate.of(2022, 3, 5), 1, 10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, manager.getClientById("waclem").getLeaseCount());
+		}
+		
+		manager.cancelLease(first.getConfirmationNumber());
+		assertEquals(1, manager.getClientById("waclem").getLeaseCount());
+		assertSame(second, manager.getClientById("waclem").getLeaseAt(0));
+		try {
+			manager.cancelLease(first.getConfirmationNumber());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertSame(second, manager.getLease(second.getConfirmationNumber()));
+		}
+	}
 }
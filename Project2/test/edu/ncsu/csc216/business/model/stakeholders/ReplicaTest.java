@@ -0,0 +1,217 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.model.stakeholders;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The ReplicaTest class checks for the correct functionality of the
+ * methods in Replica and the ReplicationFeed it follows
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class ReplicaTest {
+
+	/** the first day leases are made on */
+	private static final LocalDate START = LocalDate.of(2022, 3, 1);
+	/** the longest time to wait for the replica, in milliseconds */
+	private static final long TIMEOUT = 10000;
+	/** the primary manager */
+	private PropertyManager primary;
+	/** the feed of the primary */
+	private ReplicationFeed feed;
+	/** the port of the feed */
+	private int port;
+	/** the replica following the primary */
+	private Replica replica;
+
+	/**
+	 * Sets up a primary with two clients and a few units and a replica
+	 * following it
+	 *
+	 * @throws Exception if the replica cannot connect
+	 */
+	@Before
+	public void setUp() throws Exception {
+		primary = new PropertyManager();
+		primary.addNewClient("Walker Clem", "waclem");
+		primary.addNewClient("Alex Raum", "araum");
+		for (int room = 10; room < 16; room++) {
+			primary.addNewUnit("C", "5-" + room, 20);
+		}
+		primary.addNewUnit("O", "7-10", 100);
+		primary.createLease("waclem", "05-10", START, 3, 10);
+		feed = new ReplicationFeed(primary);
+		port = feed.start(0);
+		replica = new Replica("localhost", port);
+	}
+
+	/**
+	 * Stops the replica and the feed
+	 */
+	@After
+	public void tearDown() {
+		replica.close();
+		feed.close();
+	}
+
+	/**
+	 * Waits for the replica to apply every change made so far and checks
+	 * that its listings are those of the primary
+	 *
+	 * @throws Exception if the wait is interrupted
+	 */
+	private void assertCaughtUp() throws Exception {
+		assertTrue(replica.awaitSequence(feed.getSequence(), TIMEOUT));
+		// the replica can apply a change before the feed's thread records it as shipped
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (feed.getShippedSequence() < feed.getSequence() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertArrayEquals(primary.listRentalUnits(), replica.listRentalUnits());
+		assertArrayEquals(primary.listClients(), replica.listClients());
+		for (int i = 0; i < primary.getClientCount(); i++) {
+			assertArrayEquals(primary.listClientLeases(i), replica.listClientLeases(i));
+		}
+		for (int i = 0; i < primary.listRentalUnits().length; i++) {
+			assertArrayEquals(primary.listLeasesForRentalUnit(i), replica.listLeasesForRentalUnit(i));
+		}
+	}
+
+	/**
+	 * Test method for following the primary's changes in
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.Replica}.
+	 *
+	 * @throws Exception if the data cannot be changed
+	 */
+	@Test
+	public void testFollow() throws Exception {
+		assertCaughtUp();
+		assertEquals(1, feed.getReplicaCount());
+		assertEquals(0, replica.getAppliedSequence());
+
+		int number = primary.createLease("araum", "05-11", START, 2, 5).getConfirmationNumber();
+		primary.createLease("araum", "07-10", START, 10, 50);
+		for (int day = 0; day < 200; day++) {
+			primary.createLease(day % 2 == 0 ? "waclem" : "araum", "05-" + (12 + day % 4), START.plusDays(day), 1, 5);
+		}
+		primary.extendLease(number, START.plusDays(4));
+		primary.cancelLease(primary.createLease("waclem", "05-11", START.plusDays(20), 1, 5).getConfirmationNumber());
+		primary.addNewClient("Sarah Heckman", "sesmith5");
+		primary.addNewUnit("H", "9-10", 2);
+		primary.removeFromService(5, START.plusDays(5));
+		primary.closeRentalUnit(2);
+		assertCaughtUp();
+		assertEquals(feed.getSequence(), feed.getShippedSequence());
+		assertEquals(feed.getSequence(), replica.getAppliedSequence());
+		assertTrue(replica.getLagNanos() >= 0);
+		assertTrue(replica.getMaxLagNanos() >= replica.getLagNanos());
+		assertEquals(START.plusDays(4), replica.snapshot().getLeasesForClient(1).get(0).getEnd());
+	}
+
+	/**
+	 * Test method for a replica joining late and for the primary's data
+	 * being flushed in {@link edu.ncsu.csc216.business.model.stakeholders.Replica}.
+	 *
+	 * @throws Exception if the data cannot be changed
+	 */
+	@Test
+	public void testReset() throws Exception {
+		assertCaughtUp();
+		primary.flushAllData();
+		primary.addNewClient("Sarah Heckman", "sesmith5");
+		primary.addNewUnit("C", "3-30", 10);
+		primary.createLease("sesmith5", "03-30", START, 1, 5);
+		assertCaughtUp();
+		assertEquals(1, replica.listClients().length);
+
+		primary.createLease("sesmith5", "03-30", START.plusDays(1), 1, 5);
+		try (Replica late = new Replica("localhost", port)) {
+			assertTrue(late.awaitSequence(feed.getSequence(), TIMEOUT));
+			assertArrayEquals(primary.listLeasesForRentalUnit(0), late.listLeasesForRentalUnit(0));
+			assertEquals(2, feed.getReplicaCount());
+		}
+		try {
+			feed.start(0);
+			fail();
+		} catch (IllegalStateException e) {
+			// the feed is already started
+		}
+	}
+
+	/**
+	 * Test method for the maintenance windows, the calendar and the
+	 * numbering following the primary in
+	 * {@link edu.ncsu.csc216.business.model.stakeholders.Replica}.
+	 *
+	 * @throws Exception if the data cannot be changed
+	 */
+	@Test
+	public void testMaintenance() throws Exception {
+		primary.scheduleMaintenance(1, START.plusDays(10), START.plusDays(20));
+		primary.scheduleMaintenance(2, START, START.plusDays(30));
+		primary.advanceCalendar(START.plusDays(1));
+		primary.removeFromService(3, START.plusDays(5));
+		primary.createLease("araum", "05-14", START, 1, 5);
+		assertCaughtUp();
+		try (Replica late = new Replica("localhost", port)) {
+			assertTrue(late.awaitSequence(feed.getSequence(), TIMEOUT));
+			assertArrayEquals(primary.listRentalUnits(), late.listRentalUnits());
+		}
+		feed.close();
+
+		PropertyManager promoted = replica.promote();
+		assertEquals(START.plusDays(1), promoted.getCalendarDay());
+		assertEquals(primary.peekConfirmationNumber(), promoted.peekConfirmationNumber());
+		assertEquals(1, promoted.getUnitAtLocation("05-11").getMaintenanceWindows().length);
+		try {
+			promoted.createLease("araum", "05-11", START.plusDays(14), 1, 5);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(1, promoted.getClientById("araum").getLeaseCount());
+		}
+		try {
+			promoted.createLease("araum", "05-13", START.plusDays(40), 1, 5);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertFalse(promoted.getUnitAtLocation("05-13").isBookable());
+		}
+		promoted.advanceCalendar(START.plusDays(31));
+		assertTrue(promoted.getUnitAtLocation("05-12").isInService());
+		assertEquals(primary.peekConfirmationNumber(), promoted.createLease("araum", "05-12", START.plusDays(31), 1, 5)
+				.getConfirmationNumber());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.stakeholders.Replica#promote()}.
+	 *
+	 * @throws Exception if the data cannot be changed
+	 */
+	@Test
+	public void testPromote() throws Exception {
+		int number = primary.createLease("araum", "05-11", START, 2, 5).getConfirmationNumber();
+		assertCaughtUp();
+		feed.close();
+		assertFalse(replica.awaitSequence(Long.MAX_VALUE, TIMEOUT));
+		assertFalse(replica.isFollowing());
+
+		PropertyManager promoted = replica.promote();
+		assertEquals("Alex Raum", promoted.getLease(number).getClient().getName());
+		int next = promoted.createLease("araum", "05-12", START, 1, 5).getConfirmationNumber();
+		assertNotEquals(number, next);
+		assertEquals(2, promoted.getClientById("araum").getLeaseCount());
+		try {
+			replica.listRentalUnits();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("The replica has been promoted", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.business.view.http;
+
+import static org.junit.Assert.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+
+/**
+ * The RentalHttpServerTest class checks for the correct functionality of 
+ * the HTTP API in RentalHttpServer and of the LoadTest client
+ * 
+ * @author Alex Raum, Walker Clem
+ */
+public class RentalHttpServerTest {
+
+	/** the server under test */
+	private RentalHttpServer server;
+	/** the manager the server serves */
+	private PropertyManager manager;
+	/** the address of the server */
+	private String base;
+	/** the client sending requests */
+	private HttpClient client;
+	
+	/**
+	 * Starts a server for an empty manager
+	 * 
+	 * @throws Exception if the server cannot be started
+	 */
+	@Before
+	public void setUp() throws Exception {
+		manager = new PropertyManager();
+		server = new RentalHttpServer(manager);
+		base = "http://localhost:" + server.start(0);
+		client = HttpClient.newHttpClient();
+	}
+	
+	/**
+	 * Stops the server
+	 */
+	@After
+	public void tearDown() {
+		server.stop();
+	}
+	
+	/**
+	 * Sends a request
+	 * 
+	 * @param method the method
+	 * @param path the path
+	 * @param body the JSON body, or null
+	 * @return the response
+	 * @throws Exception if the request cannot be sent
+	 */
+	private HttpResponse<String> send(String method, String path, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + path))
+				.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+	
+	/**
+	 * Test method for reserving and canceling through {@link edu.ncsu.csc216.business.view.http.RentalHttpServer}.
+	 * 
+	 * @throws Exception if a request cannot be sent
+	 */
+	@Test
+	public void testReservations() throws Exception {
+		assertEquals(201, send("POST", "/clients", "{\"name\": \"Walker Clem\", \"id\": \"waclem\"}").statusCode());
+		assertEquals(409, send("POST", "/clients", "{\"name\": \"Walker\", \"id\": \"waclem\"}").statusCode());
+		assertEquals(400, send("POST", "/clients", "{\"name\": \"Walker\"}").statusCode());
+		assertEquals(201, send("POST", "/units", "{\"kind\": \"C\", \"location\": \"05-10\", \"capacity\": 20}").statusCode());
+		assertEquals(201, send("POST", "/units", "{\"kind\": \"O\", \"location\": \"12-14\", \"capacity\": 100}").statusCode());
+		
+		assertEquals("[{\"id\":\"waclem\",\"name\":\"Walker Clem\",\"leases\":0}]", send("GET", "/clients", null).body());
+		assertEquals("[{\"location\":\"05-10\",\"kind\":\"Conference Room\",\"capacity\":20,\"inService\":true}]", 
+				send("GET", "/units?kind=c", null).body());
+		assertEquals(2, manager.listRentalUnits().length);
+		
+		HttpResponse<String> reserved = send("POST", "/leases", "{\"clientId\": \"waclem\", \"location\": \"5-10\", "
+				+ "\"start\": \"2022-03-02\", \"duration\": 2, \"occupants\": 15}");
+		assertEquals(201, reserved.statusCode());
+		Map<String, String> lease = Json.parseObject(reserved.body());
+		assertEquals("2022-03-03", lease.get("end"));
+		assertEquals("05-10", lease.get("unit"));
+		String number = lease.get("confirmationNumber");
+		assertEquals(200, send("GET", "/leases/" + number, null).statusCode());
+		assertTrue(send("GET", "/clients/waclem/leases", null).body().contains("\"confirmationNumber\":" + number));
+		assertTrue(send("GET", "/units/05-10/leases", null).body().contains("\"clientId\":\"waclem\""));
+		
+		assertEquals("[]", send("GET", "/availability?start=2022-03-02&duration=1&occupants=10&kind=C", null).body());
+		assertTrue(send("GET", "/availability?start=2022-03-01&duration=1&occupants=10", null).body().contains("\"05-10\""));
+		assertEquals(400, send("GET", "/availability?start=2022-03-01&duration=0&occupants=10", null).statusCode());
+		assertEquals(400, send("POST", "/leases", "{\"clientId\": \"waclem\", \"location\": \"05-10\", "
+				+ "\"start\": \"2022-03-03\", \"duration\": 1, \"occupants\": 10}").statusCode());
+		assertEquals(404, send("POST", "/leases", "{\"clientId\": \"nobody\", \"location\": \"05-10\", "
+				+ "\"start\": \"2022-03-03\", \"duration\": 1, \"occupants\": 10}").statusCode());
+		
+		assertEquals(204, send("DELETE", "/leases/" + number, null).statusCode());
+		assertEquals(404, send("GET", "/leases/" + number, null).statusCode());
+		assertEquals(404, send("DELETE", "/leases/" + number, null).statusCode());
+		assertEquals(0, manager.getClientById("waclem").getLeaseCount());
+		assertEquals(404, send("GET", "/units/44-44", null).statusCode());
+		assertEquals(405, send("PUT", "/clients", null).statusCode());
+	}
+	
+	/**
+	 * Test method for the heap census served by {@link edu.ncsu.csc216.business.view.http.RentalHttpServer}.
+	 * 
+	 * @throws Exception if a request cannot be sent
+	 */
+	@Test
+	public void testHeapCensus() throws Exception {
+		manager.addNewClient("Walker Clem", "waclem");
+		manager.addNewUnit("C", "05-10", 20);
+		manager.createLease(0, 0, LocalDate.of(2022, 3, 2), 2, 15);
+		HttpResponse<String> census = send("GET", "/diagnostics/heap", null);
+		assertEquals(200, census.statusCode());
+		assertTrue(census.body().contains("{\"label\":\"Lease\",\"objects\":1,"));
+		assertTrue(census.body().contains("\"largestUnits\":[{\"location\":\"05-10\",\"kind\":\"Conference Room\",\"leases\":1,"));
+		assertTrue(census.body().contains("\"largestClients\":[{\"id\":\"waclem\",\"leases\":1,"));
+		assertEquals(405, send("POST", "/diagnostics/heap", null).statusCode());
+		assertEquals(404, send("GET", "/diagnostics/threads", null).statusCode());
+	}
+	
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.view.http.LoadTest#run(int, int)}.
+	 * 
+	 * @throws Exception if the test cannot be run
+	 */
+	@Test
+	public void testLoadTest() throws Exception {
+		manager.addNewUnit("C", "05-10", 20);
+		LoadTest.Report report = new LoadTest(URI.create(base + "/units"), URI.create(base + "/nothing")).run(4, 10);
+		assertEquals(40, report.getRequests());
+		assertEquals(20, report.getErrors());
+		assertTrue(report.getThroughput() > 0);
+		assertTrue(report.getPercentile(0.5) <= report.getPercentile(0.99));
+		assertTrue(report.toString().startsWith("40 requests, 20 errors"));
+	}
+}
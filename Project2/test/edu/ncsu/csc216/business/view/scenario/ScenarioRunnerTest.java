@@ -0,0 +1,136 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.scenario;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.diagnostics.LatencyHistogram;
+import edu.ncsu.csc216.business.model.io.RentalDataGenerator;
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.view.scenario.ScenarioRunner.Operation;
+import edu.ncsu.csc216.business.view.scenario.ScenarioRunner.Report;
+
+/**
+ * The ScenarioRunnerTest class checks for the correct functionality of the
+ * methods in ScenarioRunner and the LatencyHistogram it reports with
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class ScenarioRunnerTest {
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.view.scenario.ScenarioRunner#run(int)}.
+	 *
+	 * @throws Exception if the run cannot be recorded
+	 */
+	@Test
+	public void testRun() throws Exception {
+		File data = File.createTempFile("scenario", ".md");
+		File recording = File.createTempFile("scenario", ".jfr");
+		try {
+			new RentalDataGenerator(3, 60, 20, 2000).write(data.getPath());
+			ScenarioRunner runner = ScenarioRunner.load(data.getPath());
+			runner.setSeed(5);
+			runner.setWarmup(100);
+			runner.setRecording(recording.getPath());
+			Report report = runner.run(1000);
+			assertEquals(1000, report.getOperations());
+			for (Operation operation : Operation.values()) {
+				LatencyHistogram histogram = report.getHistogram(operation);
+				assertTrue(histogram.getCount() > 0);
+				assertTrue(report.getRejected(operation) <= histogram.getCount());
+				assertTrue(histogram.getPercentile(0.5) <= histogram.getPercentile(0.99));
+				assertTrue(histogram.getPercentile(0.99) <= histogram.getMax());
+			}
+			assertTrue(report.getRejected(Operation.BOOK) > 0);
+			assertTrue(report.getAllocatedBytes() > 0);
+			assertTrue(report.getCollections() >= 0);
+			assertTrue(report.getLongestPauseNanos() <= report.getPauseNanos());
+			assertTrue(recording.length() > 0);
+			assertEquals(recording.getPath(), report.getRecording());
+			assertTrue(report.toString().contains("book"));
+		} finally {
+			data.delete();
+			recording.delete();
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.view.scenario.ScenarioRunner#setRate(double)}
+	 * and {@link edu.ncsu.csc216.business.view.scenario.ScenarioRunner#setMix(java.lang.String)}.
+	 *
+	 * @throws Exception if the run cannot be recorded
+	 */
+	@Test
+	public void testRateAndMix() throws Exception {
+		PropertyManager manager = new PropertyManager();
+		new RentalDataGenerator(3, 20, 5, 100).fill(manager);
+		ScenarioRunner runner = new ScenarioRunner(manager);
+		runner.setMix("book=1,list=1");
+		runner.setRate(500);
+		Report report = runner.run(100);
+		assertEquals(0, report.getHistogram(Operation.CANCEL).getCount());
+		assertEquals(0, report.getHistogram(Operation.SAVE).getCount());
+		assertTrue(report.getThroughput() <= 510);
+		assertNull(report.getRecording());
+
+		try {
+			runner.setMix("book=1,fly=2");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there is no such operation
+		}
+		try {
+			runner.setMix(0, 0, 0, 0, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there must be some operation
+		}
+		try {
+			runner.setRate(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// the rate cannot be negative
+		}
+		try {
+			new ScenarioRunner(new PropertyManager()).run(10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// there are no units to run against
+		}
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.model.diagnostics.LatencyHistogram}.
+	 */
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(0.5));
+		for (long nanos = 1; nanos <= 1000; nanos++) {
+			histogram.record(nanos * 1000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500.0, histogram.getMean(), 0.001);
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(1000000, histogram.getPercentile(1));
+		long median = histogram.getPercentile(0.5);
+		assertTrue(median >= 500000 && median < 500000 * 17 / 16);
+		long p99 = histogram.getPercentile(0.99);
+		assertTrue(p99 >= 990000 && p99 <= 1000000);
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getPercentile(1));
+		assertTrue(histogram.toString().contains("#"));
+		try {
+			histogram.record(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// a latency cannot be negative
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.business.view.wire;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc216.business.model.stakeholders.PropertyManager;
+import edu.ncsu.csc216.business.model.views.LeaseView;
+
+/**
+ * The WireServerTest class checks for the correct functionality of the
+ * binary protocol served by WireServer, the WireClient that speaks it and
+ * the WireBenchmark
+ *
+ * @author Alex Raum, Walker Clem
+ */
+public class WireServerTest {
+
+	/** the server under test */
+	private WireServer server;
+	/** the manager the server serves */
+	private PropertyManager manager;
+	/** the client sending requests */
+	private WireClient client;
+
+	/**
+	 * Starts a server for an empty manager and connects to it
+	 *
+	 * @throws Exception if the server cannot be started
+	 */
+	@Before
+	public void setUp() throws Exception {
+		manager = new PropertyManager();
+		server = new WireServer(manager);
+		client = new WireClient("localhost", server.start(0));
+	}
+
+	/**
+	 * Disconnects and stops the server
+	 *
+	 * @throws Exception if the connection cannot be closed
+	 */
+	@After
+	public void tearDown() throws Exception {
+		client.close();
+		server.close();
+	}
+
+	/**
+	 * Test method for the single requests of {@link edu.ncsu.csc216.business.view.wire.WireClient}.
+	 *
+	 * @throws Exception if a request cannot be sent
+	 */
+	@Test
+	public void testRequests() throws Exception {
+		client.ping();
+		assertEquals("waclem", client.addNewClient("Walker Clem", "waclem").getId());
+		assertEquals(20, client.addNewUnit("C", "05-10", 20).getCapacity());
+		try {
+			client.addNewUnit("C", "5-10", 20);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// the room is already there
+		}
+		LeaseView lease = client.createLease("waclem", "05-10", LocalDate.of(2022, 3, 2), 2, 15);
+		assertEquals(LocalDate.of(2022, 3, 3), lease.getEnd());
+		assertEquals(10, lease.getUnitRoom());
+		assertEquals("Walker Clem", lease.getClientName());
+		int number = lease.getConfirmationNumber();
+		assertEquals(LocalDate.of(2022, 3, 5), client.extendLease(number, LocalDate.of(2022, 3, 5)).getEnd());
+		assertEquals(LocalDate.of(2022, 3, 4), client.shortenLease(number, LocalDate.of(2022, 3, 4)).getEnd());
+		assertEquals(15, client.getLease(number).getOccupants());
+		client.cancelLease(number);
+		try {
+			client.getLease(number);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("No such lease", e.getMessage());
+		}
+		assertEquals(0, manager.getClientById("waclem").getLeaseCount());
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.view.wire.WireClient.Batch#execute()}.
+	 *
+	 * @throws Exception if a request cannot be sent
+	 */
+	@Test
+	public void testPipelinedBatch() throws Exception {
+		WireClient.Batch batch = client.batch().addNewClient("Walker Clem", "waclem").addNewClient("Alex", "waclem");
+		for (int room = 10; room < 60; room++) {
+			batch.addNewUnit("C", "05-" + room, 20);
+		}
+		for (int i = 0; i < 6000; i++) {
+			batch.createLease("waclem", "05-" + (10 + i % 50), LocalDate.of(2020, 1, 1).plusDays(i / 50), 1, 5);
+		}
+		batch.createLease("waclem", "05-10", LocalDate.of(2020, 1, 1), 1, 5).createLease("nobody", "05-10",
+				LocalDate.of(2024, 1, 1), 1, 5).createLease("waclem", "44-44", LocalDate.of(2024, 1, 1), 1, 5).ping();
+		assertEquals(6056, batch.size());
+		WireClient.Reply[] replies = batch.execute();
+		assertEquals(0, batch.size());
+		assertEquals(6056, replies.length);
+		assertTrue(replies[0].isOk());
+		assertEquals(WireServer.Status.CONFLICT, replies[1].getStatus());
+		for (int i = 0; i < 6000; i++) {
+			LeaseView lease = replies[i + 52].getLease();
+			assertEquals(10 + i % 50, lease.getUnitRoom());
+			assertEquals(LocalDate.of(2020, 1, 1).plusDays(i / 50), lease.getStart());
+		}
+		assertEquals(WireServer.Status.BAD_REQUEST, replies[6052].getStatus());
+		assertEquals(WireServer.Status.NOT_FOUND, replies[6053].getStatus());
+		assertEquals("No such client", replies[6053].getMessage());
+		assertEquals(WireServer.Status.NOT_FOUND, replies[6054].getStatus());
+		assertTrue(replies[6055].isOk());
+		assertEquals(6000, manager.getClientById("waclem").getLeaseCount());
+		assertEquals(0, client.batch().execute().length);
+	}
+
+	/**
+	 * Test method for {@link edu.ncsu.csc216.business.view.wire.WireBenchmark#run(int, boolean)}.
+	 *
+	 * @throws Exception if the benchmark cannot be run
+	 */
+	@Test
+	public void testBenchmark() throws Exception {
+		assertTrue(WireBenchmark.run(5000, true) > 0);
+		assertTrue(WireBenchmark.run(100, false) > 0);
+		try {
+			WireBenchmark.run(0, true);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// nothing to create
+		}
+	}
+}